@@ -49,5 +49,5 @@ fi
 touch scheduler-jobs.yml
 
 echo -e "${GREEN}✅ 설정 파일이 업데이트되었습니다.${NC}"
-echo -e "${BLUE}📋 서버가 1분 이내에 새로운 설정을 로드합니다.${NC}"
+echo -e "${BLUE}📋 서버가 파일 변경을 감지해 즉시 새로운 설정을 로드합니다. (감시가 불가능한 환경에서는 1분 이내)${NC}"
 echo -e "${YELLOW}💡 서버 로그를 확인하세요: tail -f logs/server.log${NC}"
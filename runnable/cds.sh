@@ -0,0 +1,46 @@
+#!/bin/bash
+
+# CDS(Class Data Sharing) 아카이브 생성 스크립트
+# JAR 를 풀어 놓고 컨텍스트 초기화까지만 한 번 실행(training run)해 로드된 클래스를 아카이브로 남긴다.
+# 이후 start.sh 가 extracted/application.jsa 를 발견하면 자동으로 사용한다.
+
+# 색상 정의
+RED='\033[0;31m'
+GREEN='\033[0;32m'
+YELLOW='\033[1;33m'
+NC='\033[0m' # No Color
+
+# 스크립트가 있는 디렉토리로 이동
+cd "$(dirname "$0")"
+
+JAR="spring_scheduler-0.0.1-SNAPSHOT.jar"
+if [ ! -f "$JAR" ]; then
+    echo -e "${RED}❌ JAR 파일을 찾을 수 없습니다.${NC}"
+    exit 1
+fi
+
+echo -e "${YELLOW}📦 JAR 를 extracted/ 에 풉니다...${NC}"
+rm -rf extracted
+if ! java -Djarmode=tools -jar "$JAR" extract --destination extracted; then
+    echo -e "${RED}❌ JAR 추출 실패!${NC}"
+    exit 1
+fi
+
+# 컨텍스트 refresh 직후 종료하므로 잡은 실행되지 않는다 (웹 서버도 뜨지 않음)
+# 체크포인트 복구는 state/ 를 잠그고 정리하므로, 실행 중인 인스턴스와 겹치지 않게 임시 디렉토리를 쓴다
+mkdir -p logs
+TRAINING_DIR=$(mktemp -d)
+trap 'rm -rf "$TRAINING_DIR"' EXIT
+echo -e "${YELLOW}🏃 training run 으로 CDS 아카이브를 만듭니다...${NC}"
+if java -XX:ArchiveClassesAtExit=extracted/application.jsa -Dspring.context.exit=onRefresh \
+        -jar "extracted/$JAR" \
+        --scheduler.checkpoint.dir="$TRAINING_DIR/state" \
+        --scheduler.jobs.snapshot="$TRAINING_DIR/schedule-snapshot.smile" > logs/cds-training.log 2>&1 \
+        && [ -f "extracted/application.jsa" ]; then
+    echo -e "${GREEN}✅ CDS 아카이브 생성 완료: extracted/application.jsa${NC}"
+    echo -e "${GREEN}💡 ./start.sh 가 자동으로 사용합니다.${NC}"
+else
+    echo -e "${RED}❌ CDS 아카이브 생성 실패! 로그: logs/cds-training.log${NC}"
+    rm -rf extracted
+    exit 1
+fi
@@ -48,8 +48,14 @@ if [ ! -d "logs" ]; then
     echo -e "${GREEN}📁 logs 디렉토리를 생성했습니다.${NC}"
 fi
 
-# 5. 스크립트 실행 권한 부여
-chmod +x start.sh stop.sh status.sh
+# 5. 이전 JAR 로 만든 CDS 아카이브는 더 이상 맞지 않으므로 삭제 (./cds.sh 로 다시 생성)
+if [ -d "extracted" ]; then
+    rm -rf extracted
+    echo -e "${YELLOW}🧹 이전 CDS 아카이브를 삭제했습니다. 필요하면 ./cds.sh 를 실행하세요.${NC}"
+fi
+
+# 6. 스크립트 실행 권한 부여
+chmod +x start.sh stop.sh status.sh cds.sh
 echo -e "${GREEN}🔐 스크립트 실행 권한을 부여했습니다.${NC}"
 
 echo -e "${GREEN}🎉 배포 완료!${NC}"
@@ -57,5 +63,6 @@ echo -e "${BLUE}📋 사용 가능한 명령어:${NC}"
 echo -e "  ${GREEN}./start.sh${NC}  - 서버 시작"
 echo -e "  ${GREEN}./stop.sh${NC}   - 서버 종료"
 echo -e "  ${GREEN}./status.sh${NC} - 서버 상태 확인"
+echo -e "  ${GREEN}./cds.sh${NC}    - 빠른 기동용 CDS 아카이브 생성 (선택)"
 echo ""
 echo -e "${YELLOW}💡 이제 ./start.sh로 서버를 시작할 수 있습니다!${NC}"
@@ -28,9 +28,18 @@ if [ ! -z "$PID" ]; then
     sleep 3
 fi
 
+# CDS 아카이브가 있으면 사용 (./cds.sh 로 생성, 클래스 로딩/검증 시간 단축)
+JAR="spring_scheduler-0.0.1-SNAPSHOT.jar"
+JAVA_OPTS="${JAVA_OPTS:-}"
+if [ -f "extracted/application.jsa" ] && [ -f "extracted/$JAR" ] && [ ! "$JAR" -nt "extracted/application.jsa" ]; then
+    echo -e "${GREEN}⚡ CDS 아카이브를 사용합니다.${NC}"
+    JAVA_OPTS="$JAVA_OPTS -XX:SharedArchiveFile=extracted/application.jsa -Xlog:cds=off -Xlog:cds+dynamic=off"
+    JAR="extracted/$JAR"
+fi
+
 # 서버 시작
 echo -e "${GREEN}📡 서버를 시작합니다...${NC}"
-nohup java -jar spring_scheduler-0.0.1-SNAPSHOT.jar --server.port=28732 > logs/server.log 2>&1 &
+nohup java $JAVA_OPTS -jar "$JAR" --server.port=28732 > logs/server.log 2>&1 &
 
 # PID 저장
 echo $! > server.pid
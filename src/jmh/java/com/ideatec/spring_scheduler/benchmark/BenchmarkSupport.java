@@ -0,0 +1,122 @@
+package com.ideatec.spring_scheduler.benchmark;
+
+import com.ideatec.spring_scheduler.SpringSchedulerApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * 벤치마크 공통 준비 작업: 임시 디렉토리, 잡 카탈로그 생성, 애플리케이션 컨텍스트 기동.
+ * <p>
+ * 생성하는 잡은 2099년에만 실행되는 cron 을 쓰므로 측정 중에 Quartz 가 실제로 firing 하지 않는다.
+ */
+public final class BenchmarkSupport {
+    public static final String NEVER_CRON = "0 0 0 1 1 ? 2099";
+    public static final String CHURN_FILE = "zz-churn.yml";
+
+    private BenchmarkSupport() {
+    }
+
+    public static Path tempDir(String prefix) {
+        try {
+            return Files.createTempDirectory(prefix);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * {@code dir} 아래에 잡 {@code jobs} 개를 {@code jobsPerFile} 개씩 나눈 YAML 파일과, 매 호출마다 바꿀
+     * 잡 하나짜리 {@link #CHURN_FILE} 을 만든다.
+     */
+    public static void writeCatalog(Path dir, int jobs, int jobsPerFile, String url) {
+        try {
+            Files.createDirectories(dir);
+            for (int start = 0; start < jobs; start += jobsPerFile) {
+                StringBuilder yaml = new StringBuilder("jobs:\n");
+                for (int i = start; i < Math.min(jobs, start + jobsPerFile); i++) {
+                    appendJob(yaml, "bench-" + i, url);
+                }
+                Files.writeString(dir.resolve(String.format("jobs-%06d.yml", start)), yaml);
+            }
+            touchChurn(dir, url, 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 변경 감지용 잡 하나의 설정을 바꾼다. 같은 밀리초 안의 재작성도 감지되도록 mtime 을 직접 올린다.
+     */
+    public static void touchChurn(Path dir, String url, long revision) {
+        try {
+            Path file = dir.resolve(CHURN_FILE);
+            StringBuilder yaml = new StringBuilder("jobs:\n");
+            appendJob(yaml, "bench-churn", url + (url.contains("?") ? "&" : "?") + "rev=" + revision);
+            Files.writeString(file, yaml);
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + revision));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 웹 서버 없이 애플리케이션 컨텍스트를 띄운다. 잡 설정은 {@code configDir} 에서 읽고,
+     * 파일 감시로 인한 재반영과 요청별 INFO 로그는 측정에서 제외한다.
+     */
+    public static ConfigurableApplicationContext startContext(Path configDir, Map<String, Object> properties) {
+        Map<String, Object> defaults = new HashMap<>();
+        defaults.put("scheduler.jobs.file", configDir.resolve("scheduler-jobs.yml").toString());
+        defaults.put("scheduler.jobs.dir", configDir.toString());
+        defaults.put("scheduler.jobs.reload-debounce-ms", "3600000");
+        defaults.put("scheduler.checkpoint.dir", configDir.resolve(".state").toString());
+        defaults.put("spring.main.banner-mode", "off");
+        defaults.put("logging.level.root", "WARN");
+        defaults.putAll(properties);
+        return new SpringApplicationBuilder(SpringSchedulerApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(defaults)
+                .run();
+    }
+
+    public static void deleteRecursively(Path dir) {
+        if (dir == null || !Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void appendJob(StringBuilder yaml, String id, String url) {
+        yaml.append("  - id: ").append(id).append('\n')
+                .append("    cron: \"").append(NEVER_CRON).append("\"\n")
+                .append("    parallelism: 1\n")
+                .append("    overlap: allow\n")
+                .append("    request:\n")
+                .append("      url: \"").append(url).append("\"\n")
+                .append("      method: GET\n")
+                .append("      timeoutMs: 5000\n")
+                .append("      retry:\n")
+                .append("        max: 0\n")
+                .append("        backoffMs: 100\n");
+    }
+}
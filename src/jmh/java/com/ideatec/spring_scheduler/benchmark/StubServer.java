@@ -0,0 +1,60 @@
+package com.ideatec.spring_scheduler.benchmark;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 벤치마크용 in-process Reactor Netty 스텁 서버.
+ * <p>
+ * {@code GET /items} 에 고정된 JSON 본문을 돌려주고, {@code If-None-Match} 가 현재 ETag 와 같으면 304 로 응답한다.
+ * 네트워크/업스트림 변동 없이 클라이언트 쪽 경로만 측정하기 위해 루프백에서 동작한다.
+ */
+public final class StubServer implements AutoCloseable {
+    private static final String ETAG = "\"bench-v1\"";
+
+    private final byte[] body;
+    private final DisposableServer server;
+
+    public StubServer(int bodyBytes) {
+        this.body = jsonBody(bodyBytes);
+        this.server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(routes -> routes.get("/items", (request, response) -> {
+                    if (ETAG.equals(request.requestHeaders().get(HttpHeaderNames.IF_NONE_MATCH))) {
+                        return response.status(HttpResponseStatus.NOT_MODIFIED).header(HttpHeaderNames.ETAG, ETAG).send();
+                    }
+                    return response.header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                            .header(HttpHeaderNames.ETAG, ETAG)
+                            .sendByteArray(Mono.just(body));
+                }))
+                .bindNow();
+    }
+
+    public String url(String path) {
+        return "http://127.0.0.1:" + server.port() + path;
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+
+    private static byte[] jsonBody(int bytes) {
+        StringBuilder json = new StringBuilder(bytes + 32).append("{\"items\":[");
+        int i = 0;
+        while (json.length() < bytes) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(i).append(",\"name\":\"item-").append(i).append("\"}");
+            i++;
+        }
+        return json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,102 @@
+package com.ideatec.spring_scheduler.checkpoint;
+
+import com.ideatec.spring_scheduler.benchmark.BenchmarkSupport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 체크포인트 저장/조회 비용을 잡 수와 잡별 상태 크기에 따라 측정한다.
+ * <p>
+ * {@code save} 는 인덱스 갱신 + 로그 append(비동기 커밋), {@code saveAndFlush} 는 fsync 까지 기다리는 경우다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CheckpointStoreBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    int jobs;
+
+    @Param({"4", "64"})
+    int stateEntries;
+
+    private Path dir;
+    private CheckpointStore store;
+    private String[] jobIds;
+    private Map<String, Object> state;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dir = BenchmarkSupport.tempDir("checkpoint-bench");
+        store = new CheckpointStore(dir);
+        state = new HashMap<>();
+        for (int i = 0; i < stateEntries; i++) {
+            state.put("key-" + i, "value-" + i);
+        }
+        jobIds = new String[jobs];
+        for (int i = 0; i < jobs; i++) {
+            jobIds[i] = "bench-" + i;
+            store.save(jobIds[i], state);
+        }
+        store.flush().join();
+    }
+
+    /**
+     * 측정 반복 사이에 쌓인 로그를 모두 커밋해 다음 반복이 이전 백로그의 영향을 받지 않게 한다.
+     */
+    @TearDown(Level.Iteration)
+    public void drain() {
+        store.flush().join();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        store.close();
+        BenchmarkSupport.deleteRecursively(dir);
+    }
+
+    @Benchmark
+    public void save() {
+        store.save(randomJobId(), state);
+    }
+
+    @Benchmark
+    public void saveAndFlush() {
+        store.save(randomJobId(), state);
+        store.flush().join();
+    }
+
+    @Benchmark
+    public void saveOffset() {
+        store.saveOffset(randomJobId(), "42|0");
+    }
+
+    @Benchmark
+    public Map<String, Object> load() {
+        return store.load(randomJobId());
+    }
+
+    private String randomJobId() {
+        return jobIds[ThreadLocalRandom.current().nextInt(jobIds.length)];
+    }
+}
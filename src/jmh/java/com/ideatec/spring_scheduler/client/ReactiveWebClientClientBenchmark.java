@@ -0,0 +1,95 @@
+package com.ideatec.spring_scheduler.client;
+
+import com.ideatec.spring_scheduler.benchmark.BenchmarkSupport;
+import com.ideatec.spring_scheduler.benchmark.StubServer;
+import com.ideatec.spring_scheduler.config.JobConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import reactor.core.publisher.Flux;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * in-process 스텁 서버를 상대로 {@link ReactiveWebClientClient#executeRequest} 처리량을 측정한다.
+ * <p>
+ * 호출 한 번에 요청 {@value #BATCH} 건을 {@code concurrency} 개씩 동시에 보내며, 결과는 요청 단위 처리량이다.
+ * {@code cache=true} 면 두 번째 요청부터 조건부 요청(304) 경로를 탄다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class ReactiveWebClientClientBenchmark {
+    private static final int BATCH = 256;
+
+    @Param({"1", "16", "128"})
+    int concurrency;
+
+    @Param({"false", "true"})
+    boolean cache;
+
+    @Param({"1024", "65536"})
+    int bodyBytes;
+
+    private Path dir;
+    private StubServer stub;
+    private ConfigurableApplicationContext context;
+    private ReactiveWebClientClient client;
+    private RequestPlan plan;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dir = BenchmarkSupport.tempDir("client-bench");
+        stub = new StubServer(bodyBytes);
+        context = BenchmarkSupport.startContext(dir, Map.of());
+        client = context.getBean(ReactiveWebClientClient.class);
+
+        JobConfig.Job.Request.Retry retry = new JobConfig.Job.Request.Retry();
+        retry.setMax(0);
+        retry.setBackoffMs(100);
+        JobConfig.Job.Request request = new JobConfig.Job.Request();
+        request.setUrl(stub.url("/items"));
+        request.setMethod("GET");
+        request.setTimeoutMs(5000);
+        request.setCache(cache);
+        request.setRetry(retry);
+        JobConfig.Job job = new JobConfig.Job();
+        job.setId("bench-client");
+        job.setParallelism(1);
+        job.setRequest(request);
+        plan = client.plan(job);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        stub.close();
+        BenchmarkSupport.deleteRecursively(dir);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void executeRequest() {
+        Flux.range(0, BATCH)
+                .flatMap(i -> client.executeRequest(plan, 0), concurrency)
+                .then()
+                .block();
+    }
+}
@@ -0,0 +1,77 @@
+package com.ideatec.spring_scheduler.config;
+
+import com.ideatec.spring_scheduler.benchmark.BenchmarkSupport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 대형 카탈로그에서 설정 로드 비용을 측정한다.
+ * <ul>
+ *   <li>{@code cold}: 모든 파일을 파싱하고 해시를 계산 (기동 시)</li>
+ *   <li>{@code unchanged}: 파일 mtime/크기만 확인 (매분 스캔)</li>
+ *   <li>{@code oneFileChanged}: 잡 하나가 든 파일만 다시 파싱하고 전체를 병합</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JobConfigLoaderBenchmark {
+    private static final String URL = "http://127.0.0.1:1/items";
+
+    @Param({"1000", "10000", "50000"})
+    int jobs;
+
+    private Path dir;
+    private JobConfigLoader warmLoader;
+    private long revision;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dir = BenchmarkSupport.tempDir("config-bench");
+        BenchmarkSupport.writeCatalog(dir, jobs, 500, URL);
+        warmLoader = newLoader();
+        warmLoader.load();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkSupport.deleteRecursively(dir);
+    }
+
+    @Benchmark
+    public JobConfig cold() {
+        return newLoader().load();
+    }
+
+    @Benchmark
+    public JobConfig unchanged() {
+        return warmLoader.load();
+    }
+
+    @Benchmark
+    public JobConfig oneFileChanged() {
+        BenchmarkSupport.touchChurn(dir, URL, ++revision);
+        return warmLoader.load();
+    }
+
+    private JobConfigLoader newLoader() {
+        return new JobConfigLoader(dir.resolve("scheduler-jobs.yml").toString(), dir.toString());
+    }
+}
@@ -0,0 +1,70 @@
+package com.ideatec.spring_scheduler.scheduler;
+
+import com.ideatec.spring_scheduler.benchmark.BenchmarkSupport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 잡 1k~50k 개에서 {@link QuartzDynamicScheduler#schedule()} 의 설정 diff 비용을 측정한다.
+ * <p>
+ * 최초 등록은 setup 에서 끝내고, 변경이 없을 때(매분 스캔)와 잡 하나가 바뀌었을 때를 나눠 잰다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class QuartzDynamicSchedulerBenchmark {
+    private static final String URL = "http://127.0.0.1:1/items";
+
+    @Param({"1000", "10000", "50000"})
+    int jobs;
+
+    private Path dir;
+    private ConfigurableApplicationContext context;
+    private QuartzDynamicScheduler scheduler;
+    private long revision;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dir = BenchmarkSupport.tempDir("scheduler-bench");
+        BenchmarkSupport.writeCatalog(dir, jobs, 500, URL);
+        context = BenchmarkSupport.startContext(dir, Map.of());
+        scheduler = context.getBean(QuartzDynamicScheduler.class);
+        scheduler.schedule();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        BenchmarkSupport.deleteRecursively(dir);
+    }
+
+    @Benchmark
+    public void unchanged() {
+        scheduler.schedule();
+    }
+
+    @Benchmark
+    public void oneJobChanged() {
+        BenchmarkSupport.touchChurn(dir, URL, ++revision);
+        scheduler.schedule();
+    }
+}
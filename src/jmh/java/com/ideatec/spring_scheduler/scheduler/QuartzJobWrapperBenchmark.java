@@ -0,0 +1,112 @@
+package com.ideatec.spring_scheduler.scheduler;
+
+import com.ideatec.spring_scheduler.actuator.JobMetrics;
+import com.ideatec.spring_scheduler.benchmark.BenchmarkSupport;
+import com.ideatec.spring_scheduler.benchmark.StubServer;
+import com.ideatec.spring_scheduler.checkpoint.CheckpointStore;
+import com.ideatec.spring_scheduler.config.JobConfig;
+import com.ideatec.spring_scheduler.config.JobConfigLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.quartz.JobDetail;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.TriggerBuilder;
+import org.quartz.impl.JobExecutionContextImpl;
+import org.quartz.spi.OperableTrigger;
+import org.quartz.spi.TriggerFiredBundle;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link QuartzJobWrapper#execute} 의 디스패치 오버헤드를 측정한다.
+ * <p>
+ * 같은 스텁 요청을 미리 만든 실행 계획으로 {@link ParallelJobExecutor} 에서 직접 실행한 {@code directExecute} 를
+ * 기준선으로 두고, 둘의 차이가 계획 조회, 메트릭, 체크포인트 저장 등 래퍼가 더하는 비용이다.
+ * {@code compileAndExecute} 는 firing 마다 설정 객체에서 실행 계획을 새로 만드는 경로다.
+ * 래퍼가 쓰는 체크포인트 저장소는 임시 디렉토리에 따로 만든다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QuartzJobWrapperBenchmark {
+    private static final String JOB_ID = "bench-0";
+
+    private Path dir;
+    private StubServer stub;
+    private ConfigurableApplicationContext context;
+    private CheckpointStore checkpointStore;
+    private Scheduler scheduler;
+    private ParallelJobExecutor jobExecutor;
+    private JobConfig.Job job;
+    private ExecutionPlan plan;
+    private JobDetail jobDetail;
+    private OperableTrigger trigger;
+    private QuartzJobWrapper wrapper;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dir = BenchmarkSupport.tempDir("wrapper-bench");
+        stub = new StubServer(1024);
+        BenchmarkSupport.writeCatalog(dir.resolve("jobs"), 1, 500, stub.url("/items"));
+        context = BenchmarkSupport.startContext(dir.resolve("jobs"), Map.of());
+        context.getBean(QuartzDynamicScheduler.class).schedule();
+
+        jobExecutor = context.getBean(ParallelJobExecutor.class);
+        job = context.getBean(JobConfigLoader.class).getJob(JOB_ID);
+        ExecutionPlanRegistry planRegistry = context.getBean(ExecutionPlanRegistry.class);
+        plan = planRegistry.get(JOB_ID);
+        scheduler = context.getBean(Scheduler.class);
+        jobDetail = scheduler.getJobDetail(JobKey.jobKey(JOB_ID));
+        checkpointStore = new CheckpointStore(dir.resolve("state"));
+        wrapper = new QuartzJobWrapper(jobExecutor, checkpointStore, context.getBean(JobMetrics.class), planRegistry);
+
+        trigger = (OperableTrigger) TriggerBuilder.newTrigger()
+                .withIdentity(JOB_ID + "-trigger")
+                .forJob(jobDetail)
+                .startNow()
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        checkpointStore.close();
+        context.close();
+        stub.close();
+        BenchmarkSupport.deleteRecursively(dir);
+    }
+
+    @Benchmark
+    public void wrapperExecute() throws Exception {
+        Date now = new Date();
+        TriggerFiredBundle bundle = new TriggerFiredBundle(jobDetail, trigger, null, false, now, now, null, null);
+        wrapper.execute(new JobExecutionContextImpl(scheduler, bundle, wrapper));
+    }
+
+    @Benchmark
+    public ExecutionReport directExecute() {
+        return jobExecutor.execute(plan).block();
+    }
+
+    @Benchmark
+    public ExecutionReport compileAndExecute() {
+        return jobExecutor.execute(job).block();
+    }
+}
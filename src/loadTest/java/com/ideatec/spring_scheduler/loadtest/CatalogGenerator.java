@@ -0,0 +1,94 @@
+package com.ideatec.spring_scheduler.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 합성 {@code scheduler-jobs.yml} 카탈로그 생성기.
+ * <p>
+ * 잡마다 {@code intervalSeconds} 주기로 실행되는 cron 을 만들되 시작 초(분)를 고르게 흩어 같은 시각에
+ * 몰리지 않게 한다. 병렬도는 {@code 1:70,4:20,16:10} 형식의 가중치로 섞는다(고정 시드라 재현 가능).
+ */
+final class CatalogGenerator {
+    private static final int JOBS_PER_FILE = 500;
+
+    private final int jobs;
+    private final int intervalSeconds;
+    private final List<int[]> parallelismMix;
+    private final int totalWeight;
+
+    CatalogGenerator(int jobs, int intervalSeconds, String parallelismMix) {
+        if (!(intervalSeconds < 60 && 60 % intervalSeconds == 0)
+                && !(intervalSeconds % 60 == 0 && 3600 % intervalSeconds == 0)) {
+            throw new IllegalArgumentException("interval-seconds 는 60 의 약수이거나 3600 의 약수인 분 단위여야 합니다: "
+                    + intervalSeconds);
+        }
+        this.jobs = jobs;
+        this.intervalSeconds = intervalSeconds;
+        this.parallelismMix = parseMix(parallelismMix);
+        this.totalWeight = this.parallelismMix.stream().mapToInt(entry -> entry[1]).sum();
+    }
+
+    /**
+     * @return 초당 평균 firing 수
+     */
+    double firingsPerSecond() {
+        return (double) jobs / intervalSeconds;
+    }
+
+    void write(Path dir, String baseUrl) throws IOException {
+        Files.createDirectories(dir);
+        Random random = new Random(42);
+        for (int start = 0; start < jobs; start += JOBS_PER_FILE) {
+            StringBuilder yaml = new StringBuilder("jobs:\n");
+            for (int i = start; i < Math.min(jobs, start + JOBS_PER_FILE); i++) {
+                yaml.append("  - id: load-").append(i).append('\n')
+                        .append("    cron: \"").append(cron(i)).append("\"\n")
+                        .append("    parallelism: ").append(parallelism(random)).append('\n')
+                        .append("    request:\n")
+                        .append("      url: \"").append(baseUrl).append("/jobs/").append(i).append("\"\n")
+                        .append("      method: GET\n")
+                        .append("      timeoutMs: 10000\n")
+                        .append("      retry:\n")
+                        .append("        max: 1\n")
+                        .append("        backoffMs: 200\n");
+            }
+            Files.writeString(dir.resolve(String.format("load-%06d.yml", start)), yaml);
+        }
+    }
+
+    private String cron(int index) {
+        if (intervalSeconds < 60) {
+            return (index % intervalSeconds) + "/" + intervalSeconds + " * * * * ?";
+        }
+        int minutes = intervalSeconds / 60;
+        return (index % 60) + " " + ((index / 60) % minutes) + "/" + minutes + " * * * ?";
+    }
+
+    private int parallelism(Random random) {
+        int pick = random.nextInt(totalWeight);
+        for (int[] entry : parallelismMix) {
+            pick -= entry[1];
+            if (pick < 0) {
+                return entry[0];
+            }
+        }
+        return 1;
+    }
+
+    private static List<int[]> parseMix(String mix) {
+        List<int[]> entries = new ArrayList<>();
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("parallelism-mix 형식 오류: " + mix);
+            }
+            entries.add(new int[]{Integer.parseInt(pair[0].trim()), Integer.parseInt(pair[1].trim())});
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,70 @@
+package com.ideatec.spring_scheduler.loadtest;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 1초마다 힙 사용량, GC 횟수/시간, 스레드 수, 스텁이 받은 요청 수를 기록한다.
+ */
+final class JvmSampler implements AutoCloseable {
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+    private final LongSupplier requestCount;
+    private final List<Sample> samples = new ArrayList<>();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "load-test-sampler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    JvmSampler(LongSupplier requestCount) {
+        this.requestCount = requestCount;
+    }
+
+    void start() {
+        threads.resetPeakThreadCount();
+        timer.scheduleAtFixedRate(this::sample, 0, 1, TimeUnit.SECONDS);
+    }
+
+    synchronized List<Sample> getSamples() {
+        return List.copyOf(samples);
+    }
+
+    int getPeakThreads() {
+        return threads.getPeakThreadCount();
+    }
+
+    @Override
+    public void close() {
+        timer.shutdownNow();
+        sample();
+    }
+
+    private void sample() {
+        long gcCount = 0;
+        long gcMillis = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            gcCount += Math.max(0, collector.getCollectionCount());
+            gcMillis += Math.max(0, collector.getCollectionTime());
+        }
+        Sample sample = new Sample(System.currentTimeMillis(), memory.getHeapMemoryUsage().getUsed(),
+                memory.getHeapMemoryUsage().getCommitted(), gcCount, gcMillis, threads.getThreadCount(),
+                requestCount.getAsLong());
+        synchronized (this) {
+            samples.add(sample);
+        }
+    }
+
+    record Sample(long timestamp, long heapUsed, long heapCommitted, long gcCount, long gcMillis,
+                  int threads, long requests) {
+    }
+}
@@ -0,0 +1,238 @@
+package com.ideatec.spring_scheduler.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ideatec.spring_scheduler.SpringSchedulerApplication;
+import com.ideatec.spring_scheduler.scheduler.QuartzDynamicScheduler;
+import org.quartz.Scheduler;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * 단일 인스턴스 용량 측정용 부하 테스트.
+ * <p>
+ * 루프백 스텁 서버와 합성 카탈로그를 만든 뒤 실제 {@code SchedulerConfig}/{@link QuartzDynamicScheduler}
+ * 스택을 띄워 정해진 시간 동안 돌리고, 트리거 지터 백분위, 초당 요청 수, 힙/GC, 스레드 수를 보고한다.
+ * 네트워크 없이 한 JVM 안에서 동작한다.
+ * <pre>
+ * ./gradlew loadTest -PloadTest.args="--jobs=5000 --interval-seconds=10 --duration-seconds=120"
+ * </pre>
+ */
+public final class LoadTestRunner {
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        Path workDir = Files.createTempDirectory("scheduler-load-test");
+        Path configDir = workDir.resolve("scheduler-jobs.d");
+
+        StubSettings stubSettings = new StubSettings(options.getLong("latency-ms", 20),
+                options.getLong("latency-jitter-ms", 30), options.getDouble("error-rate", 0.0),
+                options.getDouble("slow-body-rate", 0.0), options.getLong("slow-body-chunk-delay-ms", 50),
+                options.getInt("body-bytes", 2048));
+        int jobs = options.getInt("jobs", 2000);
+        int intervalSeconds = options.getInt("interval-seconds", 10);
+        int warmupSeconds = options.getInt("warmup-seconds", 15);
+        int durationSeconds = options.getInt("duration-seconds", 120);
+        CatalogGenerator catalog = new CatalogGenerator(jobs, intervalSeconds,
+                options.get("parallelism-mix", "1:70,4:20,16:10"));
+        Path output = Paths.get(options.get("output", "build/reports/load-test/result.json"));
+
+        System.out.printf("부하 테스트: jobs=%d, interval=%ds (평균 %.1f firing/s), warmup=%ds, duration=%ds, stub=%s%n",
+                jobs, intervalSeconds, catalog.firingsPerSecond(), warmupSeconds, durationSeconds, stubSettings);
+
+        try (LoadTestStub stub = new LoadTestStub(stubSettings)) {
+            catalog.write(configDir, stub.url(""));
+
+            Map<String, Object> properties = new HashMap<>();
+            properties.put("scheduler.jobs.file", workDir.resolve("scheduler-jobs.yml").toString());
+            properties.put("scheduler.jobs.dir", configDir.toString());
+            properties.put("scheduler.checkpoint.dir", workDir.resolve("state").toString());
+            properties.put("scheduler.thread-pool.type", options.get("thread-pool", "virtual"));
+            properties.put("scheduler.thread-pool.thread-count", options.get("thread-count", "8"));
+            properties.put("scheduler.thread-pool.max-concurrency", options.get("max-concurrency", "1000"));
+            properties.put("scheduler.admission.max-in-flight", options.get("max-in-flight", "1000"));
+            properties.put("spring.main.banner-mode", "off");
+            properties.put("logging.level.root", "WARN");
+            properties.put("logging.level.com.ideatec", options.get("log-level", "ERROR"));
+
+            SchedulerProbe probe = new SchedulerProbe(4_000_000);
+            JvmSampler sampler = new JvmSampler(stub::getRequests);
+            long measureStart;
+            long measureEnd;
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringSchedulerApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .properties(properties)
+                    .run()) {
+                Scheduler scheduler = context.getBean(Scheduler.class);
+                scheduler.getListenerManager().addTriggerListener(probe);
+                scheduler.getListenerManager().addJobListener(probe);
+
+                long reconcileStart = System.nanoTime();
+                context.getBean(QuartzDynamicScheduler.class).reconcile();
+                System.out.printf("잡 등록 완료: %d건, %dms%n", jobs, (System.nanoTime() - reconcileStart) / 1_000_000);
+
+                measureStart = System.currentTimeMillis() + warmupSeconds * 1000L;
+                probe.startRecording(measureStart);
+                Thread.sleep(warmupSeconds * 1000L);
+                sampler.start();
+                Thread.sleep(durationSeconds * 1000L);
+                measureEnd = System.currentTimeMillis();
+                sampler.close();
+                // 진행 중인 firing 을 끝까지 기다려 리스너 기록이 모두 보이게 한다
+                scheduler.shutdown(true);
+            }
+
+            Map<String, Object> report = report(options, catalog, stub, probe, sampler, measureEnd - measureStart);
+            print(report);
+            Files.createDirectories(output.toAbsolutePath().getParent());
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(output.toFile(), report);
+            System.out.println("결과 저장: " + output.toAbsolutePath());
+        } finally {
+            deleteRecursively(workDir);
+        }
+        System.exit(0);
+    }
+
+    private static Map<String, Object> report(Options options, CatalogGenerator catalog, LoadTestStub stub,
+                                              SchedulerProbe probe, JvmSampler sampler, long measuredMillis) {
+        List<JvmSampler.Sample> samples = sampler.getSamples();
+        JvmSampler.Sample first = samples.get(0);
+        JvmSampler.Sample last = samples.get(samples.size() - 1);
+        double seconds = Math.max(1, (last.timestamp() - first.timestamp()) / 1000.0);
+
+        long[] perSecond = new long[Math.max(0, samples.size() - 1)];
+        for (int i = 1; i < samples.size(); i++) {
+            perSecond[i - 1] = samples.get(i).requests() - samples.get(i - 1).requests();
+        }
+        Arrays.sort(perSecond);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("options", options.values);
+        report.put("expectedFiringsPerSecond", catalog.firingsPerSecond());
+        report.put("measuredSeconds", measuredMillis / 1000.0);
+
+        Map<String, Object> firings = new LinkedHashMap<>();
+        firings.put("fired", probe.getFired());
+        firings.put("completed", probe.getCompleted());
+        firings.put("failed", probe.getFailed());
+        firings.put("misfired", probe.getMisfired());
+        firings.put("firedPerSecond", probe.getFired() / (measuredMillis / 1000.0));
+        report.put("firings", firings);
+        report.put("triggerJitterMs", percentiles(probe.getTriggerJitter()));
+        report.put("startLagMs", percentiles(probe.getStartLag()));
+
+        Map<String, Object> requests = new LinkedHashMap<>();
+        requests.put("total", last.requests() - first.requests());
+        requests.put("perSecondAvg", (last.requests() - first.requests()) / seconds);
+        requests.put("perSecondP50", percentile(perSecond, 0.5));
+        requests.put("perSecondMax", perSecond.length > 0 ? perSecond[perSecond.length - 1] : 0);
+        requests.put("stubErrors", stub.getErrors());
+        requests.put("stubSlowBodies", stub.getSlowBodies());
+        requests.put("stubBytes", stub.getBytes());
+        report.put("requests", requests);
+
+        Map<String, Object> jvm = new LinkedHashMap<>();
+        jvm.put("heapUsedMaxBytes", samples.stream().mapToLong(JvmSampler.Sample::heapUsed).max().orElse(0));
+        jvm.put("heapUsedAvgBytes", (long) samples.stream().mapToLong(JvmSampler.Sample::heapUsed).average().orElse(0));
+        jvm.put("heapCommittedMaxBytes", samples.stream().mapToLong(JvmSampler.Sample::heapCommitted).max().orElse(0));
+        jvm.put("gcCount", last.gcCount() - first.gcCount());
+        jvm.put("gcMillis", last.gcMillis() - first.gcMillis());
+        jvm.put("gcTimeRatio", (last.gcMillis() - first.gcMillis()) / (seconds * 1000.0));
+        jvm.put("threadsMax", samples.stream().mapToInt(JvmSampler.Sample::threads).max().orElse(0));
+        jvm.put("threadsPeak", sampler.getPeakThreads());
+        report.put("jvm", jvm);
+        return report;
+    }
+
+    private static Map<String, Object> percentiles(SchedulerProbe.Samples samples) {
+        long[] sorted = samples.sorted();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("count", sorted.length);
+        result.put("dropped", samples.getDropped());
+        result.put("p50", percentile(sorted, 0.5));
+        result.put("p90", percentile(sorted, 0.9));
+        result.put("p99", percentile(sorted, 0.99));
+        result.put("p999", percentile(sorted, 0.999));
+        result.put("max", sorted.length > 0 ? sorted[sorted.length - 1] : 0);
+        return result;
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void print(Map<String, Object> report) {
+        System.out.println("==== 부하 테스트 결과 ====");
+        report.forEach((key, value) -> {
+            if (value instanceof Map<?, ?> section) {
+                System.out.println(key + ":");
+                ((Map<String, Object>) section).forEach((name, v) -> System.out.printf("  %-24s %s%n", name, v));
+            } else {
+                System.out.printf("%-26s %s%n", key, value);
+            }
+        });
+    }
+
+    private static void deleteRecursively(Path dir) {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (Exception e) {
+            System.err.println("임시 디렉토리 삭제 실패: " + dir);
+        }
+    }
+
+    /**
+     * {@code --key=value} 형식의 인자.
+     */
+    private static final class Options {
+        private final Map<String, String> values = new LinkedHashMap<>();
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (String arg : args) {
+                if (!arg.startsWith("--") || !arg.contains("=")) {
+                    throw new IllegalArgumentException("인자 형식은 --key=value 입니다: " + arg);
+                }
+                int separator = arg.indexOf('=');
+                options.values.put(arg.substring(2, separator), arg.substring(separator + 1));
+            }
+            return options;
+        }
+
+        String get(String key, String defaultValue) {
+            return values.getOrDefault(key, defaultValue);
+        }
+
+        int getInt(String key, int defaultValue) {
+            return values.containsKey(key) ? Integer.parseInt(values.get(key)) : defaultValue;
+        }
+
+        long getLong(String key, long defaultValue) {
+            return values.containsKey(key) ? Long.parseLong(values.get(key)) : defaultValue;
+        }
+
+        double getDouble(String key, double defaultValue) {
+            return values.containsKey(key) ? Double.parseDouble(values.get(key)) : defaultValue;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.ideatec.spring_scheduler.loadtest;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 부하 테스트용 루프백 HTTP 스텁.
+ * <p>
+ * 모든 경로에 대해 설정된 지연 후 JSON 본문을 돌려준다. 일정 비율로 503 을 내거나, 본문을 조각으로 나눠
+ * 천천히 보내 느린 업스트림을 흉내 낸다. 처리한 요청/오류/바이트 수를 집계한다.
+ */
+final class LoadTestStub implements AutoCloseable {
+    private static final int SLOW_BODY_CHUNKS = 8;
+
+    private final StubSettings settings;
+    private final byte[] body;
+    private final byte[][] chunks;
+    private final DisposableServer server;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong slowBodies = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+
+    LoadTestStub(StubSettings settings) {
+        this.settings = settings;
+        this.body = jsonBody(settings.bodyBytes());
+        this.chunks = split(body, SLOW_BODY_CHUNKS);
+        this.server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .handle((request, response) -> {
+                    requests.incrementAndGet();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    Duration latency = Duration.ofMillis(settings.latencyMs()
+                            + (settings.latencyJitterMs() > 0 ? random.nextLong(settings.latencyJitterMs() + 1) : 0));
+
+                    if (random.nextDouble() < settings.errorRate()) {
+                        errors.incrementAndGet();
+                        return Mono.delay(latency)
+                                .then(response.status(HttpResponseStatus.SERVICE_UNAVAILABLE).send());
+                    }
+                    response.header(HttpHeaderNames.CONTENT_TYPE, "application/json");
+                    bytes.addAndGet(body.length);
+                    if (random.nextDouble() < settings.slowBodyRate()) {
+                        slowBodies.incrementAndGet();
+                        Duration chunkDelay = Duration.ofMillis(settings.slowBodyChunkDelayMs());
+                        return Mono.delay(latency)
+                                .thenMany(response.sendByteArray(Flux.fromArray(chunks).delayElements(chunkDelay)))
+                                .then();
+                    }
+                    return Mono.delay(latency)
+                            .then(response.header(HttpHeaderNames.CONTENT_LENGTH, String.valueOf(body.length))
+                                    .sendByteArray(Mono.just(body))
+                                    .then());
+                })
+                .bindNow();
+    }
+
+    String url(String path) {
+        return "http://127.0.0.1:" + server.port() + path;
+    }
+
+    long getRequests() {
+        return requests.get();
+    }
+
+    long getErrors() {
+        return errors.get();
+    }
+
+    long getSlowBodies() {
+        return slowBodies.get();
+    }
+
+    long getBytes() {
+        return bytes.get();
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+
+    private static byte[] jsonBody(int size) {
+        StringBuilder json = new StringBuilder(size + 32).append('[');
+        int i = 0;
+        while (json.length() < size) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(i).append(",\"value\":\"v-").append(i).append("\"}");
+            i++;
+        }
+        return json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[][] split(byte[] bytes, int parts) {
+        int size = Math.max(1, (bytes.length + parts - 1) / parts);
+        int count = (bytes.length + size - 1) / size;
+        byte[][] result = new byte[count][];
+        for (int i = 0; i < count; i++) {
+            result[i] = Arrays.copyOfRange(bytes, i * size, Math.min(bytes.length, (i + 1) * size));
+        }
+        return result;
+    }
+}
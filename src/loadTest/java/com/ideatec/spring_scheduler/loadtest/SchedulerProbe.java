@@ -0,0 +1,153 @@
+package com.ideatec.spring_scheduler.loadtest;
+
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.quartz.JobListener;
+import org.quartz.Trigger;
+import org.quartz.TriggerListener;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Quartz 트리거/잡 리스너로 firing 지터와 실행 결과를 수집한다.
+ * <ul>
+ *   <li>트리거 지터: 스케줄러 스레드가 트리거를 꺼낸 시각 - 예정 시각</li>
+ *   <li>시작 지연: 워커 스레드에서 잡이 실제로 시작된 시각 - 예정 시각 (스레드 풀 대기 포함)</li>
+ * </ul>
+ * 표본은 미리 잡아 둔 배열에 기록하고(용량을 넘으면 버린 수만 센다), 워밍업 구간의 표본은 제외한다.
+ */
+final class SchedulerProbe implements TriggerListener, JobListener {
+    private final Samples triggerJitter;
+    private final Samples startLag;
+    private final AtomicLong fired = new AtomicLong();
+    private final AtomicLong misfired = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile long recordAfterMillis = Long.MAX_VALUE;
+
+    SchedulerProbe(int capacity) {
+        this.triggerJitter = new Samples(capacity);
+        this.startLag = new Samples(capacity);
+    }
+
+    /**
+     * 이 시각 이후 예정된 firing 만 집계한다.
+     */
+    void startRecording(long epochMillis) {
+        recordAfterMillis = epochMillis;
+    }
+
+    @Override
+    public String getName() {
+        return "load-test-probe";
+    }
+
+    @Override
+    public void triggerFired(Trigger trigger, JobExecutionContext context) {
+        long scheduled = context.getScheduledFireTime().getTime();
+        if (scheduled < recordAfterMillis) {
+            return;
+        }
+        fired.incrementAndGet();
+        triggerJitter.add(context.getFireTime().getTime() - scheduled);
+    }
+
+    @Override
+    public boolean vetoJobExecution(Trigger trigger, JobExecutionContext context) {
+        return false;
+    }
+
+    @Override
+    public void triggerMisfired(Trigger trigger) {
+        if (System.currentTimeMillis() >= recordAfterMillis) {
+            misfired.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void triggerComplete(Trigger trigger, JobExecutionContext context,
+                                Trigger.CompletedExecutionInstruction instruction) {
+    }
+
+    @Override
+    public void jobToBeExecuted(JobExecutionContext context) {
+        long scheduled = context.getScheduledFireTime().getTime();
+        if (scheduled >= recordAfterMillis) {
+            startLag.add(System.currentTimeMillis() - scheduled);
+        }
+    }
+
+    @Override
+    public void jobExecutionVetoed(JobExecutionContext context) {
+    }
+
+    @Override
+    public void jobWasExecuted(JobExecutionContext context, JobExecutionException exception) {
+        if (context.getScheduledFireTime().getTime() < recordAfterMillis) {
+            return;
+        }
+        if (exception != null) {
+            failed.incrementAndGet();
+        } else {
+            completed.incrementAndGet();
+        }
+    }
+
+    Samples getTriggerJitter() {
+        return triggerJitter;
+    }
+
+    Samples getStartLag() {
+        return startLag;
+    }
+
+    long getFired() {
+        return fired.get();
+    }
+
+    long getMisfired() {
+        return misfired.get();
+    }
+
+    long getCompleted() {
+        return completed.get();
+    }
+
+    long getFailed() {
+        return failed.get();
+    }
+
+    /**
+     * 고정 용량 표본 배열 (ms).
+     */
+    static final class Samples {
+        private final long[] values;
+        private final AtomicInteger count = new AtomicInteger();
+        private final AtomicLong dropped = new AtomicLong();
+
+        private Samples(int capacity) {
+            this.values = new long[capacity];
+        }
+
+        private void add(long value) {
+            int index = count.getAndIncrement();
+            if (index < values.length) {
+                values[index] = value;
+            } else {
+                dropped.incrementAndGet();
+            }
+        }
+
+        long[] sorted() {
+            long[] copy = Arrays.copyOf(values, Math.min(count.get(), values.length));
+            Arrays.sort(copy);
+            return copy;
+        }
+
+        long getDropped() {
+            return dropped.get();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.ideatec.spring_scheduler.loadtest;
+
+/**
+ * 스텁 서버 동작 설정.
+ *
+ * @param latencyMs           응답 헤더를 보내기 전 기본 지연
+ * @param latencyJitterMs     기본 지연에 더하는 0~jitter 균등 분포 지연
+ * @param errorRate           503 으로 응답할 비율 (0~1)
+ * @param slowBodyRate        본문을 조각으로 나눠 천천히 보낼 비율 (0~1)
+ * @param slowBodyChunkDelayMs 느린 본문의 조각 사이 지연
+ * @param bodyBytes           응답 본문 크기
+ */
+record StubSettings(long latencyMs, long latencyJitterMs, double errorRate,
+                    double slowBodyRate, long slowBodyChunkDelayMs, int bodyBytes) {
+}
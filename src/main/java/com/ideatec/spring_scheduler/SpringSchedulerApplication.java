@@ -2,8 +2,10 @@ package com.ideatec.spring_scheduler;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
 
-@SpringBootApplication
+// DataSource 는 scheduler.store.type: jdbc 일 때만 SchedulerConfig 가 만든다
+@SpringBootApplication(exclude = DataSourceAutoConfiguration.class)
 public class SpringSchedulerApplication {
 
 	public static void main(String[] args) {
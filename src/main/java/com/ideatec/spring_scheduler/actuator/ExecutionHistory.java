@@ -0,0 +1,55 @@
+package com.ideatec.spring_scheduler.actuator;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 잡별 {@link JobHistory} 저장소. 실행 계획을 만들 때 잡의 이력 버퍼를 찾아 두고 firing 은 그 버퍼에 바로 기록한다.
+ * <p>
+ * 메모리에만 보관하므로 재시작하면 비워진다. 버퍼 하나는 {@code scheduler.history.size} × 32 바이트 정도를 쓴다.
+ */
+@Slf4j
+@Component
+public class ExecutionHistory {
+    private final boolean enabled;
+    private final int size;
+    private final Map<String, JobHistory> histories = new ConcurrentHashMap<>();
+
+    public ExecutionHistory(@Value("${scheduler.history.enabled:true}") boolean enabled,
+                            @Value("${scheduler.history.size:500}") int size) {
+        this.enabled = enabled;
+        this.size = Math.max(1, size);
+        log.info("실행 이력 버퍼: enabled={}, size={}", enabled, this.size);
+    }
+
+    /**
+     * @return 잡의 이력 버퍼. 비활성화되어 있으면 기록을 버리는 버퍼
+     */
+    public JobHistory of(String jobId) {
+        if (!enabled) {
+            return new JobHistory(jobId, 0);
+        }
+        return histories.computeIfAbsent(jobId, id -> new JobHistory(id, size));
+    }
+
+    public JobHistory get(String jobId) {
+        return histories.get(jobId);
+    }
+
+    public Collection<JobHistory> all() {
+        return histories.values();
+    }
+
+    /**
+     * 설정에서 빠진 잡의 이력을 지운다.
+     */
+    public void retain(Set<String> jobIds) {
+        histories.keySet().retainAll(jobIds);
+    }
+}
@@ -0,0 +1,175 @@
+package com.ideatec.spring_scheduler.actuator;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+/**
+ * {@code /actuator/history}: 잡별 최근 firing 이력과 요약 통계.
+ * <p>
+ * {@code GET /actuator/history} 는 모든 잡의 요약을, {@code GET /actuator/history/{jobId}} 는 한 잡의 이력을
+ * 최근 것부터 돌려준다. {@code status}(success | failure | skipped), {@code since}(ISO-8601 시각),
+ * {@code minDurationMs}, {@code limit}(기본 100) 로 거를 수 있고 요약은 거른 항목으로 계산한다.
+ * 모든 잡 요약의 횟수/합계/최댓값은 {@link JobHistory#totals()} 의 누적값이고, 백분위만 잡마다 최근
+ * {@value #SUMMARY_WINDOW} 건의 실행으로 계산하므로 버퍼 크기와 관계없이 요청당 비용이 일정하다.
+ * 이력은 {@link ExecutionHistory} 의 메모리 버퍼에서 읽으므로 로그나 디스크를 읽지 않는다.
+ */
+@Component
+@Endpoint(id = "history")
+@RequiredArgsConstructor
+public class ExecutionHistoryEndpoint {
+    private static final int DEFAULT_LIMIT = 100;
+    private static final int SUMMARY_WINDOW = 100;
+
+    private final ExecutionHistory executionHistory;
+
+    @ReadOperation
+    public Map<String, Summary> summaries() {
+        Map<String, Summary> summaries = new TreeMap<>();
+        for (JobHistory history : executionHistory.all()) {
+            if (history.getRecorded() > 0) {
+                summaries.put(history.getJobId(), Summary.of(history.totals(),
+                        history.entries(entry -> entry.status() != JobHistory.Status.SKIPPED, SUMMARY_WINDOW)));
+            }
+        }
+        return summaries;
+    }
+
+    @ReadOperation
+    public JobRuns job(@Selector String jobId, @Nullable String status, @Nullable String since,
+                       @Nullable Double minDurationMs, @Nullable Integer limit) {
+        JobHistory history = executionHistory.get(jobId);
+        if (history == null) {
+            return null;
+        }
+        List<JobHistory.Entry> entries = history.entries(filter(status, since, minDurationMs),
+                limit != null ? Math.max(0, limit) : DEFAULT_LIMIT);
+        return new JobRuns(jobId, history.getCapacity(), history.getRecorded(), Summary.of(entries),
+                entries.stream().map(Run::of).toList());
+    }
+
+    private static Predicate<JobHistory.Entry> filter(String status, String since, Double minDurationMs) {
+        Predicate<JobHistory.Entry> filter = entry -> true;
+        if (status != null) {
+            JobHistory.Status wanted = parseStatus(status);
+            filter = filter.and(entry -> entry.status() == wanted);
+        }
+        if (since != null) {
+            long sinceMillis = parseInstant(since).toEpochMilli();
+            filter = filter.and(entry -> entry.startMillis() >= sinceMillis);
+        }
+        if (minDurationMs != null) {
+            filter = filter.and(entry -> entry.durationMs() >= minDurationMs);
+        }
+        return filter;
+    }
+
+    private static JobHistory.Status parseStatus(String status) {
+        try {
+            return JobHistory.Status.valueOf(status.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidEndpointRequestException("알 수 없는 status: " + status,
+                    "status must be one of success, failure, skipped");
+        }
+    }
+
+    private static Instant parseInstant(String since) {
+        try {
+            return Instant.parse(since);
+        } catch (DateTimeParseException e) {
+            throw new InvalidEndpointRequestException("since 형식 오류: " + since,
+                    "since must be an ISO-8601 instant such as 2024-01-01T00:00:00Z");
+        }
+    }
+
+    public record JobRuns(String jobId, int capacity, long recorded, Summary summary, List<Run> runs) {
+    }
+
+    public record Run(long seq, String start, double durationMs, String status, int retries, long bytes) {
+
+        static Run of(JobHistory.Entry entry) {
+            return new Run(entry.seq(), Instant.ofEpochMilli(entry.startMillis()).toString(), entry.durationMs(),
+                    entry.status().tag(), entry.retries(), entry.bytes());
+        }
+    }
+
+    /**
+     * 실행 시간 평균/백분위/최댓값은 건너뛴 firing 을 빼고 계산한다.
+     */
+    public record Summary(long runs, long success, long failure, long skipped, double successRate,
+                          double meanMs, double p50Ms, double p95Ms, double p99Ms, double maxMs, long retries,
+                          long bytes, String lastStart) {
+
+        static Summary of(List<JobHistory.Entry> entries) {
+            long success = 0;
+            long failure = 0;
+            long skipped = 0;
+            long retries = 0;
+            long bytes = 0;
+            long lastStart = -1;
+            double total = 0;
+            double[] durations = new double[entries.size()];
+            int executed = 0;
+            for (JobHistory.Entry entry : entries) {
+                switch (entry.status()) {
+                    case SUCCESS -> success++;
+                    case FAILURE -> failure++;
+                    case SKIPPED -> skipped++;
+                }
+                if (entry.status() != JobHistory.Status.SKIPPED) {
+                    durations[executed++] = entry.durationMs();
+                    total += entry.durationMs();
+                }
+                retries += entry.retries();
+                bytes += entry.bytes();
+                lastStart = Math.max(lastStart, entry.startMillis());
+            }
+            Arrays.sort(durations, 0, executed);
+            return of(success, failure, skipped, retries, bytes, executed > 0 ? total / executed : 0,
+                    executed > 0 ? durations[executed - 1] : 0, lastStart, durations, executed);
+        }
+
+        /**
+         * @param recent 백분위를 계산할 최근 실행 (건너뛴 firing 제외)
+         */
+        static Summary of(JobHistory.Totals totals, List<JobHistory.Entry> recent) {
+            double[] durations = new double[recent.size()];
+            for (int i = 0; i < durations.length; i++) {
+                durations[i] = recent.get(i).durationMs();
+            }
+            Arrays.sort(durations);
+            long executed = totals.success() + totals.failure();
+            return of(totals.success(), totals.failure(), totals.skipped(), totals.retries(), totals.bytes(),
+                    executed > 0 ? totals.durationMicros() / 1000.0 / executed : 0, totals.maxDurationMicros() / 1000.0,
+                    totals.lastStartMillis(), durations, durations.length);
+        }
+
+        private static Summary of(long success, long failure, long skipped, long retries, long bytes, double meanMs,
+                                  double maxMs, long lastStart, double[] sorted, int count) {
+            return new Summary(success + failure + skipped, success, failure, skipped,
+                    success + failure > 0 ? (double) success / (success + failure) : 0, meanMs,
+                    percentile(sorted, count, 0.50), percentile(sorted, count, 0.95), percentile(sorted, count, 0.99),
+                    maxMs, retries, bytes, lastStart >= 0 ? Instant.ofEpochMilli(lastStart).toString() : null);
+        }
+
+        private static double percentile(double[] sorted, int count, double quantile) {
+            if (count == 0) {
+                return 0;
+            }
+            return sorted[(int) Math.min(count - 1, Math.ceil(quantile * count) - 1)];
+        }
+    }
+}
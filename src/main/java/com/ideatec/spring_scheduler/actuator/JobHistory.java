@@ -0,0 +1,185 @@
+package com.ideatec.spring_scheduler.actuator;
+
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+
+/**
+ * 잡 하나의 최근 firing 결과를 고정 크기로 보관하는 링 버퍼.
+ * <p>
+ * 한 항목은 long 3개(시작 시각, 받은 바이트, 실행 시간/재시도/상태를 묶은 값)로 {@code long[]} 에 이어 저장되고,
+ * 슬롯마다 기록 순번을 따로 둔다. 기록은 순번을 원자적으로 하나 증가시켜 슬롯을 얻은 뒤 값을 쓰고 순번을 공개하므로
+ * 락도 객체 할당도 없다. 읽기는 쓰기 전후의 순번이 같은 항목만 돌려주므로 덮어쓰는 중인 항목은 건너뛴다 (seqlock).
+ * 버퍼는 첫 기록 때 만들어지므로 실행되지 않는 잡은 메모리를 쓰지 않는다.
+ * <p>
+ * 결과별 횟수, 재시도/바이트 합, 실행 시간 합과 최댓값은 버퍼와 별도로 누적하므로 요약은 버퍼를 훑지 않고 읽는다.
+ */
+public final class JobHistory {
+    public enum Status {
+        SUCCESS, FAILURE, SKIPPED;
+
+        public String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private static final int STRIDE = 3;
+    private static final long WRITING = -1;
+    private static final int STATUS_BITS = 4;
+    private static final int RETRY_BITS = 20;
+    private static final long MAX_RETRIES = (1L << RETRY_BITS) - 1;
+    private static final long MAX_DURATION_MICROS = (1L << (64 - STATUS_BITS - RETRY_BITS)) - 1;
+    private static final Status[] STATUSES = Status.values();
+
+    private final String jobId;
+    private final int capacity;
+    private final AtomicLong cursor = new AtomicLong();
+    private final AtomicReference<Buffer> buffer = new AtomicReference<>();
+    private final AtomicLongArray statusCounts = new AtomicLongArray(STATUSES.length);
+    private final AtomicLong retryTotal = new AtomicLong();
+    private final AtomicLong byteTotal = new AtomicLong();
+    private final AtomicLong durationTotalMicros = new AtomicLong();
+    private final AtomicLong maxDurationMicros = new AtomicLong();
+    private final AtomicLong lastStartMillis = new AtomicLong(-1);
+
+    JobHistory(String jobId, int capacity) {
+        this.jobId = jobId;
+        this.capacity = capacity;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return 지금까지 기록된 firing 수 (버퍼 크기를 넘어 덮어쓴 것 포함)
+     */
+    public long getRecorded() {
+        return cursor.get();
+    }
+
+    /**
+     * firing 결과를 기록한다. 실행 경로에서 호출되므로 락을 잡거나 객체를 만들지 않는다 (첫 기록의 버퍼 생성 제외).
+     *
+     * @param durationNanos 실행 시간. 마이크로초 단위로 저장된다
+     */
+    public void record(long startMillis, long durationNanos, Status status, int retries, long bytes) {
+        if (capacity == 0) {
+            return;
+        }
+        Buffer current = buffer.get();
+        if (current == null) {
+            buffer.compareAndSet(null, new Buffer(capacity));
+            current = buffer.get();
+        }
+        long seq = cursor.getAndIncrement();
+        int slot = (int) (seq % capacity);
+        int base = slot * STRIDE;
+        long micros = Math.min(Math.max(0, durationNanos / 1000), MAX_DURATION_MICROS);
+        long packed = micros << (RETRY_BITS + STATUS_BITS)
+                | Math.min(Math.max(0, retries), MAX_RETRIES) << STATUS_BITS
+                | status.ordinal();
+
+        current.versions.setOpaque(slot, WRITING);
+        // 읽는 쪽이 쓰는 중인 값을 이전 순번으로 오인하지 않도록 값보다 먼저 표시한다
+        VarHandle.storeStoreFence();
+        current.data[base] = startMillis;
+        current.data[base + 1] = bytes;
+        current.data[base + 2] = packed;
+        current.versions.setRelease(slot, seq);
+
+        statusCounts.incrementAndGet(status.ordinal());
+        retryTotal.addAndGet(Math.max(0, retries));
+        byteTotal.addAndGet(bytes);
+        if (status != Status.SKIPPED) {
+            durationTotalMicros.addAndGet(micros);
+            maxDurationMicros.accumulateAndGet(micros, Math::max);
+        }
+        lastStartMillis.accumulateAndGet(startMillis, Math::max);
+    }
+
+    /**
+     * 지금까지의 누적 집계. 값마다 따로 읽으므로 기록과 겹치면 항목 사이에 한 건 정도 어긋날 수 있다.
+     */
+    public Totals totals() {
+        return new Totals(statusCounts.get(Status.SUCCESS.ordinal()), statusCounts.get(Status.FAILURE.ordinal()),
+                statusCounts.get(Status.SKIPPED.ordinal()), retryTotal.get(), byteTotal.get(),
+                durationTotalMicros.get(), maxDurationMicros.get(), lastStartMillis.get());
+    }
+
+    /**
+     * 최근 항목부터 조건에 맞는 항목을 {@code limit} 개까지 돌려준다.
+     */
+    public List<Entry> entries(Predicate<Entry> filter, int limit) {
+        Buffer current = buffer.get();
+        List<Entry> result = new ArrayList<>(Math.min(limit, capacity));
+        if (current == null) {
+            return result;
+        }
+        long end = cursor.get();
+        long start = Math.max(0, end - capacity);
+        for (long seq = end - 1; seq >= start && result.size() < limit; seq--) {
+            int slot = (int) (seq % capacity);
+            int base = slot * STRIDE;
+            if (current.versions.getAcquire(slot) != seq) {
+                continue; // 쓰는 중이거나 이미 덮어씀
+            }
+            long startMillis = current.data[base];
+            long bytes = current.data[base + 1];
+            long packed = current.data[base + 2];
+            VarHandle.loadLoadFence();
+            if (current.versions.getOpaque(slot) != seq) {
+                continue;
+            }
+            Entry entry = new Entry(seq, startMillis, (packed >>> (RETRY_BITS + STATUS_BITS)) / 1000.0,
+                    STATUSES[(int) (packed & ((1 << STATUS_BITS) - 1))],
+                    (int) ((packed >>> STATUS_BITS) & MAX_RETRIES), bytes);
+            if (filter.test(entry)) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param seq        기록 순번 (잡별로 0부터 증가)
+     * @param durationMs 실행 시간 (마이크로초 정밀도)
+     */
+    public record Entry(long seq, long startMillis, double durationMs, Status status, int retries, long bytes) {
+    }
+
+    /**
+     * 실행 시간 합과 최댓값은 건너뛴 firing 을 뺀 값이다.
+     *
+     * @param lastStartMillis 가장 늦은 시작 시각, 기록이 없으면 -1
+     */
+    public record Totals(long success, long failure, long skipped, long retries, long bytes,
+                         long durationMicros, long maxDurationMicros, long lastStartMillis) {
+
+        public long runs() {
+            return success + failure + skipped;
+        }
+    }
+
+    private static final class Buffer {
+        private final long[] data;
+        private final AtomicLongArray versions;
+
+        Buffer(int capacity) {
+            this.data = new long[capacity * STRIDE];
+            this.versions = new AtomicLongArray(capacity);
+            for (int i = 0; i < capacity; i++) {
+                versions.set(i, WRITING);
+            }
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.ideatec.spring_scheduler.actuator;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 잡 하나의 미터를 미리 만들어 둔 묶음.
+ * <p>
+ * firing/요청마다 {@link JobMetrics#meters(String)} 로 한 번 조회한 뒤 필드에 바로 기록하므로
+ * 기록 경로에서 태그 조합, 맵 조회, 박싱, 로그 포맷팅이 없다. 요청 타이머는 상태 클래스 × 재시도 수
+ * 조합마다 처음 쓰일 때 한 번 등록한다 (동시 등록은 레지스트리가 같은 미터를 돌려주므로 안전하다).
+ * <p>
+ * 잡별 타이머는 횟수/합계/최대만 노출하고, 백분위 히스토그램은 {@code job_id} 가 없는 {@code jobs.*} 집계 타이머에만
+ * 발행한다. 잡마다 히스토그램 버킷(타이머당 수십 개)을 만들면 잡 수에 비례해 시계열이 늘어나기 때문이다.
+ * 잡별 히스토그램이 필요하면 {@code scheduler.metrics.job-histograms: true} 로 켠다.
+ */
+public final class JobMeters {
+    public enum Phase {
+        SCHEDULING_LAG, QUEUE_WAIT, CONNECT_ACQUIRE, TIME_TO_FIRST_BYTE, BODY_TRANSFER, CHECKPOINT_WRITE, END_TO_END
+    }
+
+    public enum RetryResult {
+        ATTEMPTED, EXHAUSTED, NOT_RETRYABLE, DEADLINE, BUDGET_EXHAUSTED
+    }
+
+    public enum HedgeResult {
+        SENT, WON, BUDGET_EXHAUSTED
+    }
+
+    private static final String[] STATUS_CLASSES = {"error", "1xx", "2xx", "3xx", "4xx", "5xx"};
+    private static final String[] RETRY_BUCKETS = {"0", "1", "2", "3+"};
+    private static final int MIN_LATENCY_SAMPLES = 20;
+    private static final long LATENCY_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final MeterRegistry registry;
+    private final String jobId;
+    private final boolean histograms;
+    private final Aggregates aggregates;
+    private final Counter success;
+    private final Counter failure;
+    private final Timer execution;
+    private final Timer[] phases = new Timer[Phase.values().length];
+    private final Counter[] retries = new Counter[RetryResult.values().length];
+    private final Timer[] requests = new Timer[STATUS_CLASSES.length * RETRY_BUCKETS.length];
+    private final Counter[] hedges = new Counter[HedgeResult.values().length];
+    private final AtomicInteger inFlightRequests = new AtomicInteger();
+    private volatile Timer attemptLatency;
+    private volatile long latencyPercentileNanos = -1;
+    private volatile long latencyRefreshedNanos;
+
+    JobMeters(MeterRegistry registry, String jobId, Aggregates aggregates, boolean histograms) {
+        this.registry = registry;
+        this.jobId = jobId;
+        this.aggregates = aggregates;
+        this.histograms = histograms;
+        this.success = Counter.builder("job.success")
+                .tag("job_id", jobId)
+                .description("Number of successful job executions")
+                .register(registry);
+        this.failure = Counter.builder("job.failure")
+                .tag("job_id", jobId)
+                .description("Number of failed job executions")
+                .register(registry);
+        this.execution = Timer.builder("job.execution.time")
+                .tag("job_id", jobId)
+                .description("Job execution time")
+                .publishPercentileHistogram(histograms)
+                .register(registry);
+        for (Phase phase : Phase.values()) {
+            phases[phase.ordinal()] = Timer.builder("job.phase")
+                    .tag("job_id", jobId)
+                    .tag("phase", phase.name().toLowerCase(Locale.ROOT))
+                    .description("Job execution phase latency")
+                    .publishPercentileHistogram(histograms)
+                    .register(registry);
+        }
+        Gauge.builder("http.client.inflight", inFlightRequests, AtomicInteger::get)
+                .tag("job_id", jobId)
+                .description("HTTP requests of the job currently on the wire")
+                .register(registry);
+        for (RetryResult result : RetryResult.values()) {
+            retries[result.ordinal()] = Counter.builder("http.client.retry")
+                    .tag("job_id", jobId)
+                    .tag("result", result.name().toLowerCase(Locale.ROOT))
+                    .description("Retry decisions")
+                    .register(registry);
+        }
+    }
+
+    public void recordSuccess() {
+        success.increment();
+    }
+
+    public void recordFailure() {
+        failure.increment();
+    }
+
+    public void recordExecution(long nanos) {
+        execution.record(nanos, TimeUnit.NANOSECONDS);
+        aggregates.execution.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void record(Phase phase, long nanos) {
+        if (nanos >= 0) {
+            phases[phase.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+            aggregates.phases[phase.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 리미터/서킷 허가를 받아 요청을 보내기 시작했을 때 호출하고, 시도가 끝나면 {@link #requestEnded()} 를 호출한다.
+     */
+    public void requestStarted() {
+        inFlightRequests.incrementAndGet();
+    }
+
+    public void requestEnded() {
+        inFlightRequests.decrementAndGet();
+    }
+
+    public int getInFlightRequests() {
+        return inFlightRequests.get();
+    }
+
+    public void recordRetry(RetryResult result) {
+        retries[result.ordinal()].increment();
+    }
+
+    /**
+     * 재시도를 포함한 요청 한 건의 전체 시간을 최종 상태 코드와 재시도 횟수 태그로 기록한다.
+     *
+     * @param status 마지막 응답 상태 코드, 응답을 받지 못했으면 0
+     */
+    public void recordRequest(int status, int retryCount, long nanos) {
+        int statusClass = status >= 100 && status < 600 ? status / 100 : 0;
+        int index = statusClass * RETRY_BUCKETS.length + Math.min(retryCount, RETRY_BUCKETS.length - 1);
+        Timer timer = requests[index];
+        if (timer == null) {
+            timer = Timer.builder("http.client.request")
+                    .tag("job_id", jobId)
+                    .tag("status_class", STATUS_CLASSES[statusClass])
+                    .tag("retries", RETRY_BUCKETS[index % RETRY_BUCKETS.length])
+                    .description("Request latency including retries")
+                    .publishPercentileHistogram(histograms)
+                    .register(registry);
+            requests[index] = timer;
+        }
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+        aggregates.request(index).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * hedging 결정을 기록한다. hedging 을 쓰는 잡만 기록하므로 처음 쓰일 때 등록한다.
+     */
+    public void recordHedge(HedgeResult result) {
+        Counter counter = hedges[result.ordinal()];
+        if (counter == null) {
+            counter = Counter.builder("http.client.hedge")
+                    .tag("job_id", jobId)
+                    .tag("result", result.name().toLowerCase(Locale.ROOT))
+                    .description("Hedged request decisions")
+                    .register(registry);
+            hedges[result.ordinal()] = counter;
+        }
+        counter.increment();
+    }
+
+    /**
+     * 시도 한 번(복제 요청 제외)의 지연시간을 기록한다. 이긴 복제 요청 때문에 취소된 시도는 취소 시점까지의 시간을 기록한다.
+     *
+     * @param percentile hedging 지연으로 쓸 백분위. 타이머를 처음 만들 때만 쓰인다
+     */
+    public void recordAttemptLatency(double percentile, long nanos) {
+        attemptTimer(percentile).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 최근 시도 지연시간의 백분위. 스냅샷 계산은 비싸므로 1초에 한 번만 다시 계산한다.
+     *
+     * @return 나노초, 표본이 부족하면 -1
+     */
+    public long attemptLatencyPercentile(double percentile) {
+        long now = System.nanoTime();
+        if (now - latencyRefreshedNanos < LATENCY_REFRESH_NANOS) {
+            return latencyPercentileNanos;
+        }
+        latencyRefreshedNanos = now;
+        Timer timer = attemptTimer(percentile);
+        long value = -1;
+        if (timer.count() >= MIN_LATENCY_SAMPLES) {
+            for (ValueAtPercentile candidate : timer.takeSnapshot().percentileValues()) {
+                if (candidate.percentile() == percentile) {
+                    value = (long) candidate.value(TimeUnit.NANOSECONDS);
+                }
+            }
+        }
+        latencyPercentileNanos = value;
+        return value;
+    }
+
+    private Timer attemptTimer(double percentile) {
+        Timer timer = attemptLatency;
+        if (timer == null) {
+            // 백분위는 클라이언트 쪽에서 최근 구간(기본 2분)으로 계산되므로 오래된 지연시간은 빠진다
+            timer = Timer.builder("http.client.attempt")
+                    .tag("job_id", jobId)
+                    .description("Latency of a single request attempt, used as the hedging delay")
+                    .publishPercentiles(percentile)
+                    .register(registry);
+            attemptLatency = timer;
+        }
+        return timer;
+    }
+
+    /**
+     * 모든 잡이 함께 쓰는 {@code job_id} 없는 집계 타이머. 백분위 히스토그램은 여기에만 발행한다.
+     */
+    static final class Aggregates {
+        private final MeterRegistry registry;
+        private final Timer execution;
+        private final Timer[] phases = new Timer[Phase.values().length];
+        private final Timer[] requests = new Timer[STATUS_CLASSES.length * RETRY_BUCKETS.length];
+
+        Aggregates(MeterRegistry registry) {
+            this.registry = registry;
+            this.execution = Timer.builder("jobs.execution.time")
+                    .description("Execution time of all jobs")
+                    .publishPercentileHistogram()
+                    .register(registry);
+            for (Phase phase : Phase.values()) {
+                phases[phase.ordinal()] = Timer.builder("jobs.phase")
+                        .tag("phase", phase.name().toLowerCase(Locale.ROOT))
+                        .description("Execution phase latency of all jobs")
+                        .publishPercentileHistogram()
+                        .register(registry);
+            }
+        }
+
+        private Timer request(int index) {
+            Timer timer = requests[index];
+            if (timer == null) {
+                timer = Timer.builder("jobs.http.client.request")
+                        .tag("status_class", STATUS_CLASSES[index / RETRY_BUCKETS.length])
+                        .tag("retries", RETRY_BUCKETS[index % RETRY_BUCKETS.length])
+                        .description("Request latency including retries, all jobs")
+                        .publishPercentileHistogram()
+                        .register(registry);
+                requests[index] = timer;
+            }
+            return timer;
+        }
+    }
+}
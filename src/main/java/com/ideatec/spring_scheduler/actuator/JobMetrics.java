@@ -1,61 +1,382 @@
 package com.ideatec.spring_scheduler.actuator;
 
+import com.ideatec.spring_scheduler.client.AdaptiveLimiter;
+import com.ideatec.spring_scheduler.client.CircuitBreaker;
+import com.ideatec.spring_scheduler.client.ResponseCache;
+import com.ideatec.spring_scheduler.client.RetryBudget;
+import com.ideatec.spring_scheduler.client.WireStats;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.TimeGauge;
 import io.micrometer.core.instrument.Timer;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.lang.management.ManagementFactory;
 import java.time.Duration;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
 
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class JobMetrics {
     private final MeterRegistry meterRegistry;
-    private final Map<String, Counter> successCounters = new ConcurrentHashMap<>();
-    private final Map<String, Counter> failureCounters = new ConcurrentHashMap<>();
-    private final Map<String, Timer> executionTimers = new ConcurrentHashMap<>();
+    private final boolean jobHistograms;
+    private final JobMeters.Aggregates aggregates;
+    private final Map<String, JobMeters> jobMeters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> skippedCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> overlapCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> misfireCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> admissionRejectedCounters = new ConcurrentHashMap<>();
+    private final Map<String, Timer> admissionWaitTimers = new ConcurrentHashMap<>();
+    private final Timer checkpointCommitTimer;
+    private final AtomicLong startupScheduledMillis = new AtomicLong(-1);
+    private final AtomicLong firstFireMillis = new AtomicLong(-1);
+
+    public JobMetrics(MeterRegistry meterRegistry) {
+        this(meterRegistry, false);
+    }
+
+    /**
+     * @param jobHistograms true 면 잡별 타이머에도 백분위 히스토그램을 발행한다 (잡 수 × 버킷만큼 시계열이 늘어난다)
+     */
+    @Autowired
+    public JobMetrics(MeterRegistry meterRegistry,
+                      @Value("${scheduler.metrics.job-histograms:false}") boolean jobHistograms) {
+        this.meterRegistry = meterRegistry;
+        this.jobHistograms = jobHistograms;
+        this.aggregates = new JobMeters.Aggregates(meterRegistry);
+        this.checkpointCommitTimer = Timer.builder("checkpoint.commit")
+                .description("Checkpoint log group commit (write + fsync) latency")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        // 기록 전에는 NaN 으로 노출된다
+        TimeGauge.builder("scheduler.startup.time.to.scheduled", startupScheduledMillis, TimeUnit.MILLISECONDS,
+                        value -> value.get() < 0 ? Double.NaN : value.get())
+                .description("Time from JVM start until jobs were registered")
+                .register(meterRegistry);
+        TimeGauge.builder("scheduler.startup.time.to.first.fire", firstFireMillis, TimeUnit.MILLISECONDS,
+                        value -> value.get() < 0 ? Double.NaN : value.get())
+                .description("Time from JVM start until the first job firing started")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 잡의 미터 묶음. firing 이나 요청 시작 시 한 번 조회해 두고 기록에 사용한다.
+     */
+    public JobMeters meters(String jobId) {
+        JobMeters meters = jobMeters.get(jobId);
+        return meters != null ? meters : jobMeters.computeIfAbsent(jobId,
+                id -> new JobMeters(meterRegistry, id, aggregates, jobHistograms));
+    }
+
+    /**
+     * 설정에서 빠진 잡의 미터({@code job_id} 태그)를 레지스트리에서 지운다. 지우지 않으면 삭제된 잡의 시계열이
+     * 계속 노출되고 잡을 만들고 지울 때마다 쌓인다.
+     */
+    public void retain(Set<String> jobIds) {
+        Set<String> removed = new HashSet<>();
+        for (String jobId : jobMeters.keySet()) {
+            if (!jobIds.contains(jobId)) {
+                removed.add(jobId);
+            }
+        }
+        for (String key : skippedCounters.keySet()) {
+            addIfRemoved(removed, jobIds, key.substring(0, key.lastIndexOf('|')));
+        }
+        for (String key : overlapCounters.keySet()) {
+            addIfRemoved(removed, jobIds, key.substring(0, key.lastIndexOf('|')));
+        }
+        for (String jobId : misfireCounters.keySet()) {
+            addIfRemoved(removed, jobIds, jobId);
+        }
+        if (removed.isEmpty()) {
+            return;
+        }
+        jobMeters.keySet().removeAll(removed);
+        skippedCounters.keySet().removeIf(key -> removed.contains(key.substring(0, key.lastIndexOf('|'))));
+        overlapCounters.keySet().removeIf(key -> removed.contains(key.substring(0, key.lastIndexOf('|'))));
+        misfireCounters.keySet().removeAll(removed);
+        int meters = 0;
+        for (Meter meter : meterRegistry.getMeters()) {
+            String jobId = meter.getId().getTag("job_id");
+            if (jobId != null && removed.contains(jobId)) {
+                meterRegistry.remove(meter);
+                meters++;
+            }
+        }
+        log.debug("삭제된 잡의 메트릭 정리: 잡 {}개, 미터 {}개", removed.size(), meters);
+    }
+
+    private static void addIfRemoved(Set<String> removed, Set<String> retained, String jobId) {
+        if (!retained.contains(jobId)) {
+            removed.add(jobId);
+        }
+    }
 
     public void recordJobSuccess(String jobId) {
-        getSuccessCounter(jobId).increment();
-        log.debug("잡 성공 메트릭 기록: {}", jobId);
+        meters(jobId).recordSuccess();
     }
 
     public void recordJobFailure(String jobId) {
-        getFailureCounter(jobId).increment();
-        log.debug("잡 실패 메트릭 기록: {}", jobId);
+        meters(jobId).recordFailure();
     }
 
     public void recordJobExecutionTime(String jobId, Duration duration) {
-        getExecutionTimer(jobId).record(duration);
-        log.debug("잡 실행 시간 메트릭 기록: {} - {}", jobId, duration);
+        meters(jobId).recordExecution(duration.toNanos());
+    }
+
+    public void recordCheckpointCommit(long nanos) {
+        checkpointCommitTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 기동 직후 잡 등록이 끝난 시점. JVM 시작부터의 시간을 기록한다.
+     */
+    public void recordStartupScheduled() {
+        if (startupScheduledMillis.compareAndSet(-1, sinceJvmStart())) {
+            log.info("기동 후 잡 등록 완료: JVM 시작부터 {}ms", startupScheduledMillis.get());
+        }
+    }
+
+    /**
+     * 기동 후 첫 firing 이 시작된 시점. JVM 시작부터의 시간을 한 번만 기록한다.
+     */
+    public void recordFirstFire(String jobId) {
+        if (firstFireMillis.get() < 0 && firstFireMillis.compareAndSet(-1, sinceJvmStart())) {
+            log.info("기동 후 첫 잡 실행: {} (JVM 시작부터 {}ms)", jobId, firstFireMillis.get());
+        }
+    }
+
+    private static long sinceJvmStart() {
+        return System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+    }
+
+    /**
+     * 타이밍 휠({@code engine: wheel})에 등록된 타이머 수와 틱 처리 지연을 노출한다.
+     */
+    public void registerTimingWheel(IntSupplier pending, LongSupplier lagNanos) {
+        Gauge.builder("scheduler.wheel.pending", pending, IntSupplier::getAsInt)
+                .description("Timers registered on the timing wheel")
+                .register(meterRegistry);
+        TimeGauge.builder("scheduler.wheel.lag", lagNanos, TimeUnit.NANOSECONDS, LongSupplier::getAsLong)
+                .description("Delay of the last processed timing wheel tick")
+                .register(meterRegistry);
+    }
+
+    /**
+     * firing 실행 허가의 전역 예산, 실행 중 firing 수, 사용률, 대기열 길이를 노출한다.
+     */
+    public void registerAdmission(IntSupplier inFlight, int limit, IntSupplier queueDepth) {
+        Gauge.builder("scheduler.admission.inflight", inFlight, IntSupplier::getAsInt)
+                .description("Job firings holding an admission permit")
+                .register(meterRegistry);
+        Gauge.builder("scheduler.admission.limit", () -> limit)
+                .description("Global in-flight firing budget")
+                .register(meterRegistry);
+        Gauge.builder("scheduler.admission.utilization", inFlight, supplier -> (double) supplier.getAsInt() / limit)
+                .description("Share of the global in-flight budget in use")
+                .register(meterRegistry);
+        Gauge.builder("scheduler.admission.queue", queueDepth, IntSupplier::getAsInt)
+                .description("Job firings waiting for an admission permit")
+                .register(meterRegistry);
+    }
+
+    /**
+     * bulkhead 의 실행 중 firing 수와 한도(0 이면 한도 없음)를 노출한다.
+     */
+    public void registerBulkhead(String name, IntSupplier inFlight, IntSupplier limit) {
+        Gauge.builder("scheduler.bulkhead.inflight", inFlight, IntSupplier::getAsInt)
+                .tag("bulkhead", name)
+                .description("Job firings running in the bulkhead")
+                .register(meterRegistry);
+        Gauge.builder("scheduler.bulkhead.limit", limit, IntSupplier::getAsInt)
+                .tag("bulkhead", name)
+                .description("Concurrent firing limit of the bulkhead")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 실행 허가를 받지 못한 firing 을 우선순위와 이유별로 기록한다.
+     *
+     * @param reason shed | queue_full | admission_timeout
+     */
+    public void recordAdmissionRejected(String priority, String reason) {
+        admissionRejectedCounters.computeIfAbsent(priority + "|" + reason,
+            key -> Counter.builder("scheduler.admission.rejected")
+                .tag("priority", priority)
+                .tag("reason", reason)
+                .description("Job firings rejected by admission control")
+                .register(meterRegistry)).increment();
+    }
+
+    public void recordAdmissionWait(String priority, long nanos) {
+        admissionWaitTimers.computeIfAbsent(priority,
+            key -> Timer.builder("scheduler.admission.wait")
+                .tag("priority", priority)
+                .description("Time a job firing waited for an admission permit")
+                .publishPercentileHistogram()
+                .register(meterRegistry)).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 동시 요청 리미터의 현재 한도, 실행 중 요청 수, 대기열 길이, 거절 수를 노출한다.
+     */
+    public void registerConcurrencyLimiter(AdaptiveLimiter limiter) {
+        Gauge.builder("http.client.limiter.limit", limiter, AdaptiveLimiter::getLimit)
+                .tag("limiter", limiter.getName())
+                .description("Current adaptive concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("http.client.limiter.inflight", limiter, AdaptiveLimiter::getInFlight)
+                .tag("limiter", limiter.getName())
+                .description("Requests currently holding a limiter permit")
+                .register(meterRegistry);
+        Gauge.builder("http.client.limiter.queue", limiter, AdaptiveLimiter::getQueueDepth)
+                .tag("limiter", limiter.getName())
+                .description("Requests waiting for a limiter permit")
+                .register(meterRegistry);
+        FunctionCounter.builder("http.client.limiter.rejected", limiter, AdaptiveLimiter::getRejectedCount)
+                .tag("limiter", limiter.getName())
+                .description("Requests rejected by the limiter")
+                .register(meterRegistry);
+    }
+
+    public void registerCircuitBreaker(CircuitBreaker breaker) {
+        Gauge.builder("http.client.circuit.state", breaker, b -> b.getState().ordinal())
+                .tag("endpoint", breaker.getEndpoint())
+                .description("Circuit breaker state (0=closed, 1=half-open, 2=open)")
+                .register(meterRegistry);
+        FunctionCounter.builder("http.client.circuit.rejected", breaker, CircuitBreaker::getRejectedCount)
+                .tag("endpoint", breaker.getEndpoint())
+                .description("Requests rejected by an open circuit")
+                .register(meterRegistry);
+    }
+
+    public void registerRetryBudget(RetryBudget budget) {
+        Gauge.builder("http.client.retry.budget", budget, RetryBudget::getBalance)
+                .description("Remaining retry tokens")
+                .register(meterRegistry);
+    }
+
+    public void registerHedgeBudget(RetryBudget budget) {
+        Gauge.builder("http.client.hedge.budget", budget, RetryBudget::getBalance)
+                .description("Remaining hedged request tokens")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 실행하지 않고 건너뛴 firing 을 기록한다.
+     *
+     * @param reason circuit_open, overlap 등 건너뛴 이유
+     */
+    public void recordJobSkipped(String jobId, String reason) {
+        skippedCounters.computeIfAbsent(jobId + "|" + reason,
+            key -> Counter.builder("job.skipped")
+                .tag("job_id", jobId)
+                .tag("reason", reason)
+                .description("Number of skipped job firings")
+                .register(meterRegistry)).increment();
+    }
+
+    public void registerResponseCache(ResponseCache cache) {
+        FunctionCounter.builder("http.client.cache.requests", cache, ResponseCache::getNotModifiedCount)
+                .tag("result", "not_modified")
+                .description("Conditional requests answered with 304")
+                .register(meterRegistry);
+        FunctionCounter.builder("http.client.cache.requests", cache, ResponseCache::getMissCount)
+                .tag("result", "miss")
+                .description("Cacheable requests that downloaded a full body")
+                .register(meterRegistry);
+        FunctionCounter.builder("http.client.cache.requests", cache, ResponseCache::getUnchangedCount)
+                .tag("result", "unchanged")
+                .description("Full downloads whose body digest matched the previous response")
+                .register(meterRegistry);
+        FunctionCounter.builder("http.client.cache.bytes.saved", cache, ResponseCache::getBytesSaved)
+                .description("Body bytes not transferred thanks to 304 responses")
+                .register(meterRegistry);
+        Gauge.builder("http.client.cache.body.bytes", cache, ResponseCache::getBodyBytes)
+                .description("Approximate bytes of response bodies held in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 커넥션 풀별로 소켓에서 주고받은 바이트와 새로 연 커넥션 수를 등록한다. 풀마다 한 번만 호출한다.
+     */
+    public void registerWireStats(String pool, WireStats stats) {
+        FunctionCounter.builder("http.client.wire.bytes", stats, WireStats::getBytesReceived)
+                .tag("pool", pool)
+                .tag("direction", "received")
+                .baseUnit("bytes")
+                .description("Bytes read from the socket, after TLS, HTTP/2 framing and compression")
+                .register(meterRegistry);
+        FunctionCounter.builder("http.client.wire.bytes", stats, WireStats::getBytesSent)
+                .tag("pool", pool)
+                .tag("direction", "sent")
+                .baseUnit("bytes")
+                .description("Bytes written to the socket, after TLS, HTTP/2 framing and compression")
+                .register(meterRegistry);
+        FunctionCounter.builder("http.client.connections.opened", stats, WireStats::getConnectionsOpened)
+                .tag("pool", pool)
+                .description("TCP connections opened by the pool")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Quartz 트리거가 예정 시각을 놓쳐 misfire 정책으로 처리된 것을 기록한다.
+     */
+    public void recordMisfire(String jobId) {
+        misfireCounters.computeIfAbsent(jobId,
+            key -> Counter.builder("job.misfire")
+                .tag("job_id", jobId)
+                .description("Quartz trigger misfires")
+                .register(meterRegistry)).increment();
     }
 
-    private Counter getSuccessCounter(String jobId) {
-        return successCounters.computeIfAbsent(jobId, 
-            id -> Counter.builder("job.success")
-                .tag("job_id", id)
-                .description("Number of successful job executions")
-                .register(meterRegistry));
+    /**
+     * 이전 firing 이 실행 중일 때 대기하거나 그 결과에 합류한 firing 을 기록한다.
+     *
+     * @param action queued | coalesced
+     */
+    public void recordJobOverlap(String jobId, String action) {
+        overlapCounters.computeIfAbsent(jobId + "|" + action,
+            key -> Counter.builder("job.overlap")
+                .tag("job_id", jobId)
+                .tag("action", action)
+                .description("Job firings that overlapped a running execution")
+                .register(meterRegistry)).increment();
     }
 
-    private Counter getFailureCounter(String jobId) {
-        return failureCounters.computeIfAbsent(jobId,
-            id -> Counter.builder("job.failure")
-                .tag("job_id", id)
-                .description("Number of failed job executions")
-                .register(meterRegistry));
+    /**
+     * Reactor Netty 커넥션 풀 메트릭은 Metrics.globalRegistry 에 기록되므로
+     * 잡 메트릭과 같은 레지스트리에 모이도록 전역 레지스트리에 연결한다.
+     */
+    public void bindReactorNettyMetrics() {
+        if (!isBoundToGlobalRegistry()) {
+            Metrics.addRegistry(meterRegistry);
+            log.info("Reactor Netty 메트릭을 잡 메트릭 레지스트리에 연결했습니다.");
+        }
     }
 
-    private Timer getExecutionTimer(String jobId) {
-        return executionTimers.computeIfAbsent(jobId,
-            id -> Timer.builder("job.execution.time")
-                .tag("job_id", id)
-                .description("Job execution time")
-                .register(meterRegistry));
+    private boolean isBoundToGlobalRegistry() {
+        Set<MeterRegistry> global = Metrics.globalRegistry.getRegistries();
+        if (meterRegistry == Metrics.globalRegistry || global.contains(meterRegistry)) {
+            return true;
+        }
+        return meterRegistry instanceof CompositeMeterRegistry composite
+                && !composite.getRegistries().isEmpty()
+                && global.containsAll(composite.getRegistries());
     }
 }
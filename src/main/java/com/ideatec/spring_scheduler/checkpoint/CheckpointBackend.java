@@ -0,0 +1,33 @@
+package com.ideatec.spring_scheduler.checkpoint;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * 체크포인트 저장 방식. 잡 하나의 상태는 불변 Map 스냅샷으로 통째로 교체된다.
+ */
+interface CheckpointBackend extends AutoCloseable {
+
+    /**
+     * @return 잡의 현재 상태, 없으면 null
+     */
+    Map<String, Object> get(String jobId);
+
+    Map<String, Map<String, Object>> getAll();
+
+    void put(String jobId, Map<String, Object> state);
+
+    /**
+     * 현재 상태의 복사본에 {@code mutation} 을 적용해 원자적으로 교체한다.
+     */
+    void update(String jobId, Consumer<Map<String, Object>> mutation);
+
+    CompletableFuture<Void> flush();
+
+    void onCommit(LongConsumer listener);
+
+    @Override
+    void close();
+}
@@ -0,0 +1,445 @@
+package com.ideatec.spring_scheduler.checkpoint;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+/**
+ * 세그먼트 단위 append-only 체크포인트 로그.
+ * <p>
+ * 레코드 형식: [payload 길이(int)][CRC32(int)][Smile payload]. 쓰기는 단일 writer 스레드가
+ * 큐에 쌓인 레코드를 모아서 한 번에 기록하고 fsync 한 번으로 커밋한다(group commit).
+ * 세그먼트가 일정 개수 이상 쌓이면 인덱스 스냅샷을 남기고 이전 세그먼트를 삭제한다.
+ * <p>
+ * 배치 쓰기가 실패하면 세그먼트를 마지막으로 커밋된 위치까지 잘라(안 되면 새 세그먼트로 넘어가) 찢어진 레코드 뒤에
+ * 다음 배치가 붙지 않게 하고, 같은 배치를 다시 쓴다. 재시도도 실패하면 기록하지 못한 잡을 에러 로그로 남기고
+ * barrier 를 실패시킨다.
+ * <p>
+ * 복구는 세그먼트를 지우고 찢어진 끝부분을 잘라내므로 다른 프로세스가 같은 디렉토리에 쓰고 있으면 그 프로세스의
+ * 레코드를 망가뜨린다. {@link #recover()} 는 디렉토리의 {@code LOCK} 파일을 잠그고, 이미 잠겨 있으면 바로 실패한다.
+ * 잠금은 {@link #close()} 또는 프로세스 종료 시 풀린다.
+ */
+@Slf4j
+class CheckpointLog implements AutoCloseable {
+    private static final String SEGMENT_PREFIX = "checkpoint-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_FILE = "checkpoint-snapshot.smile";
+    private static final String LOCK_FILE = "LOCK";
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_BATCH = 1024;
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+    private static final long RETRY_BACKOFF_MS = 100;
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+    private final Path dir;
+    private final long segmentMaxBytes;
+    private final int compactThreshold;
+    private final Supplier<Map<String, Map<String, Object>>> snapshotSource;
+    private final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+    private final BlockingQueue<Entry> queue = new LinkedBlockingQueue<>();
+
+    private volatile boolean running;
+    private volatile LongConsumer commitListener = nanos -> { };
+    private Thread writer;
+    private FileChannel lockChannel;
+    private FileChannel segment;
+    private long segmentSeq;
+    private long segmentSize;
+    private long committedSize;
+    private long oldestSegmentSeq;
+
+    CheckpointLog(Path dir, long segmentMaxBytes, int compactThreshold,
+                  Supplier<Map<String, Map<String, Object>>> snapshotSource) {
+        this.dir = dir;
+        this.segmentMaxBytes = segmentMaxBytes;
+        this.compactThreshold = compactThreshold;
+        this.snapshotSource = snapshotSource;
+    }
+
+    /**
+     * 스냅샷을 읽고 이후 세그먼트를 순서대로 재생해 마지막 상태를 복원한다.
+     * 끝부분이 잘린 레코드(크래시 중 쓰기)는 버리고 파일을 잘라낸다.
+     *
+     * @throws IllegalStateException 다른 프로세스가 디렉토리를 잠그고 있을 때
+     */
+    @SuppressWarnings("unchecked")
+    Map<String, Map<String, Object>> recover() throws IOException {
+        lock();
+        Map<String, Map<String, Object>> state = new HashMap<>();
+        long baseSeq = 0;
+
+        Path snapshotPath = dir.resolve(SNAPSHOT_FILE);
+        if (Files.exists(snapshotPath)) {
+            Map<String, Object> snapshot = smileMapper.readValue(Files.readAllBytes(snapshotPath), MAP_TYPE);
+            baseSeq = ((Number) snapshot.get("segment")).longValue();
+            Map<String, Map<String, Object>> checkpoints = (Map<String, Map<String, Object>>) snapshot.get("checkpoints");
+            if (checkpoints != null) {
+                state.putAll(checkpoints);
+            }
+        }
+
+        long lastSeq = baseSeq - 1;
+        for (Map.Entry<Long, Path> entry : listSegments().entrySet()) {
+            if (entry.getKey() < baseSeq) {
+                // 스냅샷에 이미 반영된 세그먼트 (삭제 직전 크래시)
+                Files.deleteIfExists(entry.getValue());
+                continue;
+            }
+            replaySegment(entry.getValue(), state);
+            lastSeq = entry.getKey();
+        }
+
+        oldestSegmentSeq = Math.max(baseSeq, 0);
+        openSegment(lastSeq + 1);
+        log.info("체크포인트 복구 완료: jobs={}, segment={}", state.size(), segmentSeq);
+        return state;
+    }
+
+    void start() {
+        running = true;
+        writer = new Thread(this::writeLoop, "checkpoint-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    void append(String jobId, Map<String, Object> state) {
+        queue.add(new Entry(jobId, state, null));
+    }
+
+    /**
+     * 배치 하나의 쓰기+fsync 시간(나노초)을 writer 스레드에서 받는다.
+     */
+    void onCommit(LongConsumer listener) {
+        this.commitListener = listener;
+    }
+
+    /**
+     * 지금까지 append 된 레코드가 디스크에 fsync 될 때 완료되는 barrier.
+     */
+    CompletableFuture<Void> flush() {
+        CompletableFuture<Void> barrier = new CompletableFuture<>();
+        queue.add(new Entry(null, null, barrier));
+        return barrier;
+    }
+
+    @Override
+    public void close() {
+        if (running) {
+            try {
+                flush().get(10, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                log.warn("체크포인트 flush 실패", e);
+            }
+            running = false;
+            writer.interrupt();
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(5));
+                segment.close();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                log.warn("체크포인트 세그먼트 닫기 실패", e);
+            }
+        }
+        unlock();
+    }
+
+    private void lock() throws IOException {
+        if (lockChannel != null) {
+            return;
+        }
+        FileChannel channel = FileChannel.open(dir.resolve(LOCK_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null; // 같은 JVM 의 다른 인스턴스가 잠금
+        }
+        if (lock == null) {
+            channel.close();
+            throw new IllegalStateException("체크포인트 디렉토리를 다른 프로세스가 사용 중입니다: " + dir.toAbsolutePath()
+                    + " (같은 state 디렉토리로 두 인스턴스를 띄우지 마세요)");
+        }
+        lockChannel = channel;
+    }
+
+    private void unlock() {
+        if (lockChannel == null) {
+            return;
+        }
+        try {
+            // 채널을 닫으면 잠금도 풀린다
+            lockChannel.close();
+        } catch (IOException e) {
+            log.warn("체크포인트 잠금 해제 실패: {}", dir, e);
+        }
+        lockChannel = null;
+    }
+
+    private void writeLoop() {
+        List<Entry> batch = new ArrayList<>(MAX_BATCH);
+        int failures = 0;
+        while (running || !queue.isEmpty() || !batch.isEmpty()) {
+            try {
+                if (batch.isEmpty()) {
+                    Entry first = queue.poll(1, TimeUnit.SECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                }
+                // 실패한 배치를 다시 쓸 때도 뒤에 쌓인 레코드를 이어 붙이므로 순서가 유지된다
+                queue.drainTo(batch, MAX_BATCH - batch.size());
+                writeBatch(batch);
+                batch.clear();
+                failures = 0;
+                rollIfFull();
+            } catch (InterruptedException e) {
+                if (!running) {
+                    break;
+                }
+            } catch (IOException e) {
+                discardUncommitted();
+                if (++failures < MAX_WRITE_ATTEMPTS) {
+                    log.warn("체크포인트 로그 쓰기 실패, 재시도 {}/{}: records={}",
+                            failures, MAX_WRITE_ATTEMPTS - 1, batch.size(), e);
+                    if (!pause(RETRY_BACKOFF_MS * failures) && !running) {
+                        break;
+                    }
+                    continue;
+                }
+                log.error("체크포인트 로그 쓰기 포기: 디스크에 남지 않은 잡={}", jobIdsOf(batch), e);
+                batch.forEach(entry -> {
+                    if (entry.barrier() != null) {
+                        entry.barrier().completeExceptionally(e);
+                    }
+                });
+                batch.clear();
+                failures = 0;
+            }
+        }
+        if (!batch.isEmpty()) {
+            log.error("체크포인트 로그 종료 중 기록하지 못한 잡={}", jobIdsOf(batch));
+        }
+    }
+
+    private void writeBatch(List<Entry> batch) throws IOException {
+        long startNanos = System.nanoTime();
+        List<CompletableFuture<Void>> barriers = null;
+        for (Entry entry : batch) {
+            if (entry.barrier() != null) {
+                if (barriers == null) {
+                    barriers = new ArrayList<>();
+                }
+                barriers.add(entry.barrier());
+                continue;
+            }
+            byte[] payload = smileMapper.writeValueAsBytes(Map.of("j", entry.jobId(), "s", entry.state()));
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+            buffer.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+            while (buffer.hasRemaining()) {
+                segment.write(buffer);
+            }
+            segmentSize += buffer.limit();
+        }
+
+        // 배치 전체를 fsync 한 번으로 커밋
+        segment.force(false);
+        committedSize = segmentSize;
+        commitListener.accept(System.nanoTime() - startNanos);
+        if (barriers != null) {
+            barriers.forEach(barrier -> barrier.complete(null));
+        }
+    }
+
+    /**
+     * 실패한 배치가 남긴 레코드를 지운다. 그대로 두면 다음 배치가 찢어진 레코드 뒤에 붙고, 복구는 찢어진 레코드에서
+     * 재생을 멈추고 파일을 잘라내므로 그 뒤의 정상 레코드까지 잃는다.
+     */
+    private void discardUncommitted() {
+        try {
+            segment.truncate(committedSize);
+            segmentSize = committedSize;
+        } catch (IOException e) {
+            // 자를 수 없으면 찢어진 레코드는 이전 세그먼트의 끝에 남고 복구 때 그 세그먼트에서만 잘린다
+            log.warn("체크포인트 세그먼트 자르기 실패, 새 세그먼트로 넘어감: segment={}", segmentSeq, e);
+            try {
+                segment.close();
+            } catch (IOException ignored) {
+                // 이미 쓸 수 없는 채널
+            }
+            try {
+                openSegment(segmentSeq + 1);
+            } catch (IOException openFailure) {
+                log.error("체크포인트 세그먼트 열기 실패: segment={}", segmentSeq, openFailure);
+            }
+        }
+    }
+
+    private void rollIfFull() {
+        if (segmentSize < segmentMaxBytes) {
+            return;
+        }
+        try {
+            roll();
+        } catch (IOException e) {
+            // 배치는 이미 커밋되었으므로 다음 배치에서 다시 시도한다
+            log.error("체크포인트 세그먼트 롤링/컴팩션 실패: segment={}", segmentSeq, e);
+        }
+    }
+
+    private static boolean pause(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            return false;
+        }
+    }
+
+    private static List<String> jobIdsOf(List<Entry> batch) {
+        return batch.stream().map(Entry::jobId).filter(Objects::nonNull).distinct().toList();
+    }
+
+    private void roll() throws IOException {
+        segment.close();
+        openSegment(segmentSeq + 1);
+        if (segmentSeq - oldestSegmentSeq >= compactThreshold) {
+            compact();
+        }
+    }
+
+    /**
+     * 새 세그먼트를 연 직후(아직 레코드 없음)에 호출된다. 인덱스는 닫힌 세그먼트의 모든 레코드보다
+     * 최신이므로 스냅샷이 현재 세그먼트 이전을 모두 대체한다.
+     */
+    private void compact() throws IOException {
+        Map<String, Object> snapshot = new HashMap<>();
+        snapshot.put("segment", segmentSeq);
+        snapshot.put("checkpoints", snapshotSource.get());
+
+        Path snapshotPath = dir.resolve(SNAPSHOT_FILE);
+        Path tempPath = dir.resolve(SNAPSHOT_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(tempPath,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(smileMapper.writeValueAsBytes(snapshot));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(tempPath, snapshotPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        for (Map.Entry<Long, Path> entry : listSegments().entrySet()) {
+            if (entry.getKey() < segmentSeq) {
+                Files.deleteIfExists(entry.getValue());
+            }
+        }
+        oldestSegmentSeq = segmentSeq;
+        log.info("체크포인트 컴팩션 완료: segment={}", segmentSeq);
+    }
+
+    private void openSegment(long seq) throws IOException {
+        segmentSeq = seq;
+        segment = FileChannel.open(segmentPath(seq),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        segmentSize = segment.size();
+        committedSize = segmentSize;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void replaySegment(Path file, Map<String, Map<String, Object>> state) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            long position = 0;
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (position + HEADER_BYTES <= size) {
+                header.clear();
+                readFully(channel, header, position);
+                header.flip();
+                int length = header.getInt();
+                int checksum = header.getInt();
+                if (length <= 0 || position + HEADER_BYTES + length > size) {
+                    break;
+                }
+
+                ByteBuffer payload = ByteBuffer.allocate(length);
+                readFully(channel, payload, position + HEADER_BYTES);
+                CRC32 crc = new CRC32();
+                crc.update(payload.array(), 0, length);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+
+                Map<String, Object> record = smileMapper.readValue(payload.array(), MAP_TYPE);
+                state.put((String) record.get("j"), (Map<String, Object>) record.get("s"));
+                position += HEADER_BYTES + length;
+            }
+
+            if (position < size) {
+                log.warn("손상된 체크포인트 레코드 제거: file={}, offset={}, size={}", file, position, size);
+                channel.truncate(position);
+            }
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException();
+            }
+        }
+    }
+
+    private TreeMap<Long, Path> listSegments() throws IOException {
+        TreeMap<Long, Path> segments = new TreeMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+                String seq = name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length());
+                try {
+                    segments.put(Long.parseLong(seq), path);
+                } catch (NumberFormatException e) {
+                    log.warn("알 수 없는 체크포인트 세그먼트 무시: {}", path);
+                }
+            }
+        }
+        return segments;
+    }
+
+    private Path segmentPath(long seq) {
+        return dir.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, seq, SEGMENT_SUFFIX));
+    }
+
+    private record Entry(String jobId, Map<String, Object> state, CompletableFuture<Void> barrier) {
+    }
+}
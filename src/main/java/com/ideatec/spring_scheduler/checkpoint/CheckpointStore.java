@@ -1,112 +1,136 @@
 package com.ideatec.spring_scheduler.checkpoint;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.io.IOException;
-import java.nio.file.Files;
+import javax.sql.DataSource;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
-import java.nio.file.StandardOpenOption;
 import java.time.Instant;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongConsumer;
 
+/**
+ * 잡 체크포인트 저장소.
+ * <p>
+ * 단일 인스턴스({@code scheduler.store.type: ram})에서는 메모리 인덱스 + append-only 로그({@link LogCheckpointBackend})에,
+ * 클러스터({@code jdbc})에서는 Quartz 잡 스토어와 같은 DB 테이블({@link JdbcCheckpointBackend})에 저장해
+ * 다른 노드가 이어받은 잡도 마지막 상태를 볼 수 있게 한다.
+ */
 @Slf4j
 @Component
 public class CheckpointStore {
-    private final ObjectMapper objectMapper = new ObjectMapper();
-    private final Path checkpointPath = Paths.get("state/checkpoints.json");
-    private final ReentrantLock lock = new ReentrantLock();
-
-    public CheckpointStore() {
-        try {
-            Files.createDirectories(checkpointPath.getParent());
-        } catch (IOException e) {
-            log.error("체크포인트 디렉토리 생성 실패", e);
-        }
+    private final CheckpointBackend backend;
+
+    @Autowired
+    public CheckpointStore(@Value("${scheduler.checkpoint.dir:state}") String stateDir,
+                           @Value("${scheduler.store.type:ram}") String storeType,
+                           ObjectProvider<DataSource> dataSource) {
+        this("jdbc".equalsIgnoreCase(storeType)
+                ? new JdbcCheckpointBackend(dataSource.getObject())
+                : new LogCheckpointBackend(Paths.get(stateDir)));
     }
 
-    public synchronized void save(String jobId, Map<String, Object> state) {
-        lock.lock();
-        try {
-            Map<String, Object> allCheckpoints = loadAll();
-            allCheckpoints.put(jobId, state);
-            
-            // 원자적 쓰기: .tmp 파일로 쓰고 ATOMIC_MOVE로 교체
-            Path tempPath = Paths.get(checkpointPath.toString() + ".tmp");
-            Files.writeString(
-                tempPath,
-                objectMapper.writeValueAsString(allCheckpoints),
-                StandardOpenOption.CREATE,
-                StandardOpenOption.TRUNCATE_EXISTING
-            );
-            
-            Files.move(tempPath, checkpointPath, 
-                StandardCopyOption.ATOMIC_MOVE, 
-                StandardCopyOption.REPLACE_EXISTING);
-                
-            log.debug("체크포인트 저장 완료: jobId={}", jobId);
-        } catch (IOException e) {
-            log.error("체크포인트 저장 실패: jobId={}", jobId, e);
-        } finally {
-            lock.unlock();
-        }
+    public CheckpointStore(Path stateDir) {
+        this(new LogCheckpointBackend(stateDir));
+    }
+
+    CheckpointStore(CheckpointBackend backend) {
+        this.backend = backend;
+    }
+
+    public void save(String jobId, Map<String, Object> state) {
+        backend.put(jobId, Collections.unmodifiableMap(new HashMap<>(state)));
+        log.debug("체크포인트 저장: jobId={}", jobId);
     }
 
     public Map<String, Object> load(String jobId) {
-        Map<String, Object> allCheckpoints = loadAll();
-        return (Map<String, Object>) allCheckpoints.getOrDefault(jobId, new HashMap<>());
+        Map<String, Object> state = backend.get(jobId);
+        return state != null ? new HashMap<>(state) : new HashMap<>();
     }
 
-    @SuppressWarnings("unchecked")
-    public Map<String, Object> loadAll() {
-        if (!Files.exists(checkpointPath)) {
-            return new HashMap<>();
-        }
-        
-        try {
-            String content = Files.readString(checkpointPath);
-            return objectMapper.readValue(content, Map.class);
-        } catch (IOException e) {
-            log.error("체크포인트 로드 실패", e);
-            return new HashMap<>();
-        }
+    public Map<String, Map<String, Object>> loadAll() {
+        return backend.getAll();
     }
 
     public void saveLastSuccess(String jobId, Instant timestamp) {
-        Map<String, Object> state = new HashMap<>();
-        state.put("lastSuccess", timestamp.toString());
-        state.put("lastUpdate", Instant.now().toString());
-        save(jobId, state);
+        backend.update(jobId, state -> {
+            state.put("lastSuccess", timestamp.toString());
+            state.put("lastUpdate", Instant.now().toString());
+        });
     }
 
     public Instant getLastSuccess(String jobId) {
-        Map<String, Object> state = load(jobId);
-        String lastSuccessStr = (String) state.get("lastSuccess");
-        if (lastSuccessStr != null) {
+        Object lastSuccess = get(jobId, "lastSuccess");
+        if (lastSuccess != null) {
             try {
-                return Instant.parse(lastSuccessStr);
+                return Instant.parse(lastSuccess.toString());
             } catch (Exception e) {
-                log.warn("마지막 성공 시간 파싱 실패: jobId={}, value={}", jobId, lastSuccessStr);
+                log.warn("마지막 성공 시간 파싱 실패: jobId={}, value={}", jobId, lastSuccess);
             }
         }
         return null;
     }
 
     public void saveOffset(String jobId, String offset) {
-        Map<String, Object> state = load(jobId);
-        state.put("offset", offset);
-        state.put("lastUpdate", Instant.now().toString());
-        save(jobId, state);
+        backend.update(jobId, state -> {
+            state.put("offset", offset);
+            state.put("lastUpdate", Instant.now().toString());
+        });
     }
 
     public String getOffset(String jobId) {
-        Map<String, Object> state = load(jobId);
-        return (String) state.get("offset");
+        Object offset = get(jobId, "offset");
+        return offset != null ? offset.toString() : null;
     }
-}
 
+    /**
+     * 운영자 일시정지 여부를 잡 체크포인트에 기록한다. 클러스터에서는 설정을 다시 반영하는 노드가 이 값을 보고
+     * 다른 노드에서 일시정지한 잡을 재개하지 않는다.
+     */
+    public void saveOperatorPaused(String jobId, boolean paused) {
+        backend.update(jobId, state -> {
+            if (paused) {
+                state.put("operatorPaused", true);
+            } else {
+                state.remove("operatorPaused");
+            }
+            state.put("lastUpdate", Instant.now().toString());
+        });
+    }
+
+    public boolean isOperatorPaused(String jobId) {
+        return Boolean.TRUE.equals(get(jobId, "operatorPaused"));
+    }
+
+    /**
+     * 커밋(로그 그룹 커밋의 쓰기 + fsync, 또는 DB 트랜잭션)마다 걸린 시간(나노초)을 받을 리스너를 등록한다.
+     */
+    public void onCommit(LongConsumer listener) {
+        backend.onCommit(listener);
+    }
+
+    /**
+     * 지금까지 저장된 체크포인트가 디스크에 커밋되면 완료된다.
+     */
+    public CompletableFuture<Void> flush() {
+        return backend.flush();
+    }
+
+    @PreDestroy
+    public void close() {
+        backend.close();
+    }
+
+    private Object get(String jobId, String key) {
+        Map<String, Object> state = backend.get(jobId);
+        return state != null ? state.get(key) : null;
+    }
+}
@@ -0,0 +1,147 @@
+package com.ideatec.spring_scheduler.checkpoint;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * 클러스터용 저장 방식. 모든 노드가 Quartz 잡 스토어와 같은 DB 의 테이블을 공유한다.
+ * <p>
+ * 다른 노드가 이어받은 잡(페일오버, 다음 firing)이 마지막 offset 을 봐야 하므로 메모리 캐시 없이 항상 DB 에서 읽는다.
+ * 부분 갱신은 행 잠금({@code SELECT ... FOR UPDATE}) 안에서 읽고-고치고-쓰며, 쓰기는 트랜잭션 커밋으로 완료된다.
+ */
+@Slf4j
+class JdbcCheckpointBackend implements CheckpointBackend {
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+    private static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS SCHEDULER_CHECKPOINTS ("
+            + "JOB_ID VARCHAR(200) NOT NULL PRIMARY KEY, "
+            + "STATE VARCHAR(1000000) NOT NULL, "
+            + "UPDATED_AT TIMESTAMP NOT NULL)";
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transactions;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private volatile LongConsumer commitListener = nanos -> { };
+
+    JdbcCheckpointBackend(DataSource dataSource) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.transactions = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        jdbc.execute(CREATE_TABLE);
+        log.info("공유 체크포인트 저장소 사용 (JDBC)");
+    }
+
+    @Override
+    public Map<String, Object> get(String jobId) {
+        List<String> rows = jdbc.queryForList("SELECT STATE FROM SCHEDULER_CHECKPOINTS WHERE JOB_ID = ?",
+                String.class, jobId);
+        return rows.isEmpty() ? null : Collections.unmodifiableMap(parse(rows.get(0)));
+    }
+
+    @Override
+    public Map<String, Map<String, Object>> getAll() {
+        Map<String, Map<String, Object>> all = new HashMap<>();
+        jdbc.query("SELECT JOB_ID, STATE FROM SCHEDULER_CHECKPOINTS", rs -> {
+            all.put(rs.getString(1), Collections.unmodifiableMap(parse(rs.getString(2))));
+        });
+        return all;
+    }
+
+    @Override
+    public void put(String jobId, Map<String, Object> state) {
+        String json = write(state);
+        commit(() -> {
+            if (updateRow(jobId, json) == 0) {
+                insertRow(jobId, json);
+            }
+        });
+    }
+
+    @Override
+    public void update(String jobId, Consumer<Map<String, Object>> mutation) {
+        commit(() -> {
+            List<String> rows = jdbc.queryForList(
+                    "SELECT STATE FROM SCHEDULER_CHECKPOINTS WHERE JOB_ID = ? FOR UPDATE", String.class, jobId);
+            Map<String, Object> next = rows.isEmpty() ? new HashMap<>() : parse(rows.get(0));
+            mutation.accept(next);
+            if (rows.isEmpty()) {
+                insertRow(jobId, write(next));
+            } else {
+                updateRow(jobId, write(next));
+            }
+        });
+    }
+
+    /**
+     * 트랜잭션 커밋으로 이미 저장되어 있다.
+     */
+    @Override
+    public CompletableFuture<Void> flush() {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public void onCommit(LongConsumer listener) {
+        this.commitListener = listener;
+    }
+
+    @Override
+    public void close() {
+        // DataSource 는 스프링이 정리한다
+    }
+
+    /**
+     * 같은 잡의 첫 저장이 두 노드에서 동시에 일어나면 한쪽 INSERT 가 키 중복으로 실패하므로 한 번 다시 시도한다
+     * (두 번째 시도에서는 행이 있으므로 잠금 후 갱신된다).
+     */
+    private void commit(Runnable work) {
+        long startNanos = System.nanoTime();
+        try {
+            transactions.executeWithoutResult(status -> work.run());
+        } catch (DuplicateKeyException e) {
+            transactions.executeWithoutResult(status -> work.run());
+        }
+        commitListener.accept(System.nanoTime() - startNanos);
+    }
+
+    private int updateRow(String jobId, String json) {
+        return jdbc.update("UPDATE SCHEDULER_CHECKPOINTS SET STATE = ?, UPDATED_AT = ? WHERE JOB_ID = ?",
+                json, Timestamp.from(Instant.now()), jobId);
+    }
+
+    private void insertRow(String jobId, String json) {
+        jdbc.update("INSERT INTO SCHEDULER_CHECKPOINTS (JOB_ID, STATE, UPDATED_AT) VALUES (?, ?, ?)",
+                jobId, json, Timestamp.from(Instant.now()));
+    }
+
+    private Map<String, Object> parse(String json) {
+        try {
+            return objectMapper.readValue(json, MAP_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("체크포인트 파싱 실패", e);
+        }
+    }
+
+    private String write(Map<String, Object> state) {
+        try {
+            return objectMapper.writeValueAsString(state);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("체크포인트 직렬화 실패", e);
+        }
+    }
+}
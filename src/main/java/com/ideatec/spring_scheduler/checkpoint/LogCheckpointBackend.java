@@ -0,0 +1,114 @@
+package com.ideatec.spring_scheduler.checkpoint;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * 단일 인스턴스용 저장 방식.
+ * <p>
+ * 읽기는 항상 메모리 인덱스에서 처리하고, 쓰기는 인덱스를 갱신한 뒤 {@link CheckpointLog}에
+ * 레코드를 append 한다. 디스크 I/O는 writer 스레드가 group commit 으로 처리하므로
+ * 잡 실행 스레드는 파일을 읽거나 fsync 를 기다리지 않는다.
+ */
+@Slf4j
+class LogCheckpointBackend implements CheckpointBackend {
+    private static final long SEGMENT_MAX_BYTES = 16L * 1024 * 1024;
+    private static final int COMPACT_THRESHOLD = 4;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Path legacyCheckpointPath;
+    private final Map<String, Map<String, Object>> index = new ConcurrentHashMap<>();
+    private final CheckpointLog checkpointLog;
+
+    LogCheckpointBackend(Path stateDir) {
+        this.legacyCheckpointPath = stateDir.resolve("checkpoints.json");
+        this.checkpointLog = new CheckpointLog(stateDir, SEGMENT_MAX_BYTES, COMPACT_THRESHOLD, this::getAll);
+        try {
+            Files.createDirectories(stateDir);
+            index.putAll(checkpointLog.recover());
+            checkpointLog.start();
+            migrateLegacyCheckpoints();
+        } catch (IOException e) {
+            throw new IllegalStateException("체크포인트 복구 실패: " + stateDir.toAbsolutePath(), e);
+        }
+    }
+
+    @Override
+    public Map<String, Object> get(String jobId) {
+        return index.get(jobId);
+    }
+
+    @Override
+    public Map<String, Map<String, Object>> getAll() {
+        return new HashMap<>(index);
+    }
+
+    @Override
+    public void put(String jobId, Map<String, Object> state) {
+        // compute 는 키 단위로 원자적이므로 인덱스 갱신 순서와 로그 append 순서가 일치한다
+        index.compute(jobId, (id, previous) -> {
+            checkpointLog.append(id, state);
+            return state;
+        });
+    }
+
+    @Override
+    public void update(String jobId, Consumer<Map<String, Object>> mutation) {
+        index.compute(jobId, (id, previous) -> {
+            Map<String, Object> next = previous != null ? new HashMap<>(previous) : new HashMap<>();
+            mutation.accept(next);
+            Map<String, Object> snapshot = Collections.unmodifiableMap(next);
+            checkpointLog.append(id, snapshot);
+            return snapshot;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> flush() {
+        return checkpointLog.flush();
+    }
+
+    @Override
+    public void onCommit(LongConsumer listener) {
+        checkpointLog.onCommit(listener);
+    }
+
+    @Override
+    public void close() {
+        checkpointLog.close();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void migrateLegacyCheckpoints() throws IOException {
+        if (!Files.exists(legacyCheckpointPath)) {
+            return;
+        }
+
+        // 이전 버전의 전체 JSON 파일은 로그에 없는 잡만 옮기고 이름을 바꿔둔다
+        Map<String, Object> legacy = objectMapper.readValue(Files.readString(legacyCheckpointPath), Map.class);
+        legacy.forEach((jobId, state) -> {
+            if (!index.containsKey(jobId) && state instanceof Map) {
+                Map<String, Object> snapshot = Collections.unmodifiableMap(new HashMap<>((Map<String, Object>) state));
+                index.put(jobId, snapshot);
+                checkpointLog.append(jobId, snapshot);
+            }
+        });
+        flush().join();
+        Files.move(legacyCheckpointPath, Paths.get(legacyCheckpointPath + ".migrated"),
+                StandardCopyOption.REPLACE_EXISTING);
+        log.info("기존 체크포인트 파일 마이그레이션 완료: jobs={}", legacy.size());
+    }
+}
@@ -0,0 +1,259 @@
+package com.ideatec.spring_scheduler.client;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AIMD 방식으로 동시 요청 수 한도를 조절하는 리미터.
+ * <p>
+ * 요청이 성공하고 한도의 절반 이상을 쓰고 있으면 한도를 1 늘리고, 타임아웃/연결 실패/408/429/5xx 또는
+ * 최소 지연시간 대비 {@code latencyTolerance} 배를 넘는 응답이 오면 {@code backoffRatio} 를 곱해 줄인다.
+ * 최소 지연시간은 경로(잡)마다 따로 잰다. 같은 호스트라도 엔드포인트마다 기본 지연이 다르므로, 빠른 엔드포인트의
+ * 값을 느린 엔드포인트에 적용하면 정상 응답이 모두 지연으로 판정되어 한도가 최소값까지 내려간다.
+ * 한도를 넘는 요청은 최대 {@code maxQueue} 개까지 대기하며 {@code maxWait} 안에 자리가 나지 않으면 거절된다.
+ */
+public class AdaptiveLimiter {
+    private static final long MIN_RTT_WINDOW_NANOS = Duration.ofMinutes(1).toNanos();
+
+    private final String name;
+    private final Deque<Waiter> queue = new ArrayDeque<>();
+    private final AtomicLong rejected = new AtomicLong();
+
+    private Settings settings;
+    private double limit;
+    private int inFlight;
+    private final Map<String, RttBaseline> baselines = new HashMap<>();
+
+    public AdaptiveLimiter(String name, Settings settings) {
+        this.name = name;
+        this.settings = settings;
+        this.limit = settings.initialLimit();
+    }
+
+    /**
+     * 허가를 받은 뒤 {@code call} 을 실행하고, 끝나면 결과와 지연시간으로 한도를 조절한다.
+     *
+     * @param route          최소 지연시간을 따로 잴 단위 (잡 ID)
+     * @param measureLatency false 면 지연시간은 보지 않고 오류만 반영한다 (대용량 스트리밍 응답 등)
+     */
+    public <T> Mono<T> run(Mono<T> call, String route, boolean measureLatency) {
+        String latencyRoute = measureLatency ? route : null;
+        return Mono.deferContextual(context -> Mono.usingWhen(acquire(),
+                permit -> call,
+                permit -> Mono.fromRunnable(() -> permit.release(Outcome.SUCCESS, latencyRoute)),
+                (permit, error) -> Mono.fromRunnable(() -> permit.release(Outcome.classify(error), latencyRoute)),
+                // 타임아웃 취소는 과부하 신호지만 hedging 에서 진 요청의 취소는 아니다
+                permit -> Mono.fromRunnable(() -> permit.release(
+                        HedgeRace.isSettled(context) ? Outcome.IGNORED : Outcome.DROPPED, null))));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public synchronized int getQueueDepth() {
+        return queue.size();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    public synchronized Settings getSettings() {
+        return settings;
+    }
+
+    /**
+     * 설정이 바뀌면 현재 한도를 새 범위 안으로 맞춘다.
+     */
+    public void reconfigure(Settings next) {
+        List<Waiter> granted;
+        synchronized (this) {
+            settings = next;
+            limit = Math.max(next.minLimit(), Math.min(next.maxLimit(), limit));
+            granted = drain();
+        }
+        granted.forEach(Waiter::grant);
+    }
+
+    /**
+     * 설정에서 빠진 잡의 최소 지연시간을 지운다.
+     */
+    public synchronized void retainRoutes(Set<String> routes) {
+        baselines.keySet().retainAll(routes);
+    }
+
+    private Mono<Permit> acquire() {
+        Settings current = getSettings();
+        return Mono.<Permit>create(sink -> {
+                    Waiter waiter = new Waiter(sink);
+                    sink.onCancel(waiter::cancel);
+                    boolean immediate;
+                    synchronized (this) {
+                        if (inFlight < (int) limit && queue.isEmpty()) {
+                            if (!waiter.claim()) {
+                                return;
+                            }
+                            inFlight++;
+                            immediate = true;
+                        } else if (queue.size() >= settings.maxQueue()) {
+                            rejected.incrementAndGet();
+                            sink.error(new ConcurrencyLimitExceededException(name, (int) limit, queue.size()));
+                            return;
+                        } else {
+                            queue.addLast(waiter);
+                            immediate = false;
+                        }
+                    }
+                    if (immediate) {
+                        waiter.grant();
+                    }
+                })
+                .timeout(current.maxWait(), Mono.defer(() -> {
+                    rejected.incrementAndGet();
+                    return Mono.error(new ConcurrencyLimitExceededException(name, getLimit(), getQueueDepth()));
+                }));
+    }
+
+    private void onRelease(Outcome outcome, String route, long latencyNanos) {
+        List<Waiter> granted;
+        synchronized (this) {
+            int usedBefore = inFlight;
+            inFlight--;
+
+            if (route != null && latencyNanos >= 0 && outcome == Outcome.SUCCESS) {
+                RttBaseline baseline = baselines.computeIfAbsent(route, key -> new RttBaseline());
+                if (baseline.isSlow(latencyNanos, settings.latencyTolerance())) {
+                    outcome = Outcome.DROPPED;
+                }
+            }
+            if (outcome == Outcome.DROPPED) {
+                limit = Math.max(settings.minLimit(), limit * settings.backoffRatio());
+            } else if (outcome == Outcome.SUCCESS && usedBefore * 2 >= (int) limit) {
+                limit = Math.min(settings.maxLimit(), limit + 1);
+            }
+            granted = drain();
+        }
+        granted.forEach(Waiter::grant);
+    }
+
+    /**
+     * 한도 안에서 대기 중인 요청을 꺼낸다. 허가 전달은 락 밖에서 한다.
+     */
+    private List<Waiter> drain() {
+        List<Waiter> granted = new ArrayList<>();
+        while (inFlight < (int) limit && !queue.isEmpty()) {
+            Waiter waiter = queue.pollFirst();
+            if (waiter.claim()) {
+                inFlight++;
+                granted.add(waiter);
+            }
+        }
+        return granted;
+    }
+
+    public record Settings(int initialLimit, int minLimit, int maxLimit, int maxQueue, Duration maxWait,
+                           double backoffRatio, double latencyTolerance) {
+    }
+
+    /**
+     * 경로 하나의 최소 지연시간. 리미터 락 안에서만 쓴다.
+     */
+    private static final class RttBaseline {
+        private long minRttNanos = Long.MAX_VALUE;
+        private long windowMinRttNanos = Long.MAX_VALUE;
+        private long windowStartNanos = System.nanoTime();
+
+        boolean isSlow(long latencyNanos, double tolerance) {
+            long now = System.nanoTime();
+            windowMinRttNanos = Math.min(windowMinRttNanos, latencyNanos);
+            minRttNanos = Math.min(minRttNanos, latencyNanos);
+            // 업스트림 기본 지연이 바뀌는 것을 따라가도록 주기적으로 최소값을 최근 윈도우 값으로 교체
+            if (now - windowStartNanos >= MIN_RTT_WINDOW_NANOS) {
+                minRttNanos = windowMinRttNanos;
+                windowMinRttNanos = Long.MAX_VALUE;
+                windowStartNanos = now;
+            }
+            return latencyNanos > minRttNanos * tolerance;
+        }
+    }
+
+    private enum Outcome {
+        SUCCESS, DROPPED, IGNORED;
+
+        static Outcome classify(Throwable error) {
+            return HttpFailures.isUpstreamFailure(error) ? DROPPED : IGNORED;
+        }
+    }
+
+    private final class Waiter {
+        private static final int WAITING = 0;
+        private static final int GRANTED = 1;
+        private static final int CANCELLED = 2;
+
+        private final MonoSink<Permit> sink;
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+        private volatile Permit permit;
+
+        private Waiter(MonoSink<Permit> sink) {
+            this.sink = sink;
+        }
+
+        /**
+         * 락 안에서 호출된다. 허가를 먼저 만들어 두므로 이후 취소되면 cancel 에서 반환할 수 있다.
+         */
+        boolean claim() {
+            permit = new Permit();
+            return state.compareAndSet(WAITING, GRANTED);
+        }
+
+        void grant() {
+            sink.success(permit);
+        }
+
+        void cancel() {
+            if (state.compareAndSet(WAITING, CANCELLED)) {
+                synchronized (AdaptiveLimiter.this) {
+                    queue.remove(this);
+                }
+            } else {
+                // 허가가 전달되는 중에 취소된 경우 (이미 사용 중이면 중복 반환은 Permit 이 무시한다)
+                permit.release(Outcome.IGNORED, null);
+            }
+        }
+    }
+
+    private final class Permit {
+        private final long startNanos = System.nanoTime();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        /**
+         * @param route 지연시간을 반영할 경로, null 이면 지연시간은 보지 않는다
+         */
+        void release(Outcome outcome, String route) {
+            if (released.compareAndSet(false, true)) {
+                onRelease(outcome, route, route != null ? System.nanoTime() - startNanos : -1);
+            }
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.ideatec.spring_scheduler.client;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 엔드포인트 단위 서킷 브레이커.
+ * <p>
+ * CLOSED 상태에서는 최근 {@code windowSize} 개 결과의 실패율이 {@code failureRateThreshold}% 이상이면
+ * (최소 {@code minimumCalls} 건) OPEN 으로 바뀐다. OPEN 은 {@code openDuration} 동안 요청을 즉시 거절하고,
+ * 이후 HALF_OPEN 에서 {@code halfOpenCalls} 건을 시험 삼아 보내 모두 성공하면 CLOSED, 하나라도 실패하면 다시 OPEN 이 된다.
+ */
+@Slf4j
+public class CircuitBreaker {
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    private final String endpoint;
+    private final Settings settings;
+    private final boolean[] window;
+    private final AtomicLong rejected = new AtomicLong();
+
+    private State state = State.CLOSED;
+    private long epoch;
+    private int windowIndex;
+    private int windowCount;
+    private int windowFailures;
+    private long openedAtNanos;
+    private int halfOpenInFlight;
+    private int halfOpenSuccesses;
+
+    public CircuitBreaker(String endpoint, Settings settings) {
+        this.endpoint = endpoint;
+        this.settings = settings;
+        this.window = new boolean[settings.windowSize()];
+    }
+
+    /**
+     * 요청 허가를 받은 뒤 {@code call} 을 실행하고 결과를 기록한다. 허가가 없으면 {@link CircuitOpenException}.
+     * 취소는 타임아웃으로 보고 실패로 기록하지만, hedging 에서 다른 요청에 져서 취소된 경우는 결과를 남기지 않는다.
+     */
+    public <T> Mono<T> run(Mono<T> call) {
+        return Mono.deferContextual(context -> Mono.usingWhen(Mono.fromCallable(this::acquire),
+                permit -> call,
+                permit -> Mono.fromRunnable(() -> permit.record(true)),
+                (permit, error) -> Mono.fromRunnable(() -> {
+                    if (HttpFailures.isUpstreamFailure(error)) {
+                        permit.record(false);
+                    } else {
+                        permit.record(true);
+                    }
+                }),
+                permit -> Mono.fromRunnable(() -> {
+                    if (HedgeRace.isSettled(context)) {
+                        permit.discard();
+                    } else {
+                        permit.record(false);
+                    }
+                })));
+    }
+
+    /**
+     * 허가를 소비하지 않고 지금 요청이 거절될 상태인지 확인한다. firing 을 건너뛸지 판단할 때 사용한다.
+     */
+    public synchronized boolean isRejecting() {
+        if (state == State.OPEN) {
+            return System.nanoTime() - openedAtNanos < settings.openDuration().toNanos();
+        }
+        return state == State.HALF_OPEN && halfOpenInFlight >= settings.halfOpenCalls();
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    private synchronized Permit acquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAtNanos < settings.openDuration().toNanos()) {
+                rejected.incrementAndGet();
+                throw new CircuitOpenException(endpoint);
+            }
+            transition(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenInFlight >= settings.halfOpenCalls()) {
+                rejected.incrementAndGet();
+                throw new CircuitOpenException(endpoint);
+            }
+            halfOpenInFlight++;
+        }
+        return new Permit(epoch);
+    }
+
+    private synchronized void onResult(long permitEpoch, boolean success) {
+        if (permitEpoch != epoch) {
+            // 상태가 바뀌기 전에 시작된 요청의 결과는 무시
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            halfOpenInFlight--;
+            if (!success) {
+                transition(State.OPEN);
+            } else if (++halfOpenSuccesses >= settings.halfOpenCalls()) {
+                transition(State.CLOSED);
+            }
+            return;
+        }
+        if (state == State.CLOSED) {
+            if (windowCount == window.length && !window[windowIndex]) {
+                windowFailures--;
+            } else if (windowCount < window.length) {
+                windowCount++;
+            }
+            window[windowIndex] = success;
+            if (!success) {
+                windowFailures++;
+            }
+            windowIndex = (windowIndex + 1) % window.length;
+
+            if (windowCount >= settings.minimumCalls()
+                    && windowFailures * 100 >= settings.failureRateThreshold() * windowCount) {
+                transition(State.OPEN);
+            }
+        }
+    }
+
+    /**
+     * 결과 없이 허가만 반환한다. HALF_OPEN 시험 자리는 돌려주되 성공/실패 어느 쪽에도 세지 않는다.
+     */
+    private synchronized void onDiscard(long permitEpoch) {
+        if (permitEpoch == epoch && state == State.HALF_OPEN) {
+            halfOpenInFlight--;
+        }
+    }
+
+    private void transition(State next) {
+        log.warn("서킷 상태 변경: {} {} -> {} (실패 {}/{})", endpoint, state, next, windowFailures, windowCount);
+        state = next;
+        epoch++;
+        halfOpenInFlight = 0;
+        halfOpenSuccesses = 0;
+        if (next == State.OPEN) {
+            openedAtNanos = System.nanoTime();
+        }
+        if (next == State.CLOSED) {
+            windowIndex = 0;
+            windowCount = 0;
+            windowFailures = 0;
+        }
+    }
+
+    public record Settings(int windowSize, int minimumCalls, int failureRateThreshold, Duration openDuration,
+                           int halfOpenCalls) {
+    }
+
+    private final class Permit {
+        private final long epoch;
+        private final AtomicBoolean recorded = new AtomicBoolean();
+
+        private Permit(long epoch) {
+            this.epoch = epoch;
+        }
+
+        void record(boolean success) {
+            if (recorded.compareAndSet(false, true)) {
+                onResult(epoch, success);
+            }
+        }
+
+        void discard() {
+            if (recorded.compareAndSet(false, true)) {
+                onDiscard(epoch);
+            }
+        }
+    }
+}
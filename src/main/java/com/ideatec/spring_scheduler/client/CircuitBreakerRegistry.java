@@ -0,0 +1,66 @@
+package com.ideatec.spring_scheduler.client;
+
+import com.ideatec.spring_scheduler.actuator.JobMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 엔드포인트({@code scheme://host:port/path}, 쿼리 제외)별 {@link CircuitBreaker} 를 관리한다.
+ */
+@Slf4j
+@Component
+public class CircuitBreakerRegistry {
+    private final JobMetrics jobMetrics;
+    private final boolean enabled;
+    private final CircuitBreaker.Settings settings;
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    public CircuitBreakerRegistry(JobMetrics jobMetrics,
+                                  @Value("${scheduler.http.circuit-breaker.enabled:true}") boolean enabled,
+                                  @Value("${scheduler.http.circuit-breaker.window-size:20}") int windowSize,
+                                  @Value("${scheduler.http.circuit-breaker.minimum-calls:10}") int minimumCalls,
+                                  @Value("${scheduler.http.circuit-breaker.failure-rate-threshold:50}") int failureRateThreshold,
+                                  @Value("${scheduler.http.circuit-breaker.open-duration-ms:30000}") long openDurationMs,
+                                  @Value("${scheduler.http.circuit-breaker.half-open-calls:3}") int halfOpenCalls) {
+        this.jobMetrics = jobMetrics;
+        this.enabled = enabled;
+        this.settings = new CircuitBreaker.Settings(windowSize, Math.min(minimumCalls, windowSize),
+                failureRateThreshold, Duration.ofMillis(openDurationMs), halfOpenCalls);
+    }
+
+    /**
+     * @return 엔드포인트의 서킷 브레이커. 비활성화되어 있으면 null
+     */
+    public CircuitBreaker breakerFor(URI uri) {
+        if (!enabled) {
+            return null;
+        }
+        return breakers.computeIfAbsent(endpointOf(uri), endpoint -> {
+            CircuitBreaker breaker = new CircuitBreaker(endpoint, settings);
+            jobMetrics.registerCircuitBreaker(breaker);
+            return breaker;
+        });
+    }
+
+    /**
+     * 서킷이 열려 있어 요청이 바로 거절될 상태인지. 이미 만들어진 브레이커만 확인한다.
+     */
+    public boolean isRejecting(URI uri) {
+        CircuitBreaker breaker = enabled ? breakers.get(endpointOf(uri)) : null;
+        return breaker != null && breaker.isRejecting();
+    }
+
+    static String endpointOf(URI uri) {
+        String scheme = uri.getScheme() != null ? uri.getScheme().toLowerCase(Locale.ROOT) : "http";
+        String authority = uri.getRawAuthority() != null ? uri.getRawAuthority().toLowerCase(Locale.ROOT) : "";
+        String path = uri.getRawPath() != null && !uri.getRawPath().isEmpty() ? uri.getRawPath() : "/";
+        return scheme + "://" + authority + path;
+    }
+}
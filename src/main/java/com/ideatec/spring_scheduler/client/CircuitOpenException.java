@@ -0,0 +1,10 @@
+package com.ideatec.spring_scheduler.client;
+
+/**
+ * 엔드포인트 서킷이 열려 있어 요청을 보내지 않고 거절할 때 발생한다.
+ */
+public class CircuitOpenException extends RuntimeException {
+    public CircuitOpenException(String endpoint) {
+        super("서킷 열림: " + endpoint);
+    }
+}
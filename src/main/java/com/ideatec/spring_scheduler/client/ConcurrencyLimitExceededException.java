@@ -0,0 +1,10 @@
+package com.ideatec.spring_scheduler.client;
+
+/**
+ * 동시 요청 한도를 넘어 대기열이 가득 찼거나 대기 시간이 초과되어 요청이 거절될 때 발생한다.
+ */
+public class ConcurrencyLimitExceededException extends RuntimeException {
+    public ConcurrencyLimitExceededException(String limiter, int limit, int queued) {
+        super("동시 요청 한도 초과: limiter=" + limiter + ", limit=" + limit + ", queued=" + queued);
+    }
+}
@@ -0,0 +1,157 @@
+package com.ideatec.spring_scheduler.client;
+
+import com.ideatec.spring_scheduler.actuator.JobMetrics;
+import com.ideatec.spring_scheduler.config.JobConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 호스트 또는 잡 단위 {@link AdaptiveLimiter} 를 관리한다.
+ * <p>
+ * 기본 범위는 요청 호스트이며 같은 호스트로 가는 모든 잡이 한도를 공유한다. 잡의 {@code limiter} 블록으로
+ * 범위({@code host | job | none})와 한도 값을 바꿀 수 있고, 지정하지 않은 값은 {@code scheduler.http.limiter.*} 기본값을 쓴다.
+ * 호스트 리미터는 그 호스트를 쓰는 잡들의 설정 중 가장 보수적인 값(작은 한도, 짧은 대기)을 쓰고, 잡의 설정이 바뀔
+ * 때만 다시 맞춘다. 설정이 다른 잡이 번갈아 요청해도 한도가 오가지 않는다.
+ */
+@Slf4j
+@Component
+public class ConcurrencyLimiterRegistry {
+    private final JobMetrics jobMetrics;
+    private final boolean enabled;
+    private final String defaultScope;
+    private final AdaptiveLimiter.Settings defaults;
+    private final Map<String, AdaptiveLimiter> limiters = new ConcurrentHashMap<>();
+    // 호스트 리미터 이름 → 잡 ID → 잡이 요청한 설정
+    private final Map<String, Map<String, AdaptiveLimiter.Settings>> hostSettings = new ConcurrentHashMap<>();
+
+    public ConcurrencyLimiterRegistry(JobMetrics jobMetrics,
+                                      @Value("${scheduler.http.limiter.enabled:true}") boolean enabled,
+                                      @Value("${scheduler.http.limiter.scope:host}") String defaultScope,
+                                      @Value("${scheduler.http.limiter.initial-limit:20}") int initialLimit,
+                                      @Value("${scheduler.http.limiter.min-limit:1}") int minLimit,
+                                      @Value("${scheduler.http.limiter.max-limit:200}") int maxLimit,
+                                      @Value("${scheduler.http.limiter.max-queue:1000}") int maxQueue,
+                                      @Value("${scheduler.http.limiter.max-wait-ms:10000}") long maxWaitMs,
+                                      @Value("${scheduler.http.limiter.backoff-ratio:0.9}") double backoffRatio,
+                                      @Value("${scheduler.http.limiter.latency-tolerance:2.0}") double latencyTolerance) {
+        this.jobMetrics = jobMetrics;
+        this.enabled = enabled;
+        this.defaultScope = defaultScope;
+        this.defaults = new AdaptiveLimiter.Settings(initialLimit, minLimit, maxLimit, maxQueue,
+                Duration.ofMillis(maxWaitMs), backoffRatio, latencyTolerance);
+    }
+
+    /**
+     * 잡/호스트 리미터의 허가를 받아 {@code call} 을 실행한다. 리미터가 꺼져 있으면 그대로 실행한다.
+     */
+    public <T> Mono<T> limit(JobConfig.Job job, URI uri, Mono<T> call, boolean measureLatency) {
+        AdaptiveLimiter limiter = limiterFor(job, uri);
+        return limiter != null ? limiter.run(call, job.getId(), measureLatency) : call;
+    }
+
+    /**
+     * 설정에서 빠진 잡의 호스트 리미터 설정과 최소 지연시간을 지운다.
+     */
+    public void retain(Set<String> jobIds) {
+        hostSettings.forEach((name, requested) -> {
+            if (requested.keySet().retainAll(jobIds) && !requested.isEmpty()) {
+                AdaptiveLimiter limiter = limiters.get(name);
+                if (limiter != null) {
+                    limiter.reconfigure(merge(requested.values()));
+                }
+            }
+        });
+        limiters.values().forEach(limiter -> limiter.retainRoutes(jobIds));
+    }
+
+    AdaptiveLimiter limiterFor(JobConfig.Job job, URI uri) {
+        JobConfig.Job.Limiter config = job.getLimiter();
+        String scope = config != null && config.getScope() != null ? config.getScope() : defaultScope;
+        if (!enabled || "none".equalsIgnoreCase(scope)) {
+            return null;
+        }
+
+        String name;
+        if ("job".equalsIgnoreCase(scope)) {
+            name = "job:" + job.getId();
+        } else {
+            String host = uri.getHost();
+            if (host == null) {
+                return null;
+            }
+            name = "host:" + host.toLowerCase(Locale.ROOT);
+        }
+
+        AdaptiveLimiter.Settings settings = settingsOf(config);
+        AdaptiveLimiter limiter = limiters.computeIfAbsent(name, key -> {
+            AdaptiveLimiter created = new AdaptiveLimiter(key, settings);
+            jobMetrics.registerConcurrencyLimiter(created);
+            log.info("동시 요청 리미터 생성: {} (limit={}, max={})", key, settings.initialLimit(), settings.maxLimit());
+            return created;
+        });
+        if ("job".equalsIgnoreCase(scope)) {
+            if (!limiter.getSettings().equals(settings)) {
+                limiter.reconfigure(settings);
+            }
+            return limiter;
+        }
+        Map<String, AdaptiveLimiter.Settings> requested = hostSettings.computeIfAbsent(name,
+                key -> new ConcurrentHashMap<>());
+        if (!settings.equals(requested.get(job.getId()))) {
+            requested.put(job.getId(), settings);
+            AdaptiveLimiter.Settings merged = merge(requested.values());
+            if (!limiter.getSettings().equals(merged)) {
+                limiter.reconfigure(merged);
+            }
+        }
+        return limiter;
+    }
+
+    /**
+     * 같은 호스트를 쓰는 잡들의 설정을 가장 보수적인 값으로 합친다.
+     */
+    private AdaptiveLimiter.Settings merge(Collection<AdaptiveLimiter.Settings> requested) {
+        int initialLimit = Integer.MAX_VALUE;
+        int minLimit = Integer.MAX_VALUE;
+        int maxLimit = Integer.MAX_VALUE;
+        int maxQueue = Integer.MAX_VALUE;
+        Duration maxWait = null;
+        for (AdaptiveLimiter.Settings settings : requested) {
+            initialLimit = Math.min(initialLimit, settings.initialLimit());
+            minLimit = Math.min(minLimit, settings.minLimit());
+            maxLimit = Math.min(maxLimit, settings.maxLimit());
+            maxQueue = Math.min(maxQueue, settings.maxQueue());
+            maxWait = maxWait == null || settings.maxWait().compareTo(maxWait) < 0 ? settings.maxWait() : maxWait;
+        }
+        if (maxWait == null) {
+            return defaults;
+        }
+        minLimit = Math.min(minLimit, maxLimit);
+        return new AdaptiveLimiter.Settings(Math.max(minLimit, Math.min(maxLimit, initialLimit)), minLimit, maxLimit,
+                maxQueue, maxWait, defaults.backoffRatio(), defaults.latencyTolerance());
+    }
+
+    private AdaptiveLimiter.Settings settingsOf(JobConfig.Job.Limiter config) {
+        if (config == null) {
+            return defaults;
+        }
+        return new AdaptiveLimiter.Settings(
+                config.getInitialLimit() != null ? config.getInitialLimit() : defaults.initialLimit(),
+                config.getMinLimit() != null ? config.getMinLimit() : defaults.minLimit(),
+                config.getMaxLimit() != null ? config.getMaxLimit() : defaults.maxLimit(),
+                config.getMaxQueue() != null ? config.getMaxQueue() : defaults.maxQueue(),
+                config.getMaxWaitMs() != null ? Duration.ofMillis(config.getMaxWaitMs()) : defaults.maxWait(),
+                defaults.backoffRatio(),
+                defaults.latencyTolerance());
+    }
+}
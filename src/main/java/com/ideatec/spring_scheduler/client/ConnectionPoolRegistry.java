@@ -0,0 +1,229 @@
+package com.ideatec.spring_scheduler.client;
+
+import com.ideatec.spring_scheduler.actuator.JobMetrics;
+import com.ideatec.spring_scheduler.config.JobConfig;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import io.netty.handler.timeout.WriteTimeoutHandler;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.Http2AllocationStrategy;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * scheduler-jobs.yml 의 {@code pools} 에 선언된 이름별 ConnectionProvider 와 WebClient 를 관리한다.
+ * <p>
+ * 잡은 {@code pool} 이름으로, 또는 요청 URL 의 호스트가 풀의 {@code hosts} 에 포함되면 해당 풀을 사용하고,
+ * 둘 다 아니면 기본 풀을 사용한다. 모든 풀은 Reactor Netty 풀 메트릭(active, idle, pending,
+ * acquire 시간)을 기록한다.
+ * <p>
+ * 풀마다 프로토콜을 고를 수 있다. {@code h2} 는 TLS ALPN 으로 HTTP/2 를 협상하고(지원하지 않는 서버는 HTTP/1.1),
+ * {@code h2c} 는 평문 HTTP/2 로 바로 연결한다. HTTP/2 풀은 커넥션 하나에 {@code maxStreams} 개까지 요청을 다중화하므로
+ * 같은 호스트로 팬아웃해도 커넥션이 거의 늘지 않는다. 압축을 켜면 {@code Accept-Encoding: gzip, deflate} 를 보내고
+ * 응답은 Netty 디컴프레서가 청크 단위로 풀어 넘긴다. 소켓에서 주고받은 바이트와 새로 연 커넥션 수는
+ * {@link WireStats} 로 풀별 메트릭에 기록한다. 본문을 메모리에 모아 받는 응답의 최대 크기는
+ * {@code scheduler.http.max-in-memory-size} 로 정한다.
+ */
+@Slf4j
+@Component
+public class ConnectionPoolRegistry {
+    static final String DEFAULT_POOL = "default";
+    static final int DEFAULT_MAX_STREAMS = 100;
+    private static final String ACCEPT_ENCODING = "gzip, deflate";
+
+    private final JobMetrics jobMetrics;
+    private final boolean defaultCompress;
+    private final int maxInMemorySize;
+    private final Map<String, WireStats> wireStats = new ConcurrentHashMap<>();
+    private final NamedPool defaultPool;
+    private volatile Map<String, NamedPool> poolsByName = Map.of();
+    private volatile Map<String, NamedPool> poolsByHost = Map.of();
+
+    public ConnectionPoolRegistry(JobMetrics jobMetrics,
+                                  @Value("${scheduler.http.compress:true}") boolean defaultCompress,
+                                  @Value("${scheduler.http.max-in-memory-size:16777216}") int maxInMemorySize) {
+        this.jobMetrics = jobMetrics;
+        this.defaultCompress = defaultCompress;
+        this.maxInMemorySize = maxInMemorySize;
+        // Reactor Netty 는 Metrics.globalRegistry 에 기록하므로 잡 메트릭과 같은 레지스트리로 연결
+        jobMetrics.bindReactorNettyMetrics();
+        JobConfig.Pool config = new JobConfig.Pool();
+        config.setName(DEFAULT_POOL);
+        this.defaultPool = create(config);
+    }
+
+    public WebClient clientFor(JobConfig.Job job) {
+        if (job.getPool() != null) {
+            NamedPool pool = poolsByName.get(job.getPool());
+            if (pool != null) {
+                return pool.webClient();
+            }
+            log.warn("Job [{}] 알 수 없는 풀: {} (기본 풀 사용)", job.getId(), job.getPool());
+        }
+        if (!poolsByHost.isEmpty()) {
+            String url = job.getRequest().getUrl();
+            String host = URI.create(url.indexOf('{') < 0 ? url : JobPartition.stripPlaceholders(url)).getHost();
+            NamedPool pool = host != null ? poolsByHost.get(host.toLowerCase(Locale.ROOT)) : null;
+            if (pool != null) {
+                return pool.webClient();
+            }
+        }
+        return defaultPool.webClient();
+    }
+
+    public WebClient defaultClient() {
+        return defaultPool.webClient();
+    }
+
+    /**
+     * 설정의 풀 목록을 반영한다. 설정이 바뀌지 않은 풀은 그대로 재사용하고,
+     * 제거되거나 변경된 풀은 새 풀로 교체한 뒤 정리한다.
+     */
+    public synchronized void configure(List<JobConfig.Pool> pools) {
+        Map<String, NamedPool> current = poolsByName;
+        Map<String, NamedPool> nextByName = new HashMap<>();
+        Map<String, NamedPool> nextByHost = new HashMap<>();
+
+        if (pools != null) {
+            for (JobConfig.Pool config : pools) {
+                if (config.getName() == null || DEFAULT_POOL.equals(config.getName())) {
+                    log.warn("풀 이름이 없거나 예약된 이름입니다: {}", config.getName());
+                    continue;
+                }
+                NamedPool existing = current.get(config.getName());
+                NamedPool pool = existing != null && existing.config().equals(config) ? existing : create(config);
+                nextByName.put(config.getName(), pool);
+                if (config.getHosts() != null) {
+                    config.getHosts().forEach(host -> nextByHost.put(host.toLowerCase(Locale.ROOT), pool));
+                }
+            }
+        }
+
+        poolsByName = Map.copyOf(nextByName);
+        poolsByHost = Map.copyOf(nextByHost);
+
+        current.forEach((name, pool) -> {
+            if (nextByName.get(name) != pool) {
+                log.info("커넥션 풀 정리: {}", name);
+                pool.provider().disposeLater().subscribe();
+            }
+        });
+    }
+
+    @PreDestroy
+    public void close() {
+        poolsByName.values().forEach(pool -> pool.provider().dispose());
+        defaultPool.provider().dispose();
+    }
+
+    private NamedPool create(JobConfig.Pool config) {
+        ConnectionProvider.Builder builder = ConnectionProvider.builder(config.getName()).metrics(true);
+        if (config.getMaxConnections() != null) {
+            builder.maxConnections(config.getMaxConnections());
+        }
+        if (config.getPendingAcquireMaxCount() != null) {
+            builder.pendingAcquireMaxCount(config.getPendingAcquireMaxCount());
+        }
+        if (config.getPendingAcquireTimeoutMs() != null) {
+            builder.pendingAcquireTimeout(Duration.ofMillis(config.getPendingAcquireTimeoutMs()));
+        }
+        if (config.getMaxIdleTimeMs() != null) {
+            builder.maxIdleTime(Duration.ofMillis(config.getMaxIdleTimeMs()));
+        }
+        if (config.getMaxLifeTimeMs() != null) {
+            builder.maxLifeTime(Duration.ofMillis(config.getMaxLifeTimeMs()));
+        }
+        if (config.getEvictInBackgroundMs() != null) {
+            builder.evictInBackground(Duration.ofMillis(config.getEvictInBackgroundMs()));
+        }
+        if ("lifo".equalsIgnoreCase(config.getLeasingStrategy())) {
+            builder.lifo();
+        } else {
+            builder.fifo();
+        }
+        HttpProtocol[] protocols = protocolsOf(config);
+        boolean http2 = protocols[0] != HttpProtocol.HTTP11;
+        int maxStreams = config.getMaxStreams() != null ? config.getMaxStreams() : DEFAULT_MAX_STREAMS;
+        if (http2) {
+            // 스트림 한도까지는 기존 커넥션에 다중화하고, 모두 차면 maxConnections 까지 커넥션을 더 연다
+            builder.allocationStrategy(Http2AllocationStrategy.builder()
+                    .maxConcurrentStreams(maxStreams)
+                    .maxConnections(config.getMaxConnections() != null
+                            ? config.getMaxConnections() : ConnectionProvider.DEFAULT_POOL_MAX_CONNECTIONS)
+                    .minConnections(1)
+                    .build());
+        }
+        ConnectionProvider provider = builder.build();
+        boolean compress = config.getCompress() != null ? config.getCompress() : defaultCompress;
+        WireStats stats = wireStats.computeIfAbsent(config.getName(), name -> {
+            WireStats created = new WireStats();
+            jobMetrics.registerWireStats(name, created);
+            return created;
+        });
+
+        HttpClient httpClient = HttpClient.create(provider)
+                .protocol(protocols)
+                .compress(compress)
+                .keepAlive(config.getKeepAlive() == null || config.getKeepAlive())
+                // 새 커넥션마다 한 번 호출된다 (HTTP/2 스트림은 부모 커넥션의 파이프라인을 지나므로 따로 세지 않음)
+                .doOnChannelInit((observer, channel, remoteAddress) -> {
+                    stats.connectionOpened();
+                    channel.pipeline().addFirst(WireStats.HANDLER_NAME, stats);
+                })
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 5000)
+                .responseTimeout(Duration.ofSeconds(30))
+                .doOnConnected(conn ->
+                    conn.addHandlerLast(new ReadTimeoutHandler(30, TimeUnit.SECONDS))
+                        .addHandlerLast(new WriteTimeoutHandler(30, TimeUnit.SECONDS))
+                )
+                // 커넥션 획득 완료/첫 응답 바이트 시점 (단계별 지연시간 히스토그램)
+                .doOnRequest((request, conn) -> RequestTimings.onRequestSent(request.currentContextView()))
+                .doOnResponse((response, conn) ->
+                    RequestTimings.onResponse(response.currentContextView(), response.status().code()));
+
+        log.info("커넥션 풀 생성: {} (maxConnections={}, leasing={}, protocol={}, maxStreams={}, compress={})",
+                config.getName(), config.getMaxConnections(), config.getLeasingStrategy(),
+                protocols[0], http2 ? maxStreams : "-", compress);
+        WebClient.Builder webClient = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                // 페이지 응답을 byte[]/String 으로 모아 받으므로 코덱 기본 한도(256KB)를 넘는 페이지도 받을 수 있어야 한다
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(maxInMemorySize));
+        if (compress) {
+            // Reactor Netty 는 gzip 만 알리므로 디컴프레서가 처리하는 deflate 까지 알린다
+            webClient.defaultHeader(HttpHeaders.ACCEPT_ENCODING, ACCEPT_ENCODING);
+        }
+        return new NamedPool(config, provider, webClient.build());
+    }
+
+    private static HttpProtocol[] protocolsOf(JobConfig.Pool config) {
+        String protocol = config.getProtocol() == null ? "" : config.getProtocol().toLowerCase(Locale.ROOT);
+        return switch (protocol) {
+            case "", "http1.1", "http11", "http/1.1" -> new HttpProtocol[]{HttpProtocol.HTTP11};
+            case "h2", "http2" -> new HttpProtocol[]{HttpProtocol.H2, HttpProtocol.HTTP11};
+            case "h2c" -> new HttpProtocol[]{HttpProtocol.H2C};
+            default -> {
+                log.warn("풀 [{}] 알 수 없는 protocol: {} (HTTP/1.1 사용)", config.getName(), config.getProtocol());
+                yield new HttpProtocol[]{HttpProtocol.HTTP11};
+            }
+        };
+    }
+
+    private record NamedPool(JobConfig.Pool config, ConnectionProvider provider, WebClient webClient) {
+    }
+}
@@ -0,0 +1,36 @@
+package com.ideatec.spring_scheduler.client;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * firing 하나에서 일어난 재시도 횟수를 모은다. Reactor Context 로 전달되어 lane/파티션/페이지 요청이 끝날 때마다 더해진다.
+ */
+public final class FiringRetries {
+    private static final String KEY = FiringRetries.class.getName();
+
+    private final AtomicInteger count = new AtomicInteger();
+
+    /**
+     * {@code contextWrite(ctx -> FiringRetries.put(ctx, retries))} 로 사용한다.
+     */
+    public static Context put(Context context, FiringRetries retries) {
+        return context.put(KEY, retries);
+    }
+
+    static FiringRetries of(ContextView context) {
+        return context.getOrDefault(KEY, null);
+    }
+
+    public int get() {
+        return count.get();
+    }
+
+    void add(int retries) {
+        if (retries > 0) {
+            count.addAndGet(retries);
+        }
+    }
+}
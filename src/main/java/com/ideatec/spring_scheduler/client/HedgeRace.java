@@ -0,0 +1,33 @@
+package com.ideatec.spring_scheduler.client;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * hedging 시도 하나에서 요청끼리의 경주 결과. Reactor Context 로 각 요청에 전달된다.
+ * <p>
+ * 먼저 응답을 받은 요청이 {@link #settle()} 한 뒤에 나머지 요청이 취소되므로, 서킷 브레이커와 리미터는 취소 시점에
+ * {@link #isSettled} 로 진 요청의 취소인지 확인해 실패로 세지 않는다. 시도 타임아웃이나 firing 취소는 경주가 끝나기
+ * 전에 일어나므로 그대로 실패로 기록된다.
+ */
+final class HedgeRace {
+    private static final String KEY = HedgeRace.class.getName();
+
+    private volatile boolean settled;
+
+    static Context put(Context context, HedgeRace race) {
+        return context.put(KEY, race);
+    }
+
+    /**
+     * @return 같은 시도의 다른 요청이 이미 응답을 받았으면 true
+     */
+    static boolean isSettled(ContextView context) {
+        HedgeRace race = context.getOrDefault(KEY, null);
+        return race != null && race.settled;
+    }
+
+    void settle() {
+        settled = true;
+    }
+}
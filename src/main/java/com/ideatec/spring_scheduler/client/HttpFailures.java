@@ -0,0 +1,52 @@
+package com.ideatec.spring_scheduler.client;
+
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.netty.channel.PrematureCloseException;
+
+import java.io.IOException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 요청 실패를 재시도/서킷/한도 조절 관점에서 분류한다.
+ */
+final class HttpFailures {
+    private HttpFailures() {
+    }
+
+    /**
+     * 같은 요청을 다시 보내면 성공할 수 있는 실패인지. 408/425/429/500/502/503/504 응답과
+     * 타임아웃, 연결 실패 등 응답을 받지 못한 경우만 재시도한다.
+     */
+    static boolean isRetryable(Throwable error) {
+        if (error instanceof WebClientResponseException response) {
+            int status = response.getStatusCode().value();
+            return status == 408 || status == 425 || status == 429
+                    || status == 500 || status == 502 || status == 503 || status == 504;
+        }
+        return isTransportFailure(error);
+    }
+
+    /**
+     * 업스트림 장애나 과부하로 볼 수 있는 실패인지. 그 외 4xx 는 요청 자체의 문제이므로 제외한다.
+     */
+    static boolean isUpstreamFailure(Throwable error) {
+        if (error instanceof WebClientResponseException response) {
+            int status = response.getStatusCode().value();
+            return status == 408 || status == 429 || status >= 500;
+        }
+        return isTransportFailure(error);
+    }
+
+    /**
+     * 응답을 받지 못한 전송 실패 (연결 실패, 연결 끊김, 타임아웃). 서킷 열림이나 한도 초과처럼 보내기 전에 거절된 경우,
+     * 로컬 파일 I/O({@link java.io.UncheckedIOException}), 응답 파싱이나 코드 버그 같은 그 밖의 예외는
+     * 다시 보내도 결과가 같으므로 포함하지 않는다.
+     */
+    static boolean isTransportFailure(Throwable error) {
+        return error instanceof WebClientRequestException
+                || error instanceof PrematureCloseException
+                || error instanceof IOException
+                || error instanceof TimeoutException;
+    }
+}
@@ -0,0 +1,142 @@
+package com.ideatec.spring_scheduler.client;
+
+import com.ideatec.spring_scheduler.config.JobConfig;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 잡 작업 공간의 한 조각. {@code partitions} 설정으로 나눈 파티션마다 URL/본문의 플레이스홀더를 채워 요청하고,
+ * offset 은 {@code 잡ID#p<key>} 체크포인트에 따로 저장한다.
+ * <p>
+ * 플레이스홀더: range 는 {@code {from}}(포함), {@code {to}}(제외), hash 는 {@code {bucket}}, {@code {buckets}},
+ * values 는 {@code {value}}, 공통으로 {@code {partition}}(파티션 키). URL 에 플레이스홀더가 하나도 없으면
+ * 파티션 변수({@code partition} 제외)를 같은 이름의 쿼리 파라미터로 붙인다.
+ */
+public record JobPartition(int index, String key, Map<String, String> variables) {
+    private static final int DEFAULT_PARTITIONS_PER_LANE = 4;
+
+    public static boolean isPartitioned(JobConfig.Job job) {
+        return job.getPartitions() != null;
+    }
+
+    /**
+     * 잡 설정으로 파티션 목록을 만든다. range/hash 의 {@code count} 가 없으면 lane 수의 4배로 잘게 나눠
+     * 크기가 고르지 않은 파티션이 있어도 먼저 끝난 lane 이 남은 파티션을 가져가도록 한다.
+     */
+    public static List<JobPartition> plan(JobConfig.Job job) {
+        JobConfig.Job.Partitions config = job.getPartitions();
+        if (config == null) {
+            return List.of();
+        }
+        int lanes = job.getParallelism() != null ? Math.max(1, job.getParallelism()) : 1;
+        int count = config.getCount() != null ? Math.max(1, config.getCount()) : lanes * DEFAULT_PARTITIONS_PER_LANE;
+        String type = config.getType() != null ? config.getType().toLowerCase(Locale.ROOT) : "values";
+
+        List<JobPartition> partitions = new ArrayList<>();
+        switch (type) {
+            case "range" -> {
+                if (config.getStart() == null || config.getEnd() == null || config.getEnd() <= config.getStart()) {
+                    throw new IllegalArgumentException("partitions.range 는 start < end 가 필요합니다: " + job.getId());
+                }
+                long start = config.getStart();
+                long span = config.getEnd() - start;
+                int slices = (int) Math.min(count, span);
+                for (int i = 0; i < slices; i++) {
+                    long from = start + span * i / slices;
+                    long to = start + span * (i + 1) / slices;
+                    partitions.add(of(i, from + "-" + to, "from", String.valueOf(from), "to", String.valueOf(to)));
+                }
+            }
+            case "hash" -> {
+                for (int i = 0; i < count; i++) {
+                    partitions.add(of(i, i + "of" + count, "bucket", String.valueOf(i), "buckets", String.valueOf(count)));
+                }
+            }
+            case "values" -> {
+                List<String> values = config.getValues() != null ? config.getValues() : List.of();
+                for (int i = 0; i < values.size(); i++) {
+                    partitions.add(of(i, sanitize(values.get(i)), "value", values.get(i), null, null));
+                }
+            }
+            default -> throw new IllegalArgumentException("지원하지 않는 partitions.type: " + config.getType());
+        }
+        return partitions;
+    }
+
+    /**
+     * @return 파티션 offset 을 저장할 체크포인트 키
+     */
+    public String checkpointKey(String jobId) {
+        return jobId + "#p" + key;
+    }
+
+    /**
+     * URL 의 플레이스홀더를 (URL 인코딩해서) 채운다. 플레이스홀더가 없으면 쿼리 파라미터로 붙인다.
+     */
+    public String resolveUrl(String url) {
+        if (!hasPlaceholder(url)) {
+            UriComponentsBuilder builder = UriComponentsBuilder.fromUriString(url);
+            variables.forEach((name, value) -> {
+                if (!"partition".equals(name)) {
+                    builder.replaceQueryParam(name, UriUtils.encodeQueryParam(value, StandardCharsets.UTF_8));
+                }
+            });
+            return builder.build(true).toUriString();
+        }
+        String resolved = url;
+        for (Map.Entry<String, String> variable : variables.entrySet()) {
+            resolved = resolved.replace("{" + variable.getKey() + "}",
+                    UriUtils.encode(variable.getValue(), StandardCharsets.UTF_8));
+        }
+        return resolved;
+    }
+
+    /**
+     * 메모리에 캐시된 요청 본문의 플레이스홀더를 그대로(인코딩 없이) 채운다. 바뀐 것이 없으면 원래 배열을 돌려준다.
+     */
+    public byte[] resolveBody(byte[] body) {
+        String text = new String(body, StandardCharsets.UTF_8);
+        String resolved = text;
+        for (Map.Entry<String, String> variable : variables.entrySet()) {
+            resolved = resolved.replace("{" + variable.getKey() + "}", variable.getValue());
+        }
+        return resolved.equals(text) ? body : resolved.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 플레이스홀더를 포함한 URL 템플릿에서 호스트를 읽을 수 있게 플레이스홀더를 지운다 (호스트별 풀 선택용).
+     */
+    public static String stripPlaceholders(String url) {
+        return url.replaceAll("\\{[A-Za-z]+}", "");
+    }
+
+    private boolean hasPlaceholder(String url) {
+        for (String name : variables.keySet()) {
+            if (url.contains("{" + name + "}")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static JobPartition of(int index, String key, String name, String value, String name2, String value2) {
+        Map<String, String> variables = new LinkedHashMap<>();
+        variables.put("partition", key);
+        variables.put(name, value);
+        if (name2 != null) {
+            variables.put(name2, value2);
+        }
+        return new JobPartition(index, key, variables);
+    }
+
+    private static String sanitize(String value) {
+        return value.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+}
@@ -0,0 +1,292 @@
+package com.ideatec.spring_scheduler.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import com.ideatec.spring_scheduler.checkpoint.CheckpointStore;
+import com.ideatec.spring_scheduler.config.JobConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * {@code mode: paginated} 잡을 마지막 체크포인트 위치부터 페이지 단위로 가져온다.
+ * <p>
+ * cursor/link 스타일은 현재 페이지를 처리하는 동안 다음 페이지를 미리 요청하고(expand),
+ * page 스타일은 {@code concurrency} 만큼 페이지를 동시에 요청하되 순서대로 처리한다.
+ * 페이지 처리가 끝날 때마다 offset({@code 위치|처리한 레코드 수})을 커밋하므로 실패한 페이지부터 이어받는다.
+ * 레코드 기록과 offset 커밋 사이에 크래시가 나면 해당 페이지가 다시 기록될 수 있다(at-least-once).
+ * {@code partitions} 가 있으면 파티션마다 따로 페이지를 넘기고 offset 도 파티션 키({@code 잡ID#p<key>})에 저장한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PaginatedFetcher {
+    private static final Pattern NEXT_LINK = Pattern.compile("<([^>]+)>\\s*;[^,]*rel=\"?next\"?");
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int DEFAULT_CONCURRENCY = 2;
+
+    private final ReactiveWebClientClient webClient;
+    private final CheckpointStore checkpointStore;
+    private final ResponseSinkWriter responseSinks;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public static boolean isPaginated(JobConfig.Job job) {
+        return "paginated".equalsIgnoreCase(job.getMode()) && job.getPagination() != null;
+    }
+
+    /**
+     * @param plan 잡의 실행 계획에 미리 만들어 둔 요청 계획. 페이지마다 다시 만들지 않는다
+     */
+    public Mono<RequestResult> fetch(RequestPlan plan) {
+        JobConfig.Job job = plan.job();
+        return fetch(plan, job.getRequest().getUrl(), job.getId(), null);
+    }
+
+    /**
+     * 파티션 하나의 페이지를 파티션별 offset 부터 가져온다.
+     */
+    public Mono<RequestResult> fetch(RequestPlan plan, JobPartition partition) {
+        JobConfig.Job job = plan.job();
+        return Mono.defer(() -> fetch(plan, partition.resolveUrl(job.getRequest().getUrl()),
+                partition.checkpointKey(job.getId()), partition));
+    }
+
+    /**
+     * offset 조회는 JDBC 저장소에서 블로킹이므로 이벤트 루프 밖에서 읽는다 (저장도 {@link #process} 에서 같은 방식).
+     *
+     * @param baseUrl       첫 페이지 URL (페이지/커서 파라미터는 덧붙이거나 교체한다)
+     * @param checkpointKey offset 을 저장할 체크포인트 키
+     */
+    private Mono<RequestResult> fetch(RequestPlan plan, String baseUrl, String checkpointKey, JobPartition partition) {
+        JobConfig.Job job = plan.job();
+        return Mono.fromCallable(() -> Offset.parse(checkpointStore.getOffset(checkpointKey)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(offset -> {
+                    JobConfig.Job.Pagination pagination = job.getPagination();
+                    if (offset.position() != null) {
+                        log.info("Job [{}] 페이지 이어받기: {}", checkpointKey, offset);
+                    }
+
+                    Flux<Page> pages = switch (style(pagination)) {
+                        case "page" -> pageNumbers(plan, baseUrl, offset, partition);
+                        case "cursor", "link" -> followNext(plan, baseUrl, offset, partition);
+                        default -> Flux.error(new IllegalArgumentException(
+                                "지원하지 않는 pagination.style: " + pagination.getStyle()));
+                    };
+
+                    return pages
+                            .concatMap(page -> process(job, checkpointKey, page).thenReturn(page))
+                            .reduce(new Totals(), Totals::add)
+                            .map(totals -> {
+                                log.info("Job [{}] 페이지 수집 완료: pages={}, records={}, bytes={}",
+                                        checkpointKey, totals.pages, totals.records, totals.bytes);
+                                return new RequestResult(200, totals.bytes, totals.records, null);
+                            });
+                });
+    }
+
+    /**
+     * 페이지 번호 방식. 마지막 페이지(pageSize 미만)가 나오면 이미 요청한 뒤쪽 페이지는 취소된다.
+     */
+    private Flux<Page> pageNumbers(RequestPlan plan, String baseUrl, Offset offset, JobPartition partition) {
+        JobConfig.Job.Pagination pagination = plan.job().getPagination();
+        int pageSize = pageSize(pagination);
+        int startPage = offset.position() != null ? Integer.parseInt(offset.position())
+                : pagination.getStartPage() != null ? pagination.getStartPage() : 1;
+        int concurrency = Math.max(1, pagination.getConcurrency() != null
+                ? pagination.getConcurrency() : DEFAULT_CONCURRENCY);
+        String pageParam = pagination.getPageParam() != null ? pagination.getPageParam() : "page";
+        String sizeParam = pagination.getSizeParam() != null ? pagination.getSizeParam() : "size";
+
+        return Flux.range(0, maxPages(pagination))
+                .flatMapSequential(i -> {
+                    int page = startPage + i;
+                    URI uri = withQueryParams(baseUrl, pageParam, String.valueOf(page), sizeParam, String.valueOf(pageSize));
+                    return fetchPage(plan, partition, uri, i, String.valueOf(page), i == 0 ? offset.seen() : 0);
+                }, concurrency, 1)
+                .takeUntil(page -> page.itemCount() < pageSize);
+    }
+
+    /**
+     * 커서/Link 헤더 방식. 페이지가 방출되는 즉시 다음 페이지 요청을 시작하므로 처리와 다음 요청이 겹친다.
+     */
+    private Flux<Page> followNext(RequestPlan plan, String baseUrl, Offset offset, JobPartition partition) {
+        JobConfig.Job job = plan.job();
+        int maxPages = maxPages(job.getPagination());
+        return fetchPage(plan, partition, positionUri(job, baseUrl, offset.position()), 0, offset.position(), offset.seen())
+                .expand(page -> page.next() != null && page.index() + 1 < maxPages
+                        ? fetchPage(plan, partition, positionUri(job, baseUrl, page.next()), page.index() + 1, page.next(), 0)
+                        : Mono.empty());
+    }
+
+    private Mono<Page> fetchPage(RequestPlan plan, JobPartition partition, URI uri, int index, String position, int skip) {
+        return webClient.fetch(plan, uri, partition).map(entity -> toPage(plan.job(), uri, entity, index, position, skip));
+    }
+
+    private Page toPage(JobConfig.Job job, URI uri, ResponseEntity<byte[]> entity, int index, String position, int skip) {
+        JobConfig.Job.Pagination pagination = job.getPagination();
+        byte[] body = entity.getBody() != null ? entity.getBody() : new byte[0];
+        JsonNode root;
+        try {
+            root = body.length > 0 ? objectMapper.readTree(body) : MissingNode.getInstance();
+        } catch (IOException e) {
+            throw new UncheckedIOException("페이지 응답 파싱 실패: " + uri, e);
+        }
+
+        JsonNode items = pagination.getItemsPath() != null ? root.at(pagination.getItemsPath()) : root;
+        int itemCount = items.isArray() ? items.size() : 0;
+
+        String next = switch (style(pagination)) {
+            case "cursor" -> {
+                JsonNode cursor = root.at(pagination.getCursorPath() != null ? pagination.getCursorPath() : "/next_cursor");
+                yield cursor.isValueNode() && !cursor.isNull() && !cursor.asText().isEmpty() ? cursor.asText() : null;
+            }
+            case "link" -> nextLink(uri, entity.getHeaders().get(HttpHeaders.LINK));
+            default -> null;
+        };
+        return new Page(index, position, skip, items, itemCount, body.length, next);
+    }
+
+    /**
+     * 페이지의 (아직 처리하지 않은) 레코드를 sink 에 기록하고 다음 위치를 커밋한다.
+     */
+    private Mono<Void> process(JobConfig.Job job, String checkpointKey, Page page) {
+        return Mono.<Void>fromRunnable(() -> {
+                    if (ResponseSinkWriter.isFileSink(job.getResponse()) && page.itemCount() > page.skip()) {
+                        List<JsonNode> records = new ArrayList<>(page.itemCount() - page.skip());
+                        for (int i = page.skip(); i < page.itemCount(); i++) {
+                            records.add(page.items().get(i));
+                        }
+                        try {
+                            responseSinks.appendRecords(job, checkpointKey.replace('#', '-'), records);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }
+                    checkpointStore.saveOffset(checkpointKey, nextOffset(job.getPagination(), page).toString());
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * 다음 페이지가 있으면 그 위치부터, 마지막 페이지였다면 같은 페이지를 다시 읽되 이미 처리한 레코드는 건너뛴다.
+     */
+    private static Offset nextOffset(JobConfig.Job.Pagination pagination, Page page) {
+        if ("page".equals(style(pagination))) {
+            int current = Integer.parseInt(page.position());
+            return page.itemCount() >= pageSize(pagination)
+                    ? new Offset(String.valueOf(current + 1), 0)
+                    : new Offset(page.position(), page.itemCount());
+        }
+        return page.next() != null
+                ? new Offset(page.next(), 0)
+                : new Offset(page.position(), page.itemCount());
+    }
+
+    private static URI positionUri(JobConfig.Job job, String baseUrl, String position) {
+        JobConfig.Job.Pagination pagination = job.getPagination();
+        if ("link".equals(style(pagination))) {
+            return URI.create(position != null ? position : baseUrl);
+        }
+        if (position == null) {
+            return URI.create(baseUrl);
+        }
+        String cursorParam = pagination.getCursorParam() != null ? pagination.getCursorParam() : "cursor";
+        return withQueryParams(baseUrl, cursorParam, position, null, null);
+    }
+
+    private static URI withQueryParams(String baseUrl, String name, String value, String name2, String value2) {
+        UriComponentsBuilder builder = UriComponentsBuilder.fromUriString(baseUrl)
+                .replaceQueryParam(name, UriUtils.encodeQueryParam(value, StandardCharsets.UTF_8));
+        if (name2 != null) {
+            builder.replaceQueryParam(name2, UriUtils.encodeQueryParam(value2, StandardCharsets.UTF_8));
+        }
+        return builder.build(true).toUri();
+    }
+
+    private static String nextLink(URI requestUri, List<String> linkHeaders) {
+        if (linkHeaders == null) {
+            return null;
+        }
+        for (String header : linkHeaders) {
+            Matcher matcher = NEXT_LINK.matcher(header);
+            if (matcher.find()) {
+                return requestUri.resolve(matcher.group(1)).toString();
+            }
+        }
+        return null;
+    }
+
+    private static String style(JobConfig.Job.Pagination pagination) {
+        return pagination.getStyle() != null ? pagination.getStyle().toLowerCase() : "page";
+    }
+
+    private static int pageSize(JobConfig.Job.Pagination pagination) {
+        return pagination.getPageSize() != null ? pagination.getPageSize() : DEFAULT_PAGE_SIZE;
+    }
+
+    private static int maxPages(JobConfig.Job.Pagination pagination) {
+        return pagination.getMaxPages() != null ? pagination.getMaxPages() : Integer.MAX_VALUE;
+    }
+
+    private record Page(int index, String position, int skip, JsonNode items, int itemCount, long bytes, String next) {
+    }
+
+    /**
+     * 체크포인트 형식: {@code 위치|처리한 레코드 수}. 위치는 페이지 번호, 커서 또는 다음 페이지 URL.
+     */
+    record Offset(String position, int seen) {
+        static Offset parse(String value) {
+            if (value == null || value.isEmpty()) {
+                return new Offset(null, 0);
+            }
+            int separator = value.lastIndexOf('|');
+            try {
+                if (separator < 0) {
+                    return new Offset(value, 0);
+                }
+                // 위치가 비어 있으면 첫 페이지(커서 없음)를 다시 읽는다
+                String position = separator > 0 ? value.substring(0, separator) : null;
+                return new Offset(position, Integer.parseInt(value.substring(separator + 1)));
+            } catch (NumberFormatException e) {
+                log.warn("페이지 체크포인트 형식 오류 무시: {}", value);
+                return new Offset(null, 0);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return (position != null ? position : "") + "|" + seen;
+        }
+    }
+
+    private static final class Totals {
+        private long pages;
+        private long records;
+        private long bytes;
+
+        private Totals add(Page page) {
+            pages++;
+            records += Math.max(0, page.itemCount() - page.skip());
+            bytes += page.bytes();
+            return this;
+        }
+    }
+}
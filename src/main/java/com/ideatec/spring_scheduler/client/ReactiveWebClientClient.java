@@ -1,81 +1,214 @@
 package com.ideatec.spring_scheduler.client;
 
+import com.ideatec.spring_scheduler.actuator.JobMetrics;
 import com.ideatec.spring_scheduler.config.JobConfig;
-import io.netty.channel.ChannelOption;
-import io.netty.handler.timeout.ReadTimeoutHandler;
-import io.netty.handler.timeout.WriteTimeoutHandler;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
-import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
-import reactor.netty.http.client.HttpClient;
 import reactor.util.retry.Retry;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
 import java.time.Duration;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
 
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class ReactiveWebClientClient {
-    private final WebClient webClient;
-
-    public ReactiveWebClientClient() {
-        this.webClient = WebClient.builder()
-                .clientConnector(new ReactorClientHttpConnector(
-                        HttpClient.create()
-                                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 5000)
-                                .responseTimeout(Duration.ofSeconds(30))
-                                .doOnConnected(conn -> 
-                                    conn.addHandlerLast(new ReadTimeoutHandler(30, TimeUnit.SECONDS))
-                                        .addHandlerLast(new WriteTimeoutHandler(30, TimeUnit.SECONDS))
-                                )
-                ))
-                .build();
-    }
+    private final ConnectionPoolRegistry connectionPools;
+    private final RequestBodyCache bodyCache;
+    private final ResponseSinkWriter responseSinks;
+    private final ConcurrencyLimiterRegistry limiters;
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final RetryPolicy retryPolicy;
+    private final RequestHedger hedger;
+    private final ResponseCache responseCache;
+    private final JobMetrics jobMetrics;
 
-    public Mono<String> executeRequest(JobConfig.Job job) {
+    /**
+     * 잡 설정에서 요청마다 쓰는 값(URI, 메서드, 타임아웃, 재시도 정책, 메트릭)을 미리 풀어 둔다.
+     * 설정이 바뀔 때만 다시 만들면 되고, 만든 뒤에는 여러 firing 이 동시에 써도 된다.
+     */
+    public RequestPlan plan(JobConfig.Job job) {
         JobConfig.Job.Request request = job.getRequest();
-        
-        WebClient.RequestBodySpec requestSpec = webClient
-                .method(HttpMethod.valueOf(request.getMethod()))
-                .uri(request.getUrl());
-
-        // POST 요청의 경우 body 처리
-        if (HttpMethod.POST.equals(HttpMethod.valueOf(request.getMethod())) && request.getBodyFile() != null) {
-            // TODO: bodyFile에서 데이터 읽어서 설정
-            requestSpec.bodyValue("{}"); // 임시로 빈 JSON
-        }
+        HttpMethod method = HttpMethod.valueOf(request.getMethod());
+        URI uri = JobPartition.isPartitioned(job) ? null : URI.create(request.getUrl());
+        boolean gzipBody = RequestBodyCache.GZIP.equalsIgnoreCase(request.getBodyEncoding());
+        boolean streaming = ResponseSinkWriter.isStreaming(job);
+        // 같은 파일에 두 응답을 이어 쓸 수 없고, 멱등이 아닌 요청은 두 번 보내면 안 된다
+        JobConfig.Job.Request.Hedge hedge = !hasBody(method) && !streaming ? request.getHedge() : null;
+        return new RequestPlan(job, uri, method, hasBody(method), gzipBody,
+                Duration.ofMillis(request.getTimeoutMs()).toNanos(), streaming,
+                retryPolicy.forJob(job), hedge, jobMetrics.meters(job.getId()));
+    }
 
-        return requestSpec
-                .retrieve()
-                .bodyToMono(String.class)
-                .timeout(Duration.ofMillis(request.getTimeoutMs()))
-                .retryWhen(Retry.backoff(
-                        request.getRetry().getMax(),
-                        Duration.ofMillis(request.getRetry().getBackoffMs())
-                ))
-                .doOnSuccess(response -> 
-                    log.info("Job [{}] 성공: {}", job.getId(), response.length() > 100 ? 
-                        response.substring(0, 100) + "..." : response)
+    /**
+     * 잡 요청 한 건을 실행한다. 오류는 삼키지 않고 그대로 전파하므로
+     * 호출자가 요청별 성공/실패를 판단할 수 있다.
+     *
+     * @param lane 팬아웃된 요청 번호. 응답을 파일로 스트리밍할 때 lane 별로 파일과 진행 위치를 나눈다.
+     */
+    public Mono<RequestResult> executeRequest(RequestPlan plan, int lane) {
+        return execute(plan, plan.uri(), String.valueOf(lane), null);
+    }
+
+    /**
+     * 파티션 하나를 요청한다. URL/본문의 플레이스홀더를 파티션 값으로 채우고, 파일 sink 는 파티션별 파일에 기록한다.
+     */
+    public Mono<RequestResult> executeRequest(RequestPlan plan, JobPartition partition) {
+        return Mono.defer(() -> execute(plan, URI.create(partition.resolveUrl(plan.job().getRequest().getUrl())),
+                "p" + partition.key(), partition));
+    }
+
+    private Mono<RequestResult> execute(RequestPlan plan, URI uri, String lane, JobPartition partition) {
+        JobConfig.Job job = plan.job();
+        boolean streaming = plan.streaming();
+
+        return withBody(plan, partition, body -> withPolicies(plan, uri, !streaming, Mono.defer(() -> {
+                    WebClient.RequestHeadersSpec<?> spec = prepare(plan, uri, body);
+                    if (streaming) {
+                        return responseSinks.stream(job, lane, spec);
+                    }
+                    String cacheKey = responseCache.keyOf(job, uri);
+                    if (cacheKey != null) {
+                        responseCache.addConditionalHeaders(cacheKey, spec);
+                        return spec.retrieve().toEntity(String.class)
+                                .flatMap(entity -> responseCache.onResponse(cacheKey, entity));
+                    }
+                    return spec.retrieve().toEntity(String.class).map(entity -> new RequestResult(
+                            entity.getStatusCode().value(), RequestResult.bytesOf(entity), -1, entity.getBody()));
+                })))
+                .doOnSuccess(result -> {
+                    // 요청마다 남기는 로그는 디버그 수준으로만 (실행 이력은 ExecutionHistory 에서 조회)
+                    if (!log.isDebugEnabled()) {
+                        return;
+                    }
+                    if (result.getStatus() == 304) {
+                        log.debug("Job [{}] 성공: 변경 없음 (304)", job.getId());
+                    } else if (result.getBody() != null) {
+                        log.debug("Job [{}] 성공: {}", job.getId(), abbreviate(result.getBody()));
+                    } else {
+                        log.debug("Job [{}] 성공: status={}, bytes={}, records={}", job.getId(),
+                                result.getStatus(), result.getBytes(), result.getRecords());
+                    }
+                })
+                .doOnError(WebClientResponseException.class, ex ->
+                    log.error("Job [{}] HTTP 오류: {} {}", job.getId(), ex.getStatusCode(), ex.getResponseBodyAsString())
                 )
-                .doOnError(error -> 
+                .doOnError(error -> !(error instanceof WebClientResponseException), error ->
                     log.error("Job [{}] 실패: {}", job.getId(), error.getMessage())
-                )
-                .onErrorResume(WebClientResponseException.class, ex -> {
-                    log.error("Job [{}] HTTP 오류: {} {}", job.getId(), ex.getStatusCode(), ex.getResponseBodyAsString());
-                    return Mono.just("ERROR: " + ex.getStatusCode());
-                })
-                .onErrorResume(Exception.class, ex -> {
-                    log.error("Job [{}] 일반 오류: {}", job.getId(), ex.getMessage());
-                    return Mono.just("ERROR: " + ex.getMessage());
-                });
+                );
+    }
+
+    /**
+     * 잡의 커넥션 풀, 본문, 타임아웃, 재시도 설정으로 임의의 URI 를 요청하고 본문을 byte[] 로 받는다.
+     * 페이지네이션처럼 같은 잡이 여러 URI 를 호출할 때 사용한다.
+     *
+     * @param partition null 이 아니면 요청 본문의 플레이스홀더를 파티션 값으로 채운다
+     */
+    public Mono<ResponseEntity<byte[]>> fetch(RequestPlan plan, URI uri, JobPartition partition) {
+        return withBody(plan, partition, body -> withPolicies(plan, uri, true,
+                Mono.defer(() -> prepare(plan, uri, body).retrieve().toEntity(byte[].class))));
+    }
+
+    /**
+     * bodyFile 이 있는 요청은 본문을 요청 한 건에 한 번만 (boundedElastic 에서) 해석해 모든 시도에 넘긴다.
+     * 파티션 플레이스홀더 치환과 재압축도 여기서 한 번 한다. 본문이 없으면 null 을 넘긴다.
+     * 본문은 요청이 성공/실패/취소로 끝날 때 {@link RequestBodyCache.RequestBody#release()} 한다.
+     */
+    private <T> Mono<T> withBody(RequestPlan plan, JobPartition partition,
+                                 Function<RequestBodyCache.RequestBody, Mono<T>> request) {
+        String bodyFile = plan.job().getRequest().getBodyFile();
+        if (bodyFile == null || !plan.hasBody()) {
+            return request.apply(null);
+        }
+        Mono<RequestBodyCache.RequestBody> resolved = bodyCache.resolve(bodyFile, plan.gzipBody())
+                .onErrorMap(IOException.class, e -> new UncheckedIOException("bodyFile 읽기 실패: " + bodyFile, e));
+        // 압축 임시 파일은 요청이 (재시도까지) 끝난 뒤에 놓아 준다
+        return Mono.usingWhen(resolved,
+                body -> request.apply(partition != null ? body.withPartition(partition) : body),
+                body -> Mono.fromRunnable(body::release));
+    }
+
+    private WebClient.RequestHeadersSpec<?> prepare(RequestPlan plan, URI uri, RequestBodyCache.RequestBody body) {
+        WebClient.RequestBodySpec requestSpec = connectionPools.clientFor(plan.job())
+                .method(plan.method())
+                .uri(uri);
+
+        if (body != null) {
+            if (body.contentEncoding() != null) {
+                requestSpec.header(HttpHeaders.CONTENT_ENCODING, body.contentEncoding());
+            }
+            return requestSpec
+                    .contentType(body.contentType())
+                    .contentLength(body.contentLength())
+                    .body(body.inserter());
+        }
+        return requestSpec;
+    }
+
+    /**
+     * 시도마다 서킷 브레이커와 동시 요청 리미터의 허가를 받고, 요청 타임아웃과 firing 남은 시간 중 짧은 쪽을
+     * 시도별 타임아웃으로 쓴다. 재시도 여부는 {@link RetryPolicy} 가 결정한다.
+     * 스트리밍 응답은 본문 크기에 따라 시간이 달라지므로 지연시간은 한도 조절에 쓰지 않는다.
+     * 대기/커넥션 획득/첫 바이트/본문 전송 구간은 {@link RequestTimings} 로 잡별 히스토그램에 기록한다.
+     * hedging 잡은 {@link RequestHedger} 가 시도 안에서 복제 요청을 보내므로 시도별 타임아웃은 두 요청 모두에 걸리고,
+     * 단계별 시각은 요청마다 따로 기록한다.
+     */
+    private <T> Mono<T> withPolicies(RequestPlan plan, URI uri, boolean measureLatency, Mono<T> call) {
+        JobConfig.Job job = plan.job();
+        long timeoutNanos = plan.timeoutNanos();
+        CircuitBreaker breaker = circuitBreakers.breakerFor(uri);
+
+        return Mono.deferContextual(context -> {
+            long deadlineNanos = RequestDeadline.deadlineNanos(context);
+            retryPolicy.onRequest();
+            RequestTimings timings = new RequestTimings(plan.meters(), FiringRetries.of(context));
+            // hedging 복제 요청은 Context 로 자기 RequestTimings 를 받는다
+            Mono<T> timed = Mono.deferContextual(attemptContext -> {
+                RequestTimings.of(attemptContext).permitAcquired();
+                plan.meters().requestStarted();
+                return call.doFinally(signal -> plan.meters().requestEnded());
+            });
+            Mono<T> attempt = Mono.defer(() -> {
+                timings.attemptStarted();
+                long remaining = RequestDeadline.remainingNanos(deadlineNanos);
+                if (remaining <= 0) {
+                    return Mono.error(new TimeoutException("firing 제한 시간 초과: " + job.getId()));
+                }
+                Mono<T> limited = limiters.limit(job, uri, timed, measureLatency);
+                return hedger.hedge(plan, breaker != null ? breaker.run(limited) : limited)
+                        .timeout(Duration.ofNanos(Math.min(timeoutNanos, remaining)))
+                        .doFinally(signal -> timings.attemptFinished());
+            });
+            return attempt.retryWhen(plan.retry())
+                    .doFinally(signal -> timings.requestFinished())
+                    .contextWrite(ctx -> ctx.put(RequestTimings.KEY, timings));
+        });
+    }
+
+    private static boolean hasBody(HttpMethod method) {
+        return !HttpMethod.GET.equals(method) && !HttpMethod.HEAD.equals(method);
+    }
+
+    private static String abbreviate(String body) {
+        if (body == null) {
+            return "";
+        }
+        return body.length() > 100 ? body.substring(0, 100) + "..." : body;
     }
 
     public Mono<String> get(String url) {
-        return webClient.get()
+        return connectionPools.defaultClient().get()
                 .uri(url)
                 .retrieve()
                 .bodyToMono(String.class)
@@ -83,4 +216,3 @@ public class ReactiveWebClientClient {
                 .retryWhen(Retry.backoff(3, Duration.ofMillis(200)));
     }
 }
-
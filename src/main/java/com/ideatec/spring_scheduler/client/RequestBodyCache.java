@@ -0,0 +1,296 @@
+package com.ideatec.spring_scheduler.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ReactiveHttpOutputMessage;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserter;
+import org.springframework.web.reactive.function.BodyInserters;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 잡의 bodyFile 요청 본문을 제공한다.
+ * <p>
+ * 작은 파일은 한 번 읽어 메모리에 캐시하고 파일의 mtime/크기가 바뀌면 다시 읽는다.
+ * 큰 파일은 힙에 올리지 않고 FileSystemResource 로 전송하여 Reactor Netty 의 zero-copy
+ * (sendfile) 경로를 사용한다. 두 경우 모두 Content-Length 는 파일 크기로 설정된다.
+ * <p>
+ * gzip 인코딩을 요청하면 압축 결과도 같은 기준으로 캐시한다. 작은 파일은 압축한 바이트를 메모리에,
+ * 큰 파일은 임시 디렉토리의 압축 파일에 두고 그 파일을 zero-copy 로 보낸다. 파일이 바뀌어 다시 압축하더라도
+ * 이전 압축 파일은 그것을 보내고 있는 요청(재시도 포함)이 끝난 뒤에 지운다.
+ * <p>
+ * 파일 속성 조회와 읽기는 블로킹 IO 이므로 boundedElastic 에서 한다. 메모리 캐시는 최근에 쓴 파일부터 남기는
+ * 크기 제한 캐시(Caffeine)라서 파일이 많아져도 자주 쓰는 본문은 다시 읽지 않는다.
+ */
+@Slf4j
+@Component
+public class RequestBodyCache {
+    static final long MAX_CACHED_BYTES = 256 * 1024;
+    static final String GZIP = "gzip";
+    private static final int MAX_CACHED_FILES = 256;
+
+    private final Cache<Path, CachedBody> cache = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_FILES)
+            .build();
+    private final Map<Path, Compression> compressions = new ConcurrentHashMap<>();
+
+    /**
+     * 본문을 boundedElastic 에서 해석한다. 호출자는 요청 한 건에 한 번 해석해 재시도/hedging 시도에 같은 본문을 쓰고,
+     * 요청이 끝나면 {@link RequestBody#release()} 를 호출해야 한다.
+     *
+     * @param gzip true 면 본문을 gzip 으로 압축해 보낸다 ({@code Content-Encoding: gzip})
+     */
+    public Mono<RequestBody> resolve(String bodyFile, boolean gzip) {
+        return Mono.defer(() -> {
+                    try {
+                        return read(bodyFile, gzip);
+                    } catch (IOException e) {
+                        return Mono.error(e);
+                    }
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Mono<RequestBody> read(String bodyFile, boolean gzip) throws IOException {
+        Path path = Paths.get(bodyFile).toAbsolutePath().normalize();
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        long size = attributes.size();
+        long modified = attributes.lastModifiedTime().toMillis();
+        MediaType contentType = MediaTypeFactory.getMediaType(path.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM);
+
+        if (size > MAX_CACHED_BYTES) {
+            cache.invalidate(path);
+            if (!gzip) {
+                return Mono.just(new RequestBody(path, size, contentType, null, null, null, null));
+            }
+            // 다른 요청이 압축 중이면 그 결과를 기다린다. 기다리던 요청이 취소돼도 압축은 계속된다
+            return Mono.fromFuture(compression(path, size, modified), true)
+                    .flatMap(file -> file.retain()
+                            ? Mono.just(new RequestBody(file.path(), file.length(), contentType, null, null, GZIP,
+                                    file::release))
+                            // 그 사이 파일이 바뀌어 압축본이 지워졌으면 새 압축본을 받는다
+                            : resolve(bodyFile, true));
+        }
+
+        Compression stale = compressions.remove(path);
+        if (stale != null) {
+            stale.file().thenAccept(CompressedFile::release);
+        }
+        CachedBody cached = cache.getIfPresent(path);
+        if (cached == null || cached.size() != size || cached.modified() != modified) {
+            cached = new CachedBody(size, modified, Files.readAllBytes(path), null);
+            cache.put(path, cached);
+            log.debug("요청 본문 캐시 갱신: {} ({} bytes)", path, cached.bytes().length);
+        }
+        if (!gzip) {
+            return Mono.just(new RequestBody(path, cached.bytes().length, contentType, cached.bytes(), cached.bytes(),
+                    null, null));
+        }
+        if (cached.gzipped() == null) {
+            // 같은 바이트를 두 스레드가 압축해도 결과는 같으므로 마지막 것만 남긴다
+            cached = new CachedBody(size, modified, cached.bytes(), gzip(cached.bytes()));
+            cache.put(path, cached);
+        }
+        return Mono.just(new RequestBody(path, cached.gzipped().length, contentType, cached.bytes(), cached.gzipped(),
+                GZIP, null));
+    }
+
+    @PreDestroy
+    public void close() {
+        compressions.values().forEach(compression -> {
+            CompressedFile file = compression.file().getNow(null);
+            if (file != null) {
+                deleteQuietly(file.path());
+            }
+        });
+        compressions.clear();
+    }
+
+    static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, bytes.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out, 8192)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 파일의 현재 크기/mtime 에 맞는 압축본. 없으면 이 스레드(boundedElastic)가 압축하고, 같은 파일을 동시에 요청한
+     * 다른 스레드는 같은 future 를 기다린다. map 의 compute 안에서는 future 만 바꿔 끼우므로 압축하는 동안 락을 잡지 않는다.
+     * 대체된 압축본은 캐시의 참조만 놓고, 그 파일을 보내는 요청이 모두 끝나야 지워진다.
+     */
+    private CompletableFuture<CompressedFile> compression(Path path, long size, long modified) {
+        Compression current = compressions.get(path);
+        if (current != null && current.matches(size, modified)) {
+            return current.file();
+        }
+        Compression next = new Compression(size, modified, new CompletableFuture<>());
+        Compression[] replaced = new Compression[1];
+        Compression winner = compressions.compute(path, (key, existing) -> {
+            if (existing != null && existing.matches(size, modified)) {
+                return existing;
+            }
+            replaced[0] = existing;
+            return next;
+        });
+        if (winner != next) {
+            return winner.file();
+        }
+        if (replaced[0] != null) {
+            replaced[0].file().thenAccept(CompressedFile::release);
+        }
+        try {
+            next.file().complete(compress(path, size));
+        } catch (IOException | RuntimeException e) {
+            // 실패한 압축은 남기지 않아 다음 요청이 다시 시도한다
+            compressions.remove(path, next);
+            next.file().completeExceptionally(e);
+        }
+        return next.file();
+    }
+
+    private static CompressedFile compress(Path path, long size) throws IOException {
+        Path target = Files.createTempFile("request-body-", ".gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(target), 64 * 1024)) {
+            Files.copy(path, out);
+        } catch (IOException e) {
+            deleteQuietly(target);
+            throw e;
+        }
+        long length = Files.size(target);
+        log.info("요청 본문 gzip 압축: {} ({} -> {} bytes)", path, size, length);
+        return new CompressedFile(target, length);
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("압축 본문 파일 삭제 실패: {}", path, e);
+        }
+    }
+
+    /**
+     * 해석된 요청 본문. {@code payload} 가 null 이면 {@code path} 파일에서 직접 스트리밍한다.
+     *
+     * @param path            스트리밍할 파일 (gzip 이면 압축해 둔 임시 파일)
+     * @param contentLength   실제로 보낼 바이트 수
+     * @param bytes           압축 전 원본 (작은 파일만). 파티션 플레이스홀더 치환에 쓴다
+     * @param payload         보낼 바이트 (작은 파일만)
+     * @param contentEncoding {@code gzip} 또는 null
+     * @param onRelease       요청이 끝났을 때 호출한다 (압축 임시 파일의 참조 해제). 없으면 null
+     */
+    public record RequestBody(Path path, long contentLength, MediaType contentType, byte[] bytes, byte[] payload,
+                              String contentEncoding, Runnable onRelease) {
+
+        public BodyInserter<?, ReactiveHttpOutputMessage> inserter() {
+            return payload != null
+                    ? BodyInserters.fromValue(payload)
+                    : BodyInserters.fromResource(new FileSystemResource(path));
+        }
+
+        /**
+         * 파티션 값으로 플레이스홀더를 채운 본문. 큰 본문(파일 스트리밍)과 플레이스홀더가 없는 본문은 그대로 돌려준다.
+         */
+        public RequestBody withPartition(JobPartition partition) {
+            if (bytes == null) {
+                return this;
+            }
+            byte[] resolved = partition.resolveBody(bytes);
+            if (resolved == bytes) {
+                return this;
+            }
+            byte[] encoded = contentEncoding != null ? gzip(resolved) : resolved;
+            return new RequestBody(path, encoded.length, contentType, resolved, encoded, contentEncoding, onRelease);
+        }
+
+        /**
+         * 요청(모든 재시도 포함)이 끝났음을 알린다. 한 번만 호출한다.
+         */
+        public void release() {
+            if (onRelease != null) {
+                onRelease.run();
+            }
+        }
+    }
+
+    private record CachedBody(long size, long modified, byte[] bytes, byte[] gzipped) {
+    }
+
+    /**
+     * 원본 크기/mtime 하나에 대한 압축 작업.
+     */
+    private record Compression(long size, long modified, CompletableFuture<CompressedFile> file) {
+
+        boolean matches(long size, long modified) {
+            return this.size == size && this.modified == modified;
+        }
+    }
+
+    /**
+     * 압축해 둔 임시 파일. 캐시가 가진 참조 하나와 이 파일을 보내는 요청마다 참조 하나를 세어,
+     * 참조가 모두 풀리면 파일을 지운다.
+     */
+    private static final class CompressedFile {
+        private final Path path;
+        private final long length;
+        private final AtomicInteger references = new AtomicInteger(1);
+
+        CompressedFile(Path path, long length) {
+            this.path = path;
+            this.length = length;
+        }
+
+        Path path() {
+            return path;
+        }
+
+        long length() {
+            return length;
+        }
+
+        /**
+         * @return 이미 지워진 파일이면 false
+         */
+        boolean retain() {
+            for (;;) {
+                int count = references.get();
+                if (count == 0) {
+                    return false;
+                }
+                if (references.compareAndSet(count, count + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        void release() {
+            if (references.decrementAndGet() == 0) {
+                deleteQuietly(path);
+            }
+        }
+    }
+}
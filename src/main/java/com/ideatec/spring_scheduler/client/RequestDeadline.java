@@ -0,0 +1,34 @@
+package com.ideatec.spring_scheduler.client;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+
+/**
+ * firing 전체 제한 시간을 Reactor Context 로 전달한다. 요청 타임아웃과 재시도는 남은 시간 안에서만 수행된다.
+ */
+public final class RequestDeadline {
+    private static final String KEY = RequestDeadline.class.getName();
+
+    private RequestDeadline() {
+    }
+
+    /**
+     * 구독 시점부터 {@code deadline} 뒤를 제한 시간으로 설정한다. {@code contextWrite(ctx -> put(ctx, deadline))} 로 사용한다.
+     */
+    public static Context put(Context context, Duration deadline) {
+        return context.put(KEY, System.nanoTime() + deadline.toNanos());
+    }
+
+    /**
+     * @return 제한 시간의 System.nanoTime 값. 없으면 {@link Long#MAX_VALUE}
+     */
+    static long deadlineNanos(ContextView context) {
+        return context.getOrDefault(KEY, Long.MAX_VALUE);
+    }
+
+    static long remainingNanos(long deadlineNanos) {
+        return deadlineNanos == Long.MAX_VALUE ? Long.MAX_VALUE : deadlineNanos - System.nanoTime();
+    }
+}
@@ -0,0 +1,166 @@
+package com.ideatec.spring_scheduler.client;
+
+import com.ideatec.spring_scheduler.actuator.JobMeters;
+import com.ideatec.spring_scheduler.actuator.JobMetrics;
+import com.ideatec.spring_scheduler.config.JobConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 멱등 요청의 hedging.
+ * <p>
+ * 시도가 {@code hedge.delayMs} (또는 잡의 최근 시도 지연시간 {@code hedge.percentile} 백분위) 안에 끝나지 않으면
+ * 같은 요청을 하나 더 보내고 먼저 성공한 응답을 쓴다. 진 쪽은 구독을 취소하므로 Reactor Netty 가 요청을 끊는다
+ * (HTTP/1.1 은 커넥션을 닫고 HTTP/2 는 스트림만 리셋한다). 복제 요청도 리미터와 서킷 브레이커 허가를 따로 받지만,
+ * 진 요청의 취소는 {@link HedgeRace} 로 구분되어 어느 쪽에도 실패로 기록되지 않는다. 단계별 시각은 요청마다
+ * 따로 기록하고 이긴 요청(모두 실패하면 첫 실패)의 응답 상태를 요청 결과로 쓴다.
+ * <p>
+ * 복제 요청 수는 재시도 예산과 같은 토큰 버킷({@code scheduler.http.hedge-budget.*})으로 hedging 잡의 시도 대비 비율을
+ * 제한한다. 한쪽이 실패하면 다른 쪽을 기다리고 모두 실패하면 첫 실패를 그대로 돌려주므로 재시도 분류는 바뀌지 않는다.
+ * 복제 요청을 보내기 전에 첫 요청이 실패하면 복제하지 않고 바로 실패를 돌려준다.
+ */
+@Component
+public class RequestHedger {
+    private final RetryBudget budget;
+
+    public RequestHedger(JobMetrics jobMetrics,
+                         @Value("${scheduler.http.hedge-budget.ratio:0.05}") double ratio,
+                         @Value("${scheduler.http.hedge-budget.min-per-second:1}") double minPerSecond,
+                         @Value("${scheduler.http.hedge-budget.max-balance:20}") double maxBalance) {
+        this.budget = new RetryBudget(ratio, minPerSecond, maxBalance);
+        jobMetrics.registerHedgeBudget(budget);
+    }
+
+    /**
+     * @param call 시도 한 번. 구독할 때마다 새 요청을 보내야 한다
+     * @return 요청 계획에 hedging 이 없으면 {@code call} 그대로
+     */
+    public <T> Mono<T> hedge(RequestPlan plan, Mono<T> call) {
+        JobConfig.Job.Request.Hedge hedge = plan.hedge();
+        if (hedge == null) {
+            return call;
+        }
+        JobMeters meters = plan.meters();
+        Double percentile = hedge.getPercentile();
+        int maxHedges = hedge.getMaxHedges() != null ? Math.max(1, hedge.getMaxHedges()) : 1;
+
+        return Mono.deferContextual(context -> {
+            budget.onRequest();
+            Mono<T> primary = percentile != null ? measured(call, meters, percentile) : call;
+            long delayNanos = delayNanos(hedge, meters);
+            if (delayNanos < 0) {
+                return primary; // percentile 만 설정했고 아직 표본이 부족함
+            }
+
+            RequestTimings request = RequestTimings.of(context);
+            HedgeRace race = new HedgeRace();
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            Sinks.One<Boolean> primaryFailed = Sinks.one();
+            List<Mono<Copy<T>>> copies = new ArrayList<>(1 + maxHedges);
+            copies.add(copy(0, primary, race, request, failure)
+                    .doOnSuccess(winner -> {
+                        if (winner == null) {
+                            primaryFailed.tryEmitValue(Boolean.TRUE);
+                        }
+                    }));
+            for (int i = 1; i <= maxHedges; i++) {
+                int index = i;
+                copies.add(Mono.delay(Duration.ofNanos(delayNanos * i))
+                        .takeUntilOther(primaryFailed.asMono())
+                        .flatMap(tick -> {
+                            if (!budget.tryAcquireRetry()) {
+                                meters.recordHedge(JobMeters.HedgeResult.BUDGET_EXHAUSTED);
+                                return Mono.<Copy<T>>empty();
+                            }
+                            meters.recordHedge(JobMeters.HedgeResult.SENT);
+                            return copy(index, call, race, request, failure);
+                        }));
+            }
+            // 먼저 값을 낸 요청은 끝까지 받고 나머지 요청의 구독만 취소한다 (next() 는 이긴 요청까지 취소한다)
+            return Mono.firstWithValue(copies)
+                    .onErrorResume(NoSuchElementException.class, empty -> failure.get() != null
+                            ? Mono.<Copy<T>>error(failure.get()) : Mono.<Copy<T>>empty())
+                    .map(winner -> {
+                        if (winner.index() > 0) {
+                            meters.recordHedge(JobMeters.HedgeResult.WON);
+                        }
+                        if (request != null) {
+                            request.adoptStatus(winner.timings());
+                        }
+                        return winner.value();
+                    });
+        });
+    }
+
+    /**
+     * 경주에 요청 하나를 내보낸다. 값을 받으면 다른 요청이 취소되기 전에 경주를 끝내고, 실패는 첫 실패만 남긴 채
+     * 값 없이 끝낸다. 단계별 시각은 이 요청 몫의 {@link RequestTimings} 에 기록한다.
+     */
+    private static <T> Mono<Copy<T>> copy(int index, Mono<T> call, HedgeRace race, RequestTimings request,
+                                          AtomicReference<Throwable> failure) {
+        return Mono.defer(() -> {
+            RequestTimings timings = request != null ? request.forHedge() : null;
+            return call
+                    .doOnNext(value -> race.settle())
+                    .map(value -> new Copy<>(index, value, timings))
+                    .onErrorResume(error -> {
+                        if (failure.compareAndSet(null, error) && request != null) {
+                            request.adoptStatus(timings);
+                        }
+                        return Mono.empty();
+                    })
+                    .doFinally(signal -> {
+                        if (timings != null) {
+                            timings.attemptFinished();
+                        }
+                    })
+                    .contextWrite(context -> timings != null
+                            ? HedgeRace.put(context, race).put(RequestTimings.KEY, timings)
+                            : HedgeRace.put(context, race));
+        });
+    }
+
+    /**
+     * @return 복제 요청까지 기다릴 시간(나노초), hedging 하지 않으면 -1
+     */
+    private static long delayNanos(JobConfig.Job.Request.Hedge hedge, JobMeters meters) {
+        long fixed = hedge.getDelayMs() != null ? TimeUnit.MILLISECONDS.toNanos(hedge.getDelayMs()) : -1;
+        if (hedge.getPercentile() == null) {
+            return fixed;
+        }
+        long observed = meters.attemptLatencyPercentile(hedge.getPercentile());
+        return observed < 0 ? fixed : Math.max(observed, fixed);
+    }
+
+    /**
+     * 첫 요청의 지연시간을 기록한다. 복제 요청에 져서 취소된 시도도 취소 시점까지의 시간으로 기록해
+     * hedging 이 성공할수록 백분위가 낮아지는 쪽으로 치우치지 않게 한다.
+     */
+    private static <T> Mono<T> measured(Mono<T> call, JobMeters meters, double percentile) {
+        return Mono.defer(() -> {
+            long startNanos = System.nanoTime();
+            return call.doFinally(signal -> {
+                if (signal != SignalType.ON_ERROR) {
+                    meters.recordAttemptLatency(percentile, System.nanoTime() - startNanos);
+                }
+            });
+        });
+    }
+
+    /**
+     * @param index   0 이면 첫 요청, 1 부터 복제 요청
+     * @param timings 이 요청의 단계별 시각, 요청 시각을 재지 않는 호출이면 null
+     */
+    private record Copy<T>(int index, T value, RequestTimings timings) {
+    }
+}
@@ -0,0 +1,22 @@
+package com.ideatec.spring_scheduler.client;
+
+import com.ideatec.spring_scheduler.actuator.JobMeters;
+import com.ideatec.spring_scheduler.config.JobConfig;
+import org.springframework.http.HttpMethod;
+import reactor.util.retry.Retry;
+
+import java.net.URI;
+
+/**
+ * 잡 요청을 보낼 때마다 다시 계산하지 않도록 설정에서 한 번 풀어 둔 값. {@link ReactiveWebClientClient#plan} 으로 만든다.
+ * <p>
+ * 재시도 정책은 firing 제한 시간을 Reactor Context 에서 읽으므로 여러 firing 이 같은 인스턴스를 공유한다.
+ *
+ * @param uri      요청 URI. 파티션 잡은 파티션마다 URL 템플릿을 채우므로 null
+ * @param gzipBody bodyFile 을 gzip 으로 압축해 보낼지 ({@code bodyEncoding: gzip})
+ * @param hedge    시도마다 적용할 hedging 설정. 설정이 없거나 멱등 요청이 아니거나 스트리밍 응답이면 null
+ */
+public record RequestPlan(JobConfig.Job job, URI uri, HttpMethod method, boolean hasBody, boolean gzipBody,
+                          long timeoutNanos, boolean streaming, Retry retry, JobConfig.Job.Request.Hedge hedge,
+                          JobMeters meters) {
+}
@@ -0,0 +1,62 @@
+package com.ideatec.spring_scheduler.client;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * HTTP 요청 한 건의 응답 요약.
+ */
+@Getter
+@AllArgsConstructor
+public class RequestResult {
+    private final int status;
+    private final long bytes;
+    private final long records; // 집계하지 않으면 -1
+    private final String body;  // string sink 가 아니면 null
+
+    /**
+     * 문자열로 받은 응답 본문의 바이트 수. {@code Content-Length} 가 있으면 그 값을, 없으면(chunked, 압축 해제)
+     * 응답 charset 으로 인코딩한 길이를 쓴다. {@link String#length()} 는 UTF-16 문자 수라 비 ASCII 본문에서 틀린다.
+     */
+    static long bytesOf(ResponseEntity<String> entity) {
+        String body = entity.getBody();
+        if (body == null) {
+            return 0;
+        }
+        long contentLength = entity.getHeaders().getContentLength();
+        if (contentLength >= 0) {
+            return contentLength;
+        }
+        MediaType contentType = entity.getHeaders().getContentType();
+        Charset charset = contentType != null && contentType.getCharset() != null
+                ? contentType.getCharset() : StandardCharsets.UTF_8;
+        return StandardCharsets.UTF_8.equals(charset) ? utf8Length(body) : body.getBytes(charset).length;
+    }
+
+    /**
+     * 복사본을 만들지 않고 UTF-8 인코딩 길이를 센다.
+     */
+    private static long utf8Length(String text) {
+        long bytes = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                bytes += 1;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length()
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,107 @@
+package com.ideatec.spring_scheduler.client;
+
+import com.ideatec.spring_scheduler.actuator.JobMeters;
+import reactor.util.context.ContextView;
+
+/**
+ * 요청 한 건(재시도 포함)의 단계별 시각을 모으는 가변 홀더.
+ * <p>
+ * Reactor Context 로 전달되어 Reactor Netty 의 {@code doOnRequest}/{@code doOnResponse} 훅에서 요청 전송과
+ * 응답 헤더 수신 시각을 기록한다. 한 요청의 시도는 순서대로 실행되므로 동기화하지 않는다 (필드는 volatile 로 가시성만 보장).
+ * hedging 시도에서 동시에 나가는 요청들은 {@link #forHedge()} 로 만든 각자의 인스턴스를 Context 로 받는다.
+ */
+public final class RequestTimings {
+    static final String KEY = RequestTimings.class.getName();
+
+    private final JobMeters meters;
+    private final FiringRetries firingRetries;
+    private final long startNanos = System.nanoTime();
+    private volatile long attemptStartNanos;
+    private volatile long permitNanos;
+    private volatile long requestSentNanos;
+    private volatile long responseNanos;
+    private volatile int status;
+    private volatile int attempts;
+
+    /**
+     * @param firingRetries 재시도 횟수를 더할 firing 집계, 없으면 null
+     */
+    RequestTimings(JobMeters meters, FiringRetries firingRetries) {
+        this.meters = meters;
+        this.firingRetries = firingRetries;
+    }
+
+    static RequestTimings of(ContextView context) {
+        return context.getOrDefault(KEY, null);
+    }
+
+    /**
+     * Reactor Netty 훅에서 호출된다. 요청이 연결에 쓰이기 직전이므로 커넥션 획득(연결/TLS 포함)이 끝난 시점이다.
+     */
+    public static void onRequestSent(ContextView context) {
+        RequestTimings timings = context.getOrDefault(KEY, null);
+        if (timings != null) {
+            timings.requestSentNanos = System.nanoTime();
+            timings.meters.record(JobMeters.Phase.CONNECT_ACQUIRE, timings.requestSentNanos - timings.permitNanos);
+        }
+    }
+
+    /**
+     * Reactor Netty 훅에서 호출된다. 응답 상태와 헤더를 받은 시점.
+     */
+    public static void onResponse(ContextView context, int status) {
+        RequestTimings timings = context.getOrDefault(KEY, null);
+        if (timings != null) {
+            timings.responseNanos = System.nanoTime();
+            timings.status = status;
+            if (timings.requestSentNanos > 0) {
+                timings.meters.record(JobMeters.Phase.TIME_TO_FIRST_BYTE, timings.responseNanos - timings.requestSentNanos);
+            }
+        }
+    }
+
+    void attemptStarted() {
+        attempts++;
+        attemptStartNanos = System.nanoTime();
+        permitNanos = attemptStartNanos;
+        requestSentNanos = 0;
+        responseNanos = 0;
+        status = 0;
+    }
+
+    /**
+     * 서킷/리미터 허가를 받은 시점. 그 전까지가 대기 시간이다.
+     */
+    void permitAcquired() {
+        permitNanos = System.nanoTime();
+        meters.record(JobMeters.Phase.QUEUE_WAIT, permitNanos - attemptStartNanos);
+    }
+
+    void attemptFinished() {
+        if (responseNanos > 0) {
+            meters.record(JobMeters.Phase.BODY_TRANSFER, System.nanoTime() - responseNanos);
+        }
+    }
+
+    /**
+     * hedging 시도의 요청 하나가 쓸 인스턴스. 단계 시각은 요청마다 따로 기록하고, 이긴 요청의 응답 상태는
+     * {@link #adoptStatus} 로 이 요청에 옮긴다.
+     */
+    RequestTimings forHedge() {
+        RequestTimings copy = new RequestTimings(meters, null);
+        copy.attemptStarted();
+        return copy;
+    }
+
+    void adoptStatus(RequestTimings winner) {
+        status = winner.status;
+    }
+
+    void requestFinished() {
+        int retries = Math.max(0, attempts - 1);
+        meters.recordRequest(status, retries, System.nanoTime() - startNanos);
+        if (firingRetries != null) {
+            firingRetries.add(retries);
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.ideatec.spring_scheduler.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.ideatec.spring_scheduler.actuator.JobMetrics;
+import com.ideatec.spring_scheduler.config.JobConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 조건부 요청(ETag/Last-Modified) 응답 캐시.
+ * <p>
+ * 잡/URL 별로 검증자(ETag, Last-Modified)와 본문 digest 를 기억해 다음 요청에 {@code If-None-Match},
+ * {@code If-Modified-Since} 를 붙이고, 304 응답은 캐시된 본문으로 성공 처리한다. 본문은 W-TinyLFU(Caffeine)
+ * 캐시에 바이트 상한까지 보관하며, {@code spill-dir} 이 설정되어 있으면 밀려난 본문을 디스크에 옮겨둔다.
+ * 검증자가 없는 응답도 digest 로 이전과 같은 본문인지 집계한다.
+ */
+@Slf4j
+@Component
+public class ResponseCache {
+    private static final int ENTRY_OVERHEAD_BYTES = 64;
+
+    private final boolean enabled;
+    private final Path spillDir;
+    private final Cache<String, Validators> validators;
+    private final Cache<String, String> bodies;
+    private final AtomicLong notModified = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong unchanged = new AtomicLong();
+    private final AtomicLong bytesSaved = new AtomicLong();
+
+    public ResponseCache(JobMetrics jobMetrics,
+                         @Value("${scheduler.http.cache.enabled:true}") boolean enabled,
+                         @Value("${scheduler.http.cache.max-entries:10000}") long maxEntries,
+                         @Value("${scheduler.http.cache.max-body-bytes:67108864}") long maxBodyBytes,
+                         @Value("${scheduler.http.cache.spill-dir:}") String spillDir) {
+        this.enabled = enabled;
+        this.spillDir = spillDir.isBlank() ? null : Paths.get(spillDir);
+        this.validators = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .removalListener((String key, Validators value, RemovalCause cause) -> {
+                    // 다른 본문으로 바뀌었거나 밀려난 검증자의 디스크 본문은 더 이상 쓰이지 않는다
+                    if (key != null && value != null && value.digest() != null) {
+                        Validators current = cause == RemovalCause.REPLACED ? validators().getIfPresent(key) : null;
+                        if (current == null || !Arrays.equals(current.digest(), value.digest())) {
+                            deleteSpill(key, value.digest());
+                        }
+                    }
+                })
+                .build();
+        this.bodies = Caffeine.newBuilder()
+                .maximumWeight(maxBodyBytes)
+                .weigher((String key, String body) -> body.length() * 2 + ENTRY_OVERHEAD_BYTES)
+                .removalListener((String key, String body, RemovalCause cause) -> {
+                    if (cause == RemovalCause.SIZE && body != null) {
+                        spill(key, body);
+                    }
+                })
+                .build();
+        if (this.spillDir != null) {
+            try {
+                Files.createDirectories(this.spillDir);
+            } catch (IOException e) {
+                throw new IllegalStateException("응답 캐시 디렉토리 생성 실패: " + this.spillDir, e);
+            }
+        }
+        jobMetrics.registerResponseCache(this);
+    }
+
+    /**
+     * @return 캐시 키. 캐시 대상(GET, 문자열 응답, {@code request.cache} 가 false 가 아님)이 아니면 null
+     */
+    public String keyOf(JobConfig.Job job, URI uri) {
+        JobConfig.Job.Request request = job.getRequest();
+        if (!enabled || Boolean.FALSE.equals(request.getCache()) || !"GET".equalsIgnoreCase(request.getMethod())) {
+            return null;
+        }
+        return job.getId() + "|" + uri;
+    }
+
+    public void addConditionalHeaders(String key, WebClient.RequestHeadersSpec<?> spec) {
+        Validators cached = validators.getIfPresent(key);
+        if (cached == null) {
+            return;
+        }
+        if (cached.etag() != null) {
+            spec.header(HttpHeaders.IF_NONE_MATCH, cached.etag());
+        }
+        if (cached.lastModified() != null) {
+            spec.header(HttpHeaders.IF_MODIFIED_SINCE, cached.lastModified());
+        }
+    }
+
+    /**
+     * 응답을 캐시에 반영하고 결과로 변환한다. 304 는 캐시된 본문(메모리 또는 디스크)으로 성공 처리한다.
+     */
+    public Mono<RequestResult> onResponse(String key, ResponseEntity<String> entity) {
+        int status = entity.getStatusCode().value();
+        if (status == HttpStatus.NOT_MODIFIED.value()) {
+            Validators cached = validators.getIfPresent(key);
+            notModified.incrementAndGet();
+            if (cached != null) {
+                bytesSaved.addAndGet(cached.bodyLength());
+            }
+            String body = bodies.getIfPresent(key);
+            if (body != null || spillDir == null || cached == null || cached.digest() == null) {
+                return Mono.just(new RequestResult(status, 0, -1, body));
+            }
+            return Mono.fromCallable(() -> new RequestResult(status, 0, -1, readSpill(key, cached.digest())))
+                    .subscribeOn(Schedulers.boundedElastic());
+        }
+
+        String body = entity.getBody();
+        long bodyLength = RequestResult.bytesOf(entity);
+        RequestResult result = new RequestResult(status, bodyLength, -1, body);
+        if (!entity.getStatusCode().is2xxSuccessful()) {
+            return Mono.just(result);
+        }
+
+        misses.incrementAndGet();
+        byte[] digest = body != null ? digest(body) : null;
+        Validators previous = validators.getIfPresent(key);
+        if (previous != null && digest != null && Arrays.equals(previous.digest(), digest)) {
+            unchanged.incrementAndGet();
+        }
+
+        HttpHeaders headers = entity.getHeaders();
+        String etag = headers.getETag();
+        String lastModified = headers.getFirst(HttpHeaders.LAST_MODIFIED);
+        validators.put(key, new Validators(etag, lastModified, digest, bodyLength));
+        if (body != null && (etag != null || lastModified != null)) {
+            // 304 로 돌려줄 본문
+            bodies.put(key, body);
+        } else {
+            bodies.invalidate(key);
+        }
+        return Mono.just(result);
+    }
+
+    public long getNotModifiedCount() {
+        return notModified.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getUnchangedCount() {
+        return unchanged.get();
+    }
+
+    public long getBytesSaved() {
+        return bytesSaved.get();
+    }
+
+    public long getBodyBytes() {
+        return bodies.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L);
+    }
+
+    /**
+     * 메모리에서 밀려난 본문을 디스크로 옮긴다. 파일 이름에 본문 digest 를 넣어 검증자와 짝을 맞춘다.
+     */
+    private void spill(String key, String body) {
+        Validators current = validators.getIfPresent(key);
+        if (spillDir == null || current == null || current.digest() == null) {
+            return;
+        }
+        byte[] digest = digest(body);
+        if (!Arrays.equals(current.digest(), digest)) {
+            return;
+        }
+        try {
+            Path file = spillPath(key, digest);
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.writeString(temp, body, StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.warn("응답 캐시 디스크 저장 실패: {}", key, e);
+        }
+    }
+
+    private String readSpill(String key, byte[] digest) {
+        Path file = spillPath(key, digest);
+        try {
+            return Files.exists(file) ? Files.readString(file, StandardCharsets.UTF_8) : null;
+        } catch (IOException e) {
+            log.warn("응답 캐시 디스크 읽기 실패: {}", key, e);
+            return null;
+        }
+    }
+
+    private void deleteSpill(String key, byte[] digest) {
+        if (spillDir == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(spillPath(key, digest));
+        } catch (IOException e) {
+            log.warn("응답 캐시 디스크 파일 삭제 실패: {}", key, e);
+        }
+    }
+
+    private Path spillPath(String key, byte[] digest) {
+        HexFormat hex = HexFormat.of();
+        return spillDir.resolve(hex.formatHex(digest(key), 0, 16) + "-" + hex.formatHex(digest, 0, 16) + ".body");
+    }
+
+    private Cache<String, Validators> validators() {
+        return validators;
+    }
+
+    private static byte[] digest(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Validators(String etag, String lastModified, byte[] digest, long bodyLength) {
+    }
+}
@@ -0,0 +1,626 @@
+package com.ideatec.spring_scheduler.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ideatec.spring_scheduler.checkpoint.CheckpointStore;
+import com.ideatec.spring_scheduler.config.JobConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 응답 본문을 String 으로 버퍼링하지 않고 DataBuffer 단위로 흘려보내는 sink.
+ * <p>
+ * {@code file} 은 롤링 파일에 이어 쓰고, {@code discard} 는 바이트 수만 센다.
+ * file sink 는 일정 간격으로 진행 위치를 {@link CheckpointStore#saveOffset} 에 저장하므로,
+ * 중간에 크래시가 나도 다음 실행에서 Range 요청으로 이어받을 수 있다. 이어받기 요청은 저장해 둔 ETag/Last-Modified 를
+ * {@code If-Range} 로 보내고 응답의 Content-Range 를 확인하며, 서버가 거절하면(416 또는 위치 불일치) 체크포인트를 지우고
+ * 처음부터 다시 받는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ResponseSinkWriter {
+    private static final long DEFAULT_ROLL_BYTES = 256L * 1024 * 1024;
+    private static final long DEFAULT_CHECKPOINT_BYTES = 4L * 1024 * 1024;
+    private static final DateTimeFormatter ROLL_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+
+    private final CheckpointStore checkpointStore;
+
+    public static boolean isStreaming(JobConfig.Job job) {
+        JobConfig.Job.Response response = job.getResponse();
+        return response != null && (isFileSink(response) || "discard".equalsIgnoreCase(response.getSink()));
+    }
+
+    /**
+     * 요청을 보내고 응답 본문을 sink 로 스트리밍한다. 에러 상태 코드는 WebClientResponseException 으로 전파된다.
+     *
+     * @param lane 팬아웃 번호 또는 {@code p<파티션 키>}. 파일 이름과 진행 위치 체크포인트 키에 쓰인다.
+     */
+    public Mono<RequestResult> stream(JobConfig.Job job, String lane, WebClient.RequestHeadersSpec<?> spec) {
+        JobConfig.Job.Response config = job.getResponse();
+        if (!isFileSink(config)) {
+            return spec.exchangeToMono(response -> consume(response, new DiscardTarget(recordCounter(config, false))));
+        }
+
+        return stream(job, lane, spec, true)
+                .onErrorResume(ResumeRejectedException.class, rejected -> {
+                    log.warn("응답 스트림 이어받기 실패, 처음부터 다시 받습니다: {}", rejected.getMessage());
+                    spec.headers(headers -> {
+                        headers.remove(HttpHeaders.RANGE);
+                        headers.remove(HttpHeaders.IF_RANGE);
+                        headers.remove(HttpHeaders.ACCEPT_ENCODING);
+                    });
+                    return stream(job, lane, spec, false);
+                });
+    }
+
+    private Mono<RequestResult> stream(JobConfig.Job job, String lane, WebClient.RequestHeadersSpec<?> spec,
+                                       boolean resume) {
+        return Mono.fromCallable(() -> FileTarget.prepare(this, job, lane, resume))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(target -> {
+                    if (target.resuming()) {
+                        // 이어 받을 위치는 압축을 푼 바이트 기준이므로 압축되지 않은 표현을 요청한다.
+                        // 그 사이 응답이 바뀌었으면 서버가 If-Range 를 보고 전체 본문(200)을 보낸다
+                        spec.header(HttpHeaders.RANGE, "bytes=" + target.resumeBytes + "-");
+                        spec.header(HttpHeaders.IF_RANGE, target.resumeValidator);
+                        spec.header(HttpHeaders.ACCEPT_ENCODING, "identity");
+                    }
+                    return spec.exchangeToMono(response -> {
+                                if (target.resuming() && !target.acceptsResume(response)) {
+                                    return response.releaseBody()
+                                            .then(Mono.fromRunnable(target::discardResume)
+                                                    .subscribeOn(Schedulers.boundedElastic()))
+                                            .then(Mono.error(new ResumeRejectedException(target.checkpointKey,
+                                                    response)));
+                                }
+                                return consume(response, target);
+                            })
+                            .doOnError(error -> target.abort())
+                            .doOnCancel(target::abort);
+                });
+    }
+
+    /**
+     * 페이지 단위로 받은 레코드를 NDJSON 으로 잡의 활성 파일에 덧붙인다. 블로킹 I/O 이므로
+     * boundedElastic 등 블로킹 가능한 스레드에서 호출해야 한다.
+     */
+    public void appendRecords(JobConfig.Job job, String base, List<JsonNode> records) throws IOException {
+        if (records.isEmpty()) {
+            return;
+        }
+        JobConfig.Job.Response config = job.getResponse();
+        Path dir = sinkDir(job);
+        Files.createDirectories(dir);
+        Path file = rollIfNeeded(dir, base, config.getRollBytes());
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND))) {
+            for (JsonNode record : records) {
+                out.write(JSON_MAPPER.writeValueAsBytes(record));
+                out.write('\n');
+            }
+        }
+    }
+
+    private Mono<RequestResult> consume(ClientResponse response, StreamTarget target) {
+        if (response.statusCode().isError()) {
+            return response.createError();
+        }
+        int status = response.statusCode().value();
+        return Mono.fromRunnable(() -> target.begin(status, response.headers().asHttpHeaders()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .thenMany(response.bodyToFlux(DataBuffer.class))
+                .publishOn(Schedulers.boundedElastic())
+                .doOnNext(buffer -> {
+                    try {
+                        target.write(buffer);
+                    } finally {
+                        DataBufferUtils.release(buffer);
+                    }
+                })
+                .then(Mono.fromCallable(() -> new RequestResult(status, target.bytes(), target.complete(), null)));
+    }
+
+    public static boolean isFileSink(JobConfig.Job.Response response) {
+        return response != null && "file".equalsIgnoreCase(response.getSink());
+    }
+
+    private static Path sinkDir(JobConfig.Job job) {
+        JobConfig.Job.Response config = job.getResponse();
+        return Paths.get(config.getPath() != null ? config.getPath() : "data/responses/" + job.getId());
+    }
+
+    /**
+     * 활성 파일({@code base.out})이 롤링 크기를 넘었으면 타임스탬프를 붙여 옮긴다.
+     */
+    private static Path rollIfNeeded(Path dir, String base, Long rollBytes) throws IOException {
+        Path file = dir.resolve(base + ".out");
+        long limit = rollBytes != null ? rollBytes : DEFAULT_ROLL_BYTES;
+        if (Files.exists(file) && Files.size(file) >= limit) {
+            Path rolled = dir.resolve(base + "." + LocalDateTime.now().format(ROLL_SUFFIX) + ".out");
+            Files.move(file, rolled, StandardCopyOption.ATOMIC_MOVE);
+            log.info("응답 파일 롤링: {} -> {}", file, rolled.getFileName());
+        }
+        return file;
+    }
+
+    private static RecordCounter recordCounter(JobConfig.Job.Response config, boolean resumed) {
+        String format = config.getFormat();
+        if ("ndjson".equalsIgnoreCase(format)) {
+            return new NdjsonRecordCounter();
+        }
+        if ("json-array".equalsIgnoreCase(format) && !resumed) {
+            // 이어받은 스트림은 JSON 중간부터 시작하므로 배열 파싱을 할 수 없다
+            return new JsonArrayRecordCounter();
+        }
+        return RecordCounter.NONE;
+    }
+
+    private interface StreamTarget {
+        default void begin(int status, HttpHeaders headers) {
+        }
+
+        void write(DataBuffer buffer);
+
+        long bytes();
+
+        /**
+         * @return 집계한 레코드 수 (집계하지 않으면 -1)
+         */
+        long complete();
+    }
+
+    private static final class DiscardTarget implements StreamTarget {
+        private final RecordCounter counter;
+        private long bytes;
+
+        private DiscardTarget(RecordCounter counter) {
+            this.counter = counter;
+        }
+
+        @Override
+        public void write(DataBuffer buffer) {
+            bytes += buffer.readableByteCount();
+            try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+                while (iterator.hasNext()) {
+                    counter.feed(iterator.next());
+                }
+            }
+        }
+
+        @Override
+        public long bytes() {
+            return bytes;
+        }
+
+        @Override
+        public long complete() {
+            return counter.records();
+        }
+    }
+
+    /**
+     * 잡(lane)별 활성 파일에 응답을 이어 쓴다. 체크포인트 형식: {@code 응답바이트|파일명|파일위치|검증자}.
+     * 검증자는 응답의 강한 ETag 또는 Last-Modified 로, 이어받을 때 {@code If-Range} 로 보내 그 사이 바뀐 응답의
+     * 뒷부분을 이어 붙이지 않게 한다. 검증자가 없는 체크포인트는 이어받지 않고 응답 시작 위치부터 다시 쓴다.
+     * fsync 전에 크래시가 나면 파일이 체크포인트보다 짧을 수 있으므로 이어받을 때 실제 파일 크기에 맞춘다.
+     * <p>
+     * 쓰기는 boundedElastic 에서, {@link #abort()} 는 취소/오류 신호를 받은 스레드에서 불리므로 상태를
+     * {@link AtomicInteger} 로 넘겨받는다. 쓰는 중에 중단되면 쓰던 스레드가 버퍼를 마저 쓴 뒤 중단 처리를 하므로
+     * 체크포인트의 응답 바이트와 파일 위치가 어긋나지 않는다.
+     */
+    private static final class FileTarget implements StreamTarget {
+        private static final int NEW = 0;
+        private static final int STARTED = 1;
+        private static final int WRITING = 2;
+        private static final int ABORT_REQUESTED = 3;
+        private static final int FINISHED = 4;
+
+        private final ResponseSinkWriter owner;
+        private final JobConfig.Job.Response config;
+        private final String checkpointKey;
+        private final Path file;
+        private final long checkpointInterval;
+        private final FileChannel channel;
+        private final long resumeBytes;
+        private final long resumePosition;
+        private final String resumeValidator;
+        private final AtomicInteger state = new AtomicInteger(NEW);
+
+        private RecordCounter counter;
+        private String validator;
+        private long responseBytes;
+        private long sinceCheckpoint;
+
+        private FileTarget(ResponseSinkWriter owner, JobConfig.Job.Response config, String checkpointKey, Path file,
+                           FileChannel channel, long resumeBytes, long resumePosition, String resumeValidator) {
+            this.owner = owner;
+            this.config = config;
+            this.checkpointKey = checkpointKey;
+            this.file = file;
+            this.channel = channel;
+            this.resumeBytes = resumeBytes;
+            this.resumePosition = resumePosition;
+            this.resumeValidator = resumeValidator;
+            this.checkpointInterval = config.getCheckpointBytes() != null
+                    ? config.getCheckpointBytes() : DEFAULT_CHECKPOINT_BYTES;
+        }
+
+        /**
+         * @param resume false 면 체크포인트를 무시하고 새 응답으로 받는다 (이어받기가 거절된 뒤 다시 요청할 때)
+         */
+        static FileTarget prepare(ResponseSinkWriter owner, JobConfig.Job job, String lane, boolean resume)
+                throws IOException {
+            JobConfig.Job.Response config = job.getResponse();
+            Path dir = sinkDir(job);
+            Files.createDirectories(dir);
+            String base = "0".equals(lane) ? job.getId() : job.getId() + "-" + lane;
+            Path file = dir.resolve(base + ".out");
+            String checkpointKey = job.getId() + "#stream-" + lane;
+
+            long resumeBytes = 0;
+            long resumePosition = 0;
+            String resumeValidator = null;
+            String offset = resume ? owner.checkpointStore.getOffset(checkpointKey) : null;
+            if (offset != null && Files.exists(file)) {
+                String[] parts = offset.split("\\|", 4);
+                try {
+                    if (parts.length >= 3 && parts[1].equals(file.getFileName().toString())) {
+                        long bytes = Long.parseLong(parts[0]);
+                        long position = Math.min(Long.parseLong(parts[2]), Files.size(file));
+                        resumeBytes = Math.max(0, bytes - (Long.parseLong(parts[2]) - position));
+                        resumePosition = position;
+                        resumeValidator = parts.length == 4 ? parts[3] : null;
+                    }
+                } catch (NumberFormatException e) {
+                    log.warn("스트림 체크포인트 형식 오류 무시: {}={}", checkpointKey, offset);
+                }
+            }
+
+            if (resumeBytes == 0) {
+                rollIfNeeded(dir, base, config.getRollBytes());
+            } else if (resumeValidator == null) {
+                log.info("응답 스트림 검증자 없음, 처음부터 다시 받기: {} (파일 위치 {})", checkpointKey,
+                        resumePosition - resumeBytes);
+            } else {
+                log.info("응답 스트림 이어받기: {} (응답 {} bytes, 파일 위치 {})", checkpointKey, resumeBytes, resumePosition);
+            }
+
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            if (resumeBytes == 0) {
+                resumePosition = channel.size();
+            }
+            return new FileTarget(owner, config, checkpointKey, file, channel, resumeBytes, resumePosition,
+                    resumeValidator);
+        }
+
+        /**
+         * @return Range 요청으로 이어받을지. 검증자 없이 이어 붙이면 바뀐 응답과 섞일 수 있어 처음부터 받는다
+         */
+        boolean resuming() {
+            return resumeBytes > 0 && resumeValidator != null;
+        }
+
+        /**
+         * 이어받기 응답이 요청한 위치에서 시작하는지 본다. 200 은 전체 본문이므로 {@link #begin} 이 처음부터 쓴다.
+         */
+        boolean acceptsResume(ClientResponse response) {
+            int status = response.statusCode().value();
+            if (status == 416) {
+                return false;
+            }
+            if (status != 206) {
+                return true;
+            }
+            return rangeStart(response.headers().asHttpHeaders().getFirst(HttpHeaders.CONTENT_RANGE)) == resumeBytes;
+        }
+
+        /**
+         * 이어받기가 거절되면 체크포인트를 지우고 이번 응답이 시작한 위치까지 파일을 되돌린다.
+         */
+        void discardResume() {
+            if (!state.compareAndSet(NEW, FINISHED)) {
+                return;
+            }
+            try {
+                channel.truncate(resumePosition - resumeBytes);
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                owner.checkpointStore.saveOffset(checkpointKey, null);
+            }
+        }
+
+        @Override
+        public void begin(int status, HttpHeaders headers) {
+            if (!state.compareAndSet(NEW, WRITING)) {
+                return;
+            }
+            try {
+                if (resuming() && status == 206) {
+                    responseBytes = resumeBytes;
+                    validator = resumeValidator;
+                    channel.truncate(resumePosition);
+                    channel.position(resumePosition);
+                } else {
+                    // Range 미지원이거나 응답이 바뀌어(200) 전체 본문이 오면 응답 시작 위치부터 다시 쓴다
+                    long start = resumePosition - resumeBytes;
+                    channel.truncate(start);
+                    channel.position(start);
+                    validator = validatorOf(headers);
+                }
+                counter = recordCounter(config, responseBytes > 0);
+            } catch (IOException e) {
+                // 기존 체크포인트를 그대로 둔다
+                fail();
+                throw new UncheckedIOException(e);
+            }
+            release(false);
+        }
+
+        @Override
+        public void write(DataBuffer buffer) {
+            if (!state.compareAndSet(STARTED, WRITING)) {
+                // 이미 중단됨
+                return;
+            }
+            int length = buffer.readableByteCount();
+            try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+                while (iterator.hasNext()) {
+                    ByteBuffer chunk = iterator.next();
+                    ByteBuffer toWrite = chunk.duplicate();
+                    while (toWrite.hasRemaining()) {
+                        channel.write(toWrite);
+                    }
+                    counter.feed(chunk);
+                }
+            } catch (IOException | RuntimeException e) {
+                // 버퍼 중간까지 쓴 위치는 응답 바이트와 맞지 않으므로 마지막으로 저장한 체크포인트를 그대로 둔다
+                fail();
+                throw e instanceof IOException io ? new UncheckedIOException(io) : (RuntimeException) e;
+            }
+            responseBytes += length;
+            sinceCheckpoint += length;
+            if (sinceCheckpoint >= checkpointInterval) {
+                sinceCheckpoint = 0;
+                saveProgress();
+            }
+            release(true);
+        }
+
+        @Override
+        public long bytes() {
+            return responseBytes;
+        }
+
+        @Override
+        public long complete() {
+            if (!state.compareAndSet(STARTED, FINISHED)) {
+                throw new IllegalStateException("이미 중단된 응답 스트림: " + checkpointKey);
+            }
+            try {
+                channel.force(false);
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            owner.checkpointStore.saveOffset(checkpointKey, null);
+            return counter.records();
+        }
+
+        /**
+         * 실패/취소 시 현재까지의 위치를 저장해 다음 실행이 이어받도록 한다.
+         * 다른 스레드가 쓰는 중이면 중단만 요청하고, 쓰던 스레드가 버퍼를 마저 쓴 뒤 처리한다.
+         */
+        void abort() {
+            for (;;) {
+                int current = state.get();
+                if (current == FINISHED || current == ABORT_REQUESTED) {
+                    return;
+                }
+                if (current == WRITING) {
+                    if (state.compareAndSet(WRITING, ABORT_REQUESTED)) {
+                        return;
+                    }
+                } else if (state.compareAndSet(current, FINISHED)) {
+                    // 본문을 받기 전에 실패했다면 기존 체크포인트를 그대로 둔다
+                    close(current == STARTED);
+                    return;
+                }
+            }
+        }
+
+        /**
+         * 쓰기를 마치고 STARTED 로 돌아간다. 그 사이 중단이 요청됐으면 여기서 중단 처리를 한다.
+         */
+        private void release(boolean started) {
+            if (!state.compareAndSet(WRITING, STARTED)) {
+                state.set(FINISHED);
+                close(started);
+            }
+        }
+
+        private void fail() {
+            state.set(FINISHED);
+            close(false);
+        }
+
+        private void close(boolean saveProgress) {
+            try {
+                if (channel.isOpen()) {
+                    if (saveProgress) {
+                        saveProgress();
+                    }
+                    channel.close();
+                }
+            } catch (IOException e) {
+                log.warn("응답 파일 닫기 실패: {}", file, e);
+            }
+        }
+
+        private void saveProgress() {
+            try {
+                String offset = responseBytes + "|" + file.getFileName() + "|" + channel.position();
+                owner.checkpointStore.saveOffset(checkpointKey, validator != null ? offset + "|" + validator : offset);
+            } catch (IOException e) {
+                log.warn("응답 스트림 위치 조회 실패: {}", file, e);
+            }
+        }
+
+        /**
+         * If-Range 에 쓸 수 있는 검증자. 약한 ETag 는 Range 에 쓸 수 없으므로 Last-Modified 로 대신한다.
+         */
+        private static String validatorOf(HttpHeaders headers) {
+            String etag = headers.getETag();
+            if (etag != null && !etag.startsWith("W/")) {
+                return etag;
+            }
+            return headers.getFirst(HttpHeaders.LAST_MODIFIED);
+        }
+
+        /**
+         * {@code bytes 100-199/200} 에서 시작 위치를 읽는다. 형식이 다르면 -1.
+         */
+        static long rangeStart(String contentRange) {
+            if (contentRange == null || !contentRange.startsWith("bytes ")) {
+                return -1;
+            }
+            int dash = contentRange.indexOf('-');
+            if (dash < 0) {
+                return -1;
+            }
+            try {
+                return Long.parseLong(contentRange.substring("bytes ".length(), dash).trim());
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * 서버가 이어받기 요청을 거절했다 (416, 또는 요청한 위치와 다른 Content-Range).
+     */
+    private static final class ResumeRejectedException extends RuntimeException {
+        ResumeRejectedException(String checkpointKey, ClientResponse response) {
+            super(checkpointKey + ": status=" + response.statusCode().value() + ", Content-Range="
+                    + response.headers().asHttpHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+        }
+    }
+
+    /**
+     * 청크 단위로 레코드 수를 센다. 입력은 청크마다 한 번씩 들어오며 버퍼의 position 은 바꾸지 않는다.
+     */
+    private interface RecordCounter {
+        RecordCounter NONE = new RecordCounter() {
+            @Override
+            public void feed(ByteBuffer chunk) {
+            }
+
+            @Override
+            public long records() {
+                return -1;
+            }
+        };
+
+        void feed(ByteBuffer chunk);
+
+        long records();
+    }
+
+    private static final class NdjsonRecordCounter implements RecordCounter {
+        private long lines;
+        private boolean pending;
+
+        @Override
+        public void feed(ByteBuffer chunk) {
+            for (int i = chunk.position(); i < chunk.limit(); i++) {
+                if (chunk.get(i) == '\n') {
+                    lines++;
+                    pending = false;
+                } else {
+                    pending = true;
+                }
+            }
+        }
+
+        @Override
+        public long records() {
+            return pending ? lines + 1 : lines;
+        }
+    }
+
+    /**
+     * Jackson 논블로킹 파서로 최상위 배열의 원소 수를 센다.
+     */
+    private static final class JsonArrayRecordCounter implements RecordCounter {
+        private final JsonParser parser;
+        private int depth;
+        private long records;
+
+        private JsonArrayRecordCounter() {
+            try {
+                this.parser = JSON_FACTORY.createNonBlockingByteBufferParser();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void feed(ByteBuffer chunk) {
+            try {
+                ((ByteBufferFeeder) parser.getNonBlockingInputFeeder()).feedInput(chunk.duplicate());
+                JsonToken token;
+                while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                    if (token.isStructStart()) {
+                        depth++;
+                    } else if (token.isStructEnd()) {
+                        depth--;
+                        if (depth == 1) {
+                            records++;
+                        }
+                    } else if (depth == 1 && token.isScalarValue()) {
+                        records++;
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public long records() {
+            return records;
+        }
+    }
+}
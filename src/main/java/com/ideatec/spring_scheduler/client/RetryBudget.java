@@ -0,0 +1,42 @@
+package com.ideatec.spring_scheduler.client;
+
+/**
+ * 전체 트래픽 대비 재시도 비율을 제한하는 토큰 버킷.
+ * <p>
+ * 최초 요청마다 {@code ratio} 만큼 토큰이 쌓이고 재시도 한 번에 토큰 1개를 쓴다. 트래픽이 적을 때도
+ * 재시도가 가능하도록 초당 {@code minPerSecond} 개는 별도로 채워준다. 잔고는 {@code maxBalance} 를 넘지 않는다.
+ */
+public class RetryBudget {
+    private final double ratio;
+    private final double minPerSecond;
+    private final double maxBalance;
+
+    private double balance;
+    private long lastRefillNanos = System.nanoTime();
+
+    public RetryBudget(double ratio, double minPerSecond, double maxBalance) {
+        this.ratio = ratio;
+        this.minPerSecond = minPerSecond;
+        this.maxBalance = maxBalance;
+        this.balance = maxBalance;
+    }
+
+    public synchronized void onRequest() {
+        balance = Math.min(maxBalance, balance + ratio);
+    }
+
+    public synchronized boolean tryAcquireRetry() {
+        long now = System.nanoTime();
+        balance = Math.min(maxBalance, balance + (now - lastRefillNanos) / 1e9 * minPerSecond);
+        lastRefillNanos = now;
+        if (balance < 1) {
+            return false;
+        }
+        balance -= 1;
+        return true;
+    }
+
+    public synchronized double getBalance() {
+        return balance;
+    }
+}
@@ -0,0 +1,106 @@
+package com.ideatec.spring_scheduler.client;
+
+import com.ideatec.spring_scheduler.actuator.JobMeters;
+import com.ideatec.spring_scheduler.actuator.JobMetrics;
+import com.ideatec.spring_scheduler.config.JobConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 요청 재시도 정책.
+ * <p>
+ * {@link HttpFailures#isRetryable} 로 분류한 실패만, 잡의 {@code retry.max} 횟수 안에서, 전역 {@link RetryBudget}
+ * 이 허락하고 firing 제한 시간 안에 다음 시도가 가능할 때만 재시도한다. 대기 시간은 지수 백오프에
+ * equal jitter 를 적용하고 {@code Retry-After} 응답 헤더가 있으면 그보다 짧게 기다리지 않는다.
+ */
+@Component
+public class RetryPolicy {
+    private final JobMetrics jobMetrics;
+    private final RetryBudget budget;
+    private final long maxBackoffMs;
+
+    public RetryPolicy(JobMetrics jobMetrics,
+                       @Value("${scheduler.http.retry-budget.ratio:0.2}") double ratio,
+                       @Value("${scheduler.http.retry-budget.min-per-second:5}") double minPerSecond,
+                       @Value("${scheduler.http.retry-budget.max-balance:100}") double maxBalance,
+                       @Value("${scheduler.http.retry.max-backoff-ms:30000}") long maxBackoffMs) {
+        this.jobMetrics = jobMetrics;
+        this.budget = new RetryBudget(ratio, minPerSecond, maxBalance);
+        this.maxBackoffMs = maxBackoffMs;
+        jobMetrics.registerRetryBudget(budget);
+    }
+
+    /**
+     * 최초 요청 한 건마다 호출해 재시도 예산을 적립한다.
+     */
+    public void onRequest() {
+        budget.onRequest();
+    }
+
+    /**
+     * 잡의 재시도 정책. firing 제한 시간은 재시도 시점에 Reactor Context({@link RequestDeadline})에서 읽으므로
+     * 한 번 만든 정책을 설정이 바뀔 때까지 모든 요청이 공유한다.
+     */
+    public Retry forJob(JobConfig.Job job) {
+        JobConfig.Job.Request.Retry config = job.getRequest().getRetry();
+        int max = config != null && config.getMax() != null ? config.getMax() : 0;
+        long backoffMs = config != null && config.getBackoffMs() != null ? config.getBackoffMs() : 0;
+
+        JobMeters meters = jobMetrics.meters(job.getId());
+
+        return Retry.from(signals -> Flux.deferContextual(context -> {
+            long deadlineNanos = RequestDeadline.deadlineNanos(context);
+            return signals.concatMap(signal -> {
+                Throwable failure = signal.failure();
+                long attempt = signal.totalRetries();
+                if (max <= 0) {
+                    return Mono.error(failure);
+                }
+                if (!HttpFailures.isRetryable(failure)) {
+                    meters.recordRetry(JobMeters.RetryResult.NOT_RETRYABLE);
+                    return Mono.error(failure);
+                }
+                if (attempt >= max) {
+                    meters.recordRetry(JobMeters.RetryResult.EXHAUSTED);
+                    return Mono.error(failure);
+                }
+
+                long delayMs = delayMs(backoffMs, attempt, failure);
+                if (RequestDeadline.remainingNanos(deadlineNanos) <= Duration.ofMillis(delayMs).toNanos()) {
+                    meters.recordRetry(JobMeters.RetryResult.DEADLINE);
+                    return Mono.error(failure);
+                }
+                if (!budget.tryAcquireRetry()) {
+                    meters.recordRetry(JobMeters.RetryResult.BUDGET_EXHAUSTED);
+                    return Mono.error(failure);
+                }
+                meters.recordRetry(JobMeters.RetryResult.ATTEMPTED);
+                return Mono.delay(Duration.ofMillis(delayMs)).thenReturn(attempt);
+            });
+        }));
+    }
+
+    private long delayMs(long backoffMs, long attempt, Throwable failure) {
+        long base = Math.min(maxBackoffMs, backoffMs * (1L << Math.min(attempt, 20)));
+        long delay = base / 2 + (base > 1 ? ThreadLocalRandom.current().nextLong(base / 2 + 1) : 0);
+        if (failure instanceof WebClientResponseException response) {
+            String retryAfter = response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER);
+            if (retryAfter != null) {
+                try {
+                    delay = Math.max(delay, Math.min(maxBackoffMs, Long.parseLong(retryAfter.trim()) * 1000));
+                } catch (NumberFormatException e) {
+                    // HTTP-date 형식은 무시하고 백오프 값 사용
+                }
+            }
+        }
+        return delay;
+    }
+}
@@ -0,0 +1,68 @@
+package com.ideatec.spring_scheduler.client;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufHolder;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.FileRegion;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 커넥션 풀 하나가 실제로 주고받은 바이트 수와 새로 연 커넥션 수.
+ * <p>
+ * 파이프라인 맨 앞(소켓 쪽)에 붙으므로 TLS, HTTP/2 프레이밍, 압축이 모두 적용된 뒤의 바이트를 센다.
+ * 응답 본문 크기와 비교하면 압축과 커넥션 재사용으로 줄어든 양을 확인할 수 있다.
+ * 풀을 다시 만들어도 같은 이름이면 같은 인스턴스를 계속 쓴다.
+ */
+@ChannelHandler.Sharable
+public final class WireStats extends ChannelDuplexHandler {
+    static final String HANDLER_NAME = "scheduler.wireStats";
+
+    private final LongAdder bytesReceived = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+    private final LongAdder connectionsOpened = new LongAdder();
+
+    public long getBytesReceived() {
+        return bytesReceived.sum();
+    }
+
+    public long getBytesSent() {
+        return bytesSent.sum();
+    }
+
+    public long getConnectionsOpened() {
+        return connectionsOpened.sum();
+    }
+
+    void connectionOpened() {
+        connectionsOpened.increment();
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+        bytesReceived.add(sizeOf(msg));
+        ctx.fireChannelRead(msg);
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        bytesSent.add(sizeOf(msg));
+        ctx.write(msg, promise);
+    }
+
+    private static long sizeOf(Object msg) {
+        if (msg instanceof ByteBuf buf) {
+            return buf.readableBytes();
+        }
+        if (msg instanceof ByteBufHolder holder) {
+            return holder.content().readableBytes();
+        }
+        if (msg instanceof FileRegion region) {
+            return region.count() - region.transferred();
+        }
+        return 0;
+    }
+}
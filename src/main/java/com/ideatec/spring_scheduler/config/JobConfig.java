@@ -5,6 +5,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
+import java.io.Serializable;
 import java.util.List;
 
 @Data
@@ -12,16 +13,64 @@ import java.util.List;
 @AllArgsConstructor
 public class JobConfig {
     private String timezone;
+    private List<Pool> pools;
+    private List<Bulkhead> bulkheads;
     private List<Job> jobs;
 
+    /**
+     * 이름별 HTTP 커넥션 풀. 잡의 {@code pool} 또는 요청 호스트({@code hosts})로 선택된다.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Pool {
+        private String name;
+        private List<String> hosts;
+        private Integer maxConnections;
+        private Integer pendingAcquireMaxCount;
+        private Integer pendingAcquireTimeoutMs;
+        private Integer maxIdleTimeMs;
+        private Integer maxLifeTimeMs;
+        private Integer evictInBackgroundMs;
+        private String leasingStrategy; // fifo | lifo
+        private Boolean keepAlive;
+        private String protocol;        // http1.1(기본) | h2 (TLS ALPN, 미지원 서버는 HTTP/1.1) | h2c (평문 HTTP/2 prior knowledge)
+        private Integer maxStreams;     // h2/h2c 커넥션 하나에 동시에 여는 스트림 수 (기본 100)
+        private Boolean compress;       // Accept-Encoding: gzip, deflate 요청과 응답 압축 해제 (기본 scheduler.http.compress)
+    }
+
+    /**
+     * 이름별 동시 실행 firing 수 한도. 잡의 {@code bulkhead} 로 선택되며 같은 이름을 쓰는 잡들이 한도를 나눠 쓴다.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Bulkhead {
+        private String name;
+        private Integer maxConcurrent;
+    }
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
     public static class Job {
         private String id;
         private String cron;
-        private Integer parallelism;
+        private Long intervalMs; // engine: wheel 전용 고정 주기 (cron 대신, 1초 미만 가능)
+        private String engine; // quartz(기본) | wheel (고빈도/대량 잡용 타이밍 휠)
+        private Boolean enabled; // false 면 스케줄은 유지하되 일시정지
+        private Integer parallelism; // 동시 lane 수. partitions 가 있으면 lane 마다 서로 다른 파티션을 처리
+        private Integer deadlineMs; // firing 전체(모든 요청, 재시도 포함) 제한 시간
+        private String pool; // 사용할 커넥션 풀 이름 (없으면 호스트 매칭 또는 기본 풀)
+        private String mode; // single(기본) | paginated
+        private String overlap; // 이전 firing 이 실행 중일 때: allow | skip | queue-one | coalesce
+        private String priority; // 실행 허가 우선순위: critical | high | normal(기본) | low
+        private String bulkhead; // 동시 실행 한도를 나눠 쓸 bulkhead 이름 (없으면 전역 예산만 적용)
         private Request request;
+        private Response response;
+        private Pagination pagination;
+        private Limiter limiter;
+        private Partitions partitions;
 
         @Data
         @NoArgsConstructor
@@ -31,7 +80,10 @@ public class JobConfig {
             private String method;
             private Integer timeoutMs;
             private String bodyFile;
+            private String bodyEncoding; // identity(기본) | gzip (bodyFile 을 gzip 으로 압축해 전송)
+            private Boolean cache; // false 면 조건부 요청(ETag/Last-Modified) 캐시를 쓰지 않음
             private Retry retry;
+            private Hedge hedge; // GET/HEAD 요청만, 스트리밍 응답(sink: file)에는 적용하지 않음
 
             @Data
             @NoArgsConstructor
@@ -40,7 +92,82 @@ public class JobConfig {
                 private Integer max;
                 private Integer backoffMs;
             }
+
+            /**
+             * 느린 응답을 기다리는 대신 같은 요청을 하나 더 보내고 먼저 온 응답을 쓴다.
+             * {@code percentile} 이 있으면 잡의 최근 시도 지연시간 백분위를 지연으로 쓰고 {@code delayMs} 는 그 하한이 된다.
+             */
+            @Data
+            @NoArgsConstructor
+            @AllArgsConstructor
+            public static class Hedge implements Serializable {
+                private Integer delayMs;        // 고정 지연 (percentile 과 함께 쓰면 하한)
+                private Double percentile;      // 예: 0.95 → 최근 시도 p95 가 지나면 복제 요청
+                private Integer maxHedges;      // 시도 한 번에 더 보낼 수 있는 요청 수 (기본 1)
+            }
+        }
+
+        /**
+         * 응답 처리 방식. 없으면 응답 본문을 문자열로 받는다.
+         */
+        @Data
+        @NoArgsConstructor
+        @AllArgsConstructor
+        public static class Response {
+            private String sink;            // string(기본) | file | discard
+            private String path;            // file sink 디렉토리 (기본 data/responses/{jobId})
+            private Long rollBytes;         // 활성 파일이 이 크기를 넘으면 다음 응답 전에 롤링
+            private Long checkpointBytes;   // 진행 위치를 체크포인트에 저장하는 간격
+            private String format;          // none(기본) | ndjson | json-array (레코드 수 집계)
+        }
+
+        /**
+         * 동시 요청 수 적응형 한도(AIMD). 없는 값은 {@code scheduler.http.limiter.*} 기본값을 사용한다.
+         */
+        @Data
+        @NoArgsConstructor
+        @AllArgsConstructor
+        public static class Limiter implements Serializable {
+            private String scope;           // host(기본) | job | none
+            private Integer initialLimit;
+            private Integer minLimit;
+            private Integer maxLimit;
+            private Integer maxQueue;       // 한도 초과 시 대기할 수 있는 요청 수
+            private Long maxWaitMs;         // 대기 최대 시간, 넘으면 거절
+        }
+
+        /**
+         * 작업 공간 분할. 파티션마다 URL/본문 플레이스홀더를 채운 요청을 보내고 offset 을 따로 저장한다.
+         * lane({@code parallelism})은 공유 대기열에서 다음 파티션을 가져가므로 큰 파티션이 있어도 나머지 lane 이 놀지 않는다.
+         */
+        @Data
+        @NoArgsConstructor
+        @AllArgsConstructor
+        public static class Partitions implements Serializable {
+            private String type;            // range | hash | values
+            private Long start;             // range: 시작 값 (포함)
+            private Long end;               // range: 끝 값 (제외)
+            private Integer count;          // range/hash: 파티션 수 (기본 parallelism × 4)
+            private List<String> values;    // values: 파티션별 값
+        }
+
+        /**
+         * {@code mode: paginated} 일 때 페이지를 넘기는 방식. 마지막으로 처리한 위치는 체크포인트 offset 에 저장된다.
+         */
+        @Data
+        @NoArgsConstructor
+        @AllArgsConstructor
+        public static class Pagination implements Serializable {
+            private String style;           // page | cursor | link
+            private String pageParam;       // page 스타일 페이지 번호 파라미터 (기본 page)
+            private String sizeParam;       // page 스타일 페이지 크기 파라미터 (기본 size)
+            private Integer pageSize;       // 기본 100, 이보다 적게 오면 마지막 페이지
+            private Integer startPage;      // 체크포인트가 없을 때 시작 페이지 (기본 1)
+            private String cursorParam;     // cursor 스타일 요청 파라미터 (기본 cursor)
+            private String cursorPath;      // 응답에서 다음 커서 위치 (JSON Pointer, 기본 /next_cursor)
+            private String itemsPath;       // 응답에서 레코드 배열 위치 (JSON Pointer, 없으면 루트)
+            private Integer concurrency;    // page 스타일 동시 요청 수 (기본 2)
+            private Integer maxPages;       // firing 한 번에 가져올 최대 페이지 수
         }
     }
 }
-
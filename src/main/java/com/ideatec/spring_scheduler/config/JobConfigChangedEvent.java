@@ -0,0 +1,16 @@
+package com.ideatec.spring_scheduler.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.util.Set;
+
+/**
+ * 잡 설정 파일이 변경되었을 때 발행되는 이벤트.
+ */
+@Getter
+@AllArgsConstructor
+public class JobConfigChangedEvent {
+    private final Set<Path> changedFiles;
+}
@@ -1,57 +1,129 @@
 package com.ideatec.spring_scheduler.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.concurrent.ConcurrentHashMap;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
+/**
+ * 잡 설정 로더.
+ * <p>
+ * 메인 설정 파일({@code scheduler.jobs.file})과 설정 디렉토리({@code scheduler.jobs.dir})의
+ * 모든 YAML 파일을 합쳐 하나의 {@link JobConfig} 로 만든다. 파일별로 파싱 결과를 캐시하고
+ * mtime/크기가 바뀐 파일만 다시 파싱하며, 잡마다 설정 해시를 계산해 변경 여부를 판단할 수 있게 한다.
+ * <p>
+ * 파싱 결과(파일별 설정과 해시)는 스냅샷 파일({@code scheduler.jobs.snapshot}, Smile)에 저장해 두고, 재시작 시 파일의
+ * mtime/크기와 설정 클래스 구조가 그대로면 YAML 파싱과 해시 계산 없이 스냅샷을 그대로 쓴다.
+ */
 @Slf4j
 @Component
 public class JobConfigLoader {
+    private static final String CLASSPATH_CONFIG = "scheduler-jobs.yml";
+    private static final String SCHEMA = schemaOf(JobConfig.class);
+
     private final ObjectMapper yamlMapper = new ObjectMapper(new YAMLFactory());
-    private final Map<String, JobConfig.Job> jobCache = new ConcurrentHashMap<>();
+    private final ObjectMapper hashMapper = new ObjectMapper();
+    private final ObjectMapper snapshotMapper = new ObjectMapper(new SmileFactory());
+    private final Path configFile;
+    private final Path configDir;
+    private final Path snapshotFile;
+    private boolean snapshotChecked;
+    private volatile Map<String, JobConfig.Job> jobCache = Map.of();
+    private volatile Map<String, String> configHashes = Map.of();
+    private volatile String catalogHash;
+    private volatile long catalogModified;
+    private Map<Path, ParsedFile> parsedFiles = new LinkedHashMap<>();
     private volatile JobConfig lastConfig;
-    private long lastModified = 0;
+    private volatile long version;
+
+    @Autowired
+    public JobConfigLoader(@Value("${scheduler.jobs.file:scheduler-jobs.yml}") String configFile,
+                           @Value("${scheduler.jobs.dir:scheduler-jobs.d}") String configDir,
+                           @Value("${scheduler.jobs.snapshot:state/schedule-snapshot.smile}") String snapshotFile) {
+        this.configFile = Paths.get(configFile).toAbsolutePath().normalize();
+        this.configDir = Paths.get(configDir).toAbsolutePath().normalize();
+        this.snapshotFile = snapshotFile.isBlank() ? null : Paths.get(snapshotFile).toAbsolutePath().normalize();
+    }
 
-    public JobConfig load() {
+    public JobConfigLoader(String configFile, String configDir) {
+        this(configFile, configDir, "");
+    }
+
+    public synchronized JobConfig load() {
         try {
-            // 1. 외부 설정 파일 우선 확인 (JAR과 같은 디렉토리)
-            Path externalConfigPath = Paths.get("scheduler-jobs.yml");
-            Path configPath;
-            
-            if (Files.exists(externalConfigPath)) {
-                // 외부 설정 파일이 있으면 사용
-                configPath = externalConfigPath;
-                log.debug("외부 설정 파일 사용: {}", configPath.toAbsolutePath());
-            } else {
+            // 1. 외부 설정 파일 우선 확인 (메인 파일 + 설정 디렉토리)
+            List<Path> files = listConfigFiles();
+            if (files.isEmpty()) {
                 // 외부 설정 파일이 없으면 JAR 내부 리소스 사용
-                ClassPathResource resource = new ClassPathResource("scheduler-jobs.yml");
-                configPath = Paths.get(resource.getURI());
-                log.debug("JAR 내부 설정 파일 사용: {}", configPath.toAbsolutePath());
+                return loadClasspathConfig();
+            }
+
+            // 2. 변경된 파일만 다시 파싱 (첫 로드는 이전 실행의 스냅샷을 기준으로 비교)
+            if (!snapshotChecked) {
+                snapshotChecked = true;
+                parsedFiles = readSnapshot();
+            }
+            boolean changed = false;
+            Map<Path, ParsedFile> next = new LinkedHashMap<>();
+            for (Path file : files) {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                long modified = attributes.lastModifiedTime().toMillis();
+                ParsedFile parsed = parsedFiles.get(file);
+                if (parsed == null || parsed.modified() != modified || parsed.size() != attributes.size()) {
+                    try {
+                        parsed = parse(file, modified, attributes.size());
+                        changed = true;
+                    } catch (IOException e) {
+                        // 잘못된 파일은 이전 파싱 결과를 유지한다
+                        log.error("설정 파일 파싱 실패 (이전 설정 유지): {}", file, e);
+                        if (parsed == null) {
+                            continue;
+                        }
+                    }
+                }
+                next.put(file, parsed);
             }
-            
-            // 파일 변경 감지
-            long currentModified = Files.getLastModifiedTime(configPath).toMillis();
-            if (currentModified > lastModified || lastConfig == null) {
-                log.info("설정 파일이 변경되었습니다. 다시 로드합니다.");
-                lastConfig = yamlMapper.readValue(Files.newInputStream(configPath), JobConfig.class);
-                lastModified = currentModified;
-                
-                // 캐시 업데이트
-                jobCache.clear();
-                if (lastConfig.getJobs() != null) {
-                    lastConfig.getJobs().forEach(job -> jobCache.put(job.getId(), job));
+            // 파일 추가/삭제
+            changed |= !next.keySet().equals(parsedFiles.keySet());
+
+            if (changed || lastConfig == null) {
+                if (changed) {
+                    log.info("설정 파일이 변경되었습니다. 다시 로드합니다. (파일 {}개)", next.size());
+                    writeSnapshot(next);
+                } else {
+                    log.info("설정 스냅샷을 사용합니다. (파일 {}개, YAML 파싱 생략)", next.size());
                 }
+                parsedFiles = next;
+                // 파일 삭제는 남은 파일의 mtime 을 바꾸지 않으므로 디렉토리 mtime 도 함께 본다
+                long dirModified = Files.isDirectory(configDir) ? Files.getLastModifiedTime(configDir).toMillis() : 0;
+                apply(merge(next, dirModified));
             }
-            
             return lastConfig;
         } catch (IOException e) {
             log.error("설정 파일 로드 중 오류 발생", e);
@@ -66,5 +138,247 @@ public class JobConfigLoader {
     public Map<String, JobConfig.Job> getAllJobs() {
         return Map.copyOf(jobCache);
     }
-}
 
+    /**
+     * 잡 설정 전체(요청, 재시도, 본문 등)에 대한 해시. 설정이 바뀌면 값이 달라진다.
+     */
+    public String getConfigHash(String jobId) {
+        return configHashes.get(jobId);
+    }
+
+    /**
+     * 전체 잡 목록(잡 ID 와 설정 해시)에 대한 해시. 같은 설정을 읽은 노드끼리는 값이 같다.
+     */
+    public String getCatalogHash() {
+        return catalogHash;
+    }
+
+    /**
+     * 설정 파일 중 가장 최근 수정 시각(epoch ms). JAR 내부 설정이면 0.
+     * 클러스터에서 노드마다 설정이 다를 때 어느 쪽이 최신인지 판단하는 데 쓴다.
+     */
+    public long getCatalogModified() {
+        return catalogModified;
+    }
+
+    /**
+     * 설정이 실제로 바뀔 때마다 증가한다.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public Path getConfigFile() {
+        return configFile;
+    }
+
+    public Path getConfigDir() {
+        return configDir;
+    }
+
+    public static boolean isConfigFileName(String fileName) {
+        return fileName.endsWith(".yml") || fileName.endsWith(".yaml");
+    }
+
+    private List<Path> listConfigFiles() throws IOException {
+        List<Path> files = new ArrayList<>();
+        if (Files.isRegularFile(configFile)) {
+            files.add(configFile);
+        }
+        if (Files.isDirectory(configDir)) {
+            List<Path> dirFiles = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(configDir)) {
+                for (Path path : stream) {
+                    if (Files.isRegularFile(path) && isConfigFileName(path.getFileName().toString())) {
+                        dirFiles.add(path.toAbsolutePath().normalize());
+                    }
+                }
+            }
+            dirFiles.sort(null);
+            files.addAll(dirFiles);
+        }
+        return files;
+    }
+
+    private JobConfig loadClasspathConfig() throws IOException {
+        if (lastConfig == null || !parsedFiles.isEmpty()) {
+            log.debug("JAR 내부 설정 파일 사용: {}", CLASSPATH_CONFIG);
+            try (InputStream in = new ClassPathResource(CLASSPATH_CONFIG).getInputStream()) {
+                JobConfig config = yamlMapper.readValue(in, JobConfig.class);
+                parsedFiles = new LinkedHashMap<>();
+                apply(new MergedConfig(config, hashes(config), 0));
+            }
+        }
+        return lastConfig;
+    }
+
+    private ParsedFile parse(Path file, long modified, long size) throws IOException {
+        JobConfig config = yamlMapper.readValue(file.toFile(), JobConfig.class);
+        return new ParsedFile(modified, size, config, hashes(config));
+    }
+
+    private Map<String, String> hashes(JobConfig config) throws IOException {
+        Map<String, String> hashes = new HashMap<>();
+        if (config.getJobs() != null) {
+            for (JobConfig.Job job : config.getJobs()) {
+                hashes.put(job.getId(), hash(job));
+            }
+        }
+        return hashes;
+    }
+
+    private String hash(JobConfig.Job job) throws IOException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(hashMapper.writeValueAsBytes(job));
+            return HexFormat.of().formatHex(hash, 0, 12);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String catalogHash(Map<String, String> hashes) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            hashes.entrySet().stream()
+                    .sorted(Map.Entry.comparingByKey())
+                    .forEach(entry -> digest.update((entry.getKey() + "=" + entry.getValue() + "\n")
+                            .getBytes(StandardCharsets.UTF_8)));
+            return HexFormat.of().formatHex(digest.digest(), 0, 12);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 이전 실행이 남긴 파일별 파싱 결과. 설정 클래스 구조가 바뀌었거나 읽을 수 없으면 빈 맵(전체 파싱)을 돌려준다.
+     */
+    private Map<Path, ParsedFile> readSnapshot() {
+        Map<Path, ParsedFile> files = new LinkedHashMap<>();
+        if (snapshotFile == null || !Files.isRegularFile(snapshotFile)) {
+            return files;
+        }
+        try {
+            Snapshot snapshot = snapshotMapper.readValue(snapshotFile.toFile(), Snapshot.class);
+            if (!SCHEMA.equals(snapshot.schema())) {
+                log.info("설정 클래스가 바뀌어 설정 스냅샷을 사용하지 않습니다: {}", snapshotFile);
+                return files;
+            }
+            for (SnapshotFile file : snapshot.files()) {
+                files.put(Paths.get(file.path()), new ParsedFile(file.modified(), file.size(), file.config(), file.hashes()));
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("설정 스냅샷을 읽지 못했습니다. 설정 파일을 다시 파싱합니다: {}", snapshotFile, e);
+            files.clear();
+        }
+        return files;
+    }
+
+    private void writeSnapshot(Map<Path, ParsedFile> files) {
+        if (snapshotFile == null) {
+            return;
+        }
+        List<SnapshotFile> entries = new ArrayList<>(files.size());
+        files.forEach((path, parsed) -> entries.add(new SnapshotFile(path.toString(), parsed.modified(), parsed.size(),
+                parsed.config(), parsed.hashes())));
+        try {
+            Files.createDirectories(snapshotFile.getParent());
+            Path temp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+            snapshotMapper.writeValue(temp.toFile(), new Snapshot(SCHEMA, entries));
+            Files.move(temp, snapshotFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.warn("설정 스냅샷 저장 실패: {}", snapshotFile, e);
+        }
+    }
+
+    /**
+     * 설정 클래스들의 필드 구조. 필드가 추가/삭제되면 값이 달라져 이전 버전이 남긴 스냅샷을 쓰지 않는다.
+     */
+    private static String schemaOf(Class<?> type) {
+        StringBuilder schema = new StringBuilder();
+        appendSchema(type, schema);
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(schema.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 12);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void appendSchema(Class<?> type, StringBuilder schema) {
+        schema.append(type.getName()).append('{');
+        Arrays.stream(type.getDeclaredFields())
+                .filter(field -> !Modifier.isStatic(field.getModifiers()))
+                .sorted(Comparator.comparing(Field::getName))
+                .forEach(field -> schema.append(field.getName()).append(':').append(field.getGenericType()).append(';'));
+        schema.append('}');
+        Arrays.stream(type.getDeclaredClasses())
+                .sorted(Comparator.comparing(Class::getName))
+                .forEach(nested -> appendSchema(nested, schema));
+    }
+
+    private MergedConfig merge(Map<Path, ParsedFile> files, long dirModified) {
+        JobConfig merged = new JobConfig();
+        List<JobConfig.Pool> pools = new ArrayList<>();
+        List<JobConfig.Bulkhead> bulkheads = new ArrayList<>();
+        Map<String, JobConfig.Job> jobs = new LinkedHashMap<>();
+        Map<String, String> hashes = new HashMap<>();
+        long modified = dirModified;
+        for (ParsedFile parsed : files.values()) {
+            modified = Math.max(modified, parsed.modified());
+        }
+        files.forEach((file, parsed) -> {
+            JobConfig config = parsed.config();
+            if (merged.getTimezone() == null) {
+                merged.setTimezone(config.getTimezone());
+            }
+            if (config.getPools() != null) {
+                pools.addAll(config.getPools());
+            }
+            if (config.getBulkheads() != null) {
+                bulkheads.addAll(config.getBulkheads());
+            }
+            if (config.getJobs() != null) {
+                for (JobConfig.Job job : config.getJobs()) {
+                    if (jobs.putIfAbsent(job.getId(), job) != null) {
+                        log.warn("중복된 잡 ID 무시: {} ({})", job.getId(), file.getFileName());
+                        continue;
+                    }
+                    hashes.put(job.getId(), parsed.hashes().get(job.getId()));
+                }
+            }
+        });
+
+        merged.setPools(pools);
+        merged.setBulkheads(bulkheads);
+        merged.setJobs(new ArrayList<>(jobs.values()));
+        return new MergedConfig(merged, hashes, modified);
+    }
+
+    private void apply(MergedConfig merged) {
+        lastConfig = merged.config();
+
+        // 캐시 업데이트 (읽는 쪽이 빈 캐시를 보지 않도록 통째로 교체)
+        Map<String, JobConfig.Job> jobs = new HashMap<>();
+        if (lastConfig.getJobs() != null) {
+            lastConfig.getJobs().forEach(job -> jobs.put(job.getId(), job));
+        }
+        jobCache = jobs;
+        configHashes = new HashMap<>(merged.hashes());
+        catalogHash = catalogHash(merged.hashes());
+        catalogModified = merged.modified();
+        version++;
+    }
+
+    private record ParsedFile(long modified, long size, JobConfig config, Map<String, String> hashes) {
+    }
+
+    private record MergedConfig(JobConfig config, Map<String, String> hashes, long modified) {
+    }
+
+    private record Snapshot(String schema, List<SnapshotFile> files) {
+    }
+
+    private record SnapshotFile(String path, long modified, long size, JobConfig config, Map<String, String> hashes) {
+    }
+}
@@ -0,0 +1,182 @@
+package com.ideatec.spring_scheduler.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WatchService 로 설정 파일/디렉토리를 감시하고, 변경이 잠잠해지면(debounce)
+ * {@link JobConfigChangedEvent} 를 발행한다. 분 단위 폴링을 기다리지 않고 바로 반영된다.
+ * <p>
+ * 추가 설정 디렉토리는 상위 디렉토리도 함께 감시하므로 기동 뒤에 만들어지거나 지웠다가 다시 만들어도 감시를 이어간다.
+ */
+@Slf4j
+@Component
+public class JobConfigWatcher {
+    private final JobConfigLoader configLoader;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long debounceMs;
+    private final ScheduledExecutorService debouncer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "job-config-debounce");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Set<Path> pendingChanges = new HashSet<>();
+    private ScheduledFuture<?> pendingReload;
+    private WatchService watchService;
+
+    public JobConfigWatcher(JobConfigLoader configLoader,
+                            ApplicationEventPublisher eventPublisher,
+                            @Value("${scheduler.jobs.reload-debounce-ms:200}") long debounceMs) {
+        this.configLoader = configLoader;
+        this.eventPublisher = eventPublisher;
+        this.debounceMs = debounceMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            Path fileDir = configLoader.getConfigFile().getParent();
+            register(fileDir);
+            Path configDir = configLoader.getConfigDir();
+            if (!configDir.equals(fileDir)) {
+                Path parent = configDir.getParent();
+                if (parent != null && !parent.equals(fileDir)) {
+                    register(parent);
+                }
+                if (!register(configDir)) {
+                    log.info("추가 설정 디렉토리가 아직 없습니다. 만들어지면 감시를 시작합니다: {}", configDir);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("설정 파일 감시를 시작하지 못했습니다. 주기 폴링만 사용합니다.", e);
+            return;
+        }
+
+        Thread watcher = new Thread(this::watchLoop, "job-config-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        debouncer.shutdownNow();
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                log.debug("WatchService 종료 실패", e);
+            }
+        }
+    }
+
+    /**
+     * @return 디렉토리가 있어 감시를 시작했으면 true
+     */
+    private boolean register(Path dir) throws IOException {
+        if (dir != null && Files.isDirectory(dir)) {
+            dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            log.info("설정 파일 감시 시작: {}", dir);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 추가 설정 디렉토리가 (다시) 만들어지면 감시를 시작하고, 이미 들어 있는 파일을 반영하도록 변경으로 처리한다.
+     */
+    private void onConfigDirCreated(Path configDir) {
+        try {
+            if (register(configDir)) {
+                onChange(configDir);
+            }
+        } catch (IOException e) {
+            log.warn("추가 설정 디렉토리 감시를 시작하지 못했습니다. 주기 폴링만 사용합니다: {}", configDir, e);
+        }
+    }
+
+    private void watchLoop() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                Path dir = (Path) key.watchable();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        onChange(dir);
+                        continue;
+                    }
+                    Path changed = dir.resolve((Path) event.context());
+                    if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && isConfigDir(changed)) {
+                        onConfigDirCreated(changed);
+                    } else if (isRelevant(changed)) {
+                        onChange(changed);
+                    }
+                }
+                if (!key.reset()) {
+                    log.info("감시하던 디렉토리가 사라졌습니다: {}", dir);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            log.debug("설정 파일 감시 종료");
+        }
+    }
+
+    private boolean isConfigDir(Path changed) {
+        return changed.equals(configLoader.getConfigDir());
+    }
+
+    private boolean isRelevant(Path changed) {
+        if (changed.equals(configLoader.getConfigFile())) {
+            return true;
+        }
+        return configLoader.getConfigDir().equals(changed.getParent())
+                && JobConfigLoader.isConfigFileName(changed.getFileName().toString());
+    }
+
+    private synchronized void onChange(Path changed) {
+        pendingChanges.add(changed);
+        if (pendingReload != null) {
+            pendingReload.cancel(false);
+        }
+        pendingReload = debouncer.schedule(this::publish, debounceMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void publish() {
+        Set<Path> changes;
+        synchronized (this) {
+            changes = Set.copyOf(pendingChanges);
+            pendingChanges.clear();
+            pendingReload = null;
+        }
+        log.info("설정 파일 변경 감지: {}", changes);
+        try {
+            eventPublisher.publishEvent(new JobConfigChangedEvent(changes));
+        } catch (Exception e) {
+            log.error("설정 변경 반영 실패", e);
+        }
+    }
+}
@@ -0,0 +1,359 @@
+package com.ideatec.spring_scheduler.scheduler;
+
+import com.ideatec.spring_scheduler.actuator.JobMetrics;
+import com.ideatec.spring_scheduler.config.JobConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 모든 잡이 공유하는 firing 동시 실행 예산과 그룹별 bulkhead 로 실행을 허가한다.
+ * <p>
+ * firing 은 전역 예산({@code scheduler.admission.max-in-flight})과 잡이 속한 bulkhead({@code bulkheads[].maxConcurrent})
+ * 양쪽에 자리가 있어야 실행된다. 전역 예산 중 {@code reserved-for-critical} 만큼은 {@code priority: critical} 잡만 쓸 수
+ * 있어 다른 잡이 예산을 다 써도 중요한 잡은 바로 실행된다. 자리가 없으면 {@code shed-priority} 이하 우선순위는 바로
+ * 건너뛰고(shed), 나머지는 우선순위 순(같으면 도착 순) 대기열에서 기다린다. 대기열이 차면 가장 낮은 우선순위의 마지막
+ * 대기자를 밀어내고, {@code max-wait-ms} 안에 허가를 못 받으면 건너뛴다.
+ * <p>
+ * 요청 단위 한도(호스트/잡 리미터)와 별개로 firing 단위에서 동작하므로, 느린 잡이 커넥션을 오래 잡고 있어도
+ * 그 잡이 속한 bulkhead 안에서만 자리를 차지한다.
+ */
+@Slf4j
+@Component
+public class AdmissionController {
+    enum Priority {
+        CRITICAL, HIGH, NORMAL, LOW;
+
+        static Priority of(String value) {
+            return Priority.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+
+        String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final JobMetrics jobMetrics;
+    private final boolean enabled;
+    private final int maxInFlight;
+    private final int reservedForCritical;
+    private final int maxQueue;
+    private final Duration maxWait;
+    private final Priority shedPriority;
+    private final TreeSet<Waiter> queue = new TreeSet<>(Comparator
+            .comparingInt((Waiter waiter) -> waiter.priority.ordinal())
+            .thenComparingLong(waiter -> waiter.sequence));
+    private final Map<String, Bulkhead> bulkheads = new HashMap<>();
+    private final AtomicInteger reportedInFlight = new AtomicInteger();
+    private int inFlight;
+    private long sequence;
+
+    public AdmissionController(JobMetrics jobMetrics,
+                               @Value("${scheduler.admission.enabled:true}") boolean enabled,
+                               @Value("${scheduler.admission.max-in-flight:64}") int maxInFlight,
+                               @Value("${scheduler.admission.reserved-for-critical:8}") int reservedForCritical,
+                               @Value("${scheduler.admission.max-queue:256}") int maxQueue,
+                               @Value("${scheduler.admission.max-wait-ms:30000}") long maxWaitMs,
+                               @Value("${scheduler.admission.shed-priority:low}") String shedPriority) {
+        this.jobMetrics = jobMetrics;
+        this.enabled = enabled;
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.reservedForCritical = Math.max(0, Math.min(reservedForCritical, this.maxInFlight - 1));
+        this.maxQueue = Math.max(0, maxQueue);
+        this.maxWait = Duration.ofMillis(maxWaitMs);
+        this.shedPriority = Priority.of(shedPriority);
+        if (enabled) {
+            jobMetrics.registerAdmission(reportedInFlight::get, this.maxInFlight, this::getQueueDepth);
+        }
+    }
+
+    /**
+     * 허가를 받은 뒤 {@code execution} 을 실행한다. 허가를 받지 못하면 실행하지 않고 건너뛴 결과를 돌려준다.
+     */
+    public Mono<ExecutionReport> admit(JobConfig.Job job, Mono<ExecutionReport> execution) {
+        if (!enabled) {
+            return execution;
+        }
+        return Mono.defer(() -> {
+            Priority priority = priorityOf(job);
+            long startNanos = System.nanoTime();
+            return acquire(job, priority)
+                    .flatMap(permit -> {
+                        jobMetrics.recordAdmissionWait(priority.tag(), System.nanoTime() - startNanos);
+                        return execution.doFinally(signal -> permit.release());
+                    })
+                    .onErrorResume(AdmissionRejectedException.class, rejected -> {
+                        log.warn("Job [{}] 실행 허가 거절: {} (priority={}, 실행 중 {}/{}, 대기 {})", job.getId(),
+                                rejected.reason, priority.tag(), reportedInFlight.get(), maxInFlight, getQueueDepth());
+                        jobMetrics.recordAdmissionRejected(priority.tag(), rejected.reason);
+                        return Mono.just(ExecutionReport.skipped(job.getId(), rejected.reason));
+                    });
+        });
+    }
+
+    /**
+     * 설정 파일의 bulkhead 한도를 반영한다. 설정에서 빠진 bulkhead 는 한도 없이 남겨 실행 중인 firing 을 그대로 추적한다.
+     */
+    public void configure(List<JobConfig.Bulkhead> configs) {
+        List<Waiter> granted;
+        synchronized (this) {
+            Set<String> names = new HashSet<>();
+            if (configs != null) {
+                for (JobConfig.Bulkhead config : configs) {
+                    if (config.getName() == null || config.getMaxConcurrent() == null) {
+                        log.warn("bulkhead 설정에 name 과 maxConcurrent 가 필요합니다: {}", config);
+                        continue;
+                    }
+                    names.add(config.getName());
+                    int limit = Math.max(1, config.getMaxConcurrent());
+                    Bulkhead bulkhead = bulkheads.computeIfAbsent(config.getName(), this::createBulkhead);
+                    if (bulkhead.limit != limit) {
+                        log.info("bulkhead 한도 설정: {} ({} -> {})", bulkhead.name,
+                                bulkhead.limit == Integer.MAX_VALUE ? "없음" : bulkhead.limit, limit);
+                        bulkhead.limit = limit;
+                    }
+                }
+            }
+            bulkheads.values().forEach(bulkhead -> {
+                if (!names.contains(bulkhead.name)) {
+                    bulkhead.limit = Integer.MAX_VALUE;
+                }
+            });
+            granted = drain();
+        }
+        granted.forEach(Waiter::grant);
+    }
+
+    public synchronized int getQueueDepth() {
+        return queue.size();
+    }
+
+    private Bulkhead createBulkhead(String name) {
+        Bulkhead bulkhead = new Bulkhead(name);
+        jobMetrics.registerBulkhead(name, bulkhead::inFlight, bulkhead::limit);
+        return bulkhead;
+    }
+
+    private Mono<Permit> acquire(JobConfig.Job job, Priority priority) {
+        return Mono.<Permit>create(sink -> {
+                    Waiter waiter;
+                    Waiter evicted = null;
+                    String rejected = null;
+                    List<Waiter> granted;
+                    synchronized (this) {
+                        waiter = new Waiter(sink, priority, bulkheadOf(job), sequence++);
+                        sink.onCancel(waiter::cancel);
+                        // 대기열에 넣고 우선순위 순으로 허가하므로 같거나 높은 우선순위의 대기자를 새치기하지 않는다
+                        queue.add(waiter);
+                        granted = drain();
+                        if (!granted.contains(waiter)) {
+                            if (priority.ordinal() >= shedPriority.ordinal()) {
+                                queue.remove(waiter);
+                                rejected = "shed";
+                            } else if (queue.size() > maxQueue) {
+                                Waiter last = queue.pollLast();
+                                if (last == waiter) {
+                                    rejected = "queue_full";
+                                } else {
+                                    evicted = last;
+                                }
+                            }
+                        }
+                    }
+                    granted.forEach(Waiter::grant);
+                    if (evicted != null) {
+                        evicted.reject("shed");
+                    }
+                    if (rejected != null) {
+                        waiter.reject(rejected);
+                    }
+                })
+                .timeout(maxWait, Mono.error(() -> new AdmissionRejectedException("admission_timeout")));
+    }
+
+    private Bulkhead bulkheadOf(JobConfig.Job job) {
+        if (job.getBulkhead() == null) {
+            return null;
+        }
+        Bulkhead bulkhead = bulkheads.get(job.getBulkhead());
+        if (bulkhead == null) {
+            log.warn("Job [{}] 정의되지 않은 bulkhead: {} (전역 예산만 적용)", job.getId(), job.getBulkhead());
+            bulkhead = bulkheads.computeIfAbsent(job.getBulkhead(), this::createBulkhead);
+        }
+        return bulkhead;
+    }
+
+    private boolean admissible(Waiter waiter) {
+        int limit = waiter.priority == Priority.CRITICAL ? maxInFlight : maxInFlight - reservedForCritical;
+        return inFlight < limit && (waiter.bulkhead == null || waiter.bulkhead.inFlight < waiter.bulkhead.limit);
+    }
+
+    private void take(Waiter waiter) {
+        inFlight++;
+        reportedInFlight.set(inFlight);
+        if (waiter.bulkhead != null) {
+            waiter.bulkhead.inFlight++;
+        }
+    }
+
+    private void onRelease(Bulkhead bulkhead) {
+        List<Waiter> granted;
+        synchronized (this) {
+            inFlight--;
+            reportedInFlight.set(inFlight);
+            if (bulkhead != null) {
+                bulkhead.inFlight--;
+            }
+            granted = drain();
+        }
+        granted.forEach(Waiter::grant);
+    }
+
+    /**
+     * 우선순위 순으로 대기자를 훑어 허가할 수 있는 것을 꺼낸다. bulkhead 가 찬 대기자는 건너뛰고 다음 대기자를 본다.
+     * 허가 전달은 락 밖에서 한다.
+     */
+    private List<Waiter> drain() {
+        List<Waiter> granted = new ArrayList<>();
+        Iterator<Waiter> iterator = queue.iterator();
+        while (iterator.hasNext() && inFlight < maxInFlight) {
+            Waiter waiter = iterator.next();
+            if (!admissible(waiter)) {
+                continue;
+            }
+            iterator.remove();
+            if (waiter.claim()) {
+                take(waiter);
+                granted.add(waiter);
+            }
+        }
+        return granted;
+    }
+
+    private Priority priorityOf(JobConfig.Job job) {
+        if (job.getPriority() == null) {
+            return Priority.NORMAL;
+        }
+        try {
+            return Priority.of(job.getPriority());
+        } catch (IllegalArgumentException e) {
+            log.warn("Job [{}] 알 수 없는 priority: {} (normal 사용)", job.getId(), job.getPriority());
+            return Priority.NORMAL;
+        }
+    }
+
+    /**
+     * 허가를 받지 못한 이유. 실행 결과를 건너뜀으로 바꾸는 데만 쓰므로 스택 트레이스는 만들지 않는다.
+     */
+    private static final class AdmissionRejectedException extends RuntimeException {
+        private final String reason;
+
+        private AdmissionRejectedException(String reason) {
+            super(reason);
+            this.reason = reason;
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+
+    private static final class Bulkhead {
+        private final String name;
+        private volatile int limit = Integer.MAX_VALUE;
+        private volatile int inFlight;
+
+        private Bulkhead(String name) {
+            this.name = name;
+        }
+
+        int inFlight() {
+            return inFlight;
+        }
+
+        int limit() {
+            return limit == Integer.MAX_VALUE ? 0 : limit;
+        }
+    }
+
+    private final class Waiter {
+        private static final int WAITING = 0;
+        private static final int GRANTED = 1;
+        private static final int CANCELLED = 2;
+
+        private final MonoSink<Permit> sink;
+        private final Priority priority;
+        private final Bulkhead bulkhead;
+        private final long sequence;
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+        private volatile Permit permit;
+
+        private Waiter(MonoSink<Permit> sink, Priority priority, Bulkhead bulkhead, long sequence) {
+            this.sink = sink;
+            this.priority = priority;
+            this.bulkhead = bulkhead;
+            this.sequence = sequence;
+        }
+
+        /**
+         * 락 안에서 호출된다. 허가를 먼저 만들어 두므로 이후 취소되면 cancel 에서 반환할 수 있다.
+         */
+        boolean claim() {
+            permit = new Permit(bulkhead);
+            return state.compareAndSet(WAITING, GRANTED);
+        }
+
+        void grant() {
+            sink.success(permit);
+        }
+
+        void reject(String reason) {
+            if (state.compareAndSet(WAITING, CANCELLED)) {
+                sink.error(new AdmissionRejectedException(reason));
+            }
+        }
+
+        void cancel() {
+            if (state.compareAndSet(WAITING, CANCELLED)) {
+                synchronized (AdmissionController.this) {
+                    queue.remove(this);
+                }
+            } else if (state.get() == GRANTED) {
+                // 허가가 전달되는 중에 취소된 경우 (이미 사용 중이면 중복 반환은 Permit 이 무시한다)
+                permit.release();
+            }
+        }
+    }
+
+    private final class Permit {
+        private final Bulkhead bulkhead;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(Bulkhead bulkhead) {
+            this.bulkhead = bulkhead;
+        }
+
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                onRelease(bulkhead);
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.ideatec.spring_scheduler.scheduler;
+
+import com.ideatec.spring_scheduler.actuator.JobMetrics;
+import com.ideatec.spring_scheduler.checkpoint.CheckpointStore;
+import org.quartz.DisallowConcurrentExecution;
+
+/**
+ * 클러스터 모드에서 overlap 정책이 {@code allow} 가 아닌 잡에 쓴다.
+ * <p>
+ * 실행 중 여부는 노드마다 따로 관리되므로({@link InFlightRegistry}), 다른 노드에서의 중복 실행은 Quartz 가
+ * 잡 스토어 단위로 막는다. 막힌 firing 은 이전 실행이 끝난 뒤 misfire 정책에 따라 처리된다.
+ */
+@DisallowConcurrentExecution
+public class ClusteredJobWrapper extends QuartzJobWrapper {
+
+    public ClusteredJobWrapper(ParallelJobExecutor jobExecutor, CheckpointStore checkpointStore, JobMetrics jobMetrics,
+                               ExecutionPlanRegistry planRegistry) {
+        super(jobExecutor, checkpointStore, jobMetrics, planRegistry);
+    }
+}
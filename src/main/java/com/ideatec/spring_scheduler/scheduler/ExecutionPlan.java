@@ -0,0 +1,49 @@
+package com.ideatec.spring_scheduler.scheduler;
+
+import com.ideatec.spring_scheduler.actuator.JobHistory;
+import com.ideatec.spring_scheduler.actuator.JobMeters;
+import com.ideatec.spring_scheduler.client.JobPartition;
+import com.ideatec.spring_scheduler.client.PaginatedFetcher;
+import com.ideatec.spring_scheduler.client.RequestPlan;
+import com.ideatec.spring_scheduler.config.JobConfig;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 잡 하나를 실행하는 데 필요한 값을 설정이 바뀔 때 한 번 계산해 둔 불변 실행 계획.
+ * firing 은 {@link ExecutionPlanRegistry} 에서 잡 ID 로 계획을 찾아 그대로 실행한다.
+ *
+ * @param configHash 계획을 만든 설정의 해시. JobDataMap 의 해시와 다르면 잡 스토어의 설정으로 다시 만든다
+ * @param partitions 파티션 잡의 파티션 목록, 아니면 빈 목록
+ * @param lanes      동시 lane 수 (페이지네이션 잡은 파티션이 없으면 1)
+ * @param deadline   firing 전체 제한 시간
+ * @param history    firing 결과를 기록할 잡의 이력 버퍼
+ */
+public record ExecutionPlan(JobConfig.Job job, String configHash, RequestPlan request, List<JobPartition> partitions,
+                            int lanes, Duration deadline, JobHistory history) {
+
+    static ExecutionPlan compile(JobConfig.Job job, String configHash, RequestPlan request, JobHistory history) {
+        int parallelism = job.getParallelism() != null ? Math.max(1, job.getParallelism()) : 1;
+        if (JobPartition.isPartitioned(job)) {
+            List<JobPartition> partitions = List.copyOf(JobPartition.plan(job));
+            return new ExecutionPlan(job, configHash, request, partitions, parallelism,
+                    ParallelJobExecutor.deadlineOf(job, partitions.size()), history);
+        }
+        int lanes = PaginatedFetcher.isPaginated(job) ? 1 : parallelism;
+        return new ExecutionPlan(job, configHash, request, List.of(), lanes, ParallelJobExecutor.deadlineOf(job),
+                history);
+    }
+
+    public String jobId() {
+        return job.getId();
+    }
+
+    public boolean isPartitioned() {
+        return JobPartition.isPartitioned(job);
+    }
+
+    public JobMeters meters() {
+        return request.meters();
+    }
+}
@@ -0,0 +1,92 @@
+package com.ideatec.spring_scheduler.scheduler;
+
+import com.ideatec.spring_scheduler.actuator.ExecutionHistory;
+import com.ideatec.spring_scheduler.actuator.JobMetrics;
+import com.ideatec.spring_scheduler.client.ConcurrencyLimiterRegistry;
+import com.ideatec.spring_scheduler.client.ReactiveWebClientClient;
+import com.ideatec.spring_scheduler.config.JobConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 잡 ID 별 {@link ExecutionPlan} 저장소.
+ * <p>
+ * 설정이 바뀌면 {@link QuartzDynamicScheduler} 가 해시가 달라진 잡의 계획만 다시 만들고, firing 은 조회 한 번으로
+ * 계획을 얻는다. 잡 스토어에 이 노드와 다른 설정이 저장되어 있으면(클러스터에서 다른 노드가 반영한 경우)
+ * firing 이 JobDataMap 으로 만든 계획을 {@link #register} 해서 다음 firing 부터 재사용한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ExecutionPlanRegistry {
+    private final ReactiveWebClientClient webClient;
+    private final ExecutionHistory executionHistory;
+    private final ConcurrencyLimiterRegistry limiters;
+    private final JobMetrics jobMetrics;
+    private final Map<String, ExecutionPlan> plans = new ConcurrentHashMap<>();
+
+    /**
+     * @return 잡의 실행 계획, 아직 만들지 않았거나 만들지 못했으면 null
+     */
+    public ExecutionPlan get(String jobId) {
+        return plans.get(jobId);
+    }
+
+    /**
+     * 설정의 잡 목록과 계획을 맞춘다. 해시가 같은 계획은 그대로 두고 빠진 잡의 계획은 지운다.
+     */
+    public void update(List<JobConfig.Job> jobs, Function<String, String> configHashes) {
+        Set<String> desired = new HashSet<>();
+        int compiled = 0;
+        for (JobConfig.Job job : jobs) {
+            desired.add(job.getId());
+            String configHash = configHashes.apply(job.getId());
+            ExecutionPlan existing = plans.get(job.getId());
+            if (existing != null && Objects.equals(existing.configHash(), configHash)) {
+                continue;
+            }
+            try {
+                register(job, configHash);
+                compiled++;
+            } catch (RuntimeException e) {
+                // firing 시점에 다시 만들면서 같은 오류로 실패 처리된다
+                plans.remove(job.getId());
+                log.error("잡 실행 계획 생성 실패: {} ({})", job.getId(), e.getMessage());
+            }
+        }
+        plans.keySet().retainAll(desired);
+        executionHistory.retain(desired);
+        jobMetrics.retain(desired);
+        limiters.retain(desired);
+        if (compiled > 0) {
+            log.debug("잡 실행 계획 갱신: {}건 (전체 {}건)", compiled, plans.size());
+        }
+    }
+
+    /**
+     * 잡 설정으로 계획을 만들어 등록한다.
+     *
+     * @throws IllegalArgumentException 설정 값(URL, 메서드, 파티션 등)이 잘못된 경우
+     */
+    public ExecutionPlan register(JobConfig.Job job, String configHash) {
+        ExecutionPlan plan = compile(job, configHash);
+        plans.put(job.getId(), plan);
+        return plan;
+    }
+
+    /**
+     * 등록하지 않고 계획만 만든다 (설정 객체로 직접 실행하는 경로용).
+     */
+    public ExecutionPlan compile(JobConfig.Job job, String configHash) {
+        return ExecutionPlan.compile(job, configHash, webClient.plan(job), executionHistory.of(job.getId()));
+    }
+}
@@ -0,0 +1,66 @@
+package com.ideatec.spring_scheduler.scheduler;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 잡 1회 실행(firing)의 집계 결과.
+ */
+@Getter
+@AllArgsConstructor
+public class ExecutionReport {
+    private final String jobId;
+    private final List<RequestOutcome> outcomes;
+    private final Duration duration;
+    private final String skipReason; // 실행하지 않고 건너뛰었으면 그 이유
+    private final String coalescedWith; // 실행 중인 다른 firing 의 결과를 공유했으면 그 잡 ID
+    private final int retries; // 모든 요청의 재시도 횟수 합
+
+    public ExecutionReport(String jobId, List<RequestOutcome> outcomes, Duration duration) {
+        this(jobId, outcomes, duration, 0);
+    }
+
+    public ExecutionReport(String jobId, List<RequestOutcome> outcomes, Duration duration, int retries) {
+        this(jobId, outcomes, duration, null, null, retries);
+    }
+
+    static ExecutionReport skipped(String jobId, String reason) {
+        return new ExecutionReport(jobId, List.of(), Duration.ZERO, reason, null, 0);
+    }
+
+    static ExecutionReport coalesced(String jobId, ExecutionReport source, Duration waited) {
+        return new ExecutionReport(jobId, source.getOutcomes(), waited, source.getSkipReason(), source.getJobId(),
+                source.getRetries());
+    }
+
+    public boolean isSkipped() {
+        return skipReason != null;
+    }
+
+    public boolean isCoalesced() {
+        return coalescedWith != null;
+    }
+
+    public long getSuccessCount() {
+        return outcomes.stream().filter(RequestOutcome::isSuccess).count();
+    }
+
+    public long getFailureCount() {
+        return outcomes.size() - getSuccessCount();
+    }
+
+    public long getBytes() {
+        long bytes = 0;
+        for (RequestOutcome outcome : outcomes) {
+            bytes += outcome.getBytes();
+        }
+        return bytes;
+    }
+
+    public boolean isSuccess() {
+        return !outcomes.isEmpty() && getFailureCount() == 0;
+    }
+}
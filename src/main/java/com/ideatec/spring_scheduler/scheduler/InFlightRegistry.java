@@ -0,0 +1,192 @@
+package com.ideatec.spring_scheduler.scheduler;
+
+import com.ideatec.spring_scheduler.actuator.JobMetrics;
+import com.ideatec.spring_scheduler.client.PaginatedFetcher;
+import com.ideatec.spring_scheduler.client.ResponseSinkWriter;
+import com.ideatec.spring_scheduler.config.JobConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 실행 중인 firing 을 잡 ID 와 요청 fingerprint 로 추적해 잡의 {@code overlap} 정책을 적용한다.
+ * <ul>
+ *     <li>{@code allow}: 겹쳐도 그대로 실행</li>
+ *     <li>{@code skip}: 같은 잡이 실행 중이면 건너뜀</li>
+ *     <li>{@code queue-one}: 실행 중이면 하나만 대기했다가 끝난 뒤 실행, 이미 대기 중이면 건너뜀</li>
+ *     <li>{@code coalesce}: 같은 잡 또는 같은 요청(fingerprint)이 실행 중이면 새로 보내지 않고 그 결과를 공유</li>
+ * </ul>
+ * 정책이 없는 잡은 {@code scheduler.overlap.default-policy}(기본 {@code allow}, 이전과 같이 겹쳐 실행)를 따른다.
+ * 진행 위치를 체크포인트에 저장하는 잡(페이지네이션, 파일 sink)은 다른 잡의 결과를 받아도 자기 위치가 앞으로 가지
+ * 않으므로 fingerprint 로 합치지 않고 같은 잡끼리만 합친다.
+ */
+@Slf4j
+@Component
+public class InFlightRegistry {
+    enum Policy {
+        ALLOW, SKIP, QUEUE_ONE, COALESCE;
+
+        static Policy of(String value) {
+            return Policy.valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        }
+    }
+
+    private final JobMetrics jobMetrics;
+    private final Policy defaultPolicy;
+    private final Map<String, InFlight> byJob = new HashMap<>();
+    private final Map<String, InFlight> byFingerprint = new HashMap<>();
+
+    public InFlightRegistry(JobMetrics jobMetrics,
+                            @Value("${scheduler.overlap.default-policy:allow}") String defaultPolicy) {
+        this.jobMetrics = jobMetrics;
+        this.defaultPolicy = Policy.of(defaultPolicy);
+    }
+
+    /**
+     * 정책에 따라 {@code execution} 을 실행하거나, 건너뛰거나, 실행 중인 firing 의 결과를 기다린다.
+     */
+    public Mono<ExecutionReport> run(JobConfig.Job job, Mono<ExecutionReport> execution) {
+        return Mono.defer(() -> {
+            Policy policy = policyOf(job);
+            if (policy == Policy.ALLOW) {
+                return execution;
+            }
+
+            String fingerprint = isCheckpointed(job) ? null : fingerprintOf(job);
+            InFlight running;
+            InFlight started = null;
+            synchronized (this) {
+                running = byJob.get(job.getId());
+                if (running == null && policy == Policy.COALESCE && fingerprint != null) {
+                    running = byFingerprint.get(fingerprint);
+                }
+                if (running == null) {
+                    started = new InFlight(job.getId(), fingerprint);
+                    byJob.put(job.getId(), started);
+                    if (fingerprint != null) {
+                        byFingerprint.putIfAbsent(fingerprint, started);
+                    }
+                }
+            }
+            if (started != null) {
+                return start(started, execution);
+            }
+
+            switch (policy) {
+                case COALESCE -> {
+                    log.info("Job [{}] 실행 중인 요청에 합류: {}", job.getId(), running.jobId);
+                    jobMetrics.recordJobOverlap(job.getId(), "coalesced");
+                    long startNanos = System.nanoTime();
+                    return running.result.map(report -> ExecutionReport.coalesced(job.getId(), report,
+                            Duration.ofNanos(System.nanoTime() - startNanos)));
+                }
+                case QUEUE_ONE -> {
+                    if (running.queued.compareAndSet(false, true)) {
+                        log.info("Job [{}] 이전 실행이 끝날 때까지 대기", job.getId());
+                        jobMetrics.recordJobOverlap(job.getId(), "queued");
+                        return running.result
+                                .onErrorResume(error -> Mono.empty())
+                                .then(Mono.defer(() -> run(job, execution)));
+                    }
+                    return Mono.just(ExecutionReport.skipped(job.getId(), "overlap"));
+                }
+                default -> {
+                    return Mono.just(ExecutionReport.skipped(job.getId(), "overlap"));
+                }
+            }
+        });
+    }
+
+    private Mono<ExecutionReport> start(InFlight entry, Mono<ExecutionReport> execution) {
+        // 대기/합류한 firing 이 결과를 받기 전에 등록을 해제해야 queue-one 재진입이 새 실행을 시작할 수 있다
+        return execution
+                .doOnSuccess(report -> {
+                    remove(entry);
+                    if (report != null) {
+                        entry.sink.tryEmitValue(report);
+                    } else {
+                        entry.sink.tryEmitEmpty();
+                    }
+                })
+                .doOnError(error -> {
+                    remove(entry);
+                    entry.sink.tryEmitError(error);
+                })
+                .doOnCancel(() -> {
+                    remove(entry);
+                    entry.sink.tryEmitError(new CancellationException("실행 취소: " + entry.jobId));
+                });
+    }
+
+    private synchronized void remove(InFlight entry) {
+        byJob.remove(entry.jobId, entry);
+        if (entry.fingerprint != null) {
+            byFingerprint.remove(entry.fingerprint, entry);
+        }
+    }
+
+    /**
+     * 같은 잡의 firing 이 겹쳐 실행되어도 되는지. 클러스터 모드에서 노드 간 겹침 방지 여부를 정할 때 쓴다.
+     */
+    boolean allowsConcurrent(JobConfig.Job job) {
+        return policyOf(job) == Policy.ALLOW;
+    }
+
+    private Policy policyOf(JobConfig.Job job) {
+        if (job.getOverlap() == null) {
+            return defaultPolicy;
+        }
+        try {
+            return Policy.of(job.getOverlap());
+        } catch (IllegalArgumentException e) {
+            log.warn("Job [{}] 알 수 없는 overlap 정책: {} (기본값 {} 사용)", job.getId(), job.getOverlap(), defaultPolicy);
+            return defaultPolicy;
+        }
+    }
+
+    /**
+     * 진행 위치(페이지 offset, 스트림 위치)를 잡 ID 기준 체크포인트에 저장하는 잡인지.
+     */
+    static boolean isCheckpointed(JobConfig.Job job) {
+        return PaginatedFetcher.isPaginated(job) || ResponseSinkWriter.isFileSink(job.getResponse());
+    }
+
+    /**
+     * 같은 요청을 같은 곳에 기록하는 잡끼리만 합칠 수 있도록 요청과 응답 sink 를 모두 포함한다.
+     */
+    static String fingerprintOf(JobConfig.Job job) {
+        JobConfig.Job.Request request = job.getRequest();
+        JobConfig.Job.Response response = job.getResponse();
+        return String.join("|",
+                Objects.toString(request.getMethod(), ""),
+                Objects.toString(request.getUrl(), ""),
+                Objects.toString(request.getBodyFile(), ""),
+                Objects.toString(job.getMode(), ""),
+                Objects.toString(job.getPartitions(), ""),
+                response != null ? Objects.toString(response.getSink(), "") : "",
+                response != null ? Objects.toString(response.getPath(), "") : "");
+    }
+
+    private static final class InFlight {
+        private final String jobId;
+        private final String fingerprint;
+        private final Sinks.One<ExecutionReport> sink = Sinks.one();
+        private final Mono<ExecutionReport> result = sink.asMono();
+        private final AtomicBoolean queued = new AtomicBoolean();
+
+        private InFlight(String jobId, String fingerprint) {
+            this.jobId = jobId;
+            this.fingerprint = fingerprint;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.ideatec.spring_scheduler.scheduler;
+
+import com.ideatec.spring_scheduler.actuator.JobHistory;
+import com.ideatec.spring_scheduler.client.CircuitBreakerRegistry;
+import com.ideatec.spring_scheduler.client.FiringRetries;
+import com.ideatec.spring_scheduler.client.JobPartition;
+import com.ideatec.spring_scheduler.client.PaginatedFetcher;
+import com.ideatec.spring_scheduler.client.ReactiveWebClientClient;
+import com.ideatec.spring_scheduler.client.RequestDeadline;
+import com.ideatec.spring_scheduler.client.RequestResult;
+import com.ideatec.spring_scheduler.config.JobConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * 잡의 parallelism 만큼 요청을 팬아웃하고 모든 요청이 끝나면 완료되는 실행 엔진.
+ * <p>
+ * 요청은 Reactor Netty 이벤트 루프에서 논블로킹으로 처리되므로 firing 마다 스레드 풀을
+ * 만들지 않는다. 전체 실행은 잡의 deadline 안에 끝나야 하며, 요청 재시도도 이 제한 시간 안에서만 일어난다.
+ * 잡 URL 의 서킷이 열려 있으면 요청 없이 건너뛴다.
+ * {@code mode: paginated} 잡은 체크포인트 위치부터 페이지를 순서대로 가져오므로 lane 하나로 실행한다.
+ * <p>
+ * {@code partitions} 가 있는 잡은 같은 요청을 반복하지 않고 파티션 목록을 parallelism 개의 lane 이 나눠 처리한다.
+ * 파티션은 공유 대기열에서 하나씩 꺼내므로 먼저 끝난 lane 이 남은 파티션을 가져가고(작업 가로채기),
+ * 페이지네이션 잡도 파티션마다 따로 offset 을 이어받아 동시에 실행된다.
+ * <p>
+ * 요청 URI, 메서드, 재시도 정책, 파티션 목록, 제한 시간은 {@link ExecutionPlan} 에 미리 계산되어 있다.
+ * <p>
+ * overlap 정책을 통과한 firing 은 {@link AdmissionController} 의 전역 예산/bulkhead 허가를 받은 뒤에 실행된다.
+ * <p>
+ * 모든 firing 의 시작 시각, 실행 시간, 결과, 재시도 수, 받은 바이트는 잡의 {@link JobHistory} 에 기록된다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ParallelJobExecutor {
+    private static final int MAX_CONCURRENCY = 64;
+    private static final Duration DEFAULT_PAGINATED_DEADLINE = Duration.ofHours(1);
+
+    private final ReactiveWebClientClient webClient;
+    private final PaginatedFetcher paginatedFetcher;
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final InFlightRegistry inFlightRegistry;
+    private final AdmissionController admissionController;
+    private final ExecutionPlanRegistry planRegistry;
+
+    /**
+     * 설정 객체로 바로 실행한다. 실행 계획을 매번 새로 만들므로 반복 실행에는 {@link #execute(ExecutionPlan)} 를 쓴다.
+     */
+    public Mono<ExecutionReport> execute(JobConfig.Job job) {
+        return Mono.defer(() -> execute(planRegistry.compile(job, null)));
+    }
+
+    /**
+     * 잡의 overlap 정책을 적용해 실행한다. 같은 잡이 실행 중이면 건너뛰거나, 대기하거나, 그 결과를 공유한다.
+     * 실제 실행은 우선순위와 bulkhead 에 따라 허가된 뒤에 시작하고, 허가를 받지 못하면 건너뛴다.
+     */
+    public Mono<ExecutionReport> execute(ExecutionPlan plan) {
+        JobConfig.Job job = plan.job();
+        JobHistory history = plan.history();
+        return Mono.defer(() -> {
+            long startMillis = System.currentTimeMillis();
+            long startNanos = System.nanoTime();
+            return inFlightRegistry.run(job, admissionController.admit(job, Mono.defer(() -> executeNow(plan))))
+                    .doOnNext(report -> history.record(startMillis, System.nanoTime() - startNanos,
+                            report.isSkipped() ? JobHistory.Status.SKIPPED
+                                    : report.isSuccess() ? JobHistory.Status.SUCCESS : JobHistory.Status.FAILURE,
+                            report.getRetries(), report.getBytes()))
+                    .doOnError(error -> history.record(startMillis, System.nanoTime() - startNanos,
+                            JobHistory.Status.FAILURE, 0, 0));
+        });
+    }
+
+    private Mono<ExecutionReport> executeNow(ExecutionPlan plan) {
+        JobConfig.Job job = plan.job();
+        if (plan.isPartitioned()) {
+            return executePartitions(plan);
+        }
+        if (circuitBreakers.isRejecting(plan.request().uri())) {
+            // 실패 중인 것을 아는 호스트로는 보내지 않는다
+            return Mono.just(ExecutionReport.skipped(job.getId(), "circuit_open"));
+        }
+        int lanes = plan.lanes();
+        Duration deadline = plan.deadline();
+
+        return Mono.defer(() -> {
+            long startNanos = System.nanoTime();
+            FiringRetries retries = new FiringRetries();
+            return Flux.range(0, lanes)
+                    .flatMap(lane -> executeLane(plan, lane), Math.min(lanes, MAX_CONCURRENCY))
+                    .collectList()
+                    .map(outcomes -> new ExecutionReport(job.getId(), outcomes,
+                            Duration.ofNanos(System.nanoTime() - startNanos), retries.get()))
+                    .contextWrite(context -> FiringRetries.put(context, retries));
+        }).timeout(deadline).contextWrite(context -> RequestDeadline.put(context, deadline));
+    }
+
+    /**
+     * 파티션마다 요청(또는 페이지 수집)을 한 번씩 실행한다. 서킷은 파티션 URL 별로 요청 시점에 확인된다.
+     */
+    private Mono<ExecutionReport> executePartitions(ExecutionPlan plan) {
+        JobConfig.Job job = plan.job();
+        int lanes = plan.lanes();
+        Duration deadline = plan.deadline();
+
+        return Mono.defer(() -> {
+            long startNanos = System.nanoTime();
+            // flatMap 은 끝난 자리만큼 다음 파티션을 요청하므로 lane 은 항상 남은 파티션 중 다음 것을 가져간다
+            FiringRetries retries = new FiringRetries();
+            return Flux.fromIterable(plan.partitions())
+                    .flatMap(partition -> executePartition(plan, partition), Math.min(lanes, MAX_CONCURRENCY))
+                    .collectList()
+                    .map(outcomes -> new ExecutionReport(job.getId(), outcomes,
+                            Duration.ofNanos(System.nanoTime() - startNanos), retries.get()))
+                    .contextWrite(context -> FiringRetries.put(context, retries));
+        }).timeout(deadline).contextWrite(context -> RequestDeadline.put(context, deadline));
+    }
+
+    private Mono<RequestOutcome> executeLane(ExecutionPlan plan, int lane) {
+        return Mono.defer(() -> {
+            long startNanos = System.nanoTime();
+            Mono<RequestResult> request = PaginatedFetcher.isPaginated(plan.job())
+                    ? paginatedFetcher.fetch(plan.request())
+                    : webClient.executeRequest(plan.request(), lane);
+            return request
+                    .map(result -> RequestOutcome.success(lane, null, result, Duration.ofNanos(System.nanoTime() - startNanos)))
+                    .onErrorResume(error -> Mono.just(
+                            RequestOutcome.failure(lane, null, error, Duration.ofNanos(System.nanoTime() - startNanos))));
+        });
+    }
+
+    private Mono<RequestOutcome> executePartition(ExecutionPlan plan, JobPartition partition) {
+        return Mono.defer(() -> {
+            long startNanos = System.nanoTime();
+            Mono<RequestResult> request = PaginatedFetcher.isPaginated(plan.job())
+                    ? paginatedFetcher.fetch(plan.request(), partition)
+                    : webClient.executeRequest(plan.request(), partition);
+            return request
+                    .map(result -> RequestOutcome.success(partition.index(), partition.key(), result,
+                            Duration.ofNanos(System.nanoTime() - startNanos)))
+                    .onErrorResume(error -> Mono.just(RequestOutcome.failure(partition.index(), partition.key(), error,
+                            Duration.ofNanos(System.nanoTime() - startNanos))));
+        });
+    }
+
+    /**
+     * deadlineMs 가 없으면 모든 재시도와 백오프(지터 포함)를 감안한 최악 시간을 사용한다.
+     * 페이지네이션 잡은 요청 한 건의 최악 시간에 maxPages 를 곱하고, maxPages 도 없으면 1시간으로 제한한다.
+     */
+    static Duration deadlineOf(JobConfig.Job job) {
+        return deadlineOf(job, 1);
+    }
+
+    /**
+     * 파티션 잡은 lane 하나가 처리할 파티션 수(올림)만큼 파티션 하나의 최악 시간을 곱한다.
+     */
+    static Duration deadlineOf(JobConfig.Job job, int partitions) {
+        if (job.getDeadlineMs() != null) {
+            return Duration.ofMillis(job.getDeadlineMs());
+        }
+        if (PaginatedFetcher.isPaginated(job)) {
+            Integer maxPages = job.getPagination().getMaxPages();
+            return maxPages != null ? requestDeadlineOf(job).multipliedBy(maxPages).multipliedBy(rounds(job, partitions))
+                    : DEFAULT_PAGINATED_DEADLINE;
+        }
+        return requestDeadlineOf(job).multipliedBy(rounds(job, partitions));
+    }
+
+    private static long rounds(JobConfig.Job job, int partitions) {
+        int lanes = job.getParallelism() != null ? Math.max(1, job.getParallelism()) : 1;
+        return Math.max(1, (partitions + lanes - 1) / lanes);
+    }
+
+    private static Duration requestDeadlineOf(JobConfig.Job job) {
+        JobConfig.Job.Request request = job.getRequest();
+        int retries = request.getRetry() != null && request.getRetry().getMax() != null ? request.getRetry().getMax() : 0;
+        long backoffMs = request.getRetry() != null && request.getRetry().getBackoffMs() != null ? request.getRetry().getBackoffMs() : 0;
+        long timeoutMs = request.getTimeoutMs() != null ? request.getTimeoutMs() : 30_000;
+        return Duration.ofMillis(timeoutMs * (retries + 1) + backoffMs * (1L << Math.min(retries, 16)) * 2);
+    }
+}
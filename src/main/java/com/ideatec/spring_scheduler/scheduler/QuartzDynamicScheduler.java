@@ -2,112 +2,445 @@ package com.ideatec.spring_scheduler.scheduler;
 
 import com.ideatec.spring_scheduler.actuator.JobMetrics;
 import com.ideatec.spring_scheduler.checkpoint.CheckpointStore;
-import com.ideatec.spring_scheduler.client.ReactiveWebClientClient;
+import com.ideatec.spring_scheduler.client.ConnectionPoolRegistry;
 import com.ideatec.spring_scheduler.config.JobConfig;
+import com.ideatec.spring_scheduler.config.JobConfigChangedEvent;
 import com.ideatec.spring_scheduler.config.JobConfigLoader;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.quartz.*;
+import org.quartz.impl.matchers.GroupMatcher;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class QuartzDynamicScheduler {
+    private static final String CATALOG_CHECKPOINT = "__catalog__";
+
     private final Scheduler scheduler;
     private final JobConfigLoader configLoader;
-    private final ReactiveWebClientClient webClient;
+    private final ConnectionPoolRegistry connectionPools;
     private final CheckpointStore checkpointStore;
     private final JobMetrics jobMetrics;
+    private final InFlightRegistry inFlightRegistry;
+    private final WheelJobScheduler wheelScheduler;
+    private final AdmissionController admissionController;
+    private final ExecutionPlanRegistry planRegistry;
+    private final SchedulerIntrospector introspector;
     private final Map<String, JobDetail> scheduledJobs = new ConcurrentHashMap<>();
+    private final Set<String> pausedJobs = ConcurrentHashMap.newKeySet();
+    private final Set<String> disabledJobs = ConcurrentHashMap.newKeySet();
+    private final Set<String> operatorPaused = ConcurrentHashMap.newKeySet();
+    private long appliedVersion = -1;
+    private long localVersion = -1;
+    private boolean clustered;
+    private String staleWarnedFor;
+
+    @PostConstruct
+    public void init() {
+        checkpointStore.onCommit(jobMetrics::recordCheckpointCommit);
+        try {
+            clustered = scheduler.getMetaData().isJobStoreClustered();
+        } catch (SchedulerException e) {
+            log.error("Quartz 메타데이터 조회 실패", e);
+        }
+    }
 
-    @Scheduled(cron = "0 * * * * *", zone = "Asia/Seoul") // 매분 설정 스캔
+    @Scheduled(cron = "0 * * * * *", zone = "Asia/Seoul") // 매분 설정 스캔 (파일 감시 누락 대비)
     public void schedule() {
+        reconcile();
+    }
+
+    /**
+     * 기동 직후 바로 잡을 등록한다. 첫 분 단위 스캔까지 잡이 하나도 없는 구간을 없앤다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reconcile();
+        jobMetrics.recordStartupScheduled();
+    }
+
+    @EventListener
+    public void onConfigChanged(JobConfigChangedEvent event) {
+        reconcile();
+    }
+
+    /**
+     * 설정과 Quartz 상태를 맞춘다. 잡별 설정 해시를 비교해 바뀐 잡만 추가/갱신/일시정지/삭제한다.
+     * <p>
+     * 클러스터 모드에서는 여러 노드가 같은 잡 스토어를 조정하므로, 잡 스토어에 마지막으로 반영된 카탈로그
+     * (해시, 설정 파일 수정 시각)보다 이 노드의 설정이 최신일 때만 반영하고, 비교 대상도 로컬 캐시가 아니라
+     * 잡 스토어에 저장된 JobDetail 이다. 같은 설정을 가진 노드끼리는 아무것도 바꾸지 않는다.
+     */
+    public synchronized void reconcile() {
         try {
-            // SchedulerContext에 Spring 빈들을 추가
-            setupSchedulerContext();
-            
             JobConfig config = configLoader.load();
-            if (config.getJobs() == null) {
+            long version = configLoader.getVersion();
+            List<JobConfig.Job> jobs = config.getJobs() != null ? config.getJobs() : List.of();
+            if (version != localVersion) {
+                // 커넥션 풀, bulkhead, 실행 계획, 타이밍 휠 잡은 노드마다 따로 가진다
+                connectionPools.configure(config.getPools());
+                admissionController.configure(config.getBulkheads());
+                planRegistry.update(jobs, configLoader::getConfigHash);
+                int wheelChanged = wheelScheduler.reconcile(
+                        jobs.stream().filter(WheelJobScheduler::isWheelJob).toList(), configLoader::getConfigHash);
+                if (wheelChanged > 0) {
+                    log.info("휠 잡 반영 완료: version={}, 변경 {}건", version, wheelChanged);
+                }
+                trackJobs(jobs);
+                localVersion = version;
+                introspector.applied(version);
+            }
+            if (clustered ? !clusterCatalogOutdated(version) : version == appliedVersion) {
                 return;
             }
 
+            Set<String> desired = new HashSet<>(jobs.size() * 2);
+            int changed = 0;
+            if (clustered) {
+                // 다른 노드가 바꿨을 수 있으므로 잡 스토어 기준으로 다시 비교한다
+                scheduledJobs.clear();
+                pausedJobs.clear();
+            }
+
             // 설정 변경 감지 및 리스케줄
-            for (JobConfig.Job job : config.getJobs()) {
-                ensureScheduled(job);
+            for (JobConfig.Job job : jobs) {
+                if (WheelJobScheduler.isWheelJob(job)) {
+                    // Quartz 에 남아 있던 같은 잡은 아래에서 삭제된다
+                    continue;
+                }
+                desired.add(job.getId());
+                if (ensureScheduled(job)) {
+                    changed++;
+                }
             }
 
             // 제거된 잡 정리
-            scheduledJobs.keySet().removeIf(jobId -> 
-                config.getJobs().stream().noneMatch(job -> job.getId().equals(jobId))
-            );
+            int removed = 0;
+            Set<String> known = clustered ? storedJobIds() : new HashSet<>(scheduledJobs.keySet());
+            for (String jobId : known) {
+                if (!desired.contains(jobId)) {
+                    try {
+                        scheduler.deleteJob(JobKey.jobKey(jobId));
+                        scheduledJobs.remove(jobId);
+                        pausedJobs.remove(jobId);
+                        if (clustered) {
+                            // 같은 ID 로 다시 추가된 잡이 일시정지된 채 시작하지 않도록 한다
+                            checkpointStore.saveOperatorPaused(jobId, false);
+                        }
+                        removed++;
+                        log.info("Quartz 잡 삭제: {}", jobId);
+                    } catch (SchedulerException e) {
+                        log.error("Quartz 잡 삭제 실패: {}", jobId, e);
+                    }
+                }
+            }
 
+            appliedVersion = version;
+            if (clustered) {
+                checkpointStore.save(CATALOG_CHECKPOINT, Map.of(
+                        "hash", configLoader.getCatalogHash(),
+                        "modified", configLoader.getCatalogModified(),
+                        "instance", scheduler.getSchedulerInstanceId()));
+            }
+            log.info("잡 설정 반영 완료: version={}, 변경 {}건, 삭제 {}건, 전체 {}건", version, changed, removed, desired.size());
         } catch (Exception e) {
             log.error("Quartz 스케줄링 중 오류 발생", e);
         }
     }
 
-    private void setupSchedulerContext() {
-        try {
-            SchedulerContext schedulerContext = scheduler.getContext();
-            schedulerContext.put("webClient", webClient);
-            schedulerContext.put("checkpointStore", checkpointStore);
-            schedulerContext.put("jobMetrics", jobMetrics);
-        } catch (SchedulerException e) {
-            log.error("SchedulerContext 설정 실패", e);
+    /**
+     * 잡 스토어에 반영된 카탈로그와 이 노드의 설정을 비교한다. 설정 파일 수정 시각이 더 최근인 쪽이 이기고,
+     * 같으면 해시로 순서를 정해 모든 노드가 같은 결론을 내리게 한다(노드끼리 서로 덮어쓰지 않는다).
+     *
+     * @return 이 노드의 설정을 잡 스토어에 반영해야 하면 true
+     */
+    private boolean clusterCatalogOutdated(long version) {
+        Map<String, Object> applied = checkpointStore.load(CATALOG_CHECKPOINT);
+        String hash = configLoader.getCatalogHash();
+        long modified = configLoader.getCatalogModified();
+        Object appliedHash = applied.get("hash");
+        long appliedModified = applied.get("modified") instanceof Number number ? number.longValue() : -1;
+
+        if (hash.equals(appliedHash)) {
+            // 다른 노드가 이미 같은 설정을 반영했다. 캐시는 잡 스토어에서 필요할 때 채운다
+            appliedVersion = version;
+            return false;
+        }
+        if (appliedHash == null || modified > appliedModified
+                || (modified == appliedModified && hash.compareTo(appliedHash.toString()) > 0)) {
+            return true;
         }
+        if (!hash.equals(staleWarnedFor)) {
+            staleWarnedFor = hash;
+            log.warn("잡 스토어에 더 최신 설정이 반영되어 있어 이 노드의 설정은 반영하지 않습니다: "
+                    + "local={} ({}), applied={} ({}, {})", hash, modified, appliedHash, appliedModified,
+                    applied.get("instance"));
+        }
+        return false;
     }
 
-    private void ensureScheduled(JobConfig.Job job) {
+    private Set<String> storedJobIds() throws SchedulerException {
+        Set<String> jobIds = new HashSet<>();
+        for (JobKey key : scheduler.getJobKeys(GroupMatcher.jobGroupEquals(JobKey.DEFAULT_GROUP))) {
+            jobIds.add(key.getName());
+        }
+        return jobIds;
+    }
+
+    /**
+     * @return Quartz 에 변경(추가, 갱신, 일시정지, 재개)을 반영했으면 true
+     */
+    private boolean ensureScheduled(JobConfig.Job job) {
         String jobId = job.getId();
         JobDetail existingJob = scheduledJobs.get(jobId);
-        
+        String configHash = configLoader.getConfigHash(jobId);
+        boolean enabled = job.getEnabled() == null || job.getEnabled();
         try {
+            // 설정에서 비활성화했거나 운영자가 엔드포인트로 일시정지한 잡
+            boolean paused = !enabled || isOperatorPaused(jobId);
+            if (existingJob == null && clustered) {
+                existingJob = loadStoredJob(jobId);
+            }
+            boolean rescheduled = false;
             // 새로운 잡이거나 설정이 변경된 경우
-            if (existingJob == null || isJobConfigChanged(existingJob, job)) {
-                log.info("Quartz 잡 스케줄링: {} (cron: {})", jobId, job.getCron());
-                
-                // 기존 잡이 있으면 삭제
-                if (existingJob != null) {
-                    scheduler.deleteJob(JobKey.jobKey(jobId));
-                }
-                
-                // 새 잡 생성 및 스케줄링
-                JobDetail jobDetail = createJobDetail(job);
+            if (existingJob == null || !Objects.equals(configHash, existingJob.getJobDataMap().getString("configHash"))) {
+                log.info("Quartz 잡 {}: {} (cron: {})", existingJob == null ? "추가" : "갱신", jobId, job.getCron());
+
+                // 새 잡 생성 및 스케줄링 (기존 잡/트리거는 교체)
+                JobDetail jobDetail = createJobDetail(job, configHash);
                 Trigger trigger = createTrigger(job);
-                
-                scheduler.scheduleJob(jobDetail, trigger);
+
+                scheduler.scheduleJob(jobDetail, Set.of(trigger), true);
                 scheduledJobs.put(jobId, jobDetail);
+                rescheduled = true;
             }
-        } catch (SchedulerException e) {
+
+            // 새 트리거는 NORMAL 상태로 등록되므로 비활성 잡은 다시 일시정지한다
+            if (paused && (rescheduled || !pausedJobs.contains(jobId))) {
+                scheduler.pauseJob(JobKey.jobKey(jobId));
+                pausedJobs.add(jobId);
+                log.info("Quartz 잡 일시정지: {}", jobId);
+                return true;
+            }
+            if (!paused && pausedJobs.remove(jobId)) {
+                if (!rescheduled) {
+                    scheduler.resumeJob(JobKey.jobKey(jobId));
+                    log.info("Quartz 잡 재개: {}", jobId);
+                }
+                return true;
+            }
+            return rescheduled;
+        } catch (Exception e) {
             log.error("Quartz 잡 스케줄링 실패: {}", jobId, e);
+            return false;
         }
     }
 
-    private JobDetail createJobDetail(JobConfig.Job job) {
+    /**
+     * 조회 스냅샷에 Quartz 잡 목록, 설정 해시, 일시정지 사유를 반영한다. 클러스터에서 다른 노드가 잡 스토어를 갱신한
+     * 경우에도 노드마다 자기 설정으로 상태를 보여준다.
+     */
+    private void trackJobs(List<JobConfig.Job> jobs) {
+        Set<String> quartzJobs = new HashSet<>(jobs.size() * 2);
+        for (JobConfig.Job job : jobs) {
+            if (WheelJobScheduler.isWheelJob(job)) {
+                continue;
+            }
+            String jobId = job.getId();
+            quartzJobs.add(jobId);
+            if (job.getEnabled() == null || job.getEnabled()) {
+                disabledJobs.remove(jobId);
+            } else {
+                disabledJobs.add(jobId);
+            }
+            introspector.track(jobId, job.getCron(), configLoader.getConfigHash(jobId), jobMetrics.meters(jobId));
+            introspector.paused(jobId, pausedByOf(jobId));
+        }
+        disabledJobs.retainAll(quartzJobs);
+        operatorPaused.retainAll(quartzJobs);
+        introspector.retain(quartzJobs);
+    }
+
+    /**
+     * 클러스터에서는 다른 노드가 일시정지/재개했을 수 있으므로 공유 체크포인트를 기준으로 한다. 그렇지 않으면
+     * 잡 스토어의 PAUSED 트리거를 이 노드가 재개해 운영자 일시정지를 되돌리게 된다.
+     */
+    private boolean isOperatorPaused(String jobId) {
+        if (clustered) {
+            if (checkpointStore.isOperatorPaused(jobId)) {
+                operatorPaused.add(jobId);
+            } else {
+                operatorPaused.remove(jobId);
+            }
+            introspector.paused(jobId, pausedByOf(jobId));
+        }
+        return operatorPaused.contains(jobId);
+    }
+
+    private String pausedByOf(String jobId) {
+        if (disabledJobs.contains(jobId)) {
+            return "config";
+        }
+        return operatorPaused.contains(jobId) ? "operator" : null;
+    }
+
+    /**
+     * 잡을 일시정지한다. 설정을 다시 반영해도 {@link #resume} 전까지 일시정지 상태를 유지한다. 클러스터에서는
+     * 공유 체크포인트에 기록하므로 어느 노드가 설정을 반영하거나 재개를 받아도 같은 상태를 본다.
+     *
+     * @return 잡이 없으면 false
+     */
+    public synchronized boolean pause(String jobId) throws SchedulerException {
+        if (!introspector.isTracked(jobId)) {
+            return false;
+        }
+        if (clustered) {
+            checkpointStore.saveOperatorPaused(jobId, true);
+        }
+        operatorPaused.add(jobId);
+        // 클러스터에서는 이 노드의 캐시가 잡 스토어보다 늦을 수 있으므로 항상 반영한다 (pauseJob 은 멱등)
+        if (pausedJobs.add(jobId) || clustered) {
+            scheduler.pauseJob(JobKey.jobKey(jobId));
+            log.info("Quartz 잡 일시정지 (운영자): {}", jobId);
+        }
+        introspector.paused(jobId, pausedByOf(jobId));
+        return true;
+    }
+
+    /**
+     * 운영자 일시정지를 해제한다. 설정에서 비활성화된 잡은 계속 일시정지 상태로 둔다.
+     *
+     * @return 잡이 없으면 false
+     */
+    public synchronized boolean resume(String jobId) throws SchedulerException {
+        if (!introspector.isTracked(jobId)) {
+            return false;
+        }
+        if (clustered) {
+            checkpointStore.saveOperatorPaused(jobId, false);
+        }
+        operatorPaused.remove(jobId);
+        // 다른 노드가 일시정지한 잡은 이 노드의 캐시에 없을 수 있다
+        if (!disabledJobs.contains(jobId) && (pausedJobs.remove(jobId) || clustered)) {
+            scheduler.resumeJob(JobKey.jobKey(jobId));
+            log.info("Quartz 잡 재개 (운영자): {}", jobId);
+        }
+        introspector.paused(jobId, pausedByOf(jobId));
+        return true;
+    }
+
+    /**
+     * 잡을 지금 한 번 실행한다. 일시정지된 잡도 실행되며 overlap 정책과 실행 허가는 평소처럼 적용된다.
+     *
+     * @return 잡이 없으면 false
+     */
+    public boolean triggerNow(String jobId) throws SchedulerException {
+        if (!introspector.isTracked(jobId)) {
+            return false;
+        }
+        scheduler.triggerJob(JobKey.jobKey(jobId));
+        log.info("Quartz 잡 수동 실행: {}", jobId);
+        return true;
+    }
+
+    /**
+     * 잡 스토어에 이미 있는 잡(다른 노드가 등록했거나 재기동 전부터 있던 잡)을 캐시에 올린다.
+     */
+    private JobDetail loadStoredJob(String jobId) throws SchedulerException {
+        JobDetail stored = scheduler.getJobDetail(JobKey.jobKey(jobId));
+        if (stored != null) {
+            scheduledJobs.put(jobId, stored);
+            if (scheduler.getTriggerState(TriggerKey.triggerKey(jobId + "-trigger")) == Trigger.TriggerState.PAUSED) {
+                pausedJobs.add(jobId);
+            }
+        }
+        return stored;
+    }
+
+    private JobDetail createJobDetail(JobConfig.Job job, String configHash) {
         JobDataMap jobDataMap = new JobDataMap();
         jobDataMap.put("jobId", job.getId());
+        jobDataMap.put("configHash", configHash);
         jobDataMap.put("cron", job.getCron());
         jobDataMap.put("parallelism", job.getParallelism());
+        if (job.getDeadlineMs() != null) {
+            jobDataMap.put("deadlineMs", job.getDeadlineMs());
+        }
         jobDataMap.put("url", job.getRequest().getUrl());
         jobDataMap.put("method", job.getRequest().getMethod());
         jobDataMap.put("timeoutMs", job.getRequest().getTimeoutMs());
+        if (job.getPool() != null) {
+            // 빠지면 JobDataMap 으로 복원한 잡은 호스트로 찾은 풀이나 기본 풀로 요청한다
+            jobDataMap.put("pool", job.getPool());
+        }
         jobDataMap.put("retryMax", job.getRequest().getRetry().getMax());
         jobDataMap.put("retryBackoffMs", job.getRequest().getRetry().getBackoffMs());
         if (job.getRequest().getBodyFile() != null) {
             jobDataMap.put("bodyFile", job.getRequest().getBodyFile());
         }
+        if (job.getRequest().getBodyEncoding() != null) {
+            jobDataMap.put("bodyEncoding", job.getRequest().getBodyEncoding());
+        }
+        if (job.getRequest().getCache() != null) {
+            jobDataMap.put("cache", job.getRequest().getCache());
+        }
+        if (job.getRequest().getHedge() != null) {
+            jobDataMap.put("hedge", job.getRequest().getHedge());
+        }
+        if (job.getMode() != null) {
+            jobDataMap.put("mode", job.getMode());
+        }
+        if (job.getOverlap() != null) {
+            jobDataMap.put("overlap", job.getOverlap());
+        }
+        if (job.getPriority() != null) {
+            jobDataMap.put("priority", job.getPriority());
+        }
+        if (job.getBulkhead() != null) {
+            jobDataMap.put("bulkhead", job.getBulkhead());
+        }
+        if (job.getPagination() != null) {
+            // 중첩 설정 블록은 펼치지 않고 객체 그대로 넘긴다 (JDBC 잡 스토어에서는 직렬화되어 저장된다)
+            jobDataMap.put("pagination", job.getPagination());
+        }
+        if (job.getLimiter() != null) {
+            jobDataMap.put("limiter", job.getLimiter());
+        }
+        if (job.getPartitions() != null) {
+            jobDataMap.put("partitions", job.getPartitions());
+        }
+        JobConfig.Job.Response response = job.getResponse();
+        if (response != null) {
+            jobDataMap.put("responseSink", response.getSink());
+            jobDataMap.put("responsePath", response.getPath());
+            jobDataMap.put("responseRollBytes", response.getRollBytes());
+            jobDataMap.put("responseCheckpointBytes", response.getCheckpointBytes());
+            jobDataMap.put("responseFormat", response.getFormat());
+        }
         
-        return JobBuilder.newJob(QuartzJobWrapper.class)
+        // 클러스터에서는 겹침을 허용하지 않는 잡을 노드 간에도 하나씩만 실행하고,
+        // 실행 중이던 노드가 죽으면 다른 노드가 다시 실행한다 (offset 은 공유 체크포인트에서 이어받음)
+        Class<? extends Job> jobClass = clustered && !inFlightRegistry.allowsConcurrent(job)
+                ? ClusteredJobWrapper.class : QuartzJobWrapper.class;
+        return JobBuilder.newJob(jobClass)
                 .withIdentity(job.getId())
                 .withDescription("Dynamic job: " + job.getId())
                 .setJobData(jobDataMap)
                 .storeDurably()
+                .requestRecovery(clustered)
                 .build();
     }
 
@@ -119,15 +452,4 @@ public class QuartzDynamicScheduler {
                         .inTimeZone(java.util.TimeZone.getTimeZone("Asia/Seoul")))
                 .build();
     }
-
-    private boolean isJobConfigChanged(JobDetail existingJob, JobConfig.Job currentJob) {
-        JobDataMap existingData = existingJob.getJobDataMap();
-        String existingCron = existingData.getString("cron");
-        Integer existingParallelism = existingData.getIntValue("parallelism");
-        String existingUrl = existingData.getString("url");
-        
-        return !Objects.equals(existingCron, currentJob.getCron()) ||
-               !Objects.equals(existingParallelism, currentJob.getParallelism()) ||
-               !Objects.equals(existingUrl, currentJob.getRequest().getUrl());
-    }
 }
@@ -0,0 +1,82 @@
+package com.ideatec.spring_scheduler.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+import org.quartz.impl.jdbcjobstore.PostgreSQLDelegate;
+import org.quartz.impl.jdbcjobstore.StdJDBCDelegate;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.Locale;
+
+/**
+ * Quartz JDBC 잡 스토어 준비: DB 종류에 맞는 delegate 선택과 테이블 생성.
+ * 테이블 스크립트는 Quartz 배포본에 포함된 것을 그대로 사용한다.
+ */
+@Slf4j
+final class QuartzJdbcStore {
+    private static final String SCRIPT_PATH = "org/quartz/impl/jdbcjobstore/";
+
+    private QuartzJdbcStore() {
+    }
+
+    static boolean isPostgres(DataSource dataSource) {
+        return productName(dataSource).contains("postgres");
+    }
+
+    static String delegateClass(DataSource dataSource) {
+        return isPostgres(dataSource) ? PostgreSQLDelegate.class.getName() : StdJDBCDelegate.class.getName();
+    }
+
+    /**
+     * {@code QRTZ_LOCKS} 테이블이 없을 때만 Quartz 테이블을 만든다. 여러 노드가 동시에 처음 기동하면 한쪽은
+     * 이미 만들어진 테이블 때문에 실패할 수 있으므로, 다시 확인해 테이블이 있으면 무시한다.
+     */
+    static void initializeSchema(DataSource dataSource) {
+        if (hasQuartzTables(dataSource)) {
+            return;
+        }
+        String script = SCRIPT_PATH + (isPostgres(dataSource) ? "tables_postgres.sql" : "tables_h2.sql");
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource(script));
+        populator.setIgnoreFailedDrops(true);
+        try {
+            populator.execute(dataSource);
+            log.info("Quartz 잡 스토어 테이블 생성: {}", script);
+        } catch (RuntimeException e) {
+            if (!hasQuartzTables(dataSource)) {
+                throw e;
+            }
+            log.info("Quartz 잡 스토어 테이블은 다른 노드가 생성함");
+        }
+    }
+
+    private static boolean hasQuartzTables(DataSource dataSource) {
+        try {
+            return JdbcUtils.extractDatabaseMetaData(dataSource, (DatabaseMetaData metaData) -> {
+                try (ResultSet tables = metaData.getTables(null, null, null, new String[]{"TABLE"})) {
+                    while (tables.next()) {
+                        if ("QRTZ_LOCKS".equalsIgnoreCase(tables.getString("TABLE_NAME"))) {
+                            return true;
+                        }
+                    }
+                }
+                return false;
+            });
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Quartz 잡 스토어 테이블 확인 실패", e);
+        }
+    }
+
+    private static String productName(DataSource dataSource) {
+        try {
+            String name = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            return name != null ? name.toLowerCase(Locale.ROOT) : "";
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("DB 종류 확인 실패", e);
+        }
+    }
+}
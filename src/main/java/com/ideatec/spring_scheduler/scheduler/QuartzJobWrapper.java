@@ -1,29 +1,40 @@
 package com.ideatec.spring_scheduler.scheduler;
 
+import com.ideatec.spring_scheduler.actuator.JobMeters;
 import com.ideatec.spring_scheduler.actuator.JobMetrics;
 import com.ideatec.spring_scheduler.checkpoint.CheckpointStore;
-import com.ideatec.spring_scheduler.client.ReactiveWebClientClient;
 import com.ideatec.spring_scheduler.config.JobConfig;
 import lombok.extern.slf4j.Slf4j;
 import org.quartz.Job;
 import org.quartz.JobDataMap;
 import org.quartz.JobExecutionContext;
 import org.quartz.JobExecutionException;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.ApplicationContext;
-import org.springframework.stereotype.Component;
 
-import java.time.Duration;
 import java.time.Instant;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.Date;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Quartz firing 을 {@link ParallelJobExecutor} 로 넘기는 잡.
+ * <p>
+ * {@link SingletonJobFactory} 가 잡 클래스마다 인스턴스 하나를 만들어 모든 firing 이 공유하므로 상태를 갖지 않는다.
+ * 실행 계획은 {@link ExecutionPlanRegistry} 에서 잡 ID 로 찾고, JobDataMap 의 설정 해시와 다를 때(다른 노드가
+ * 잡 스토어에 더 최신 설정을 반영했거나 아직 계획이 없는 경우)만 JobDataMap 으로 잡 설정을 복원해 계획을 만든다.
+ */
 @Slf4j
-@Component
 public class QuartzJobWrapper implements Job {
+    private final ParallelJobExecutor jobExecutor;
+    private final CheckpointStore checkpointStore;
+    private final JobMetrics jobMetrics;
+    private final ExecutionPlanRegistry planRegistry;
 
-    // Quartz Job은 기본 생성자가 필요
-    public QuartzJobWrapper() {
+    public QuartzJobWrapper(ParallelJobExecutor jobExecutor, CheckpointStore checkpointStore, JobMetrics jobMetrics,
+                            ExecutionPlanRegistry planRegistry) {
+        this.jobExecutor = jobExecutor;
+        this.checkpointStore = checkpointStore;
+        this.jobMetrics = jobMetrics;
+        this.planRegistry = planRegistry;
     }
 
     @Override
@@ -33,58 +44,88 @@ public class QuartzJobWrapper implements Job {
         
         log.info("Quartz 잡 실행 시작: {}", jobId);
         Instant startTime = Instant.now();
+        long startNanos = System.nanoTime();
+        boolean skipped = false;
+        JobMeters meters = null;
         
         try {
-            // SchedulerContext에서 빈들을 가져옴
-            ReactiveWebClientClient webClient = (ReactiveWebClientClient) context.getScheduler().getContext().get("webClient");
-            CheckpointStore checkpointStore = (CheckpointStore) context.getScheduler().getContext().get("checkpointStore");
-            JobMetrics jobMetrics = (JobMetrics) context.getScheduler().getContext().get("jobMetrics");
-            
-            // JobDataMap에서 JobConfig.Job 객체 재구성
-            JobConfig.Job job = createJobFromDataMap(jobDataMap);
+            ExecutionPlan plan = planOf(jobId, jobDataMap);
+            meters = plan.meters();
+            jobMetrics.recordFirstFire(jobId);
+
+            // 예정 시각 대비 실제 시작 지연 (스케줄러 스레드 부족, misfire 등)
+            Date scheduledFireTime = context.getScheduledFireTime();
+            if (scheduledFireTime != null) {
+                meters.record(JobMeters.Phase.SCHEDULING_LAG,
+                        TimeUnit.MILLISECONDS.toNanos(startTime.toEpochMilli() - scheduledFireTime.getTime()));
+            }
             
-            if (job.getParallelism() != null && job.getParallelism() > 1) {
-                // 병렬 처리
-                executeJobInParallel(job, webClient);
+            // 모든 요청이 끝날 때까지 대기 (팬아웃은 이벤트 루프에서 처리)
+            ExecutionReport report = jobExecutor.execute(plan).block();
+            if (report != null && report.isSkipped()) {
+                log.info("Quartz 잡 건너뜀: {} ({})", jobId, report.getSkipReason());
+                jobMetrics.recordJobSkipped(jobId, report.getSkipReason());
+                skipped = true;
+                return;
+            }
+            if (report == null || !report.isSuccess()) {
+                throw new IllegalStateException(String.format("요청 실패: %d/%d",
+                        report != null ? report.getFailureCount() : 0,
+                        report != null ? report.getOutcomes().size() : 0));
+            }
+            if (report.isCoalesced()) {
+                log.info("Quartz 잡 실행 완료: {} ({} 실행 결과 공유, {}ms)", jobId, report.getCoalescedWith(),
+                        report.getDuration().toMillis());
             } else {
-                // 단일 처리
-                executeSingleRequest(job, webClient);
+                log.info("Quartz 잡 실행 완료: {} ({}건, {}ms)", jobId, report.getOutcomes().size(),
+                        report.getDuration().toMillis());
             }
             
             // 성공 체크포인트 저장
+            long checkpointStart = System.nanoTime();
             checkpointStore.saveLastSuccess(jobId, startTime);
-            jobMetrics.recordJobSuccess(jobId);
+            meters.record(JobMeters.Phase.CHECKPOINT_WRITE, System.nanoTime() - checkpointStart);
+            meters.recordSuccess();
             
         } catch (Exception e) {
             log.error("Quartz 잡 실행 실패: {}", jobId, e);
-            try {
-                JobMetrics jobMetrics = (JobMetrics) context.getScheduler().getContext().get("jobMetrics");
-                if (jobMetrics != null) {
-                    jobMetrics.recordJobFailure(jobId);
-                }
-            } catch (Exception ex) {
-                log.error("메트릭 기록 실패", ex);
+            if (meters == null) {
+                // 실행 계획을 만들지 못한 경우 (잘못된 URL, 메서드 등)
+                meters = jobMetrics.meters(jobId);
             }
+            meters.recordFailure();
             throw new JobExecutionException(e);
         } finally {
-            // 실행 시간 메트릭 기록
-            try {
-                JobMetrics jobMetrics = (JobMetrics) context.getScheduler().getContext().get("jobMetrics");
-                if (jobMetrics != null) {
-                    jobMetrics.recordJobExecutionTime(jobId, 
-                        Duration.between(startTime, Instant.now()));
+            // 실행 시간 / 예정 시각부터 완료까지 메트릭 기록
+            if (meters != null && !skipped) {
+                meters.recordExecution(System.nanoTime() - startNanos);
+                Date scheduledFireTime = context.getScheduledFireTime();
+                if (scheduledFireTime != null) {
+                    meters.record(JobMeters.Phase.END_TO_END,
+                            TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis() - scheduledFireTime.getTime()));
                 }
-            } catch (Exception e) {
-                log.error("메트릭 기록 실패", e);
             }
         }
     }
 
+    private ExecutionPlan planOf(String jobId, JobDataMap jobDataMap) {
+        String configHash = jobDataMap.getString("configHash");
+        ExecutionPlan plan = planRegistry.get(jobId);
+        if (plan != null && Objects.equals(plan.configHash(), configHash)) {
+            return plan;
+        }
+        log.info("Job [{}] 잡 스토어의 설정으로 실행 계획을 만듭니다 (configHash={})", jobId, configHash);
+        return planRegistry.register(createJobFromDataMap(jobDataMap), configHash);
+    }
+
     private JobConfig.Job createJobFromDataMap(JobDataMap jobDataMap) {
         JobConfig.Job job = new JobConfig.Job();
         job.setId(jobDataMap.getString("jobId"));
         job.setCron(jobDataMap.getString("cron"));
         job.setParallelism(jobDataMap.getIntValue("parallelism"));
+        if (jobDataMap.containsKey("deadlineMs")) {
+            job.setDeadlineMs(jobDataMap.getIntValue("deadlineMs"));
+        }
         
         JobConfig.Job.Request request = new JobConfig.Job.Request();
         request.setUrl(jobDataMap.getString("url"));
@@ -93,6 +134,15 @@ public class QuartzJobWrapper implements Job {
         if (jobDataMap.containsKey("bodyFile")) {
             request.setBodyFile(jobDataMap.getString("bodyFile"));
         }
+        if (jobDataMap.containsKey("bodyEncoding")) {
+            request.setBodyEncoding(jobDataMap.getString("bodyEncoding"));
+        }
+        if (jobDataMap.containsKey("cache")) {
+            request.setCache(jobDataMap.getBooleanValue("cache"));
+        }
+        if (jobDataMap.containsKey("hedge")) {
+            request.setHedge((JobConfig.Job.Request.Hedge) jobDataMap.get("hedge"));
+        }
         
         JobConfig.Job.Request.Retry retry = new JobConfig.Job.Request.Retry();
         retry.setMax(jobDataMap.getIntValue("retryMax"));
@@ -100,30 +150,41 @@ public class QuartzJobWrapper implements Job {
         request.setRetry(retry);
         
         job.setRequest(request);
-        return job;
-    }
 
-    private void executeJobInParallel(JobConfig.Job job, ReactiveWebClientClient webClient) {
-        String jobId = job.getId();
-        ExecutorService executor = Executors.newFixedThreadPool(
-            job.getParallelism(), 
-            r -> new Thread(r, "quartz-job-" + jobId + "-")
-        );
-        
-        try {
-            for (int i = 0; i < job.getParallelism(); i++) {
-                executor.submit(() -> executeSingleRequest(job, webClient));
-            }
-        } finally {
-            executor.shutdown();
+        if (jobDataMap.containsKey("pool")) {
+            // 없으면 요청 호스트로 풀을 찾는다 (설정의 pool 이 빠지면 다른 풀로 요청하게 된다)
+            job.setPool(jobDataMap.getString("pool"));
         }
-    }
-
-    private void executeSingleRequest(JobConfig.Job job, ReactiveWebClientClient webClient) {
-        webClient.executeRequest(job)
-                .subscribe(
-                    result -> log.debug("Quartz 잡 요청 성공: {}", job.getId()),
-                    error -> log.error("Quartz 잡 요청 실패: {}", job.getId(), error)
-                );
+        if (jobDataMap.containsKey("mode")) {
+            job.setMode(jobDataMap.getString("mode"));
+        }
+        if (jobDataMap.containsKey("overlap")) {
+            job.setOverlap(jobDataMap.getString("overlap"));
+        }
+        if (jobDataMap.containsKey("priority")) {
+            job.setPriority(jobDataMap.getString("priority"));
+        }
+        if (jobDataMap.containsKey("bulkhead")) {
+            job.setBulkhead(jobDataMap.getString("bulkhead"));
+        }
+        if (jobDataMap.containsKey("pagination")) {
+            job.setPagination((JobConfig.Job.Pagination) jobDataMap.get("pagination"));
+        }
+        if (jobDataMap.containsKey("limiter")) {
+            job.setLimiter((JobConfig.Job.Limiter) jobDataMap.get("limiter"));
+        }
+        if (jobDataMap.containsKey("partitions")) {
+            job.setPartitions((JobConfig.Job.Partitions) jobDataMap.get("partitions"));
+        }
+        if (jobDataMap.containsKey("responseSink")) {
+            JobConfig.Job.Response response = new JobConfig.Job.Response();
+            response.setSink(jobDataMap.getString("responseSink"));
+            response.setPath(jobDataMap.getString("responsePath"));
+            response.setRollBytes((Long) jobDataMap.get("responseRollBytes"));
+            response.setCheckpointBytes((Long) jobDataMap.get("responseCheckpointBytes"));
+            response.setFormat(jobDataMap.getString("responseFormat"));
+            job.setResponse(response);
+        }
+        return job;
     }
 }
@@ -0,0 +1,30 @@
+package com.ideatec.spring_scheduler.scheduler;
+
+import com.ideatec.spring_scheduler.client.RequestResult;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * 팬아웃된 요청 한 건(lane) 또는 파티션 하나의 실행 결과.
+ */
+@Getter
+@AllArgsConstructor
+public class RequestOutcome {
+    private final int lane; // 파티션 실행이면 파티션 번호
+    private final String partition; // 파티션 키, 파티션 실행이 아니면 null
+    private final boolean success;
+    private final int status;
+    private final long bytes;
+    private final String error;
+    private final Duration duration;
+
+    static RequestOutcome success(int lane, String partition, RequestResult result, Duration duration) {
+        return new RequestOutcome(lane, partition, true, result.getStatus(), result.getBytes(), null, duration);
+    }
+
+    static RequestOutcome failure(int lane, String partition, Throwable error, Duration duration) {
+        return new RequestOutcome(lane, partition, false, 0, 0, error.toString(), duration);
+    }
+}
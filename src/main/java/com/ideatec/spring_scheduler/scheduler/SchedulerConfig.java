@@ -1,38 +1,122 @@
 package com.ideatec.spring_scheduler.scheduler;
 
+import com.zaxxer.hikari.HikariDataSource;
 import org.quartz.Scheduler;
 import org.quartz.SchedulerException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.quartz.SchedulerFactoryBean;
 
+import javax.sql.DataSource;
+
 @Configuration
 @EnableScheduling
 public class SchedulerConfig {
 
+    @Value("${scheduler.thread-pool.type:platform}") // platform | virtual
+    private String threadPoolType;
+
+    @Value("${scheduler.thread-pool.thread-count:8}")
+    private int threadCount;
+
+    @Value("${scheduler.thread-pool.max-concurrency:1000}")
+    private int maxConcurrency;
+
+    @Value("${scheduler.store.type:ram}") // ram | jdbc
+    private String storeType;
+
+    @Value("${scheduler.store.cluster-checkin-interval-ms:7500}")
+    private long clusterCheckinIntervalMs;
+
+    @Value("${scheduler.store.initialize-schema:true}")
+    private boolean initializeSchema;
+
     @Bean
-    public SchedulerFactoryBean schedulerFactoryBean() {
+    public SchedulerFactoryBean schedulerFactoryBean(ObjectProvider<DataSource> dataSource,
+                                                     ApplicationContext applicationContext) {
         SchedulerFactoryBean factory = new SchedulerFactoryBean();
+        // firing 마다 잡 인스턴스를 만들지 않고 의존성이 주입된 인스턴스를 재사용한다
+        factory.setJobFactory(new SingletonJobFactory(applicationContext.getAutowireCapableBeanFactory()));
         factory.setOverwriteExistingJobs(true);
         factory.setAutoStartup(true);
         factory.setWaitForJobsToCompleteOnShutdown(true);
-        factory.setQuartzProperties(quartzProperties());
+        DataSource jobStoreDataSource = null;
+        if (isJdbcStore()) {
+            // 클러스터: 모든 노드가 같은 DB 의 잡/트리거를 나눠 실행하고, 죽은 노드의 잡은 다른 노드가 이어받는다
+            jobStoreDataSource = dataSource.getObject();
+            if (initializeSchema) {
+                QuartzJdbcStore.initializeSchema(jobStoreDataSource);
+            }
+            factory.setDataSource(jobStoreDataSource);
+            factory.setTransactionManager(new DataSourceTransactionManager(jobStoreDataSource));
+        }
+        factory.setQuartzProperties(quartzProperties(jobStoreDataSource));
         return factory;
     }
 
+    /**
+     * 클러스터 잡 스토어용 커넥션 풀. 체크포인트도 같은 DB 에 저장한다.
+     * 기본값은 로컬에서 여러 인스턴스가 함께 쓸 수 있는 H2 파일 DB(AUTO_SERVER)다.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "scheduler.store.type", havingValue = "jdbc")
+    public HikariDataSource schedulerDataSource(
+            @Value("${scheduler.store.jdbc.url:jdbc:h2:file:./state/scheduler-db;AUTO_SERVER=TRUE}") String url,
+            @Value("${scheduler.store.jdbc.username:sa}") String username,
+            @Value("${scheduler.store.jdbc.password:}") String password,
+            @Value("${scheduler.store.jdbc.maximum-pool-size:10}") int maximumPoolSize) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("scheduler-store");
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setMaximumPoolSize(maximumPoolSize);
+        return dataSource;
+    }
+
     @Bean
     public Scheduler scheduler(SchedulerFactoryBean factory) throws SchedulerException {
         return factory.getScheduler();
     }
 
-    private java.util.Properties quartzProperties() {
+    private boolean isJdbcStore() {
+        return "jdbc".equalsIgnoreCase(storeType);
+    }
+
+    private java.util.Properties quartzProperties(DataSource jobStoreDataSource) {
         java.util.Properties props = new java.util.Properties();
         props.setProperty("org.quartz.scheduler.instanceName", "SpringScheduler");
         props.setProperty("org.quartz.scheduler.instanceId", "AUTO");
-        props.setProperty("org.quartz.threadPool.threadCount", "8");
-        props.setProperty("org.quartz.threadPool.threadNamePrefix", "quartz-");
-        props.setProperty("org.quartz.jobStore.class", "org.quartz.simpl.RAMJobStore");
+        if ("virtual".equalsIgnoreCase(threadPoolType)) {
+            // 가상 스레드: 동시 실행 상한만 두고 같은 시각에 몰린 트리거를 한 번에 가져온다
+            props.setProperty("org.quartz.threadPool.class", VirtualThreadPool.class.getName());
+            props.setProperty("org.quartz.threadPool.maxConcurrency", String.valueOf(maxConcurrency));
+            props.setProperty("org.quartz.threadPool.threadNamePrefix", "quartz-vt-");
+            props.setProperty("org.quartz.scheduler.batchTriggerAcquisitionMaxCount",
+                    String.valueOf(Math.min(maxConcurrency, 100)));
+        } else {
+            props.setProperty("org.quartz.threadPool.threadCount", String.valueOf(threadCount));
+            props.setProperty("org.quartz.threadPool.threadNamePrefix", "quartz-");
+        }
+        if (jobStoreDataSource != null) {
+            // jobStore.class 는 SchedulerFactoryBean 이 LocalDataSourceJobStore 로 지정한다
+            props.setProperty("org.quartz.jobStore.isClustered", "true");
+            props.setProperty("org.quartz.jobStore.clusterCheckinInterval", String.valueOf(clusterCheckinIntervalMs));
+            props.setProperty("org.quartz.jobStore.driverDelegateClass", QuartzJdbcStore.delegateClass(jobStoreDataSource));
+            props.setProperty("org.quartz.jobStore.tablePrefix", "QRTZ_");
+            // 중첩 설정 블록(pagination, limiter)을 JobDataMap 에 객체로 담으므로 직렬화해서 저장한다
+            props.setProperty("org.quartz.jobStore.useProperties", "false");
+            // 여러 트리거를 한 번에 가져올 때 노드 간 중복 획득 방지
+            props.setProperty("org.quartz.jobStore.acquireTriggersWithinLock", "true");
+        } else {
+            props.setProperty("org.quartz.jobStore.class", "org.quartz.simpl.RAMJobStore");
+        }
         return props;
     }
 }
@@ -0,0 +1,72 @@
+package com.ideatec.spring_scheduler.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+import org.quartz.SchedulerException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * {@code /actuator/scheduler}: Quartz 잡별 다음/이전 실행 시각, 실행 중인 firing 수, misfire 수, 전송 중인 HTTP 요청 수,
+ * 설정 해시와 스레드 풀 사용률.
+ * <p>
+ * 조회는 {@link SchedulerIntrospector} 의 스냅샷만 읽으므로 Quartz 잡 스토어 락이나 DB 를 건드리지 않는다.
+ * {@code POST /actuator/scheduler/{jobId}} 에 {@code {"action": "pause" | "resume" | "trigger"}} 를 보내면
+ * 잡을 일시정지/재개하거나 지금 한 번 실행한다. {@code engine: wheel} 잡은 Quartz 잡이 아니므로 포함되지 않는다.
+ * <p>
+ * actuator 에는 인증이 없으므로 잡 제어는 {@code scheduler.control.enabled: true} 일 때만 받는다(기본 꺼짐).
+ * 켤 때는 {@code management.server.port}(필요하면 {@code management.server.address})로 actuator 를
+ * 서비스 포트와 분리해 내부망에서만 접근하게 한다.
+ */
+@Slf4j
+@Component
+@Endpoint(id = "scheduler")
+public class SchedulerEndpoint {
+    private final SchedulerIntrospector introspector;
+    private final QuartzDynamicScheduler dynamicScheduler;
+    private final boolean controlEnabled;
+
+    public SchedulerEndpoint(SchedulerIntrospector introspector, QuartzDynamicScheduler dynamicScheduler,
+                             @Value("${scheduler.control.enabled:false}") boolean controlEnabled) {
+        this.introspector = introspector;
+        this.dynamicScheduler = dynamicScheduler;
+        this.controlEnabled = controlEnabled;
+    }
+
+    @ReadOperation
+    public SchedulerIntrospector.Snapshot snapshot() {
+        return introspector.snapshot();
+    }
+
+    @ReadOperation
+    public SchedulerIntrospector.JobStatus job(@Selector String jobId) {
+        return introspector.status(jobId);
+    }
+
+    @WriteOperation
+    public Map<String, Object> operate(@Selector String jobId, String action) throws SchedulerException {
+        if (!controlEnabled) {
+            log.warn("잡 제어 요청 거절: {} {} (scheduler.control.enabled=false)", jobId, action);
+            throw new InvalidEndpointRequestException("잡 제어가 꺼져 있습니다: " + jobId,
+                    "job control is disabled (scheduler.control.enabled=false)");
+        }
+        boolean found = switch (action.toLowerCase(Locale.ROOT)) {
+            case "pause" -> dynamicScheduler.pause(jobId);
+            case "resume" -> dynamicScheduler.resume(jobId);
+            case "trigger" -> dynamicScheduler.triggerNow(jobId);
+            default -> throw new InvalidEndpointRequestException("알 수 없는 action: " + action,
+                    "action must be one of pause, resume, trigger");
+        };
+        if (!found) {
+            return null;
+        }
+        return Map.of("jobId", jobId, "action", action.toLowerCase(Locale.ROOT), "status", job(jobId));
+    }
+}
@@ -0,0 +1,257 @@
+package com.ideatec.spring_scheduler.scheduler;
+
+import com.ideatec.spring_scheduler.actuator.JobMeters;
+import com.ideatec.spring_scheduler.actuator.JobMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.quartz.CronExpression;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.quartz.JobListener;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.Trigger;
+import org.quartz.TriggerListener;
+import org.springframework.stereotype.Component;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Quartz 잡 상태를 조회용 스냅샷으로 유지한다.
+ * <p>
+ * Quartz 의 트리거/실행 중 잡 조회는 잡 스토어 락(RAM)이나 DB 조회(JDBC)를 거치므로 자주 폴링하면 스케줄러와 경쟁한다.
+ * 대신 잡/트리거 리스너가 firing 마다 이전/다음 실행 시각, 실행 중인 인스턴스 수, misfire 수를 잡별 상태 객체에 갱신하고,
+ * 조회는 그 값을 읽기만 한다. 다음 실행 시각은 이 노드가 마지막으로 본 값이 지났으면 cron 으로 계산한다.
+ * 클러스터 모드에서 실행 중/이전 실행 값은 이 노드에서 실행한 firing 만 반영한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SchedulerIntrospector implements JobListener, TriggerListener {
+    private static final String NAME = "scheduler-introspector";
+    private static final TimeZone ZONE = TimeZone.getTimeZone("Asia/Seoul");
+
+    private final Scheduler scheduler;
+    private final JobMetrics jobMetrics;
+    private final Map<String, JobState> states = new ConcurrentHashMap<>();
+    private final AtomicInteger executing = new AtomicInteger();
+    private volatile int threadPoolSize;
+    private volatile long appliedVersion = -1;
+
+    @PostConstruct
+    public void init() {
+        try {
+            scheduler.getListenerManager().addJobListener(this);
+            scheduler.getListenerManager().addTriggerListener(this);
+            threadPoolSize = scheduler.getMetaData().getThreadPoolSize();
+        } catch (SchedulerException e) {
+            log.error("스케줄러 리스너 등록 실패", e);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * 설정의 Quartz 잡을 조회 목록에 올린다. 설정 해시가 같으면 아무것도 하지 않는다.
+     */
+    void track(String jobId, String cron, String configHash, JobMeters meters) {
+        JobState current = states.get(jobId);
+        if (current != null && configHash != null && configHash.equals(current.configHash)) {
+            return;
+        }
+        JobState next = new JobState(jobId, cron, configHash, parse(cron), meters);
+        if (current != null) {
+            // 설정이 바뀌어도 실행 중인 firing 과 누적 값은 이어간다
+            next.executing.set(current.executing.get());
+            next.misfires.add(current.misfires.sum());
+            next.previousFireTime = current.previousFireTime;
+            next.pausedBy = current.pausedBy;
+        }
+        states.put(jobId, next);
+    }
+
+    /**
+     * 설정에서 빠진 잡의 상태를 지운다.
+     */
+    void retain(Set<String> jobIds) {
+        states.keySet().retainAll(jobIds);
+    }
+
+    /**
+     * @param pausedBy {@code config}(enabled: false) | {@code operator}(엔드포인트), 실행 중이면 null
+     */
+    void paused(String jobId, String pausedBy) {
+        JobState state = states.get(jobId);
+        if (state != null) {
+            state.pausedBy = pausedBy;
+        }
+    }
+
+    void applied(long version) {
+        appliedVersion = version;
+    }
+
+    boolean isTracked(String jobId) {
+        return states.containsKey(jobId);
+    }
+
+    /**
+     * @return 잡 하나의 상태, 없으면 null
+     */
+    public JobStatus status(String jobId) {
+        JobState state = states.get(jobId);
+        return state != null ? state.status(new Date()) : null;
+    }
+
+    public Snapshot snapshot() {
+        Date now = new Date();
+        List<JobStatus> jobs = new ArrayList<>(states.size());
+        for (JobState state : states.values()) {
+            jobs.add(state.status(now));
+        }
+        jobs.sort((a, b) -> a.jobId().compareTo(b.jobId()));
+        int size = threadPoolSize;
+        int running = executing.get();
+        return new Snapshot(appliedVersion, size, running, size > 0 ? (double) running / size : 0, jobs);
+    }
+
+    @Override
+    public void triggerFired(Trigger trigger, JobExecutionContext context) {
+        JobState state = states.get(trigger.getJobKey().getName());
+        if (state != null) {
+            state.previousFireTime = context.getFireTime();
+            if (trigger.getNextFireTime() != null) {
+                // 수동 실행(trigger-now)의 1회성 트리거는 다음 실행 시각이 없다
+                state.nextFireTime = trigger.getNextFireTime();
+            }
+        }
+    }
+
+    @Override
+    public boolean vetoJobExecution(Trigger trigger, JobExecutionContext context) {
+        return false;
+    }
+
+    @Override
+    public void triggerMisfired(Trigger trigger) {
+        String jobId = trigger.getJobKey().getName();
+        JobState state = states.get(jobId);
+        if (state != null) {
+            state.misfires.increment();
+        }
+        jobMetrics.recordMisfire(jobId);
+        log.debug("Quartz 트리거 misfire: {} (예정 시각 {})", jobId, trigger.getNextFireTime());
+    }
+
+    @Override
+    public void triggerComplete(Trigger trigger, JobExecutionContext context,
+                                Trigger.CompletedExecutionInstruction triggerInstructionCode) {
+    }
+
+    @Override
+    public void jobToBeExecuted(JobExecutionContext context) {
+        executing.incrementAndGet();
+        JobState state = states.get(context.getJobDetail().getKey().getName());
+        if (state != null) {
+            state.executing.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void jobExecutionVetoed(JobExecutionContext context) {
+    }
+
+    @Override
+    public void jobWasExecuted(JobExecutionContext context, JobExecutionException jobException) {
+        executing.decrementAndGet();
+        JobState state = states.get(context.getJobDetail().getKey().getName());
+        if (state != null && state.executing.get() > 0) {
+            state.executing.decrementAndGet();
+        }
+    }
+
+    private static CronExpression parse(String cron) {
+        if (cron == null) {
+            return null;
+        }
+        try {
+            CronExpression expression = new CronExpression(cron);
+            expression.setTimeZone(ZONE);
+            return expression;
+        } catch (ParseException e) {
+            return null;
+        }
+    }
+
+    private static String format(Date date) {
+        return date != null ? date.toInstant().toString() : null;
+    }
+
+    /**
+     * 잡 하나의 상태. 리스너(Quartz 워커 스레드)가 쓰고 조회 요청이 읽는다.
+     */
+    private static final class JobState {
+        private final String jobId;
+        private final String cron;
+        private final String configHash;
+        private final CronExpression expression;
+        private final JobMeters meters;
+        private final AtomicInteger executing = new AtomicInteger();
+        private final LongAdder misfires = new LongAdder();
+        private volatile Date previousFireTime;
+        private volatile Date nextFireTime;
+        private volatile String pausedBy;
+
+        JobState(String jobId, String cron, String configHash, CronExpression expression, JobMeters meters) {
+            this.jobId = jobId;
+            this.cron = cron;
+            this.configHash = configHash;
+            this.expression = expression;
+            this.meters = meters;
+        }
+
+        JobStatus status(Date now) {
+            String paused = pausedBy;
+            Date next = null;
+            if (paused == null) {
+                next = nextFireTime;
+                if ((next == null || next.before(now)) && expression != null) {
+                    next = expression.getNextValidTimeAfter(now);
+                }
+            }
+            return new JobStatus(jobId, cron, configHash, paused == null ? "normal" : "paused", paused,
+                    format(next), format(previousFireTime), executing.get(), misfires.sum(),
+                    meters != null ? meters.getInFlightRequests() : 0);
+        }
+    }
+
+    /**
+     * @param utilization 실행 중인 firing 수 / Quartz 스레드 풀 크기 (가상 스레드 풀은 동시 실행 상한)
+     */
+    public record Snapshot(long configVersion, int threadPoolSize, int executing, double utilization,
+                           List<JobStatus> jobs) {
+    }
+
+    /**
+     * @param pausedBy         {@code config} | {@code operator}, 실행 중이면 null
+     * @param executing        이 노드에서 실행 중인 firing 수
+     * @param inFlightRequests 잡의 전송 중인 HTTP 요청 수
+     */
+    public record JobStatus(String jobId, String cron, String configHash, String state, String pausedBy,
+                            String nextFireTime, String previousFireTime, int executing, long misfires,
+                            int inFlightRequests) {
+    }
+}
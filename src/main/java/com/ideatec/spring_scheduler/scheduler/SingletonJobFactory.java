@@ -0,0 +1,42 @@
+package com.ideatec.spring_scheduler.scheduler;
+
+import org.quartz.Job;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.spi.JobFactory;
+import org.quartz.spi.TriggerFiredBundle;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 잡 클래스마다 Spring 이 의존성을 주입한 인스턴스를 하나만 만들어 모든 firing 에 재사용하는 JobFactory.
+ * <p>
+ * Quartz 기본 팩토리는 firing 마다 잡 인스턴스를 리플렉션으로 새로 만든다. 잡 클래스({@link QuartzJobWrapper},
+ * {@link ClusteredJobWrapper})는 상태가 없으므로 인스턴스를 공유해도 안전하다.
+ * 인스턴스는 첫 firing 때 만들어 스케줄러와 잡 빈 사이의 생성 순서 의존을 피한다.
+ */
+class SingletonJobFactory implements JobFactory {
+    private final AutowireCapableBeanFactory beanFactory;
+    private final Map<Class<? extends Job>, Job> jobs = new ConcurrentHashMap<>();
+
+    SingletonJobFactory(AutowireCapableBeanFactory beanFactory) {
+        this.beanFactory = beanFactory;
+    }
+
+    @Override
+    public Job newJob(TriggerFiredBundle bundle, Scheduler scheduler) throws SchedulerException {
+        Class<? extends Job> jobClass = bundle.getJobDetail().getJobClass();
+        Job job = jobs.get(jobClass);
+        if (job != null) {
+            return job;
+        }
+        try {
+            return jobs.computeIfAbsent(jobClass, beanFactory::createBean);
+        } catch (BeansException e) {
+            throw new SchedulerException("잡 인스턴스 생성 실패: " + jobClass.getName(), e);
+        }
+    }
+}
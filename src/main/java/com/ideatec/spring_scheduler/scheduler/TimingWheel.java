@@ -0,0 +1,268 @@
+package com.ideatec.spring_scheduler.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * 계층형 해시 타이밍 휠.
+ * <p>
+ * 틱 하나의 길이로 나눈 마감 틱을 4단계 휠(256 × 64 × 64 × 64 슬롯)에 넣는다. 가까운 타이머는 1단계 슬롯에,
+ * 먼 타이머는 위 단계 슬롯에 들어갔다가 아래 단계 휠이 한 바퀴 돌 때마다 내려온다(cascade). 등록과 취소는
+ * 슬롯의 이중 연결 리스트에 붙이고 떼는 O(1) 연산이며, 다른 스레드의 등록/취소는 락 없는 대기열로 휠 스레드에
+ * 넘긴다. 만료된 타이머의 작업은 휠 스레드에서 바로 호출되므로 작업은 블로킹하지 않고 빨리 반환해야 한다.
+ * 실행 시각 오차는 틱 하나와 휠 스레드의 처리 지연 이내다.
+ */
+@Slf4j
+final class TimingWheel {
+    private static final int[] BITS = {8, 6, 6, 6};
+    private static final int[] SHIFTS = {0, 8, 14, 20};
+    private static final long MAX_SPAN = 1L << 26;
+
+    private final String name;
+    private final long tickNanos;
+    private final Bucket[][] levels = new Bucket[BITS.length][];
+    private final Queue<Timeout> additions = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancellations = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final long startNanos = System.nanoTime();
+
+    private volatile boolean running;
+    private volatile long lagNanos;
+    private Thread worker;
+    private long tick; // 다음에 처리할 틱 (휠 스레드만 접근)
+
+    TimingWheel(String name, Duration tick) {
+        this.name = name;
+        this.tickNanos = Math.max(1, tick.toNanos());
+        for (int level = 0; level < BITS.length; level++) {
+            levels[level] = new Bucket[1 << BITS[level]];
+            for (int slot = 0; slot < levels[level].length; slot++) {
+                levels[level][slot] = new Bucket();
+            }
+        }
+    }
+
+    synchronized void start() {
+        if (worker != null) {
+            return;
+        }
+        running = true;
+        worker = Thread.ofPlatform().name(name).daemon(true).start(this::run);
+    }
+
+    synchronized void stop() {
+        running = false;
+        if (worker != null) {
+            LockSupport.unpark(worker);
+            try {
+                worker.join(Duration.ofSeconds(5).toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            worker = null;
+        }
+    }
+
+    /**
+     * {@code deadlineNanos}(System.nanoTime 기준)가 지나면 휠 스레드에서 {@code task} 를 호출한다.
+     */
+    Timeout schedule(long deadlineNanos, Consumer<Timeout> task) {
+        Timeout timeout = new Timeout(this, deadlineNanos, task);
+        pending.incrementAndGet();
+        additions.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * @return 등록되어 아직 만료/취소되지 않은 타이머 수
+     */
+    int pending() {
+        return pending.get();
+    }
+
+    /**
+     * @return 마지막으로 처리한 틱이 예정 시각보다 늦게 처리된 시간
+     */
+    long lagNanos() {
+        return lagNanos;
+    }
+
+    Duration tickDuration() {
+        return Duration.ofNanos(tickNanos);
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                long target = (System.nanoTime() - startNanos) / tickNanos;
+                drain();
+                while (tick <= target) {
+                    advance(tick);
+                    tick++;
+                }
+                lagNanos = Math.max(0, System.nanoTime() - startNanos - target * tickNanos);
+                drain();
+                LockSupport.parkNanos(startNanos + tick * tickNanos - System.nanoTime());
+            } catch (Throwable e) {
+                log.error("타이밍 휠 처리 중 오류: {}", name, e);
+            }
+        }
+    }
+
+    private void drain() {
+        Timeout timeout;
+        while ((timeout = cancellations.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+        while ((timeout = additions.poll()) != null) {
+            if (timeout.state.get() == Timeout.PENDING) {
+                insert(timeout);
+            }
+        }
+    }
+
+    private void insert(Timeout timeout) {
+        long due = Math.max(timeout.deadlineTick, tick);
+        long delta = due - tick;
+        if (delta >= MAX_SPAN) {
+            // 가장 위 단계보다 먼 타이머는 끝 슬롯에 두었다가 내려올 때 다시 계산한다
+            due = tick + MAX_SPAN - 1;
+            delta = MAX_SPAN - 1;
+        }
+        int level = delta < 1L << SHIFTS[1] ? 0 : delta < 1L << SHIFTS[2] ? 1 : delta < 1L << SHIFTS[3] ? 2 : 3;
+        int slot = (int) ((due >>> SHIFTS[level]) & (levels[level].length - 1));
+        levels[level][slot].add(timeout);
+    }
+
+    private void advance(long t) {
+        // 아래 단계 휠이 한 바퀴 돌았으면 위 단계 슬롯을 내린다
+        for (int level = 1; level < BITS.length; level++) {
+            if ((t & ((1L << SHIFTS[level]) - 1)) != 0) {
+                break;
+            }
+            Bucket bucket = levels[level][(int) ((t >>> SHIFTS[level]) & (levels[level].length - 1))];
+            Timeout timeout;
+            while ((timeout = bucket.poll()) != null) {
+                if (timeout.state.get() == Timeout.PENDING) {
+                    insert(timeout);
+                }
+            }
+        }
+
+        Bucket bucket = levels[0][(int) (t & (levels[0].length - 1))];
+        Timeout timeout;
+        while ((timeout = bucket.poll()) != null) {
+            if (timeout.deadlineTick > t) {
+                insert(timeout);
+            } else {
+                timeout.expire();
+            }
+        }
+    }
+
+    /**
+     * 등록된 타이머. 휠 스레드만 슬롯 연결 필드를 건드린다.
+     */
+    static final class Timeout {
+        private static final int PENDING = 0;
+        private static final int EXPIRED = 1;
+        private static final int CANCELLED = 2;
+
+        private final TimingWheel wheel;
+        private final long deadlineNanos;
+        private final long deadlineTick;
+        private final Consumer<Timeout> task;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+        private Bucket bucket;
+        private Timeout prev;
+        private Timeout next;
+
+        private Timeout(TimingWheel wheel, long deadlineNanos, Consumer<Timeout> task) {
+            this.wheel = wheel;
+            this.deadlineNanos = deadlineNanos;
+            long offset = deadlineNanos - wheel.startNanos;
+            this.deadlineTick = offset <= 0 ? 0 : (offset + wheel.tickNanos - 1) / wheel.tickNanos;
+            this.task = task;
+        }
+
+        long deadlineNanos() {
+            return deadlineNanos;
+        }
+
+        /**
+         * @return 아직 실행되지 않은 타이머를 취소했으면 true
+         */
+        boolean cancel() {
+            if (!state.compareAndSet(PENDING, CANCELLED)) {
+                return false;
+            }
+            wheel.pending.decrementAndGet();
+            wheel.cancellations.add(this);
+            return true;
+        }
+
+        private void expire() {
+            if (!state.compareAndSet(PENDING, EXPIRED)) {
+                return;
+            }
+            wheel.pending.decrementAndGet();
+            try {
+                task.accept(this);
+            } catch (Throwable e) {
+                log.error("타이밍 휠 작업 실패: {}", wheel.name, e);
+            }
+        }
+    }
+
+    private static final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            timeout.prev = tail;
+            timeout.next = null;
+            if (tail == null) {
+                head = timeout;
+            } else {
+                tail.next = timeout;
+            }
+            tail = timeout;
+        }
+
+        void remove(Timeout timeout) {
+            if (timeout.bucket != this) {
+                return;
+            }
+            if (timeout.prev == null) {
+                head = timeout.next;
+            } else {
+                timeout.prev.next = timeout.next;
+            }
+            if (timeout.next == null) {
+                tail = timeout.prev;
+            } else {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.bucket = null;
+            timeout.prev = null;
+            timeout.next = null;
+        }
+
+        Timeout poll() {
+            Timeout timeout = head;
+            if (timeout != null) {
+                remove(timeout);
+            }
+            return timeout;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.ideatec.spring_scheduler.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+import org.quartz.SchedulerConfigException;
+import org.quartz.spi.ThreadPool;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 가상 스레드 기반 Quartz ThreadPool.
+ * <p>
+ * firing 마다 가상 스레드를 하나 만들고, 동시에 실행되는 잡 수는 {@code maxConcurrency}
+ * 세마포어로 제한한다. 잡이 블로킹(HTTP 결과 대기, 파일 I/O)해도 플랫폼 스레드를 점유하지 않는다.
+ * StdSchedulerFactory 가 {@code org.quartz.threadPool.*} 속성을 setter 로 주입한다.
+ */
+@Slf4j
+public class VirtualThreadPool implements ThreadPool {
+    private int maxConcurrency = 1000;
+    private String threadNamePrefix = "quartz-vt-";
+    private String schedulerName;
+
+    private Semaphore permits;
+    private ExecutorService executor;
+    private volatile boolean shutdown;
+
+    public void setMaxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * SchedulerFactoryBean 이 기본값으로 항상 넣는 속성. 가상 스레드 풀은 maxConcurrency 를 사용한다.
+     */
+    public void setThreadCount(int threadCount) {
+    }
+
+    public void setThreadNamePrefix(String threadNamePrefix) {
+        this.threadNamePrefix = threadNamePrefix;
+    }
+
+    @Override
+    public void initialize() throws SchedulerConfigException {
+        if (maxConcurrency <= 0) {
+            throw new SchedulerConfigException("maxConcurrency 는 0보다 커야 합니다: " + maxConcurrency);
+        }
+        permits = new Semaphore(maxConcurrency);
+        executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(threadNamePrefix, 0).factory());
+        log.info("가상 스레드 Quartz ThreadPool 초기화: scheduler={}, maxConcurrency={}", schedulerName, maxConcurrency);
+    }
+
+    @Override
+    public boolean runInThread(Runnable runnable) {
+        if (runnable == null || shutdown) {
+            return false;
+        }
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    runnable.run();
+                } finally {
+                    permits.release();
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            log.warn("가상 스레드 실행 거부 (shutdown 중)");
+            return false;
+        }
+    }
+
+    @Override
+    public int blockForAvailableThreads() {
+        if (shutdown) {
+            return 0;
+        }
+        try {
+            // 최소 1개의 슬롯이 생길 때까지 대기
+            permits.acquire();
+            permits.release();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return permits.availablePermits();
+    }
+
+    @Override
+    public void shutdown(boolean waitForJobsToComplete) {
+        shutdown = true;
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        if (waitForJobsToComplete) {
+            try {
+                while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                    log.info("실행 중인 잡 종료 대기: active={}", getActiveCount());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public int getPoolSize() {
+        return maxConcurrency;
+    }
+
+    public int getActiveCount() {
+        return permits != null ? maxConcurrency - permits.availablePermits() : 0;
+    }
+
+    @Override
+    public void setInstanceId(String schedInstId) {
+    }
+
+    @Override
+    public void setInstanceName(String schedName) {
+        this.schedulerName = schedName;
+    }
+}
@@ -0,0 +1,254 @@
+package com.ideatec.spring_scheduler.scheduler;
+
+import com.ideatec.spring_scheduler.actuator.JobMeters;
+import com.ideatec.spring_scheduler.actuator.JobMetrics;
+import com.ideatec.spring_scheduler.checkpoint.CheckpointStore;
+import com.ideatec.spring_scheduler.config.JobConfig;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Component;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * {@code engine: wheel} 잡을 Quartz 대신 {@link TimingWheel} 로 실행하는 스케줄러.
+ * <p>
+ * 잡마다 JobDetail/Trigger 를 만들거나 firing 마다 JobDataMap 을 다시 조립하지 않고, 실행 계획({@link ExecutionPlan})을 들고 있다가
+ * 휠 스레드에서 바로 Reactor parallel 스케줄러로 실행을 넘긴다. {@code intervalMs} 로 1초 미만 주기를 쓸 수 있고,
+ * 주기 잡은 잡 ID 해시로 시작 위상을 흩어 같은 순간에 몰리지 않게 한다. 다음 실행은 이전 예정 시각 기준(fixed-rate)으로
+ * 잡으며 한 주기 넘게 밀리면 놓친 실행은 건너뛴다. 겹침 정책, 메트릭, 체크포인트는 Quartz 잡과 같다.
+ * 노드 로컬 스케줄러이므로 클러스터 잡 스토어를 쓰더라도 모든 노드에서 실행된다.
+ */
+@Slf4j
+@Component
+public class WheelJobScheduler {
+    private static final ZoneId ZONE = ZoneId.of("Asia/Seoul");
+
+    private final ParallelJobExecutor jobExecutor;
+    private final CheckpointStore checkpointStore;
+    private final JobMetrics jobMetrics;
+    private final ExecutionPlanRegistry planRegistry;
+    private final TimingWheel wheel;
+    private final Map<String, WheelJob> jobs = new HashMap<>();
+
+    public WheelJobScheduler(ParallelJobExecutor jobExecutor, CheckpointStore checkpointStore, JobMetrics jobMetrics,
+                             ExecutionPlanRegistry planRegistry, @Value("${scheduler.wheel.tick-ms:10}") long tickMs) {
+        this.jobExecutor = jobExecutor;
+        this.checkpointStore = checkpointStore;
+        this.jobMetrics = jobMetrics;
+        this.planRegistry = planRegistry;
+        this.wheel = new TimingWheel("timing-wheel", Duration.ofMillis(tickMs));
+        jobMetrics.registerTimingWheel(wheel::pending, wheel::lagNanos);
+    }
+
+    public static boolean isWheelJob(JobConfig.Job job) {
+        return "wheel".equalsIgnoreCase(job.getEngine());
+    }
+
+    /**
+     * 휠 잡 목록을 반영한다. 설정 해시가 바뀐 잡만 다시 등록하고, 빠졌거나 비활성화된 잡은 취소한다.
+     *
+     * @return 추가/갱신/삭제한 잡 수
+     */
+    public synchronized int reconcile(List<JobConfig.Job> wheelJobs, Function<String, String> configHashes) {
+        int changed = 0;
+        Set<String> desired = new HashSet<>();
+        for (JobConfig.Job job : wheelJobs) {
+            boolean enabled = job.getEnabled() == null || job.getEnabled();
+            if (!enabled) {
+                continue;
+            }
+            desired.add(job.getId());
+            String configHash = configHashes.apply(job.getId());
+            WheelJob existing = jobs.get(job.getId());
+            if (existing != null && Objects.equals(existing.configHash, configHash)) {
+                continue;
+            }
+            WheelJob next;
+            try {
+                ExecutionPlan plan = planRegistry.get(job.getId());
+                if (plan == null || !Objects.equals(plan.configHash(), configHash)) {
+                    plan = planRegistry.register(job, configHash);
+                }
+                next = new WheelJob(plan);
+            } catch (RuntimeException e) {
+                log.error("휠 잡 스케줄링 실패: {}", job.getId(), e);
+                continue;
+            }
+            if (existing != null) {
+                existing.cancel();
+            }
+            jobs.put(job.getId(), next);
+            next.start();
+            changed++;
+            log.info("휠 잡 {}: {} ({})", existing == null ? "추가" : "갱신", job.getId(), next.describe());
+        }
+
+        for (WheelJob job : List.copyOf(jobs.values())) {
+            if (!desired.contains(job.job.getId())) {
+                job.cancel();
+                jobs.remove(job.job.getId());
+                changed++;
+                log.info("휠 잡 삭제: {}", job.job.getId());
+            }
+        }
+        if (!jobs.isEmpty()) {
+            wheel.start();
+        }
+        return changed;
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        jobs.values().forEach(WheelJob::cancel);
+        jobs.clear();
+        wheel.stop();
+    }
+
+    private final class WheelJob {
+        private final ExecutionPlan plan;
+        private final JobConfig.Job job;
+        private final String configHash;
+        private final JobMeters meters;
+        private final long intervalNanos;
+        private final CronExpression cron;
+        private volatile TimingWheel.Timeout timeout;
+        private volatile boolean cancelled;
+
+        private WheelJob(ExecutionPlan plan) {
+            this.plan = plan;
+            this.job = plan.job();
+            this.configHash = plan.configHash();
+            this.meters = plan.meters();
+            if (job.getIntervalMs() != null) {
+                if (job.getIntervalMs() <= 0) {
+                    throw new IllegalArgumentException("intervalMs 는 0 보다 커야 합니다: " + job.getIntervalMs());
+                }
+                this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(job.getIntervalMs());
+                this.cron = null;
+            } else if (job.getCron() != null) {
+                this.intervalNanos = 0;
+                this.cron = CronExpression.parse(job.getCron());
+            } else {
+                throw new IllegalArgumentException("휠 잡은 intervalMs 또는 cron 이 필요합니다");
+            }
+        }
+
+        String describe() {
+            return cron != null ? "cron: " + job.getCron() : "intervalMs: " + job.getIntervalMs();
+        }
+
+        void start() {
+            long now = System.nanoTime();
+            if (cron != null) {
+                scheduleNextCron(now);
+            } else {
+                // 같은 주기의 잡들이 같은 틱에 몰리지 않도록 시작 위상을 잡 ID 로 흩는다
+                long phase = Math.floorMod((long) job.getId().hashCode() * 0x9E3779B97F4A7C15L, intervalNanos);
+                schedule(now + phase);
+            }
+        }
+
+        void cancel() {
+            cancelled = true;
+            TimingWheel.Timeout current = timeout;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+
+        private void schedule(long deadlineNanos) {
+            if (!cancelled) {
+                timeout = wheel.schedule(deadlineNanos, this::fire);
+            }
+        }
+
+        private void scheduleNextCron(long nowNanos) {
+            ZonedDateTime next = cron.next(ZonedDateTime.now(ZONE));
+            if (next == null) {
+                log.warn("휠 잡 [{}] 다음 실행 시각이 없어 중지합니다: {}", job.getId(), job.getCron());
+                return;
+            }
+            long delayNanos = TimeUnit.MILLISECONDS.toNanos(next.toInstant().toEpochMilli() - System.currentTimeMillis());
+            schedule(nowNanos + Math.max(0, delayNanos));
+        }
+
+        /**
+         * 휠 스레드에서 호출된다. 다음 실행을 먼저 등록하고 실행은 Reactor 스케줄러로 넘긴다.
+         */
+        private void fire(TimingWheel.Timeout fired) {
+            if (cancelled) {
+                return;
+            }
+            long firedNanos = System.nanoTime();
+            long scheduledNanos = fired.deadlineNanos();
+            meters.record(JobMeters.Phase.SCHEDULING_LAG, firedNanos - scheduledNanos);
+            jobMetrics.recordFirstFire(job.getId());
+
+            if (cron != null) {
+                scheduleNextCron(firedNanos);
+            } else {
+                long next = scheduledNanos + intervalNanos;
+                if (next <= firedNanos) {
+                    // 한 주기 넘게 밀렸으면 놓친 실행은 건너뛰고 다음 주기에 맞춘다
+                    long missed = (firedNanos - next) / intervalNanos + 1;
+                    next += missed * intervalNanos;
+                    jobMetrics.recordJobSkipped(job.getId(), "misfire");
+                }
+                schedule(next);
+            }
+
+            Instant startTime = Instant.now();
+            jobExecutor.execute(plan)
+                    .subscribeOn(Schedulers.parallel())
+                    // 체크포인트 저장은 블로킹일 수 있으므로 이벤트 루프 밖에서 마무리한다
+                    .publishOn(Schedulers.boundedElastic())
+                    .subscribe(report -> completed(report, startTime, firedNanos, scheduledNanos),
+                            error -> failed(error, firedNanos, scheduledNanos));
+        }
+
+        private void completed(ExecutionReport report, Instant startTime, long firedNanos, long scheduledNanos) {
+            if (report.isSkipped()) {
+                log.debug("휠 잡 건너뜀: {} ({})", job.getId(), report.getSkipReason());
+                jobMetrics.recordJobSkipped(job.getId(), report.getSkipReason());
+                return;
+            }
+            if (!report.isSuccess()) {
+                failed(new IllegalStateException(String.format("요청 실패: %d/%d",
+                        report.getFailureCount(), report.getOutcomes().size())), firedNanos, scheduledNanos);
+                return;
+            }
+            long checkpointStart = System.nanoTime();
+            checkpointStore.saveLastSuccess(job.getId(), startTime);
+            meters.record(JobMeters.Phase.CHECKPOINT_WRITE, System.nanoTime() - checkpointStart);
+            meters.recordSuccess();
+            finished(firedNanos, scheduledNanos);
+        }
+
+        private void failed(Throwable error, long firedNanos, long scheduledNanos) {
+            log.error("휠 잡 실행 실패: {} ({})", job.getId(), error.toString());
+            meters.recordFailure();
+            finished(firedNanos, scheduledNanos);
+        }
+
+        private void finished(long firedNanos, long scheduledNanos) {
+            long now = System.nanoTime();
+            meters.recordExecution(now - firedNanos);
+            meters.record(JobMeters.Phase.END_TO_END, now - scheduledNanos);
+        }
+    }
+}
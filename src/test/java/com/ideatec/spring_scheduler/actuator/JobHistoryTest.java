@@ -0,0 +1,103 @@
+package com.ideatec.spring_scheduler.actuator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JobHistoryTest {
+
+    @Test
+    void keepsLatestEntriesAfterWraparound() {
+        JobHistory history = new JobHistory("a", 3);
+        for (int i = 0; i < 5; i++) {
+            JobHistory.Status status = i == 1 ? JobHistory.Status.FAILURE : JobHistory.Status.SUCCESS;
+            history.record(1000 + i, (i + 1) * 1_000_000L, status, i, 10);
+        }
+
+        List<JobHistory.Entry> entries = history.entries(entry -> true, 10);
+
+        assertThat(entries).extracting(JobHistory.Entry::seq).containsExactly(4L, 3L, 2L);
+        assertThat(entries.get(0).startMillis()).isEqualTo(1004);
+        assertThat(entries.get(0).durationMs()).isEqualTo(5.0);
+        assertThat(entries.get(0).retries()).isEqualTo(4);
+        assertThat(history.getRecorded()).isEqualTo(5);
+
+        // 누적 집계는 덮어쓴 항목도 포함한다
+        JobHistory.Totals totals = history.totals();
+        assertThat(totals.runs()).isEqualTo(5);
+        assertThat(totals.failure()).isEqualTo(1);
+        assertThat(totals.retries()).isEqualTo(10);
+        assertThat(totals.bytes()).isEqualTo(50);
+        assertThat(totals.durationMicros()).isEqualTo(15_000);
+        assertThat(totals.maxDurationMicros()).isEqualTo(5_000);
+        assertThat(totals.lastStartMillis()).isEqualTo(1004);
+    }
+
+    @Test
+    void skippedRunsDoNotCountTowardsDuration() {
+        JobHistory history = new JobHistory("a", 4);
+        history.record(1, 9_000_000L, JobHistory.Status.SKIPPED, 0, 0);
+        history.record(2, 2_000_000L, JobHistory.Status.SUCCESS, 0, 0);
+
+        JobHistory.Totals totals = history.totals();
+        assertThat(totals.skipped()).isEqualTo(1);
+        assertThat(totals.maxDurationMicros()).isEqualTo(2_000);
+        assertThat(totals.durationMicros()).isEqualTo(2_000);
+    }
+
+    @Test
+    void readerNeverSeesTornEntries() throws Exception {
+        JobHistory history = new JobHistory("a", 8);
+        int writes = 200_000;
+        // 한 항목의 모든 값을 순번에서 만들어 두면 섞인 항목은 값이 서로 맞지 않는다
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> {
+            for (int i = 0; i < writes; i++) {
+                history.record(i, i * 1000L, JobHistory.Status.SUCCESS, i % 1000, i);
+            }
+        });
+
+        while (!writer.isDone()) {
+            history.entries(entry -> true, 8).forEach(JobHistoryTest::assertConsistent);
+        }
+        writer.get(10, TimeUnit.SECONDS);
+
+        List<JobHistory.Entry> last = history.entries(entry -> true, 8);
+        last.forEach(JobHistoryTest::assertConsistent);
+        assertThat(last).extracting(JobHistory.Entry::seq)
+                .containsExactlyElementsOf(LongStream.iterate(writes - 1, seq -> seq - 1).limit(8).boxed().toList());
+    }
+
+    @Test
+    void concurrentWritersAreAllCounted() throws Exception {
+        JobHistory history = new JobHistory("a", 16);
+        int threads = 4;
+        int writes = 10_000;
+
+        CompletableFuture.allOf(IntStream.range(0, threads)
+                        .mapToObj(t -> CompletableFuture.runAsync(() -> {
+                            for (int i = 0; i < writes; i++) {
+                                history.record(i, 1000, JobHistory.Status.SUCCESS, 1, 1);
+                            }
+                        }))
+                        .toArray(CompletableFuture[]::new))
+                .get(10, TimeUnit.SECONDS);
+
+        assertThat(history.getRecorded()).isEqualTo(threads * writes);
+        assertThat(history.totals().success()).isEqualTo(threads * writes);
+        assertThat(history.totals().retries()).isEqualTo(threads * writes);
+        assertThat(history.entries(entry -> true, 16)).hasSize(16);
+    }
+
+    private static void assertConsistent(JobHistory.Entry entry) {
+        assertThat(entry.startMillis()).isEqualTo(entry.seq());
+        assertThat(entry.bytes()).isEqualTo(entry.seq());
+        assertThat(entry.durationMs()).isEqualTo(entry.seq() / 1000.0);
+        assertThat(entry.retries()).isEqualTo((int) (entry.seq() % 1000));
+    }
+}
@@ -0,0 +1,48 @@
+package com.ideatec.spring_scheduler.actuator;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JobMetricsTest {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final JobMetrics jobMetrics = new JobMetrics(registry);
+
+    @Test
+    void publishesHistogramsOnlyOnAggregateTimers() {
+        JobMeters meters = jobMetrics.meters("a");
+        meters.record(JobMeters.Phase.END_TO_END, 1_000_000);
+        meters.recordRequest(200, 0, 1_000_000);
+
+        Timer perJob = registry.get("job.phase").tag("job_id", "a").tag("phase", "end_to_end").timer();
+        Timer aggregate = registry.get("jobs.phase").tag("phase", "end_to_end").timer();
+        assertThat(perJob.count()).isEqualTo(1);
+        assertThat(aggregate.count()).isEqualTo(1);
+        assertThat(perJob.takeSnapshot().histogramCounts()).isEmpty();
+        assertThat(aggregate.takeSnapshot().histogramCounts()).isNotEmpty();
+        assertThat(registry.get("jobs.http.client.request").tag("status_class", "2xx").tag("retries", "0")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void retainRemovesMetersOfDeletedJobs() {
+        jobMetrics.meters("kept").recordSuccess();
+        jobMetrics.meters("deleted").recordSuccess();
+        jobMetrics.recordJobSkipped("deleted", "overlap");
+        jobMetrics.recordMisfire("deleted");
+
+        jobMetrics.retain(Set.of("kept"));
+
+        assertThat(registry.find("job.success").tag("job_id", "kept").counter()).isNotNull();
+        assertThat(registry.getMeters()).noneMatch(meter -> "deleted".equals(meter.getId().getTag("job_id")));
+        assertThat(registry.find("jobs.phase").timers()).isNotEmpty();
+
+        // 다시 추가된 잡은 새 미터로 기록한다
+        jobMetrics.meters("deleted").recordSuccess();
+        assertThat(registry.get("job.success").tag("job_id", "deleted").counter().count()).isEqualTo(1);
+    }
+}
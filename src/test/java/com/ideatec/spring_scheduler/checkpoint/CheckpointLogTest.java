@@ -0,0 +1,153 @@
+package com.ideatec.spring_scheduler.checkpoint;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CheckpointLogTest {
+    private static final long LARGE_SEGMENT = 16L * 1024 * 1024;
+
+    @TempDir
+    Path dir;
+
+    private final Map<String, Map<String, Object>> index = new ConcurrentHashMap<>();
+
+    @Test
+    void recoversLatestStatePerJob() throws Exception {
+        CheckpointLog log = open(LARGE_SEGMENT, 4);
+        append(log, "job-a", 1);
+        append(log, "job-b", 1);
+        append(log, "job-a", 2);
+        log.close();
+
+        Map<String, Map<String, Object>> state = recover(LARGE_SEGMENT, 4);
+
+        assertThat(state).containsOnlyKeys("job-a", "job-b");
+        assertThat(state.get("job-a")).containsEntry("offset", 2);
+        assertThat(state.get("job-b")).containsEntry("offset", 1);
+    }
+
+    @Test
+    void truncatesTornTailAndKeepsLaterAppends() throws Exception {
+        CheckpointLog log = open(LARGE_SEGMENT, 4);
+        append(log, "job-a", 1);
+        log.close();
+        Path segment = onlySegment();
+        long goodSize = Files.size(segment);
+
+        // 크래시 중 쓰다 만 레코드: 헤더는 100 바이트를 약속하지만 본문은 3 바이트뿐
+        ByteBuffer torn = ByteBuffer.allocate(11).putInt(100).putInt(0).put(new byte[3]).flip();
+        Files.write(segment, torn.array(), StandardOpenOption.APPEND);
+
+        index.clear();
+        log = open(LARGE_SEGMENT, 4);
+        assertThat(index.get("job-a")).containsEntry("offset", 1);
+        assertThat(Files.size(segment)).isEqualTo(goodSize);
+
+        append(log, "job-b", 7);
+        log.close();
+
+        Map<String, Map<String, Object>> state = recover(LARGE_SEGMENT, 4);
+        assertThat(state.get("job-a")).containsEntry("offset", 1);
+        assertThat(state.get("job-b")).containsEntry("offset", 7);
+    }
+
+    @Test
+    void stopsReplayAtChecksumMismatch() throws Exception {
+        CheckpointLog log = open(LARGE_SEGMENT, 4);
+        append(log, "job-a", 1);
+        log.flush().get(5, TimeUnit.SECONDS);
+        long firstRecordEnd = Files.size(onlySegment());
+        append(log, "job-b", 1);
+        log.close();
+
+        Path segment = onlySegment();
+        byte[] bytes = Files.readAllBytes(segment);
+        bytes[bytes.length - 1] ^= 0x5A;
+        Files.write(segment, bytes);
+
+        Map<String, Map<String, Object>> state = recover(LARGE_SEGMENT, 4);
+
+        assertThat(state).containsOnlyKeys("job-a");
+        assertThat(Files.size(segment)).isEqualTo(firstRecordEnd);
+    }
+
+    @Test
+    void compactsClosedSegmentsIntoSnapshot() throws Exception {
+        // 배치마다 세그먼트를 넘기고 두 개가 쌓이면 스냅샷으로 합친다
+        CheckpointLog log = open(1, 2);
+        for (int offset = 1; offset <= 5; offset++) {
+            append(log, "job-a", offset);
+            log.flush().get(5, TimeUnit.SECONDS);
+        }
+        append(log, "job-b", 1);
+        log.close();
+
+        assertThat(dir.resolve("checkpoint-snapshot.smile")).exists();
+        assertThat(segments()).hasSizeLessThanOrEqualTo(2);
+
+        Map<String, Map<String, Object>> state = recover(1, 2);
+        assertThat(state.get("job-a")).containsEntry("offset", 5);
+        assertThat(state.get("job-b")).containsEntry("offset", 1);
+    }
+
+    @Test
+    void refusesSecondWriterOnSameDirectory() throws Exception {
+        CheckpointLog log = open(LARGE_SEGMENT, 4);
+        append(log, "job-a", 1);
+
+        CheckpointLog second = new CheckpointLog(dir, LARGE_SEGMENT, 4, HashMap::new);
+        assertThatThrownBy(second::recover).isInstanceOf(IllegalStateException.class);
+        log.close();
+
+        // 앞 인스턴스가 닫히면 잠금이 풀린다
+        assertThat(recover(LARGE_SEGMENT, 4).get("job-a")).containsEntry("offset", 1);
+    }
+
+    private CheckpointLog open(long segmentMaxBytes, int compactThreshold) throws IOException {
+        CheckpointLog log = new CheckpointLog(dir, segmentMaxBytes, compactThreshold, () -> new HashMap<>(index));
+        index.putAll(log.recover());
+        log.start();
+        return log;
+    }
+
+    private Map<String, Map<String, Object>> recover(long segmentMaxBytes, int compactThreshold) throws IOException {
+        CheckpointLog log = new CheckpointLog(dir, segmentMaxBytes, compactThreshold, HashMap::new);
+        Map<String, Map<String, Object>> state = log.recover();
+        log.start();
+        log.close();
+        return state;
+    }
+
+    private void append(CheckpointLog log, String jobId, int offset) {
+        Map<String, Object> state = Map.of("offset", offset);
+        index.put(jobId, state);
+        log.append(jobId, state);
+    }
+
+    private Path onlySegment() throws IOException {
+        List<Path> segments = segments();
+        assertThat(segments).hasSize(1);
+        return segments.get(0);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".log")).sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.ideatec.spring_scheduler.checkpoint;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JdbcCheckpointBackendTest {
+    private JdbcCheckpointBackend backend;
+
+    @BeforeEach
+    void setUp() {
+        // 테스트마다 새 인메모리 DB (런타임 클래스패스의 H2 드라이버를 URL 로 찾는다)
+        backend = new JdbcCheckpointBackend(new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1"));
+    }
+
+    @Test
+    void putInsertsThenUpdatesRow() {
+        backend.put("a", Map.of("lastSuccess", "2026-01-01T00:00:00Z"));
+        backend.put("a", Map.of("lastSuccess", "2026-01-02T00:00:00Z"));
+
+        assertThat(backend.get("a")).containsEntry("lastSuccess", "2026-01-02T00:00:00Z");
+        assertThat(backend.getAll()).containsOnlyKeys("a");
+        assertThat(backend.get("missing")).isNull();
+    }
+
+    @Test
+    void updateKeepsOtherFieldsUnderRowLock() {
+        CheckpointStore store = new CheckpointStore(backend);
+        store.save("a", Map.of("lastSuccess", "2026-01-01T00:00:00Z"));
+
+        store.saveOffset("a", "3|2");
+        store.saveOffset("b", "c1|0");
+
+        assertThat(store.getOffset("a")).isEqualTo("3|2");
+        assertThat(store.getOffset("b")).isEqualTo("c1|0");
+        assertThat(store.load("a")).containsEntry("lastSuccess", "2026-01-01T00:00:00Z");
+
+        store.saveOffset("a", null);
+        assertThat(store.getOffset("a")).isNull();
+    }
+
+    @Test
+    void concurrentFirstUpdatesRetryOnDuplicateKey() throws Exception {
+        // 두 트랜잭션이 모두 행이 없다고 본 뒤 INSERT 하도록 첫 시도에서만 서로 기다린다
+        CyclicBarrier bothRead = new CyclicBarrier(2);
+        AtomicInteger attempts = new AtomicInteger();
+        Runnable increment = () -> backend.update("a", state -> {
+            if (attempts.incrementAndGet() <= 2) {
+                try {
+                    bothRead.await(5, TimeUnit.SECONDS);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            state.merge("count", 1, (left, right) -> ((Number) left).intValue() + 1);
+        });
+
+        CompletableFuture.allOf(CompletableFuture.runAsync(increment), CompletableFuture.runAsync(increment))
+                .get(10, TimeUnit.SECONDS);
+
+        // 키 중복으로 실패한 쪽은 다시 시도해 잠근 행을 갱신하므로 두 갱신이 모두 남는다
+        assertThat(attempts).hasValue(3);
+        assertThat(backend.get("a")).containsEntry("count", 2);
+    }
+}
@@ -0,0 +1,96 @@
+package com.ideatec.spring_scheduler.client;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdaptiveLimiterTest {
+    private static final Duration MAX_WAIT = Duration.ofSeconds(5);
+
+    @Test
+    void growsLimitWhenHalfUsedAndSuccessful() {
+        AdaptiveLimiter limiter = limiter(2, 10, 10);
+
+        limiter.run(Mono.just("ok"), "job", true).block();
+
+        assertThat(limiter.getLimit()).isEqualTo(3);
+    }
+
+    @Test
+    void shrinksLimitOnUpstreamFailure() {
+        AdaptiveLimiter limiter = limiter(10, 20, 10);
+
+        assertThatThrownBy(() -> limiter.run(Mono.error(new TimeoutException()), "job", true).block())
+                .hasCauseInstanceOf(TimeoutException.class);
+
+        assertThat(limiter.getLimit()).isEqualTo(5);
+    }
+
+    @Test
+    void ignoresLocalFailures() {
+        AdaptiveLimiter limiter = limiter(10, 20, 10);
+
+        assertThatThrownBy(() -> limiter.run(
+                Mono.error(new CircuitOpenException("http://example.com")), "job", true).block())
+                .isInstanceOf(CircuitOpenException.class);
+
+        assertThat(limiter.getLimit()).isEqualTo(10);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void keepsRttBaselinePerRoute() {
+        AdaptiveLimiter limiter = limiter(10, 20, 10);
+
+        limiter.run(Mono.just("fast"), "fast-job", true).block();
+        limiter.run(Mono.delay(Duration.ofMillis(50)), "slow-job", true).block();
+
+        // 느린 잡의 첫 응답은 자기 기준값이 되므로 한도를 줄이지 않는다
+        assertThat(limiter.getLimit()).isEqualTo(10);
+
+        limiter.run(Mono.delay(Duration.ofMillis(50)), "fast-job", true).block();
+
+        assertThat(limiter.getLimit()).isEqualTo(5);
+    }
+
+    @Test
+    void rejectsWhenQueueIsFull() {
+        AdaptiveLimiter limiter = limiter(1, 1, 0);
+        Disposable holder = limiter.run(Mono.never(), "job", true).subscribe();
+
+        assertThatThrownBy(() -> limiter.run(Mono.just("ok"), "job", true).block())
+                .isInstanceOf(ConcurrencyLimitExceededException.class);
+        assertThat(limiter.getRejectedCount()).isEqualTo(1);
+
+        holder.dispose();
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void grantsQueuedRequestWhenPermitIsReleased() throws Exception {
+        AdaptiveLimiter limiter = limiter(1, 1, 1);
+        Disposable holder = limiter.run(Mono.never(), "job", true).subscribe();
+        CompletableFuture<String> queued = limiter.run(Mono.just("ok"), "job", true).toFuture();
+
+        assertThat(limiter.getQueueDepth()).isEqualTo(1);
+        assertThat(queued).isNotDone();
+
+        holder.dispose();
+
+        assertThat(queued.get(1, TimeUnit.SECONDS)).isEqualTo("ok");
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    private static AdaptiveLimiter limiter(int initialLimit, int maxLimit, int maxQueue) {
+        return new AdaptiveLimiter("test", new AdaptiveLimiter.Settings(initialLimit, 1, maxLimit, maxQueue,
+                MAX_WAIT, 0.5, 2.0));
+    }
+}
@@ -0,0 +1,115 @@
+package com.ideatec.spring_scheduler.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CircuitBreakerTest {
+    private static final Duration LONG_OPEN = Duration.ofHours(1);
+
+    @Test
+    void opensWhenFailureRateReachesThreshold() {
+        CircuitBreaker breaker = breaker(LONG_OPEN, 1);
+
+        succeed(breaker);
+        succeed(breaker);
+        fail(breaker);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        fail(breaker);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.isRejecting()).isTrue();
+        assertThatThrownBy(() -> breaker.run(Mono.just("ok")).block())
+                .isInstanceOf(CircuitOpenException.class);
+        assertThat(breaker.getRejectedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void staysClosedBelowMinimumCalls() {
+        CircuitBreaker breaker = breaker(LONG_OPEN, 1);
+
+        fail(breaker);
+        fail(breaker);
+        fail(breaker);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void clientErrorsDoNotCountAsFailures() {
+        CircuitBreaker breaker = breaker(LONG_OPEN, 1);
+        WebClientResponseException notFound = WebClientResponseException.create(404, "Not Found",
+                HttpHeaders.EMPTY, new byte[0], null);
+
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> breaker.run(Mono.error(notFound)).block()).isSameAs(notFound);
+        }
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void halfOpenClosesAfterSuccessfulTrials() {
+        CircuitBreaker breaker = breaker(Duration.ZERO, 2);
+        tripOpen(breaker);
+
+        succeed(breaker);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        succeed(breaker);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void halfOpenReopensOnFailure() {
+        CircuitBreaker breaker = breaker(Duration.ZERO, 2);
+        tripOpen(breaker);
+
+        succeed(breaker);
+        fail(breaker);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void halfOpenLimitsTrialCalls() {
+        CircuitBreaker breaker = breaker(Duration.ZERO, 1);
+        tripOpen(breaker);
+
+        Disposable trial = breaker.run(Mono.never()).subscribe();
+
+        assertThat(breaker.isRejecting()).isTrue();
+        assertThatThrownBy(() -> breaker.run(Mono.just("ok")).block())
+                .isInstanceOf(CircuitOpenException.class);
+        trial.dispose();
+    }
+
+    private static void tripOpen(CircuitBreaker breaker) {
+        for (int i = 0; i < 4; i++) {
+            fail(breaker);
+        }
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    private static void succeed(CircuitBreaker breaker) {
+        assertThat(breaker.run(Mono.just("ok")).block()).isEqualTo("ok");
+    }
+
+    private static void fail(CircuitBreaker breaker) {
+        assertThatThrownBy(() -> breaker.run(Mono.error(new TimeoutException())).block())
+                .hasCauseInstanceOf(TimeoutException.class);
+    }
+
+    private static CircuitBreaker breaker(Duration openDuration, int halfOpenCalls) {
+        return new CircuitBreaker("http://example.com",
+                new CircuitBreaker.Settings(4, 4, 50, openDuration, halfOpenCalls));
+    }
+}
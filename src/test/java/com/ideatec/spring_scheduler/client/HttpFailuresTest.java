@@ -0,0 +1,62 @@
+package com.ideatec.spring_scheduler.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HttpFailuresTest {
+
+    @Test
+    void transportFailuresAreRetryableUpstreamFailures() {
+        Throwable[] failures = {
+                new WebClientRequestException(new ConnectException("refused"), HttpMethod.GET,
+                        URI.create("http://example.com"), new HttpHeaders()),
+                new IOException("reset"),
+                new TimeoutException()
+        };
+        for (Throwable failure : failures) {
+            assertThat(HttpFailures.isRetryable(failure)).as(failure.toString()).isTrue();
+            assertThat(HttpFailures.isUpstreamFailure(failure)).as(failure.toString()).isTrue();
+        }
+    }
+
+    @Test
+    void localAndProgrammingErrorsAreNotRetried() {
+        Throwable[] failures = {
+                new CircuitOpenException("http://example.com"),
+                new UncheckedIOException(new IOException("disk full")),
+                new DecodingException("bad json"),
+                new IllegalStateException("bug"),
+                new NullPointerException()
+        };
+        for (Throwable failure : failures) {
+            assertThat(HttpFailures.isRetryable(failure)).as(failure.toString()).isFalse();
+            assertThat(HttpFailures.isUpstreamFailure(failure)).as(failure.toString()).isFalse();
+        }
+    }
+
+    @Test
+    void classifiesStatusCodes() {
+        assertThat(HttpFailures.isRetryable(status(503))).isTrue();
+        assertThat(HttpFailures.isRetryable(status(425))).isTrue();
+        assertThat(HttpFailures.isRetryable(status(501))).isFalse();
+        assertThat(HttpFailures.isUpstreamFailure(status(501))).isTrue();
+        assertThat(HttpFailures.isRetryable(status(404))).isFalse();
+        assertThat(HttpFailures.isUpstreamFailure(status(404))).isFalse();
+    }
+
+    private static WebClientResponseException status(int code) {
+        return WebClientResponseException.create(code, "status " + code, new HttpHeaders(), new byte[0], null);
+    }
+}
@@ -0,0 +1,90 @@
+package com.ideatec.spring_scheduler.client;
+
+import com.ideatec.spring_scheduler.config.JobConfig;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JobPartitionTest {
+
+    @Test
+    void rangeCoversWholeSpanWithoutGaps() {
+        JobConfig.Job job = job(2, new JobConfig.Job.Partitions("range", 0L, 10L, 3, null));
+
+        List<JobPartition> partitions = JobPartition.plan(job);
+
+        assertThat(partitions).extracting(JobPartition::key).containsExactly("0-3", "3-6", "6-10");
+        assertThat(partitions.get(0).variables()).containsEntry("from", "0").containsEntry("to", "3");
+        assertThat(partitions.get(2).variables()).containsEntry("to", "10");
+    }
+
+    @Test
+    void rangeNeverCreatesEmptySlices() {
+        JobConfig.Job job = job(1, new JobConfig.Job.Partitions("range", 5L, 7L, 10, null));
+
+        assertThat(JobPartition.plan(job)).extracting(JobPartition::key).containsExactly("5-6", "6-7");
+    }
+
+    @Test
+    void defaultCountIsFourPerLane() {
+        JobConfig.Job job = job(3, new JobConfig.Job.Partitions("hash", null, null, null, null));
+
+        List<JobPartition> partitions = JobPartition.plan(job);
+
+        assertThat(partitions).hasSize(12);
+        assertThat(partitions.get(11).key()).isEqualTo("11of12");
+        assertThat(partitions.get(11).variables()).containsEntry("bucket", "11").containsEntry("buckets", "12");
+    }
+
+    @Test
+    void valuesAreSanitizedForKeysButNotForRequests() {
+        JobConfig.Job job = job(1, new JobConfig.Job.Partitions("values", null, null, null, List.of("KR/Seoul", "us")));
+
+        List<JobPartition> partitions = JobPartition.plan(job);
+
+        assertThat(partitions).extracting(JobPartition::key).containsExactly("KR_Seoul", "us");
+        assertThat(partitions.get(0).checkpointKey("sync")).isEqualTo("sync#pKR_Seoul");
+        assertThat(partitions.get(0).resolveUrl("https://api.example.com/{value}/items"))
+                .isEqualTo("https://api.example.com/KR%2FSeoul/items");
+    }
+
+    @Test
+    void appendsQueryParametersWhenUrlHasNoPlaceholder() {
+        JobConfig.Job job = job(1, new JobConfig.Job.Partitions("range", 0L, 100L, 1, null));
+
+        String url = JobPartition.plan(job).get(0).resolveUrl("https://api.example.com/items?size=50");
+
+        assertThat(url).isEqualTo("https://api.example.com/items?size=50&from=0&to=100");
+    }
+
+    @Test
+    void resolvesBodyPlaceholdersAndKeepsUnchangedBody() {
+        JobPartition partition = JobPartition.plan(job(1, new JobConfig.Job.Partitions("hash", null, null, 2, null)))
+                .get(1);
+        byte[] template = "{\"bucket\": {bucket}, \"of\": {buckets}}".getBytes(StandardCharsets.UTF_8);
+        byte[] plain = "{}".getBytes(StandardCharsets.UTF_8);
+
+        assertThat(new String(partition.resolveBody(template), StandardCharsets.UTF_8))
+                .isEqualTo("{\"bucket\": 1, \"of\": 2}");
+        assertThat(partition.resolveBody(plain)).isSameAs(plain);
+    }
+
+    @Test
+    void rejectsInvalidRange() {
+        JobConfig.Job job = job(1, new JobConfig.Job.Partitions("range", 10L, 10L, null, null));
+
+        assertThatThrownBy(() -> JobPartition.plan(job)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static JobConfig.Job job(int parallelism, JobConfig.Job.Partitions partitions) {
+        JobConfig.Job job = new JobConfig.Job();
+        job.setId("sync");
+        job.setParallelism(parallelism);
+        job.setPartitions(partitions);
+        return job;
+    }
+}
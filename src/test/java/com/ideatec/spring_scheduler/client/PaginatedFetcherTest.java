@@ -0,0 +1,138 @@
+package com.ideatec.spring_scheduler.client;
+
+import com.ideatec.spring_scheduler.actuator.JobMetrics;
+import com.ideatec.spring_scheduler.checkpoint.CheckpointStore;
+import com.ideatec.spring_scheduler.config.JobConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PaginatedFetcherTest {
+    private static final Duration MAX_WAIT = Duration.ofSeconds(5);
+
+    @TempDir
+    Path dir;
+
+    private final JobMetrics jobMetrics = new JobMetrics(new SimpleMeterRegistry());
+    private final Queue<String> requested = new ConcurrentLinkedQueue<>();
+    private CheckpointStore checkpointStore;
+
+    @BeforeEach
+    void setUp() {
+        checkpointStore = new CheckpointStore(dir);
+    }
+
+    @AfterEach
+    void close() {
+        checkpointStore.close();
+    }
+
+    @Test
+    void parsesAndFormatsOffset() {
+        assertThat(PaginatedFetcher.Offset.parse(null)).isEqualTo(new PaginatedFetcher.Offset(null, 0));
+        assertThat(PaginatedFetcher.Offset.parse("7|3")).isEqualTo(new PaginatedFetcher.Offset("7", 3));
+        assertThat(PaginatedFetcher.Offset.parse("|4")).isEqualTo(new PaginatedFetcher.Offset(null, 4));
+        assertThat(PaginatedFetcher.Offset.parse("cursor-only")).isEqualTo(new PaginatedFetcher.Offset("cursor-only", 0));
+        // 위치(커서/URL)에 구분자가 들어 있어도 마지막 구분자로 나눈다
+        assertThat(PaginatedFetcher.Offset.parse("a|b|2")).isEqualTo(new PaginatedFetcher.Offset("a|b", 2));
+        assertThat(PaginatedFetcher.Offset.parse("abc|x")).isEqualTo(new PaginatedFetcher.Offset(null, 0));
+
+        assertThat(new PaginatedFetcher.Offset("a|b", 2).toString()).isEqualTo("a|b|2");
+        assertThat(new PaginatedFetcher.Offset(null, 4).toString()).isEqualTo("|4");
+        assertThat(PaginatedFetcher.Offset.parse(new PaginatedFetcher.Offset("https://api/x?c=1", 5).toString()))
+                .isEqualTo(new PaginatedFetcher.Offset("https://api/x?c=1", 5));
+    }
+
+    @Test
+    void pageStyleResumesFromCheckpointAndSkipsSeenRecords() {
+        JobConfig.Job job = job("page", null);
+        job.getPagination().setPageSize(3);
+        job.getPagination().setConcurrency(1);
+        checkpointStore.saveOffset(job.getId(), "3|2");
+
+        RequestResult result = fetcher(Map.of("3", "[1,2,3]", "4", "[4]"), "page").fetch(plan(job)).block(MAX_WAIT);
+
+        assertThat(requested).startsWith("3", "4");
+        assertThat(result.getRecords()).isEqualTo(2);
+        // 마지막 페이지는 다음 실행에서 다시 읽되 처리한 레코드는 건너뛴다
+        assertThat(checkpointStore.getOffset(job.getId())).isEqualTo("4|1");
+    }
+
+    @Test
+    void cursorStyleResumesFromCheckpointCursor() {
+        JobConfig.Job job = job("cursor", "/items");
+        checkpointStore.saveOffset(job.getId(), "c2|0");
+
+        RequestResult result = fetcher(Map.of(
+                "c2", "{\"items\":[\"x\"],\"next_cursor\":\"c3\"}",
+                "c3", "{\"items\":[\"y\"]}"), "cursor").fetch(plan(job)).block(MAX_WAIT);
+
+        assertThat(requested).containsExactly("c2", "c3");
+        assertThat(result.getRecords()).isEqualTo(2);
+        assertThat(checkpointStore.getOffset(job.getId())).isEqualTo("c3|1");
+    }
+
+    @Test
+    void lastCursorPageIsReadAgainWithoutDuplicates() {
+        JobConfig.Job job = job("cursor", "/items");
+        checkpointStore.saveOffset(job.getId(), "c3|1");
+
+        RequestResult result = fetcher(Map.of("c3", "{\"items\":[\"y\"]}"), "cursor").fetch(plan(job)).block(MAX_WAIT);
+
+        assertThat(requested).containsExactly("c3");
+        assertThat(result.getRecords()).isZero();
+        assertThat(checkpointStore.getOffset(job.getId())).isEqualTo("c3|1");
+    }
+
+    /**
+     * 쿼리 파라미터 값(페이지 번호 또는 커서)별 응답을 돌려주는 fetcher. 모르는 값에는 빈 페이지를 준다.
+     */
+    private PaginatedFetcher fetcher(Map<String, String> pages, String param) {
+        ReactiveWebClientClient client = new ReactiveWebClientClient(null, null, null, null, null, null, null, null,
+                null) {
+            @Override
+            public Mono<ResponseEntity<byte[]>> fetch(RequestPlan plan, URI uri, JobPartition partition) {
+                String position = UriComponentsBuilder.fromUri(uri).build().getQueryParams().getFirst(param);
+                requested.add(position);
+                String body = pages.getOrDefault(position, "[]");
+                return Mono.just(ResponseEntity.ok(body.getBytes(StandardCharsets.UTF_8)));
+            }
+        };
+        return new PaginatedFetcher(client, checkpointStore, new ResponseSinkWriter(checkpointStore));
+    }
+
+    private static JobConfig.Job job(String style, String itemsPath) {
+        JobConfig.Job.Request request = new JobConfig.Job.Request();
+        request.setUrl("http://example.com/items");
+        JobConfig.Job.Pagination pagination = new JobConfig.Job.Pagination();
+        pagination.setStyle(style);
+        pagination.setItemsPath(itemsPath);
+        JobConfig.Job job = new JobConfig.Job();
+        job.setId("paged-" + style);
+        job.setMode("paginated");
+        job.setRequest(request);
+        job.setPagination(pagination);
+        return job;
+    }
+
+    private RequestPlan plan(JobConfig.Job job) {
+        return new RequestPlan(job, URI.create(job.getRequest().getUrl()), HttpMethod.GET, false, false,
+                Duration.ofSeconds(5).toNanos(), false, null, null, jobMetrics.meters(job.getId()));
+    }
+}
@@ -0,0 +1,94 @@
+package com.ideatec.spring_scheduler.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestBodyCacheTest {
+    private static final Duration MAX_WAIT = Duration.ofSeconds(5);
+
+    private final RequestBodyCache cache = new RequestBodyCache();
+
+    @TempDir
+    Path dir;
+
+    @AfterEach
+    void close() {
+        cache.close();
+    }
+
+    @Test
+    void concurrentRequestsShareOneCompression() throws Exception {
+        Path file = write("large.json", 'a', Instant.parse("2026-01-01T00:00:00Z"));
+
+        List<RequestBodyCache.RequestBody> bodies = Mono.zip(
+                cache.resolve(file.toString(), true), cache.resolve(file.toString(), true), List::of).block(MAX_WAIT);
+
+        assertThat(bodies.get(0).path()).isEqualTo(bodies.get(1).path()).isNotEqualTo(file);
+        assertThat(bodies.get(0).contentEncoding()).isEqualTo("gzip");
+        assertThat(gunzip(bodies.get(0).path())).isEqualTo(Files.readAllBytes(file));
+        bodies.forEach(RequestBodyCache.RequestBody::release);
+    }
+
+    @Test
+    void replacedCompressionIsKeptUntilRequestReleasesIt() throws Exception {
+        Path file = write("large.json", 'a', Instant.parse("2026-01-01T00:00:00Z"));
+        RequestBodyCache.RequestBody inFlight = cache.resolve(file.toString(), true).block(MAX_WAIT);
+
+        write("large.json", 'b', Instant.parse("2026-01-02T00:00:00Z"));
+        RequestBodyCache.RequestBody next = cache.resolve(file.toString(), true).block(MAX_WAIT);
+
+        // 파일이 바뀌어 새로 압축해도 이전 압축본을 보내는 요청(재시도 포함)은 계속 읽을 수 있어야 한다
+        assertThat(next.path()).isNotEqualTo(inFlight.path());
+        assertThat(inFlight.path()).exists();
+        assertThat(gunzip(inFlight.path())[0]).isEqualTo((byte) 'a');
+
+        inFlight.release();
+        assertThat(inFlight.path()).doesNotExist();
+        assertThat(gunzip(next.path())[0]).isEqualTo((byte) 'b');
+        next.release();
+        assertThat(next.path()).exists();
+    }
+
+    @Test
+    void smallBodyIsServedFromMemory() throws Exception {
+        Path file = dir.resolve("small.json");
+        Files.writeString(file, "{\"id\":1}");
+
+        RequestBodyCache.RequestBody body = cache.resolve(file.toString(), false).block(MAX_WAIT);
+
+        assertThat(body.payload()).isEqualTo(Files.readAllBytes(file));
+        assertThat(body.contentLength()).isEqualTo(Files.size(file));
+        assertThat(body.contentEncoding()).isNull();
+        body.release();
+    }
+
+    private Path write(String name, char fill, Instant modified) throws IOException {
+        byte[] bytes = new byte[(int) RequestBodyCache.MAX_CACHED_BYTES + 1024];
+        Arrays.fill(bytes, (byte) fill);
+        Path file = dir.resolve(name);
+        Files.write(file, bytes);
+        Files.setLastModifiedTime(file, FileTime.from(modified));
+        return file;
+    }
+
+    private static byte[] gunzip(Path path) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(Files.readAllBytes(path)))) {
+            return in.readAllBytes();
+        }
+    }
+}
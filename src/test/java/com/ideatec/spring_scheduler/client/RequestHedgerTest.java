@@ -0,0 +1,153 @@
+package com.ideatec.spring_scheduler.client;
+
+import com.ideatec.spring_scheduler.actuator.JobMetrics;
+import com.ideatec.spring_scheduler.config.JobConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestHedgerTest {
+    private static final Duration MAX_WAIT = Duration.ofSeconds(5);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final JobMetrics jobMetrics = new JobMetrics(registry);
+    private final AtomicInteger sent = new AtomicInteger();
+
+    @Test
+    void doesNotHedgeFastPrimary() {
+        RequestHedger hedger = hedger(20);
+
+        String result = hedger.hedge(plan(50), calls(Mono.just("primary"), Mono.just("hedge"))).block(MAX_WAIT);
+
+        assertThat(result).isEqualTo("primary");
+        assertThat(sent).hasValue(1);
+        assertThat(hedges("sent")).isZero();
+    }
+
+    @Test
+    void hedgeWinsOverSlowPrimary() {
+        RequestHedger hedger = hedger(20);
+
+        String result = hedger.hedge(plan(10), calls(Mono.never(), Mono.just("hedge"))).block(MAX_WAIT);
+
+        assertThat(result).isEqualTo("hedge");
+        assertThat(sent).hasValue(2);
+        assertThat(hedges("sent")).isEqualTo(1);
+        assertThat(hedges("won")).isEqualTo(1);
+    }
+
+    @Test
+    void losingRequestIsNeutralForBreakerAndLimiter() {
+        RequestHedger hedger = hedger(20);
+        CircuitBreaker breaker = breaker();
+        AdaptiveLimiter limiter = limiter();
+
+        for (int i = 0; i < 2; i++) {
+            sent.set(0);
+            Mono<String> call = breaker.run(limiter.run(calls(Mono.never(), Mono.just("hedge")), "job", false));
+            assertThat(hedger.hedge(plan(10), call).block(MAX_WAIT)).isEqualTo("hedge");
+        }
+
+        // 진 요청의 취소가 실패로 세어졌다면 4건 중 2건 실패(50%)로 서킷이 열리고 한도가 줄었을 것이다
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(limiter.getLimit()).isEqualTo(10);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void timeoutCancelStillCountsAsFailure() {
+        RequestHedger hedger = hedger(20);
+        CircuitBreaker breaker = breaker();
+        AdaptiveLimiter limiter = limiter();
+
+        for (int i = 0; i < 2; i++) {
+            sent.set(0);
+            Mono<String> call = breaker.run(limiter.run(calls(Mono.never(), Mono.never()), "job", false));
+            assertThatThrownBy(() -> hedger.hedge(plan(10), call).timeout(Duration.ofMillis(100)).block(MAX_WAIT))
+                    .hasCauseInstanceOf(TimeoutException.class);
+        }
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(limiter.getLimit()).isLessThan(10);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void primaryFailureBeforeDelaySkipsHedge() {
+        RequestHedger hedger = hedger(20);
+        IllegalStateException failure = new IllegalStateException("primary");
+
+        assertThatThrownBy(() -> hedger.hedge(plan(50), calls(Mono.error(failure), Mono.just("hedge"))).block(MAX_WAIT))
+                .isSameAs(failure);
+        assertThat(sent).hasValue(1);
+        assertThat(hedges("sent")).isZero();
+    }
+
+    @Test
+    void returnsFirstFailureWhenAllRequestsFail() {
+        RequestHedger hedger = hedger(20);
+        IllegalStateException primary = new IllegalStateException("primary");
+        IllegalStateException hedge = new IllegalStateException("hedge");
+
+        assertThatThrownBy(() -> hedger.hedge(plan(10), calls(
+                Mono.delay(Duration.ofMillis(100)).then(Mono.error(primary)), Mono.error(hedge))).block(MAX_WAIT))
+                .isSameAs(hedge);
+    }
+
+    @Test
+    void skipsHedgeWhenBudgetIsExhausted() {
+        RequestHedger hedger = hedger(0);
+
+        String result = hedger.hedge(plan(10), calls(
+                Mono.delay(Duration.ofMillis(50)).thenReturn("primary"), Mono.just("hedge"))).block(MAX_WAIT);
+
+        assertThat(result).isEqualTo("primary");
+        assertThat(sent).hasValue(1);
+        assertThat(hedges("budget_exhausted")).isEqualTo(1);
+    }
+
+    /**
+     * 구독할 때마다 다음 응답을 돌려주는 요청.
+     */
+    private Mono<String> calls(Mono<String> primary, Mono<String> hedge) {
+        List<Mono<String>> responses = List.of(primary, hedge);
+        return Mono.defer(() -> responses.get(sent.getAndIncrement()));
+    }
+
+    private RequestHedger hedger(double maxBalance) {
+        return new RequestHedger(jobMetrics, 1.0, 0, maxBalance);
+    }
+
+    private RequestPlan plan(int delayMs) {
+        JobConfig.Job job = new JobConfig.Job();
+        job.setId("hedged");
+        return new RequestPlan(job, URI.create("http://example.com/items"), HttpMethod.GET, false, false,
+                Duration.ofSeconds(5).toNanos(), false, null, new JobConfig.Job.Request.Hedge(delayMs, null, 1),
+                jobMetrics.meters(job.getId()));
+    }
+
+    private double hedges(String result) {
+        Counter counter = registry.find("http.client.hedge").tag("result", result).counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    private static CircuitBreaker breaker() {
+        return new CircuitBreaker("http://example.com",
+                new CircuitBreaker.Settings(4, 4, 50, Duration.ofHours(1), 1));
+    }
+
+    private static AdaptiveLimiter limiter() {
+        return new AdaptiveLimiter("test", new AdaptiveLimiter.Settings(10, 1, 20, 10, MAX_WAIT, 0.5, 2.0));
+    }
+}
@@ -0,0 +1,160 @@
+package com.ideatec.spring_scheduler.client;
+
+import com.ideatec.spring_scheduler.checkpoint.CheckpointStore;
+import com.ideatec.spring_scheduler.config.JobConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ResponseSinkWriterTest {
+    private static final Duration MAX_WAIT = Duration.ofSeconds(5);
+    private static final String KEY = "export#stream-0";
+
+    @TempDir
+    Path dir;
+
+    private final List<ClientRequest> requests = new ArrayList<>();
+    private final Queue<ClientResponse> responses = new ConcurrentLinkedQueue<>();
+    private CheckpointStore checkpointStore;
+    private ResponseSinkWriter writer;
+    private JobConfig.Job job;
+    private Path file;
+
+    @BeforeEach
+    void setUp() {
+        checkpointStore = new CheckpointStore(dir.resolve("state"));
+        writer = new ResponseSinkWriter(checkpointStore);
+        job = new JobConfig.Job();
+        job.setId("export");
+        job.setResponse(new JobConfig.Job.Response("file", dir.resolve("out").toString(), null, 1L, null));
+        file = dir.resolve("out").resolve("export.out");
+    }
+
+    @AfterEach
+    void close() {
+        checkpointStore.close();
+    }
+
+    @Test
+    void resumesWithIfRangeFromCheckpoint() throws Exception {
+        // 이전 응답 "AAA" 뒤에 이번 응답의 앞부분 "hello " 까지 받은 상태
+        partial("AAAhello ", "6|export.out|9|\"v1\"");
+        responses.add(ClientResponse.create(HttpStatus.PARTIAL_CONTENT)
+                .header(HttpHeaders.CONTENT_RANGE, "bytes 6-10/11")
+                .header(HttpHeaders.ETAG, "\"v1\"")
+                .body("world").build());
+
+        RequestResult result = stream();
+
+        assertThat(requests).hasSize(1);
+        HttpHeaders sent = requests.get(0).headers();
+        assertThat(sent.getFirst(HttpHeaders.RANGE)).isEqualTo("bytes=6-");
+        assertThat(sent.getFirst(HttpHeaders.IF_RANGE)).isEqualTo("\"v1\"");
+        assertThat(Files.readString(file)).isEqualTo("AAAhello world");
+        assertThat(result.getBytes()).isEqualTo(11);
+        assertThat(checkpointStore.getOffset(KEY)).isNull();
+    }
+
+    @Test
+    void changedResponseIsWrittenFromResponseStart() throws Exception {
+        partial("AAAhello ", "6|export.out|9|\"v1\"");
+        // If-Range 가 맞지 않으면 서버는 전체 본문을 200 으로 보낸다
+        responses.add(ClientResponse.create(HttpStatus.OK).header(HttpHeaders.ETAG, "\"v2\"").body("HELLO").build());
+
+        stream();
+
+        assertThat(Files.readString(file)).isEqualTo("AAAHELLO");
+    }
+
+    @Test
+    void mismatchedContentRangeRestartsWithoutRange() throws Exception {
+        partial("AAAhello ", "6|export.out|9|\"v1\"");
+        responses.add(ClientResponse.create(HttpStatus.PARTIAL_CONTENT)
+                .header(HttpHeaders.CONTENT_RANGE, "bytes 0-4/5")
+                .body("HELLO").build());
+        responses.add(ClientResponse.create(HttpStatus.OK).body("HELLO").build());
+
+        stream();
+
+        assertThat(requests).hasSize(2);
+        assertThat(requests.get(1).headers().containsKey(HttpHeaders.RANGE)).isFalse();
+        assertThat(requests.get(1).headers().containsKey(HttpHeaders.IF_RANGE)).isFalse();
+        assertThat(Files.readString(file)).isEqualTo("AAAHELLO");
+    }
+
+    @Test
+    void rangeNotSatisfiableRestartsWithoutRange() throws Exception {
+        partial("AAAhello ", "6|export.out|9|\"v1\"");
+        responses.add(ClientResponse.create(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE).build());
+        responses.add(ClientResponse.create(HttpStatus.OK).body("HELLO").build());
+
+        stream();
+
+        assertThat(requests).hasSize(2);
+        assertThat(requests.get(1).headers().containsKey(HttpHeaders.RANGE)).isFalse();
+        assertThat(Files.readString(file)).isEqualTo("AAAHELLO");
+    }
+
+    @Test
+    void checkpointWithoutValidatorIsNotResumed() throws Exception {
+        partial("AAAhello ", "6|export.out|9");
+        responses.add(ClientResponse.create(HttpStatus.OK).body("HELLO").build());
+
+        stream();
+
+        assertThat(requests.get(0).headers().containsKey(HttpHeaders.RANGE)).isFalse();
+        assertThat(Files.readString(file)).isEqualTo("AAAHELLO");
+    }
+
+    @Test
+    void failedStreamSavesProgressWithValidator() {
+        DefaultDataBufferFactory buffers = DefaultDataBufferFactory.sharedInstance;
+        Flux<DataBuffer> body = Flux.concat(
+                Mono.just(buffers.wrap("hello ".getBytes(StandardCharsets.UTF_8))),
+                Mono.error(new IOException("connection reset")));
+        responses.add(ClientResponse.create(HttpStatus.OK).header(HttpHeaders.ETAG, "\"v1\"").body(body).build());
+
+        assertThatThrownBy(this::stream).hasMessageContaining("connection reset");
+
+        assertThat(checkpointStore.getOffset(KEY)).isEqualTo("6|export.out|6|\"v1\"");
+    }
+
+    private void partial(String content, String offset) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+        checkpointStore.saveOffset(KEY, offset);
+    }
+
+    private RequestResult stream() {
+        WebClient client = WebClient.builder()
+                .exchangeFunction(request -> {
+                    requests.add(request);
+                    return Mono.just(responses.remove());
+                })
+                .build();
+        return writer.stream(job, "0", client.get().uri("http://example.com/export")).block(MAX_WAIT);
+    }
+}
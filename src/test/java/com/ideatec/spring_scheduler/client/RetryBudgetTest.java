@@ -0,0 +1,51 @@
+package com.ideatec.spring_scheduler.client;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RetryBudgetTest {
+
+    @Test
+    void startsFullAndDeniesWhenSpent() {
+        RetryBudget budget = new RetryBudget(0.1, 0, 2);
+
+        assertThat(budget.tryAcquireRetry()).isTrue();
+        assertThat(budget.tryAcquireRetry()).isTrue();
+        assertThat(budget.tryAcquireRetry()).isFalse();
+    }
+
+    @Test
+    void accruesRatioPerRequest() {
+        RetryBudget budget = new RetryBudget(0.5, 0, 1);
+        assertThat(budget.tryAcquireRetry()).isTrue();
+
+        budget.onRequest();
+        assertThat(budget.tryAcquireRetry()).isFalse();
+
+        budget.onRequest();
+        assertThat(budget.tryAcquireRetry()).isTrue();
+    }
+
+    @Test
+    void balanceIsCappedAtMaxBalance() {
+        RetryBudget budget = new RetryBudget(1, 0, 3);
+
+        for (int i = 0; i < 10; i++) {
+            budget.onRequest();
+        }
+
+        assertThat(budget.getBalance()).isEqualTo(3);
+    }
+
+    @Test
+    void refillsMinimumPerSecondWithoutTraffic() throws InterruptedException {
+        RetryBudget budget = new RetryBudget(0, 100, 1);
+        assertThat(budget.tryAcquireRetry()).isTrue();
+        assertThat(budget.tryAcquireRetry()).isFalse();
+
+        Thread.sleep(50);
+
+        assertThat(budget.tryAcquireRetry()).isTrue();
+    }
+}
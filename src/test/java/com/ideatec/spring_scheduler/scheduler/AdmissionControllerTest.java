@@ -0,0 +1,164 @@
+package com.ideatec.spring_scheduler.scheduler;
+
+import com.ideatec.spring_scheduler.actuator.JobMetrics;
+import com.ideatec.spring_scheduler.config.JobConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionControllerTest {
+    private static final long LONG_WAIT_MS = 60_000;
+
+    private final Queue<String> started = new ConcurrentLinkedQueue<>();
+
+    @Test
+    void reservesBudgetForCriticalJobs() {
+        AdmissionController admission = admission(2, 1, 10, LONG_WAIT_MS);
+
+        Firing normal = fire(admission, job("a", "normal"));
+        Firing queued = fire(admission, job("b", "normal"));
+        Firing critical = fire(admission, job("c", "critical"));
+
+        assertThat(started).containsExactly("a", "c");
+        assertThat(queued.result).isNotDone();
+        assertThat(admission.getQueueDepth()).isEqualTo(1);
+
+        // 예약분은 critical 이 아니면 쓰지 못하므로 critical 이 끝나야 다음 normal 이 실행된다
+        normal.finish();
+        assertThat(started).containsExactly("a", "c");
+        critical.finish();
+        assertThat(started).containsExactly("a", "c", "b");
+        queued.finish();
+    }
+
+    @Test
+    void grantsQueuedFiringsByPriorityThenArrival() {
+        AdmissionController admission = admission(1, 0, 10, LONG_WAIT_MS);
+
+        Firing running = fire(admission, job("running", "normal"));
+        Firing first = fire(admission, job("first", "normal"));
+        Firing urgent = fire(admission, job("urgent", "high"));
+        Firing second = fire(admission, job("second", "normal"));
+        assertThat(admission.getQueueDepth()).isEqualTo(3);
+
+        running.finish();
+        urgent.finish();
+        first.finish();
+        second.finish();
+
+        assertThat(started).containsExactly("running", "urgent", "first", "second");
+        assertThat(admission.getQueueDepth()).isZero();
+    }
+
+    @Test
+    void shedsLowPriorityWhenBudgetIsFull() throws Exception {
+        AdmissionController admission = admission(1, 0, 10, LONG_WAIT_MS);
+        Firing running = fire(admission, job("running", "normal"));
+
+        Firing low = fire(admission, job("batch", "low"));
+
+        assertThat(low.skipReason()).isEqualTo("shed");
+        assertThat(admission.getQueueDepth()).isZero();
+        running.finish();
+    }
+
+    @Test
+    void evictsLowestPriorityWaiterWhenQueueIsFull() throws Exception {
+        AdmissionController admission = admission(1, 0, 1, LONG_WAIT_MS);
+        Firing running = fire(admission, job("running", "normal"));
+
+        Firing normal = fire(admission, job("normal", "normal"));
+        Firing high = fire(admission, job("high", "high"));
+
+        // 더 높은 우선순위가 들어오면 가장 낮은 우선순위의 마지막 대기자가 밀려난다
+        assertThat(normal.skipReason()).isEqualTo("shed");
+        assertThat(high.result).isNotDone();
+
+        // 새 대기자가 가장 낮으면 자기 자신이 거절된다
+        Firing late = fire(admission, job("late", "normal"));
+        assertThat(late.skipReason()).isEqualTo("queue_full");
+        assertThat(admission.getQueueDepth()).isEqualTo(1);
+
+        running.finish();
+        high.finish();
+        assertThat(started).containsExactly("running", "high");
+    }
+
+    @Test
+    void fullBulkheadDoesNotBlockOtherJobs() {
+        AdmissionController admission = admission(4, 0, 10, LONG_WAIT_MS);
+        admission.configure(List.of(new JobConfig.Bulkhead("slow", 1)));
+
+        Firing slow = fire(admission, job("slow-1", "high", "slow"));
+        Firing blocked = fire(admission, job("slow-2", "high", "slow"));
+        Firing other = fire(admission, job("other", "normal"));
+
+        assertThat(started).containsExactly("slow-1", "other");
+        assertThat(blocked.result).isNotDone();
+
+        slow.finish();
+        assertThat(started).containsExactly("slow-1", "other", "slow-2");
+        blocked.finish();
+        other.finish();
+    }
+
+    @Test
+    void skipsFiringThatWaitsTooLong() throws Exception {
+        AdmissionController admission = admission(1, 0, 10, 50);
+        Firing running = fire(admission, job("running", "normal"));
+
+        Firing waiting = fire(admission, job("waiting", "normal"));
+
+        assertThat(waiting.skipReason()).isEqualTo("admission_timeout");
+        assertThat(admission.getQueueDepth()).isZero();
+        running.finish();
+        assertThat(started).containsExactly("running");
+    }
+
+    private AdmissionController admission(int maxInFlight, int reservedForCritical, int maxQueue, long maxWaitMs) {
+        return new AdmissionController(new JobMetrics(new SimpleMeterRegistry()), true, maxInFlight,
+                reservedForCritical, maxQueue, maxWaitMs, "low");
+    }
+
+    private Firing fire(AdmissionController admission, JobConfig.Job job) {
+        Sinks.One<ExecutionReport> done = Sinks.one();
+        Mono<ExecutionReport> execution = Mono.defer(() -> {
+            started.add(job.getId());
+            return done.asMono();
+        });
+        return new Firing(job.getId(), done, admission.admit(job, execution).toFuture());
+    }
+
+    private static JobConfig.Job job(String id, String priority) {
+        return job(id, priority, null);
+    }
+
+    private static JobConfig.Job job(String id, String priority, String bulkhead) {
+        JobConfig.Job job = new JobConfig.Job();
+        job.setId(id);
+        job.setPriority(priority);
+        job.setBulkhead(bulkhead);
+        return job;
+    }
+
+    private record Firing(String jobId, Sinks.One<ExecutionReport> done, CompletableFuture<ExecutionReport> result) {
+
+        void finish() {
+            done.tryEmitValue(new ExecutionReport(jobId, List.of(), Duration.ZERO));
+        }
+
+        String skipReason() throws Exception {
+            return result.get(5, TimeUnit.SECONDS).getSkipReason();
+        }
+    }
+}
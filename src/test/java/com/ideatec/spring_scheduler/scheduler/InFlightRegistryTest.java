@@ -0,0 +1,139 @@
+package com.ideatec.spring_scheduler.scheduler;
+
+import com.ideatec.spring_scheduler.actuator.JobMetrics;
+import com.ideatec.spring_scheduler.config.JobConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InFlightRegistryTest {
+    private final InFlightRegistry registry = new InFlightRegistry(new JobMetrics(new SimpleMeterRegistry()), "allow");
+    private final Queue<String> started = new ConcurrentLinkedQueue<>();
+
+    @Test
+    void defaultPolicyAllowsOverlap() {
+        JobConfig.Job job = job("a", null, "http://example.com/a");
+
+        Firing first = fire(job);
+        Firing second = fire(job);
+
+        assertThat(started).containsExactly("a", "a");
+        first.finish();
+        second.finish();
+    }
+
+    @Test
+    void queueOneRunsOneWaiterAfterRunningFiringFinishes() throws Exception {
+        JobConfig.Job job = job("a", "queue-one", "http://example.com/a");
+
+        Firing running = fire(job);
+        Firing queued = fire(job);
+        Firing extra = fire(job);
+
+        assertThat(started).containsExactly("a");
+        assertThat(extra.report().getSkipReason()).isEqualTo("overlap");
+        assertThat(queued.result).isNotDone();
+
+        // 대기하던 firing 은 이전 실행이 끝나면 새로 실행된다 (이전 결과를 받지 않는다)
+        running.finish();
+        assertThat(started).containsExactly("a", "a");
+        assertThat(queued.result).isNotDone();
+
+        // 재진입한 실행이 돌고 있으면 다음 firing 이 다시 대기할 수 있다
+        Firing next = fire(job);
+        assertThat(next.result).isNotDone();
+        queued.finish();
+        assertThat(queued.report().isSkipped()).isFalse();
+        assertThat(started).hasSize(3);
+        next.finish();
+        assertThat(next.report().isSkipped()).isFalse();
+    }
+
+    @Test
+    void coalescesSameRequestFromAnotherJob() throws Exception {
+        JobConfig.Job first = job("a", "coalesce", "http://example.com/shared");
+        JobConfig.Job second = job("b", "coalesce", "http://example.com/shared");
+
+        Firing running = fire(first);
+        Firing joined = fire(second);
+
+        assertThat(started).containsExactly("a");
+        running.finish();
+
+        ExecutionReport report = joined.report();
+        assertThat(report.getJobId()).isEqualTo("b");
+        assertThat(report.isCoalesced()).isTrue();
+    }
+
+    @Test
+    void checkpointedJobsCoalesceOnlyWithThemselves() throws Exception {
+        JobConfig.Job first = job("a", "coalesce", "http://example.com/shared");
+        JobConfig.Job second = job("b", "coalesce", "http://example.com/shared");
+        for (JobConfig.Job job : List.of(first, second)) {
+            job.setMode("paginated");
+            job.setPagination(new JobConfig.Job.Pagination());
+        }
+
+        Firing a = fire(first);
+        Firing b = fire(second);
+        Firing again = fire(first);
+
+        // 페이지 offset 은 잡마다 따로 저장되므로 다른 잡의 결과를 받으면 b 의 위치가 앞으로 가지 않는다
+        assertThat(started).containsExactly("a", "b");
+        a.finish();
+        b.finish();
+        assertThat(again.report().isCoalesced()).isTrue();
+    }
+
+    private Firing fire(JobConfig.Job job) {
+        List<Sinks.One<ExecutionReport>> sinks = new CopyOnWriteArrayList<>();
+        Mono<ExecutionReport> execution = Mono.defer(() -> {
+            started.add(job.getId());
+            Sinks.One<ExecutionReport> done = Sinks.one();
+            sinks.add(done);
+            return done.asMono();
+        });
+        return new Firing(job.getId(), sinks, registry.run(job, execution).toFuture());
+    }
+
+    private static JobConfig.Job job(String id, String overlap, String url) {
+        JobConfig.Job.Request request = new JobConfig.Job.Request();
+        request.setMethod("GET");
+        request.setUrl(url);
+        JobConfig.Job job = new JobConfig.Job();
+        job.setId(id);
+        job.setOverlap(overlap);
+        job.setRequest(request);
+        return job;
+    }
+
+    private static ExecutionReport report(String jobId) {
+        return new ExecutionReport(jobId, List.of(), Duration.ZERO);
+    }
+
+    /**
+     * @param sinks 이 firing 이 시작한 실행의 완료 신호 (queue-one 으로 재진입하기 전에는 비어 있다)
+     */
+    private record Firing(String jobId, List<Sinks.One<ExecutionReport>> sinks,
+                          CompletableFuture<ExecutionReport> result) {
+
+        void finish() {
+            sinks.get(sinks.size() - 1).tryEmitValue(report(jobId));
+        }
+
+        ExecutionReport report() throws Exception {
+            return result.get(5, TimeUnit.SECONDS);
+        }
+    }
+}
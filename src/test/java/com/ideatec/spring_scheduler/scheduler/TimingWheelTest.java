@@ -0,0 +1,143 @@
+package com.ideatec.spring_scheduler.scheduler;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+    private static final long MAX_WAIT_SECONDS = 5;
+
+    private TimingWheel wheel;
+
+    @AfterEach
+    void stopWheel() {
+        if (wheel != null) {
+            wheel.stop();
+        }
+    }
+
+    @Test
+    void firesPastDeadlineImmediately() throws Exception {
+        wheel = start(Duration.ofMillis(1));
+        CountDownLatch fired = new CountDownLatch(1);
+
+        wheel.schedule(System.nanoTime() - TimeUnit.SECONDS.toNanos(1), timeout -> fired.countDown());
+
+        assertThat(fired.await(MAX_WAIT_SECONDS, TimeUnit.SECONDS)).isTrue();
+        assertThat(wheel.pending()).isZero();
+    }
+
+    @Test
+    void cascadesFarTimersWithoutFiringEarly() throws Exception {
+        // 10µs 틱: 5ms 는 2단계(256틱 이상), 200ms 는 3단계(16384틱 이상) 슬롯에서 내려와야 한다
+        wheel = start(Duration.ofNanos(10_000));
+        long now = System.nanoTime();
+        List<Long> deadlines = List.of(now + ms(200), now + ms(1), now + ms(5));
+        Map<Long, Long> firedAt = new ConcurrentHashMap<>();
+        Queue<Long> order = new ConcurrentLinkedQueue<>();
+        CountDownLatch fired = new CountDownLatch(deadlines.size());
+
+        for (long deadline : deadlines) {
+            wheel.schedule(deadline, timeout -> {
+                firedAt.put(timeout.deadlineNanos(), System.nanoTime());
+                order.add(timeout.deadlineNanos());
+                fired.countDown();
+            });
+        }
+
+        assertThat(fired.await(MAX_WAIT_SECONDS, TimeUnit.SECONDS)).isTrue();
+        assertThat(order).containsExactly(now + ms(1), now + ms(5), now + ms(200));
+        for (long deadline : deadlines) {
+            assertThat(firedAt.get(deadline)).isGreaterThanOrEqualTo(deadline);
+        }
+        assertThat(wheel.pending()).isZero();
+    }
+
+    @Test
+    void cancelledTimerNeverRuns() throws Exception {
+        wheel = start(Duration.ofMillis(1));
+        CountDownLatch cancelledRan = new CountDownLatch(1);
+        CountDownLatch laterRan = new CountDownLatch(1);
+
+        TimingWheel.Timeout cancelled = wheel.schedule(System.nanoTime() + ms(20), timeout -> cancelledRan.countDown());
+        wheel.schedule(System.nanoTime() + ms(60), timeout -> laterRan.countDown());
+
+        assertThat(cancelled.cancel()).isTrue();
+        assertThat(cancelled.cancel()).isFalse();
+        assertThat(wheel.pending()).isEqualTo(1);
+
+        assertThat(laterRan.await(MAX_WAIT_SECONDS, TimeUnit.SECONDS)).isTrue();
+        assertThat(cancelledRan.getCount()).isEqualTo(1);
+        assertThat(wheel.pending()).isZero();
+    }
+
+    @Test
+    void cancelUnlinksOnlyThatTimerFromItsSlot() throws Exception {
+        wheel = start(Duration.ofMillis(1));
+        long deadline = System.nanoTime() + ms(100);
+        Queue<String> ran = new ConcurrentLinkedQueue<>();
+        CountDownLatch fired = new CountDownLatch(2);
+
+        wheel.schedule(deadline, timeout -> record(ran, "first", fired));
+        TimingWheel.Timeout middle = wheel.schedule(deadline, timeout -> record(ran, "middle", fired));
+        wheel.schedule(deadline, timeout -> record(ran, "last", fired));
+
+        // 휠 스레드가 세 타이머를 같은 슬롯에 넣은 뒤 가운데 것을 뗀다
+        Thread.sleep(30);
+        assertThat(middle.cancel()).isTrue();
+
+        assertThat(fired.await(MAX_WAIT_SECONDS, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(20);
+        assertThat(ran).containsExactly("first", "last");
+    }
+
+    @Test
+    void cancelAfterExpiryReturnsFalse() throws Exception {
+        wheel = start(Duration.ofMillis(1));
+        CountDownLatch fired = new CountDownLatch(1);
+
+        TimingWheel.Timeout timeout = wheel.schedule(System.nanoTime(), t -> fired.countDown());
+
+        assertThat(fired.await(MAX_WAIT_SECONDS, TimeUnit.SECONDS)).isTrue();
+        assertThat(timeout.cancel()).isFalse();
+        assertThat(wheel.pending()).isZero();
+    }
+
+    @Test
+    void failingTaskDoesNotStopTheWheel() throws Exception {
+        wheel = start(Duration.ofMillis(1));
+        CountDownLatch fired = new CountDownLatch(1);
+
+        wheel.schedule(System.nanoTime(), timeout -> {
+            throw new IllegalStateException("boom");
+        });
+        wheel.schedule(System.nanoTime() + ms(10), timeout -> fired.countDown());
+
+        assertThat(fired.await(MAX_WAIT_SECONDS, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private static TimingWheel start(Duration tick) {
+        TimingWheel wheel = new TimingWheel("test-wheel", tick);
+        wheel.start();
+        return wheel;
+    }
+
+    private static void record(Queue<String> ran, String name, CountDownLatch fired) {
+        ran.add(name);
+        fired.countDown();
+    }
+
+    private static long ms(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}